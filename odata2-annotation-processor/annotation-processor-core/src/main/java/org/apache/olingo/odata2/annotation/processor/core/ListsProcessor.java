@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -31,10 +32,12 @@ import java.util.Map;
 
 import org.apache.olingo.odata2.annotation.processor.core.datasource.DataSource;
 import org.apache.olingo.odata2.annotation.processor.core.datasource.DataSource.BinaryData;
+import org.apache.olingo.odata2.annotation.processor.core.datasource.IndexedDataSource;
 import org.apache.olingo.odata2.annotation.processor.core.datasource.ValueAccess;
 import org.apache.olingo.odata2.api.ODataCallback;
+import org.apache.olingo.odata2.api.batch.AbstractBatchHandler;
 import org.apache.olingo.odata2.api.batch.BatchHandler;
-import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.commons.HttpContentType;
 import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
@@ -87,6 +90,7 @@ import org.apache.olingo.odata2.api.uri.NavigationSegment;
 import org.apache.olingo.odata2.api.uri.PathInfo;
 import org.apache.olingo.odata2.api.uri.UriParser;
 import org.apache.olingo.odata2.api.uri.expression.BinaryExpression;
+import org.apache.olingo.odata2.api.uri.expression.BinaryOperator;
 import org.apache.olingo.odata2.api.uri.expression.CommonExpression;
 import org.apache.olingo.odata2.api.uri.expression.ExpressionKind;
 import org.apache.olingo.odata2.api.uri.expression.FilterExpression;
@@ -134,12 +138,13 @@ public class ListsProcessor extends DataSourceProcessor {
       throws ODataException {
     ArrayList<Object> data = new ArrayList<Object>();
     try {
-      data.addAll((List<?>) retrieveData(
+      data.addAll(retrieveData(
           uriInfo.getStartEntitySet(),
           uriInfo.getKeyPredicates(),
           uriInfo.getFunctionImport(),
           mapFunctionParameters(uriInfo.getFunctionImportParameters()),
-          uriInfo.getNavigationSegments()));
+          uriInfo.getNavigationSegments(),
+          uriInfo.getFilter()));
     } catch (final ODataNotFoundException e) {
       data.clear();
     }
@@ -149,6 +154,8 @@ public class ListsProcessor extends DataSourceProcessor {
     final Integer count = applySystemQueryOptions(
         entitySet,
         data,
+        isCompleteEntitySet(uriInfo.getKeyPredicates(), uriInfo.getFunctionImport(),
+            uriInfo.getNavigationSegments(), uriInfo.getFilter()),
         uriInfo.getFilter(),
         inlineCountType,
         uriInfo.getOrderBy(),
@@ -220,12 +227,13 @@ public class ListsProcessor extends DataSourceProcessor {
       throws ODataException {
     ArrayList<Object> data = new ArrayList<Object>();
     try {
-      data.addAll((List<?>) retrieveData(
+      data.addAll(retrieveData(
           uriInfo.getStartEntitySet(),
           uriInfo.getKeyPredicates(),
           uriInfo.getFunctionImport(),
           mapFunctionParameters(uriInfo.getFunctionImportParameters()),
-          uriInfo.getNavigationSegments()));
+          uriInfo.getNavigationSegments(),
+          uriInfo.getFilter()));
     } catch (final ODataNotFoundException e) {
       data.clear();
     }
@@ -233,6 +241,7 @@ public class ListsProcessor extends DataSourceProcessor {
     applySystemQueryOptions(
         uriInfo.getTargetEntitySet(),
         data,
+        false,
         uriInfo.getFilter(),
         null,
         null,
@@ -248,12 +257,13 @@ public class ListsProcessor extends DataSourceProcessor {
       throws ODataException {
     ArrayList<Object> data = new ArrayList<Object>();
     try {
-      data.addAll((List<?>) retrieveData(
+      data.addAll(retrieveData(
           uriInfo.getStartEntitySet(),
           uriInfo.getKeyPredicates(),
           uriInfo.getFunctionImport(),
           mapFunctionParameters(uriInfo.getFunctionImportParameters()),
-          uriInfo.getNavigationSegments()));
+          uriInfo.getNavigationSegments(),
+          uriInfo.getFilter()));
     } catch (final ODataNotFoundException e) {
       data.clear();
     }
@@ -261,6 +271,7 @@ public class ListsProcessor extends DataSourceProcessor {
     final Integer count = applySystemQueryOptions(
         uriInfo.getTargetEntitySet(),
         data,
+        false,
         uriInfo.getFilter(),
         uriInfo.getInlineCount(),
         null, // uriInfo.getOrderBy(),
@@ -417,6 +428,7 @@ public class ListsProcessor extends DataSourceProcessor {
     final ODataEntry entryValues = parseEntry(entitySet, content, requestContentType, properties);
 
     setStructuralTypeValuesFromMap(data, entityType, entryValues.getProperties(), merge);
+    updateIndexes(entitySet, data);
 
     return ODataResponse.newBuilder().eTag(constructETag(entitySet, data)).build();
   }
@@ -628,9 +640,11 @@ public class ListsProcessor extends DataSourceProcessor {
     final List<EdmProperty> propertyPath = uriInfo.getPropertyPath();
     final EdmProperty property = propertyPath.get(propertyPath.size() - 1);
 
+    final Object entity = data;
     data = getPropertyValue(data, propertyPath.subList(0, propertyPath.size() - 1));
     valueAccess.setPropertyValue(data, property, null);
     valueAccess.setMappingValue(data, property.getMapping(), null);
+    updateIndexes(uriInfo.getTargetEntitySet(), entity);
 
     return ODataResponse.newBuilder().build();
   }
@@ -652,6 +666,7 @@ public class ListsProcessor extends DataSourceProcessor {
     final List<EdmProperty> propertyPath = uriInfo.getPropertyPath();
     final EdmProperty property = propertyPath.get(propertyPath.size() - 1);
 
+    final Object entity = data;
     data = getPropertyValue(data, propertyPath.subList(0, propertyPath.size() - 1));
 
     ODataContext context = getContext();
@@ -677,6 +692,7 @@ public class ListsProcessor extends DataSourceProcessor {
       setStructuralTypeValuesFromMap(valueAccess.getPropertyValue(data, property),
           (EdmStructuralType) property.getType(), propertyValue, merge);
     }
+    updateIndexes(uriInfo.getTargetEntitySet(), entity);
 
     return ODataResponse.newBuilder().eTag(constructETag(uriInfo.getTargetEntitySet(), data)).build();
   }
@@ -704,6 +720,7 @@ public class ListsProcessor extends DataSourceProcessor {
     final List<EdmProperty> propertyPath = uriInfo.getPropertyPath();
     final EdmProperty property = propertyPath.get(propertyPath.size() - 1);
 
+    final Object entity = data;
     data = getPropertyValue(data, propertyPath.subList(0, propertyPath.size() - 1));
 
     ODataContext context = getContext();
@@ -720,6 +737,7 @@ public class ListsProcessor extends DataSourceProcessor {
 
     valueAccess.setPropertyValue(data, property, value);
     valueAccess.setMappingValue(data, property.getMapping(), requestContentType);
+    updateIndexes(uriInfo.getTargetEntitySet(), entity);
 
     return ODataResponse.newBuilder().eTag(constructETag(uriInfo.getTargetEntitySet(), data)).build();
   }
@@ -892,6 +910,132 @@ public class ListsProcessor extends DataSourceProcessor {
     }
   }
 
+  /**
+   * Retrieves the data list for an entity-set request. If the entity set is addressed directly
+   * and the data source maintains an index usable for the <code>filter</code>, only the
+   * candidates found in the index are read; the filter has to be applied to them nevertheless.
+   */
+  private List<?> retrieveData(final EdmEntitySet startEntitySet, final List<KeyPredicate> keyPredicates,
+      final EdmFunctionImport functionImport, final Map<String, Object> functionImportParameters,
+      final List<NavigationSegment> navigationSegments, final FilterExpression filter) throws ODataException {
+    if (filter != null && isCompleteEntitySet(keyPredicates, functionImport, navigationSegments, null)
+        && dataSource instanceof IndexedDataSource) {
+      ODataContext context = getContext();
+      final int timingHandle = context.startRuntimeMeasurement(getClass().getSimpleName(), "readIndexedData");
+      try {
+        final List<?> data = readIndexedData(startEntitySet, filter.getExpression());
+        if (data != null) {
+          return data;
+        }
+      } finally {
+        context.stopRuntimeMeasurement(timingHandle);
+      }
+    }
+    return (List<?>) retrieveData(startEntitySet, keyPredicates, functionImport, functionImportParameters,
+        navigationSegments);
+  }
+
+  /**
+   * Reads the candidates for a filter expression from the indexes of the data source.
+   * Only comparisons of a property with a literal are supported (for <code>and</code> the first
+   * supported operand is used), and only for property types where the comparison of the values
+   * is consistent with the comparison of their string representations done in
+   * {@link #evaluateExpression(Object, CommonExpression)}.
+   * @return the candidates or <code>null</code> if no index can be used
+   */
+  private List<?> readIndexedData(final EdmEntitySet entitySet, final CommonExpression expression)
+      throws ODataException {
+    if (expression.getKind() != ExpressionKind.BINARY) {
+      return null;
+    }
+    final BinaryExpression binaryExpression = (BinaryExpression) expression;
+    final BinaryOperator operator = binaryExpression.getOperator();
+    if (operator == BinaryOperator.AND) {
+      final List<?> data = readIndexedData(entitySet, binaryExpression.getLeftOperand());
+      return data == null ? readIndexedData(entitySet, binaryExpression.getRightOperand()) : data;
+    }
+
+    final boolean swapped = binaryExpression.getLeftOperand().getKind() == ExpressionKind.LITERAL;
+    final CommonExpression propertyOperand =
+        swapped ? binaryExpression.getRightOperand() : binaryExpression.getLeftOperand();
+    final CommonExpression literalOperand =
+        swapped ? binaryExpression.getLeftOperand() : binaryExpression.getRightOperand();
+    if (propertyOperand.getKind() != ExpressionKind.PROPERTY || literalOperand.getKind() != ExpressionKind.LITERAL
+        || !(((PropertyExpression) propertyOperand).getEdmProperty() instanceof EdmProperty)) {
+      return null;
+    }
+    final EdmProperty property = (EdmProperty) ((PropertyExpression) propertyOperand).getEdmProperty();
+    final EdmType type = property.getType();
+    final boolean comparedAsString = isComparedAsString(binaryExpression.getLeftOperand().getEdmType());
+
+    String value;
+    try {
+      value = evaluateExpression(null, literalOperand);
+    } catch (final EdmSimpleTypeException e) {
+      return null;
+    }
+
+    final IndexedDataSource indexedDataSource = (IndexedDataSource) dataSource;
+    switch (operator) {
+    case EQ:
+      return type == EdmSimpleTypeKind.String.getEdmSimpleTypeInstance() || isIntegerType(type)
+          || type == EdmSimpleTypeKind.Boolean.getEdmSimpleTypeInstance() ?
+          indexedDataSource.readData(entitySet, property, value) : null;
+    case LT:
+    case LE:
+    case GT:
+    case GE:
+      if ((type == EdmSimpleTypeKind.String.getEdmSimpleTypeInstance() && comparedAsString)
+          || (isIntegerType(type) && !comparedAsString)) {
+        // The bounds are always inclusive; for integer types compared as double values this gives a superset.
+        final boolean upperBound = (operator == BinaryOperator.LT || operator == BinaryOperator.LE) != swapped;
+        return upperBound ?
+            indexedDataSource.readData(entitySet, property, null, value) :
+            indexedDataSource.readData(entitySet, property, value, null);
+      }
+      return null;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Checks whether the request addresses an entity set directly and without filter, so that
+   * the retrieved data are all data objects of the entity set.
+   */
+  private static boolean isCompleteEntitySet(final List<KeyPredicate> keyPredicates,
+      final EdmFunctionImport functionImport, final List<NavigationSegment> navigationSegments,
+      final FilterExpression filter) {
+    return filter == null && functionImport == null
+        && (keyPredicates == null || keyPredicates.isEmpty())
+        && (navigationSegments == null || navigationSegments.isEmpty());
+  }
+
+  private static boolean isComparedAsString(final EdmType type) {
+    return type == EdmSimpleTypeKind.String.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.Guid.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.Time.getEdmSimpleTypeInstance();
+  }
+
+  private static boolean isIntegerType(final EdmType type) {
+    return type == EdmSimpleTypeKind.Byte.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.SByte.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.Int16.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance()
+        || type == EdmSimpleTypeKind.Int64.getEdmSimpleTypeInstance();
+  }
+
+  /**
+   * Informs an {@link IndexedDataSource} about the in-place change of a data object.
+   */
+  private void updateIndexes(final EdmEntitySet entitySet, final Object data) throws ODataException {
+    if (dataSource instanceof IndexedDataSource) {
+      ((IndexedDataSource) dataSource).updateData(entitySet, data);
+    }
+  }
+
   private Object retrieveData(final EdmEntitySet startEntitySet, final List<KeyPredicate> keyPredicates,
       final EdmFunctionImport functionImport, final Map<String, Object> functionImportParameters,
       final List<NavigationSegment> navigationSegments) throws ODataException {
@@ -1168,8 +1312,9 @@ public class ListsProcessor extends DataSourceProcessor {
   }
 
   private <T> Integer applySystemQueryOptions(final EdmEntitySet entitySet, final List<T> data,
-      final FilterExpression filter, final InlineCount inlineCount, final OrderByExpression orderBy,
-      final String skipToken, final Integer skip, final Integer top) throws ODataException {
+      final boolean completeEntitySet, final FilterExpression filter, final InlineCount inlineCount,
+      final OrderByExpression orderBy, final String skipToken, final Integer skip, final Integer top)
+      throws ODataException {
     ODataContext context = getContext();
     final int timingHandle = context.startRuntimeMeasurement(getClass().getSimpleName(), "applySystemQueryOptions");
 
@@ -1186,7 +1331,10 @@ public class ListsProcessor extends DataSourceProcessor {
     final Integer count = inlineCount == InlineCount.ALLPAGES ? data.size() : null;
 
     if (orderBy != null) {
-      sort(data, orderBy);
+      // the index holds all data objects, so it is only worth reading if no data object has been left out
+      if (!completeEntitySet || !orderByIndex(entitySet, data, orderBy)) {
+        sort(data, orderBy);
+      }
     } else if (skipToken != null || skip != null || top != null) {
       sortInDefaultOrder(entitySet, data);
     }
@@ -1252,6 +1400,67 @@ public class ListsProcessor extends DataSourceProcessor {
     });
   }
 
+  /**
+   * Brings the data into the order of a sorted index of the data source, if there is one for the
+   * only order expression and the order of its values is the order of their string representations.
+   * If the index misses a data object with value, e.g., because it has been changed in place
+   * without {@link IndexedDataSource#updateData(EdmEntitySet, Object)}, the data are left unchanged.
+   * @return <code>true</code> if the data are sorted, <code>false</code> if they still have to be sorted
+   */
+  @SuppressWarnings("unchecked")
+  private <T> boolean orderByIndex(final EdmEntitySet entitySet, final List<T> data,
+      final OrderByExpression orderBy) throws ODataException {
+    if (!(dataSource instanceof IndexedDataSource) || orderBy.getOrders().size() != 1) {
+      return false;
+    }
+    final OrderExpression order = orderBy.getOrders().get(0);
+    if (order.getExpression().getKind() != ExpressionKind.PROPERTY) {
+      return false;
+    }
+    final EdmTyped property = ((PropertyExpression) order.getExpression()).getEdmProperty();
+    if (!(property instanceof EdmProperty)
+        || property.getType() != EdmSimpleTypeKind.String.getEdmSimpleTypeInstance()) {
+      return false;
+    }
+    final List<?> ordered = ((IndexedDataSource) dataSource).readData(entitySet, (EdmProperty) property, null, null);
+    if (ordered == null) {
+      return false;
+    }
+
+    Map<Object, Boolean> remaining = new IdentityHashMap<Object, Boolean>(data.size());
+    for (final T entity : data) {
+      remaining.put(entity, Boolean.TRUE);
+    }
+    if (remaining.size() != data.size()) {
+      return false;
+    }
+    List<T> result = new ArrayList<T>(data.size());
+    for (final Object entity : ordered) {
+      if (remaining.remove(entity) != null) {
+        result.add((T) entity);
+      }
+    }
+    // Data objects without value are sorted last (in ascending order).
+    List<T> withoutValue = new ArrayList<T>(remaining.size());
+    for (final T entity : data) {
+      if (remaining.containsKey(entity)) {
+        if (valueAccess.getPropertyValue(entity, (EdmProperty) property) != null) {
+          return false;
+        }
+        withoutValue.add(entity);
+      }
+    }
+    if (order.getSortOrder() == SortOrder.desc) {
+      Collections.reverse(result);
+      result.addAll(0, withoutValue);
+    } else {
+      result.addAll(withoutValue);
+    }
+    data.clear();
+    data.addAll(result);
+    return true;
+  }
+
   private <T> void sortInDefaultOrder(final EdmEntitySet entitySet, final List<T> data) {
     Collections.sort(data, new Comparator<T>() {
       @Override
@@ -1644,14 +1853,12 @@ public class ListsProcessor extends DataSourceProcessor {
   public ODataResponse executeBatch(final BatchHandler handler, final String contentType, final InputStream content)
       throws ODataException {
     ODataResponse batchResponse;
-    List<BatchResponsePart> batchResponseParts = new ArrayList<BatchResponsePart>();
     PathInfo pathInfo = getContext().getPathInfo();
     EntityProviderBatchProperties batchProperties = EntityProviderBatchProperties.init().pathInfo(pathInfo).build();
-    List<BatchRequestPart> batchParts = EntityProvider.parseBatchRequest(contentType, content, batchProperties);
-    for (BatchRequestPart batchPart : batchParts) {
-      batchResponseParts.add(handler.handleBatchPart(batchPart));
-    }
-    batchResponse = EntityProvider.writeBatchResponse(batchResponseParts);
+    BatchRequestPartIterator batchParts =
+        EntityProvider.parseBatchRequestIncrementally(contentType, content, batchProperties);
+    List<BatchResponsePart> batchResponseParts = AbstractBatchHandler.handleBatchParts(handler, batchParts);
+    batchResponse = EntityProvider.writeStreamedBatchResponse(batchResponseParts);
     return batchResponse;
   }
 
@@ -34,13 +34,18 @@ import org.apache.olingo.odata2.api.annotation.edm.EdmNavigationProperty;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmFunctionImport;
+import org.apache.olingo.odata2.api.edm.EdmLiteralKind;
 import org.apache.olingo.odata2.api.edm.EdmMultiplicity;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleType;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeException;
+import org.apache.olingo.odata2.api.edm.EdmType;
 import org.apache.olingo.odata2.api.exception.ODataApplicationException;
 import org.apache.olingo.odata2.api.exception.ODataException;
 import org.apache.olingo.odata2.api.exception.ODataNotFoundException;
 import org.apache.olingo.odata2.api.exception.ODataNotImplementedException;
 
-public class AnnotationInMemoryDs implements DataSource {
+public class AnnotationInMemoryDs implements IndexedDataSource {
 
   private static final AnnotationHelper ANNOTATION_HELPER = new AnnotationHelper();
   private final Map<String, DataStore<Object>> dataStores = new HashMap<String, DataStore<Object>>();
@@ -126,6 +131,49 @@ public class AnnotationInMemoryDs implements DataSource {
     throw new ODataNotFoundException(ODataNotFoundException.ENTITY);
   }
 
+  @Override
+  public List<?> readData(final EdmEntitySet entitySet, final EdmProperty property, final String value)
+      throws ODataNotImplementedException, EdmException, ODataApplicationException {
+
+    DataStore<Object> store = getDataStore(entitySet);
+    Object indexValue = getIndexValue(store, property, value);
+    return indexValue == null ? null : store.read(property.getName(), indexValue);
+  }
+
+  @Override
+  public List<?> readData(final EdmEntitySet entitySet, final EdmProperty property, final String from,
+      final String to) throws ODataNotImplementedException, EdmException, ODataApplicationException {
+
+    DataStore<Object> store = getDataStore(entitySet);
+    Object fromValue = getIndexValue(store, property, from);
+    Object toValue = getIndexValue(store, property, to);
+    if ((from != null && fromValue == null) || (to != null && toValue == null)) {
+      return null;
+    }
+    return store.read(property.getName(), fromValue, toValue);
+  }
+
+  /**
+   * Convert the <code>value</code> in default literal representation into the type of the index
+   * for <code>property</code>.
+   * 
+   * @return the converted value or <code>null</code> if there is no value, no index or the value is not convertible
+   * @throws EdmException
+   */
+  private Object getIndexValue(final DataStore<Object> store, final EdmProperty property, final String value)
+      throws EdmException {
+    Class<?> indexType = store.getIndexType(property.getName());
+    EdmType type = property.getType();
+    if (value == null || indexType == null || !(type instanceof EdmSimpleType)) {
+      return null;
+    }
+    try {
+      return ((EdmSimpleType) type).valueOfString(value, EdmLiteralKind.DEFAULT, property.getFacets(), indexType);
+    } catch (EdmSimpleTypeException e) {
+      return null;
+    }
+  }
+
   @Override
   public Object readData(final EdmFunctionImport function, final Map<String, Object> parameters,
       final Map<String, Object> keys)
@@ -171,20 +219,33 @@ public class AnnotationInMemoryDs implements DataSource {
     }
 
     List<Object> resultData = new ArrayList<Object>();
-    for (Object targetInstance : targetStore.read()) {
-      if (navigationInstance instanceof Collection) {
-        for (Object object : (Collection<?>) navigationInstance) {
-          if (targetStore.isKeyEqualChecked(targetInstance, object)) {
-            resultData.add(targetInstance);
-          }
-        }
-      } else if (targetStore.isKeyEqualChecked(targetInstance, navigationInstance)) {
-        resultData.add(targetInstance);
+    if (navigationInstance instanceof Collection) {
+      for (Object object : (Collection<?>) navigationInstance) {
+        addStoredInstance(targetStore, object, resultData);
       }
+    } else {
+      addStoredInstance(targetStore, navigationInstance, resultData);
     }
     return resultData;
   }
 
+  /**
+   * Add the instance stored in <code>targetStore</code> with the key values of <code>instance</code>
+   * (if there is one) to the <code>resultData</code>.
+   * 
+   * @param targetStore
+   * @param instance
+   * @param resultData
+   * @throws DataStoreException
+   */
+  private void addStoredInstance(final DataStore<?> targetStore, final Object instance,
+      final List<Object> resultData) throws DataStoreException {
+    Object storedInstance = targetStore.readChecked(instance);
+    if (storedInstance != null) {
+      resultData.add(storedInstance);
+    }
+  }
+
   /**
    * Extract the <code>result data</code> from the <code>resultData</code> list based on
    * <code>navigation information</code> and <code>targetKeys</code>.
@@ -282,6 +343,7 @@ public class AnnotationInMemoryDs implements DataSource {
    * @throws org.apache.olingo.odata2.api.edm.EdmException
    * @throws org.apache.olingo.odata2.api.exception.ODataApplicationException
    */
+  @Override
   public Object updateData(final EdmEntitySet entitySet, final Object data)
       throws ODataNotImplementedException, EdmException, ODataApplicationException {
 
@@ -26,23 +26,45 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.olingo.odata2.annotation.processor.core.util.AnnotationHelper;
 import org.apache.olingo.odata2.annotation.processor.core.util.AnnotationRuntimeException;
 import org.apache.olingo.odata2.annotation.processor.core.util.ClassHelper;
 import org.apache.olingo.odata2.api.annotation.edm.EdmKey;
+import org.apache.olingo.odata2.api.annotation.edm.EdmProperty;
 import org.apache.olingo.odata2.api.exception.ODataApplicationException;
 
 /**
- *
+ * In-memory store for the instances of one annotated class.
+ * The instances are held in a concurrent map with their key values as primary index;
+ * for fields annotated with {@link InMemoryIndex} additional secondary indexes are maintained.
+ * Instances changed in place have to be passed to {@link #update(Object)} to keep these indexes current.
  */
 public class DataStore<T> {
 
   private static final AnnotationHelper ANNOTATION_HELPER = new AnnotationHelper();
+  private static final Map<Class<?>, Class<?>> PRIMITIVE_WRAPPERS = new HashMap<Class<?>, Class<?>>();
+  static {
+    PRIMITIVE_WRAPPERS.put(boolean.class, Boolean.class);
+    PRIMITIVE_WRAPPERS.put(byte.class, Byte.class);
+    PRIMITIVE_WRAPPERS.put(char.class, Character.class);
+    PRIMITIVE_WRAPPERS.put(short.class, Short.class);
+    PRIMITIVE_WRAPPERS.put(int.class, Integer.class);
+    PRIMITIVE_WRAPPERS.put(long.class, Long.class);
+    PRIMITIVE_WRAPPERS.put(float.class, Float.class);
+    PRIMITIVE_WRAPPERS.put(double.class, Double.class);
+  }
+
   private final Map<KeyElement, T> dataStore;
   private final Class<T> dataTypeClass;
   private final KeyAccess keyAccess;
+  private final Map<String, PropertyIndex> indexes;
 
   private static class InMemoryDataStore {
     private static final Map<Class<?>, DataStore<?>> c2ds = new HashMap<Class<?>, DataStore<?>>();
@@ -71,13 +93,14 @@ public class DataStore<T> {
   }
 
   private DataStore(final Map<KeyElement, T> wrapStore, final Class<T> clz) throws DataStoreException {
-    dataStore = Collections.synchronizedMap(wrapStore);
+    dataStore = wrapStore;
     dataTypeClass = clz;
     keyAccess = new KeyAccess(clz);
+    indexes = createIndexes(clz);
   }
 
   private DataStore(final Class<T> clz) throws DataStoreException {
-    this(new HashMap<KeyElement, T>(), clz);
+    this(new ConcurrentHashMap<KeyElement, T>(), clz);
   }
 
   public Class<T> getDataTypeClass() {
@@ -103,10 +126,94 @@ public class DataStore<T> {
     return dataStore.get(objKeys);
   }
 
+  /**
+   * Read the stored instance with the same key values as the given instance.
+   * Before the read it is validated that the instance is NOT null
+   * and that it is from the same class as this {@link DataStore} (see {@link #dataTypeClass}).
+   * 
+   * @param obj instance with the key values to read
+   * @return the stored instance or <code>null</code> if none is stored for the key values
+   */
+  @SuppressWarnings("unchecked")
+  public T readChecked(final Object obj) throws DataStoreException {
+    if (obj == null) {
+      throw new DataStoreException("Tried to read with null value which is not allowed.");
+    } else if (obj.getClass() != dataTypeClass) {
+      throw new DataStoreException("Value is no instance from required class '" + dataTypeClass + "'.");
+    }
+
+    return read((T) obj);
+  }
+
   public Collection<T> read() {
     return Collections.unmodifiableCollection(dataStore.values());
   }
 
+  /**
+   * Get the type of the values in the index for the given property.
+   * 
+   * @param propertyName name of the EdmProperty
+   * @return the (for primitive fields wrapped) field type or <code>null</code> if the property is not indexed
+   */
+  public Class<?> getIndexType(final String propertyName) {
+    PropertyIndex index = indexes.get(propertyName);
+    return index == null ? null : index.valueType;
+  }
+
+  /**
+   * Read all instances with the given value for the indexed property.
+   * 
+   * @param propertyName name of the EdmProperty
+   * @param value the value (of the index type, see {@link #getIndexType(String)})
+   * @return the found instances or <code>null</code> if the property is not indexed or the index is outdated
+   */
+  public List<T> read(final String propertyName, final Object value) {
+    PropertyIndex index = indexes.get(propertyName);
+    if (index == null) {
+      return null;
+    }
+    List<T> result = new ArrayList<T>();
+    List<KeyElement> staleKeys = new ArrayList<KeyElement>();
+    if (value != null) {
+      index.collect(value, index.entries.get(value), result, staleKeys);
+    }
+    return index.refresh(staleKeys) ? result : null;
+  }
+
+  /**
+   * Read all instances with a value for the property in the given inclusive range,
+   * in ascending order of the values.
+   * 
+   * @param propertyName name of the EdmProperty
+   * @param from lower bound or <code>null</code> for no lower bound
+   * @param to upper bound or <code>null</code> for no upper bound
+   * @return the found instances or <code>null</code> if the property has no {@link InMemoryIndex.Type#SORTED} index
+   * or the index is outdated
+   */
+  public List<T> read(final String propertyName, final Object from, final Object to) {
+    PropertyIndex index = indexes.get(propertyName);
+    if (index == null || index.sortedEntries == null) {
+      return null;
+    }
+    List<T> result = new ArrayList<T>();
+    ConcurrentNavigableMap<Object, Set<KeyElement>> range = index.sortedEntries;
+    if (from != null && to != null) {
+      if (index.compare(from, to) > 0) {
+        return result;
+      }
+      range = range.subMap(from, true, to, true);
+    } else if (from != null) {
+      range = range.tailMap(from, true);
+    } else if (to != null) {
+      range = range.headMap(to, true);
+    }
+    List<KeyElement> staleKeys = new ArrayList<KeyElement>();
+    for (Map.Entry<Object, Set<KeyElement>> entry : range.entrySet()) {
+      index.collect(entry.getKey(), entry.getValue(), result, staleKeys);
+    }
+    return index.refresh(staleKeys) ? result : null;
+  }
+
   public T create(final T object) throws DataStoreException {
     KeyElement keyElement = getKeys(object);
     return create(object, keyElement);
@@ -119,6 +226,7 @@ public class DataStore<T> {
         return this.create(object, newKey);
       }
       dataStore.put(keyElement, object);
+      addToIndexes(keyElement, object);
     }
     return object;
   }
@@ -126,8 +234,9 @@ public class DataStore<T> {
   public T update(final T object) {
     KeyElement keyElement = getKeys(object);
     synchronized (dataStore) {
-      dataStore.remove(keyElement);
+      removeFromIndexes(keyElement);
       dataStore.put(keyElement, object);
+      addToIndexes(keyElement, object);
     }
     return object;
   }
@@ -135,6 +244,7 @@ public class DataStore<T> {
   public T delete(final T object) {
     KeyElement keyElement = getKeys(object);
     synchronized (dataStore) {
+      removeFromIndexes(keyElement);
       return dataStore.remove(keyElement);
     }
   }
@@ -270,6 +380,136 @@ public class DataStore<T> {
     }
   }
 
+  /**
+   * Secondary index of a field which maps the field values to the keys of the instances.
+   * Modifications are done while holding the lock on the {@link #dataStore};
+   * reads are not locked and verify the current field value of each found instance.
+   * An instance changed in place without {@link DataStore#update(Object)} may also be missing
+   * under its new value, so a read which finds such an instance is not used but the instance is indexed again.
+   */
+  private class PropertyIndex {
+    final Field field;
+    final Class<?> valueType;
+    final ConcurrentMap<Object, Set<KeyElement>> entries;
+    final ConcurrentNavigableMap<Object, Set<KeyElement>> sortedEntries;
+    final Map<KeyElement, Object> indexedValues = new HashMap<KeyElement, Object>();
+
+    PropertyIndex(final Field field, final InMemoryIndex.Type type) throws DataStoreException {
+      this.field = field;
+      Class<?> wrapper = PRIMITIVE_WRAPPERS.get(field.getType());
+      valueType = wrapper == null ? field.getType() : wrapper;
+      if (type == InMemoryIndex.Type.SORTED) {
+        if (!Comparable.class.isAssignableFrom(valueType)) {
+          throw new DataStoreException("Sorted index requires comparable values but field '" + field
+              + "' is of type '" + valueType + "'.");
+        }
+        sortedEntries = new ConcurrentSkipListMap<Object, Set<KeyElement>>();
+        entries = sortedEntries;
+      } else {
+        sortedEntries = null;
+        entries = new ConcurrentHashMap<Object, Set<KeyElement>>();
+      }
+    }
+
+    void add(final KeyElement keyElement, final T object) {
+      Object value = ClassHelper.getFieldValue(object, field);
+      if (value != null) {
+        Set<KeyElement> keys = entries.get(value);
+        if (keys == null) {
+          keys = Collections.newSetFromMap(new ConcurrentHashMap<KeyElement, Boolean>());
+          entries.put(value, keys);
+        }
+        keys.add(keyElement);
+        indexedValues.put(keyElement, value);
+      }
+    }
+
+    void remove(final KeyElement keyElement) {
+      Object value = indexedValues.remove(keyElement);
+      if (value != null) {
+        Set<KeyElement> keys = entries.get(value);
+        if (keys != null) {
+          keys.remove(keyElement);
+          if (keys.isEmpty()) {
+            entries.remove(value);
+          }
+        }
+      }
+    }
+
+    void collect(final Object indexedValue, final Set<KeyElement> keys, final List<T> result,
+        final List<KeyElement> staleKeys) {
+      if (keys != null) {
+        for (KeyElement keyElement : keys) {
+          T object = dataStore.get(keyElement);
+          if (object != null) {
+            if (isEqual(indexedValue, ClassHelper.getFieldValue(object, field))) {
+              result.add(object);
+            } else {
+              staleKeys.add(keyElement);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Indexes the instances again which were changed in place after they were indexed.
+     * @return <code>true</code> if there were no such instances
+     */
+    boolean refresh(final List<KeyElement> staleKeys) {
+      if (staleKeys.isEmpty()) {
+        return true;
+      }
+      synchronized (dataStore) {
+        for (KeyElement keyElement : staleKeys) {
+          remove(keyElement);
+          T object = dataStore.get(keyElement);
+          if (object != null) {
+            add(keyElement, object);
+          }
+        }
+      }
+      return false;
+    }
+
+    private boolean isEqual(final Object indexedValue, final Object value) {
+      if (value == null) {
+        return false;
+      }
+      return sortedEntries == null ? indexedValue.equals(value) : compare(indexedValue, value) == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    int compare(final Object first, final Object second) {
+      return ((Comparable<Object>) first).compareTo(second);
+    }
+  }
+
+  private Map<String, PropertyIndex> createIndexes(final Class<T> clz) throws DataStoreException {
+    Map<String, PropertyIndex> result = new HashMap<String, PropertyIndex>();
+    for (Field field : ANNOTATION_HELPER.getAnnotatedFields(clz, InMemoryIndex.class)) {
+      if (field.getAnnotation(EdmProperty.class) == null) {
+        throw new DataStoreException("InMemoryIndex annotated field '" + field + "' has no EdmProperty annotation.");
+      }
+      result.put(ANNOTATION_HELPER.getPropertyName(field),
+          new PropertyIndex(field, field.getAnnotation(InMemoryIndex.class).type()));
+    }
+    return result;
+  }
+
+  private void addToIndexes(final KeyElement keyElement, final T object) {
+    for (PropertyIndex index : indexes.values()) {
+      index.add(keyElement, object);
+    }
+  }
+
+  private void removeFromIndexes(final KeyElement keyElement) {
+    for (PropertyIndex index : indexes.values()) {
+      index.remove(keyElement);
+    }
+  }
+
   private KeyElement getKeys(final T object) {
     return keyAccess.getKeyValues(object);
   }
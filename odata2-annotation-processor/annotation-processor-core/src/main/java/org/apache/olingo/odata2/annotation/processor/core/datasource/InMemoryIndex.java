@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.annotation.processor.core.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Annotation for definition of a secondary index which is maintained by the in-memory {@link DataStore}
+ * for an EdmProperty annotated field.</p>
+ * A {@link Type#HASH} index supports lookups of equal values, a {@link Type#SORTED} index additionally
+ * supports range lookups and ordered reads (the field type must then be a primitive or {@link Comparable}).
+ * Indexes are maintained by the <code>create</code>, <code>update</code> and <code>delete</code> methods of the
+ * {@link DataStore}, so instances which are changed otherwise have to be passed to <code>update</code> afterwards.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface InMemoryIndex {
+  enum Type {
+    HASH, SORTED
+  }
+
+  Type type() default Type.HASH;
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.annotation.processor.core.datasource;
+
+import java.util.List;
+
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.exception.ODataApplicationException;
+import org.apache.olingo.odata2.api.exception.ODataNotImplementedException;
+
+/**
+ * <p>Extension of the {@link DataSource} for data sources which maintain indexes on properties.</p>
+ * <p>The index reads return candidates only; the caller still has to apply the complete
+ * filter and order on the returned data.</p>
+ */
+public interface IndexedDataSource extends DataSource {
+
+  /**
+   * Retrieves the data objects of the specified entity set with the given property value.
+   * @param entitySet the requested {@link EdmEntitySet}
+   * @param property the (simple) {@link EdmProperty} of the entity type
+   * @param value the property value in default literal representation
+   * @return the data objects with the given value or <code>null</code> if no (current) index can be used
+   */
+  List<?> readData(EdmEntitySet entitySet, EdmProperty property, String value)
+      throws ODataNotImplementedException, EdmException, ODataApplicationException;
+
+  /**
+   * Retrieves the data objects of the specified entity set whose property value is within the given
+   * (inclusive) range, in ascending order of the property value.
+   * Data objects without value for the property are not part of the result.
+   * @param entitySet the requested {@link EdmEntitySet}
+   * @param property the (simple) {@link EdmProperty} of the entity type
+   * @param from the lower bound in default literal representation or <code>null</code> for no lower bound
+   * @param to the upper bound in default literal representation or <code>null</code> for no upper bound
+   * @return the data objects within the range or <code>null</code> if no (current) sorted index can be used
+   */
+  List<?> readData(EdmEntitySet entitySet, EdmProperty property, String from, String to)
+      throws ODataNotImplementedException, EdmException, ODataApplicationException;
+
+  /**
+   * <p>Updates a single data object identified by the specified entity set and key fields of
+   * the data object.</p>
+   * <p>Has to be called after values of a stored data object have been changed in place
+   * so that the indexes can be maintained.</p>
+   * @param entitySet the {@link EdmEntitySet} the object must correspond to
+   * @param data the data object of the changed entity
+   * @return updated data object instance
+   */
+  Object updateData(EdmEntitySet entitySet, Object data)
+      throws ODataNotImplementedException, EdmException, ODataApplicationException;
+}
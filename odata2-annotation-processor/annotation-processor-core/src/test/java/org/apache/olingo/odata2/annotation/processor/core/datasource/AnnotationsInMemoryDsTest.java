@@ -45,6 +45,7 @@ import org.apache.olingo.odata2.api.annotation.edm.EdmKey;
 import org.apache.olingo.odata2.api.annotation.edm.EdmProperty;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.edm.FullQualifiedName;
 import org.apache.olingo.odata2.api.edm.provider.EntitySet;
 import org.apache.olingo.odata2.api.exception.ODataException;
@@ -781,6 +782,70 @@ public class AnnotationsInMemoryDsTest {
     Assert.assertEquals(readBuilding, readRoom.getBuilding());
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void readIndexedEntities() throws Exception {
+    EdmEntitySet roomsEntitySet = createMockedEdmEntitySet("Rooms");
+    org.apache.olingo.odata2.api.edm.EdmProperty seatsProperty =
+        Mockito.mock(org.apache.olingo.odata2.api.edm.EdmProperty.class);
+    Mockito.when(seatsProperty.getName()).thenReturn("Seats");
+    Mockito.when(seatsProperty.getType()).thenReturn(EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance());
+
+    for (int i = 0; i < 10; i++) {
+      Room room = new Room(i, "Room " + i);
+      room.setSeats(i % 5);
+      datasource.createData(roomsEntitySet, room);
+    }
+
+    List<Room> rooms = (List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "3");
+    Assert.assertEquals(2, rooms.size());
+    for (Room room : rooms) {
+      Assert.assertEquals(3, room.getSeats());
+    }
+
+    rooms = (List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "1", "3");
+    Assert.assertEquals(6, rooms.size());
+    Assert.assertEquals(1, rooms.get(0).getSeats());
+    Assert.assertEquals(3, rooms.get(5).getSeats());
+    Assert.assertEquals(4, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "3", null)).size());
+    Assert.assertEquals(10, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, null, null)).size());
+    Assert.assertNull(datasource.readData(roomsEntitySet, seatsProperty, "no number"));
+
+    // changed in place: not found until the data store is informed about the update
+    Room room = rooms.get(0);
+    room.setSeats(3);
+    Assert.assertEquals(2, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "3")).size());
+    datasource.updateData(roomsEntitySet, room);
+    Assert.assertEquals(3, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "3")).size());
+
+    // changed in place without update: a read finding the outdated entry is refused and the entry is indexed again
+    room = rooms.get(1);
+    room.setSeats(4);
+    Assert.assertNull(datasource.readData(roomsEntitySet, seatsProperty, "1"));
+    Assert.assertEquals(0, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "1")).size());
+    Assert.assertEquals(3, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "4")).size());
+    room.setSeats(2);
+    Assert.assertNull(datasource.readData(roomsEntitySet, seatsProperty, null, null));
+    Assert.assertEquals(3, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "2", "2")).size());
+
+    Map<String, Object> keys = new HashMap<String, Object>();
+    keys.put("Id", Integer.valueOf(room.getId()));
+    datasource.deleteData(roomsEntitySet, keys);
+    Assert.assertEquals(2, ((List<Room>) datasource.readData(roomsEntitySet, seatsProperty, "2")).size());
+  }
+
+  @Test
+  public void readNotIndexedEntities() throws Exception {
+    EdmEntitySet roomsEntitySet = createMockedEdmEntitySet("Rooms");
+    org.apache.olingo.odata2.api.edm.EdmProperty versionProperty =
+        Mockito.mock(org.apache.olingo.odata2.api.edm.EdmProperty.class);
+    Mockito.when(versionProperty.getName()).thenReturn("Version");
+    Mockito.when(versionProperty.getType()).thenReturn(EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance());
+
+    Assert.assertNull(datasource.readData(roomsEntitySet, versionProperty, "1"));
+    Assert.assertNull(datasource.readData(roomsEntitySet, versionProperty, "1", "2"));
+  }
+
   private EdmEntitySet createMockedEdmEntitySet(final String entitySetName) throws ODataException {
     return createMockedEdmEntitySet(edmProvider, entitySetName);
   }
@@ -18,6 +18,7 @@ package org.apache.olingo.odata2.annotation.processor.core.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.olingo.odata2.annotation.processor.core.datasource.InMemoryIndex;
 import org.apache.olingo.odata2.api.annotation.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.annotation.edm.EdmEntityType;
 import org.apache.olingo.odata2.api.annotation.edm.EdmNavigationProperty;
@@ -31,6 +32,7 @@ import org.apache.olingo.odata2.api.annotation.edm.EdmProperty;
 public class Room extends RefBase {
 
   @EdmProperty
+  @InMemoryIndex(type = InMemoryIndex.Type.SORTED)
   private Integer seats;
   @EdmProperty
   private Integer version;
@@ -83,6 +83,14 @@ public class AnnotationRefServiceFactory extends ODataServiceFactory {
             ? new ScenarioDebugCallback() : super.getCallback(callbackInterface));
   }
 
+  /**
+   * The factory keeps no state; the service and its data stores are static singletons anyway.
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   /*
    * Helper classes and methods
    */
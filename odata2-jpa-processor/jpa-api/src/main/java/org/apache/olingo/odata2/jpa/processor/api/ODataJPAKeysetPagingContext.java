@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.api;
+
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
+
+/**
+ * Optional extension of {@link org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext} for keyset paging.
+ * The OData JPA Context created by the library implements it; with other contexts entity sets are
+ * always paged by offset.
+ * 
+ * @see org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory#createJPASkipTokenFormat()
+ */
+public interface ODataJPAKeysetPagingContext extends ODataJPAContext {
+
+  /**
+   * The method sets the format of the skip tokens for server side paging. If a format is set,
+   * entity sets are paged by the values of the order by and key properties of the last entity
+   * of a page (keyset paging) instead of by an offset, where the order by properties allow it.
+   * @param format an instance of type
+   * {@link org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat} or null for offset paging
+   */
+  public void setSkipTokenFormat(JPASkipTokenFormat format);
+
+  /**
+   * The method returns the format of the skip tokens for server side paging
+   * @return an instance of type {@link org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat}
+   * or null if entity sets are paged by offset
+   */
+  public JPASkipTokenFormat getSkipTokenFormat();
+}
@@ -30,6 +30,7 @@ import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAErrorCallbac
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAAccessFactory;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
+import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAEdmRefresh;
 
 /**
  * <p>
@@ -107,12 +108,32 @@ public abstract class ODataJPAServiceFactory extends ODataServiceFactory {
 
     ODataSingleProcessor odataJPAProcessor = accessFactory.createODataProcessor(oDataJPAContext);
 
-    // OData Entity Data Model Provider based on JPA
+    // OData Entity Data Model Provider based on JPA; the schemas it builds are shared between requests
     EdmProvider edmProvider = accessFactory.createJPAEdmProvider(oDataJPAContext);
 
     return createODataSingleProcessorService(edmProvider, odataJPAProcessor);
   }
 
+  /**
+   * Discards the Entity Data Model built from the JPA metamodel. The model is
+   * shared by all services created for the same entity manager factory and is
+   * only built again with the next request, e.g. after the JPA EDM mapping model
+   * has been changed. Nothing is discarded if the access factory does not share the model,
+   * i.e., does not implement {@link ODataJPAEdmRefresh}.
+   * 
+   * @throws ODataJPARuntimeException
+   */
+  public final void refreshEdmModel() throws ODataJPARuntimeException {
+    ODataJPAContext jpaContext = oDataJPAContext == null ? initializeODataJPAContext() : oDataJPAContext;
+    if (jpaContext.getEntityManagerFactory() == null) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.ENTITY_MANAGER_NOT_INITIALIZED, null);
+    }
+    ODataJPAAccessFactory accessFactory = ODataJPAFactory.createFactory().getODataJPAAccessFactory();
+    if (accessFactory instanceof ODataJPAEdmRefresh) {
+      ((ODataJPAEdmRefresh) accessFactory).refreshJPAEdmProvider(jpaContext);
+    }
+  }
+
   private void validatePreConditions() throws ODataJPARuntimeException {
 
     if (oDataJPAContext.getEntityManagerFactory() == null) {
@@ -187,6 +208,18 @@ public abstract class ODataJPAServiceFactory extends ODataServiceFactory {
     this.onJPAWriteContent = onJPAWriteContent;
   }
 
+  /**
+   * The factory is never shared between requests: {@link #createService(ODataContext)} keeps the
+   * {@link ODataContext} and the {@link ODataJPAContext} of the current request in fields which are read
+   * by {@link #getODataJPAContext()} while {@link #initializeODataJPAContext()} runs.
+   * The expensive part, the Entity Data Model built from the JPA metamodel, is shared anyway.
+   * @return <code>false</code>
+   */
+  @Override
+  public final boolean isThreadSafe() {
+    return false;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends ODataCallback> T getCallback(final Class<? extends ODataCallback> callbackInterface) {
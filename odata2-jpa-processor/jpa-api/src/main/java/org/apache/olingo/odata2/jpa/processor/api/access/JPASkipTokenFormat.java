@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.api.access;
+
+import java.util.List;
+
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
+
+/**
+ * The interface defines the format of the $skiptoken used for keyset paging.
+ * <p>
+ * With keyset paging the skip token of the next page holds the values of the
+ * order by properties and the key properties of the last entity of the current
+ * page; the next page is selected by the entities following these values instead
+ * of by an offset. Keyset paging is used for an entity set if an instance of this
+ * interface is set in {@link org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext}.
+ * </p>
+ * <p>
+ * Skip tokens that are integer numbers are taken as offsets, so a format must
+ * not create such tokens. Properties used for keyset paging are never null.
+ * </p>
+ * 
+ * @see org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext#setSkipTokenFormat(JPASkipTokenFormat)
+ */
+public interface JPASkipTokenFormat {
+
+  /**
+   * The method creates the skip token for the given values.
+   * 
+   * @param properties
+   * are the properties whose values the skip token holds
+   * @param values
+   * are the values of the properties, in the same order as the properties
+   * @return the skip token
+   * @throws ODataJPARuntimeException
+   */
+  public String format(List<EdmProperty> properties, List<Object> values) throws ODataJPARuntimeException;
+
+  /**
+   * The method reads the values of the given properties from the skip token. The values
+   * are of the Java types of the JPA attributes the properties are mapped to.
+   * 
+   * @param properties
+   * are the properties whose values the skip token holds
+   * @param skipToken
+   * is the skip token created by {@link #format(List, List)}
+   * @return the values in the same order as the properties
+   * @throws ODataJPARuntimeException
+   * if the skip token is not valid for the properties
+   */
+  public List<Object> parse(List<EdmProperty> properties, String skipToken) throws ODataJPARuntimeException;
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.api.factory;
+
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+
+/**
+ * Optional extension of {@link org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAAccessFactory}
+ * for access factories whose JPA EdmProviders share the Entity Data Model between requests.
+ * The access factory of the library implements it; for other access factories
+ * {@link org.apache.olingo.odata2.jpa.processor.api.ODataJPAServiceFactory#refreshEdmModel()} does nothing.
+ */
+public interface ODataJPAEdmRefresh {
+
+  /**
+   * The method discards the Entity Data Model that JPA EdmProviders share for
+   * the entity manager factory of the given context. The model is built again
+   * from the JPA metamodel when it is used next.
+   * 
+   * @param oDataJPAContext
+   * an instance of type {@link org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext}
+   * with an entity manager factory.
+   */
+  public void refreshJPAEdmProvider(ODataJPAContext oDataJPAContext);
+}
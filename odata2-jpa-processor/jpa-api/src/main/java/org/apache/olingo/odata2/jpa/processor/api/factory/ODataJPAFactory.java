@@ -18,6 +18,8 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.jpa.processor.api.factory;
 
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
+
 /**
  * The class is an abstract factory for creating default ODataJPAFactory. The
  * class's actual implementation is responsible for creating other factory
@@ -102,4 +104,16 @@ public abstract class ODataJPAFactory {
     return null;
   };
 
+  /**
+   * The method returns a null reference to the default format of skip tokens for keyset paging.
+   * The factory of the library overrides this method to return a format whose skip tokens are
+   * URL safe Base64 encodings of the property values.
+   * 
+   * @return instance of type {@link org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat}
+   * @see org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext
+   */
+  public JPASkipTokenFormat createJPASkipTokenFormat() {
+    return null;
+  }
+
 }
@@ -18,6 +18,9 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.jpa.processor.api.jpql;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAModelException;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
@@ -53,6 +56,10 @@ public abstract class JPQLContext implements JPQLContextView {
    */
   protected JPQLContextType type;
   protected boolean pagingRequested = false;
+  /**
+   * Values of the positional parameters referenced by the expressions of the context
+   */
+  protected Map<Integer, Object> parameters = new HashMap<Integer, Object>();
 
   /**
    * sets JPA Entity Name into the context
@@ -108,6 +115,13 @@ public abstract class JPQLContext implements JPQLContextView {
     return type;
   }
 
+  /**
+   * gets the values of the positional parameters set into the context
+   */
+  public final Map<Integer, Object> getParameters() {
+    return parameters;
+  }
+
   protected void isPagingRequested(final boolean pagingRequested) {
     this.pagingRequested = pagingRequested;
   }
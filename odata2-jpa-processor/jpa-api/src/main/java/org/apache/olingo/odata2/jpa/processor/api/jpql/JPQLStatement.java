@@ -18,6 +18,10 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.jpa.processor.api.jpql;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
 
@@ -28,6 +32,8 @@ import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
  * Context types ( {@link org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextType} different
  * kinds of JPQL statements are built.
  * The JPQL statements thus generated can be executed using JPA Query APIs to fetch JPA entities.
+ * Literals of filter expressions and key predicates are not part of the statement text; they are
+ * referenced as positional parameters whose values are provided by {@link #getPositionalParameters()}.
  * 
  * 
  * @see org.apache.olingo.odata2.jpa.processor.api.factory.JPQLBuilderFactory
@@ -36,6 +42,7 @@ import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
 public class JPQLStatement {
 
   protected String statement;
+  protected Map<Integer, Object> positionalParameters;
 
   /**
    * The method is used for creating an instance of JPQL Statement Builder for
@@ -53,8 +60,11 @@ public class JPQLStatement {
     return JPQLStatementBuilder.create(context);
   }
 
-  private JPQLStatement(final String statement) {
+  private JPQLStatement(final String statement, final Map<Integer, Object> positionalParameters) {
     this.statement = statement;
+    this.positionalParameters = positionalParameters == null ?
+        Collections.<Integer, Object> emptyMap() :
+        Collections.unmodifiableMap(new HashMap<Integer, Object>(positionalParameters));
   }
 
   /**
@@ -65,6 +75,15 @@ public class JPQLStatement {
     return statement;
   }
 
+  /**
+   * The method returns the values of the positional parameters used in the statement.
+   * 
+   * @return a map from parameter positions to parameter values; never null
+   */
+  public Map<Integer, Object> getPositionalParameters() {
+    return positionalParameters;
+  }
+
   /**
    * The abstract class is extended by specific JPQL statement builders for
    * building JPQL statements like
@@ -90,7 +109,24 @@ public class JPQLStatement {
     }
 
     protected final JPQLStatement createStatement(final String statement) {
-      return new JPQLStatement(statement);
+      return new JPQLStatement(statement, null);
+    }
+
+    protected final JPQLStatement createStatement(final String statement,
+        final Map<Integer, Object> positionalParameters) {
+      return new JPQLStatement(statement, positionalParameters);
+    }
+
+    /**
+     * The method returns the values of the positional parameters of a JPQL context.
+     * 
+     * @param context
+     * is the JPQL context the statement is built for
+     * @return the parameter values or null if the context is no
+     * {@link org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext}
+     */
+    protected static Map<Integer, Object> getParameters(final JPQLContextView context) {
+      return context instanceof JPQLContext ? ((JPQLContext) context).getParameters() : null;
     }
 
     /**
@@ -22,9 +22,12 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmFacets;
 import org.apache.olingo.odata2.api.edm.EdmLiteralKind;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
@@ -50,6 +53,7 @@ import org.apache.olingo.odata2.api.uri.expression.SortOrder;
 import org.apache.olingo.odata2.api.uri.expression.UnaryExpression;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLStatement;
+import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmMapping;
 
 /**
  * This class contains utility methods for parsing the filter expressions built by core library from user OData Query.
@@ -60,10 +64,12 @@ import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLStatement;
 public class ODataExpressionParser {
 
   public static final String EMPTY = ""; //$NON-NLS-1$
-  public static Integer methodFlag = 0;
+  private static final String PARAMETER = "?"; //$NON-NLS-1$
+  private static final String LIKE_WILDCARD = "%"; //$NON-NLS-1$
 
   /**
    * This method returns the parsed where condition corresponding to the filter input in the user query.
+   * Literals are written into the condition.
    * 
    * @param whereExpression
    * 
@@ -73,10 +79,34 @@ public class ODataExpressionParser {
 
   public static String parseToJPAWhereExpression(final CommonExpression whereExpression, final String tableAlias)
       throws ODataException {
+    return parseToJPAWhereExpression(whereExpression, tableAlias, null);
+  }
+
+  /**
+   * This method returns the parsed where condition corresponding to the filter input in the user query.
+   * Literals are replaced by positional parameters; their values are added to the given map,
+   * numbered after the parameters already contained.
+   * 
+   * @param whereExpression
+   * @param tableAlias
+   * @param positionalParameters
+   * map receiving the parameter values; if null, literals are written into the condition
+   * @return Parsed where condition String
+   * @throws ODataException
+   */
+  public static String parseToJPAWhereExpression(final CommonExpression whereExpression, final String tableAlias,
+      final Map<Integer, Object> positionalParameters) throws ODataException {
+    return parseToJPAWhereExpression(whereExpression, tableAlias, positionalParameters, null, false);
+  }
+
+  private static String parseToJPAWhereExpression(final CommonExpression whereExpression, final String tableAlias,
+      final Map<Integer, Object> positionalParameters, final EdmProperty comparedProperty,
+      final boolean isComparedSubstringOf) throws ODataException {
     switch (whereExpression.getKind()) {
     case UNARY:
       final UnaryExpression unaryExpression = (UnaryExpression) whereExpression;
-      final String operand = parseToJPAWhereExpression(unaryExpression.getOperand(), tableAlias);
+      final String operand =
+          parseToJPAWhereExpression(unaryExpression.getOperand(), tableAlias, positionalParameters, null, false);
 
       switch (unaryExpression.getOperator()) {
       case NOT:
@@ -92,17 +122,18 @@ public class ODataExpressionParser {
       }
 
     case FILTER:
-      return parseToJPAWhereExpression(((FilterExpression) whereExpression).getExpression(), tableAlias);
+      return parseToJPAWhereExpression(((FilterExpression) whereExpression).getExpression(), tableAlias,
+          positionalParameters, null, false);
     case BINARY:
       final BinaryExpression binaryExpression = (BinaryExpression) whereExpression;
-      if ((binaryExpression.getLeftOperand().getKind() == ExpressionKind.METHOD)
+      final boolean isSubstringOfCompared = (binaryExpression.getLeftOperand().getKind() == ExpressionKind.METHOD)
           && ((binaryExpression.getOperator() == BinaryOperator.EQ) ||
           (binaryExpression.getOperator() == BinaryOperator.NE))
-          && (((MethodExpression) binaryExpression.getLeftOperand()).getMethod() == MethodOperator.SUBSTRINGOF)) {
-        methodFlag = 1;
-      }
-      final String left = parseToJPAWhereExpression(binaryExpression.getLeftOperand(), tableAlias);
-      final String right = parseToJPAWhereExpression(binaryExpression.getRightOperand(), tableAlias);
+          && (((MethodExpression) binaryExpression.getLeftOperand()).getMethod() == MethodOperator.SUBSTRINGOF);
+      final String left = parseToJPAWhereExpression(binaryExpression.getLeftOperand(), tableAlias,
+          positionalParameters, getProperty(binaryExpression.getRightOperand()), isSubstringOfCompared);
+      final String right = parseToJPAWhereExpression(binaryExpression.getRightOperand(), tableAlias,
+          positionalParameters, getProperty(binaryExpression.getLeftOperand()), false);
 
       switch (binaryExpression.getOperator()) {
       case AND:
@@ -158,6 +189,10 @@ public class ODataExpressionParser {
     case LITERAL:
       final LiteralExpression literal = (LiteralExpression) whereExpression;
       final EdmSimpleType literalType = (EdmSimpleType) literal.getEdmType();
+      if (positionalParameters != null && literalType != EdmSimpleTypeKind.Null.getEdmSimpleTypeInstance()) {
+        return addParameter(positionalParameters,
+            getParameterValue(literal.getUriLiteral(), EdmLiteralKind.URI, literalType, comparedProperty));
+      }
       String value =
           literalType.valueToString(literalType.valueOfString(literal.getUriLiteral(), EdmLiteralKind.URI, null,
               literalType.getDefaultType()), EdmLiteralKind.DEFAULT, null);
@@ -165,13 +200,30 @@ public class ODataExpressionParser {
 
     case METHOD:
       final MethodExpression methodExpression = (MethodExpression) whereExpression;
-      String first = parseToJPAWhereExpression(methodExpression.getParameters().get(0), tableAlias);
+      final CommonExpression firstParameter = methodExpression.getParameters().get(0);
+      if (methodExpression.getMethod() == MethodOperator.SUBSTRINGOF && positionalParameters != null
+          && firstParameter.getKind() == ExpressionKind.LITERAL) {
+        final LiteralExpression searchLiteral = (LiteralExpression) firstParameter;
+        final EdmSimpleType searchType = (EdmSimpleType) searchLiteral.getEdmType();
+        final String searchString =
+            searchType.valueToString(searchType.valueOfString(searchLiteral.getUriLiteral(), EdmLiteralKind.URI,
+                null, searchType.getDefaultType()), EdmLiteralKind.DEFAULT, null);
+        final String pattern = addParameter(positionalParameters, LIKE_WILDCARD + searchString + LIKE_WILDCARD);
+        final String target = parseToJPAWhereExpression(methodExpression.getParameters().get(1), tableAlias,
+            positionalParameters, null, false);
+        if (isComparedSubstringOf) {
+          return String.format("(CASE WHEN (%s LIKE %s) THEN TRUE ELSE FALSE END)", target, pattern);
+        } else {
+          return String.format("(CASE WHEN (%s LIKE %s) THEN TRUE ELSE FALSE END) = true", target, pattern);
+        }
+      }
+      String first = parseToJPAWhereExpression(firstParameter, tableAlias, positionalParameters, null, false);
       final String second =
           methodExpression.getParameterCount() > 1 ? parseToJPAWhereExpression(methodExpression.getParameters().get(1),
-              tableAlias) : null;
+              tableAlias, positionalParameters, null, false) : null;
       String third =
           methodExpression.getParameterCount() > 2 ? parseToJPAWhereExpression(methodExpression.getParameters().get(2),
-              tableAlias) : null;
+              tableAlias, positionalParameters, null, false) : null;
 
       switch (methodExpression.getMethod()) {
       case SUBSTRING:
@@ -179,8 +231,7 @@ public class ODataExpressionParser {
         return String.format("SUBSTRING(%s, %s + 1 %s)", first, second, third);
       case SUBSTRINGOF:
         first = first.substring(1, first.length() - 1);
-        if (methodFlag == 1) {
-          methodFlag = 0;
+        if (isComparedSubstringOf) {
           return String.format("(CASE WHEN (%s LIKE '%%%s%%') THEN TRUE ELSE FALSE END)", second, first);
         } else {
           return String.format("(CASE WHEN (%s LIKE '%%%s%%') THEN TRUE ELSE FALSE END) = true", second, first);
@@ -196,6 +247,111 @@ public class ODataExpressionParser {
     }
   }
 
+  /**
+   * Returns the EDM property of a property or member expression, otherwise null.
+   */
+  private static EdmProperty getProperty(final CommonExpression expression) {
+    CommonExpression propertyExpression = expression;
+    if (expression.getKind() == ExpressionKind.MEMBER) {
+      propertyExpression = ((MemberExpression) expression).getProperty();
+    }
+    if (propertyExpression.getKind() == ExpressionKind.PROPERTY
+        && ((PropertyExpression) propertyExpression).getEdmProperty() instanceof EdmProperty) {
+      return (EdmProperty) ((PropertyExpression) propertyExpression).getEdmProperty();
+    }
+    return null;
+  }
+
+  private static String addParameter(final Map<Integer, Object> positionalParameters, final Object value) {
+    final int position = positionalParameters.size() + 1;
+    positionalParameters.put(position, value);
+    return PARAMETER + position;
+  }
+
+  /**
+   * Converts a literal into a parameter value; the Java type of the JPA attribute it is compared with
+   * is used where the EDM type supports it.
+   */
+  private static Object getParameterValue(final String literal, final EdmLiteralKind literalKind,
+      final EdmSimpleType edmSimpleType, final EdmProperty property) throws ODataJPARuntimeException {
+    try {
+      Class<?> jpaType = null;
+      if (property != null && property.getMapping() instanceof JPAEdmMapping) {
+        jpaType = ((JPAEdmMapping) property.getMapping()).getJPAType();
+      }
+      return getJPAValue(literal, literalKind, null, edmSimpleType, jpaType);
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    } catch (ClassCastException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Converts a literal into a value of the Java type of a JPA attribute. Temporal attributes of the
+   * <code>java.sql</code> types are created from the calendar the EDM type returns; for other attribute
+   * types the EDM type does not support, the default type of the EDM type is used instead.
+   * @param literal the literal
+   * @param literalKind the kind of the literal
+   * @param facets the facets of the property or <code>null</code>
+   * @param edmSimpleType the EDM type of the literal
+   * @param jpaType the Java type of the JPA attribute or <code>null</code>
+   * @return the value
+   * @throws EdmException if the literal is not valid for the EDM type
+   */
+  public static Object getJPAValue(final String literal, final EdmLiteralKind literalKind, final EdmFacets facets,
+      final EdmSimpleType edmSimpleType, final Class<?> jpaType) throws EdmException {
+    if (jpaType != null) {
+      final Class<?> type = getWrapperType(jpaType);
+      if (java.util.Date.class.isAssignableFrom(type) && type != java.util.Date.class) {
+        final Calendar calendar =
+            (Calendar) edmSimpleType.valueOfString(literal, literalKind, facets, edmSimpleType.getDefaultType());
+        return getSqlDateValue(type, calendar.getTimeInMillis());
+      }
+      if (type == Character.class) {
+        final String value = (String) edmSimpleType.valueOfString(literal, literalKind, facets, String.class);
+        return value.length() == 1 ? Character.valueOf(value.charAt(0)) : value;
+      }
+      try {
+        return edmSimpleType.valueOfString(literal, literalKind, facets, type);
+      } catch (EdmSimpleTypeException e) {
+        // the attribute type is not supported by the EDM type; the default type is used instead
+      }
+    }
+    return edmSimpleType.valueOfString(literal, literalKind, facets, edmSimpleType.getDefaultType());
+  }
+
+  private static Object getSqlDateValue(final Class<?> jpaType, final long time) {
+    if (jpaType == java.sql.Date.class) {
+      return new java.sql.Date(time);
+    } else if (jpaType == java.sql.Time.class) {
+      return new java.sql.Time(time);
+    } else {
+      return new java.sql.Timestamp(time);
+    }
+  }
+
+  private static Class<?> getWrapperType(final Class<?> type) {
+    if (type == int.class) {
+      return Integer.class;
+    } else if (type == long.class) {
+      return Long.class;
+    } else if (type == short.class) {
+      return Short.class;
+    } else if (type == byte.class) {
+      return Byte.class;
+    } else if (type == boolean.class) {
+      return Boolean.class;
+    } else if (type == double.class) {
+      return Double.class;
+    } else if (type == float.class) {
+      return Float.class;
+    } else if (type == char.class) {
+      return Character.class;
+    }
+    return type;
+  }
+
   /**
    * This method parses the select clause
    * 
@@ -233,7 +389,7 @@ public class ODataExpressionParser {
    */
   public static HashMap<String, String> parseToJPAOrderByExpression(final OrderByExpression orderByExpression,
       final String tableAlias) throws ODataJPARuntimeException {
-    HashMap<String, String> orderByMap = new HashMap<String, String>();
+    HashMap<String, String> orderByMap = new LinkedHashMap<String, String>();
     if (orderByExpression != null && orderByExpression.getOrders() != null) {
       List<OrderExpression> orderBys = orderByExpression.getOrders();
       String orderByField = null;
@@ -256,6 +412,7 @@ public class ODataExpressionParser {
 
   /**
    * This method evaluated the where expression for read of an entity based on the keys specified in the query.
+   * Literals are written into the expression.
    * 
    * @param keyPredicates
    * @return the evaluated where expression
@@ -263,6 +420,22 @@ public class ODataExpressionParser {
 
   public static String parseKeyPredicates(final List<KeyPredicate> keyPredicates, final String tableAlias)
       throws ODataJPARuntimeException {
+    return parseKeyPredicates(keyPredicates, tableAlias, null);
+  }
+
+  /**
+   * This method evaluated the where expression for read of an entity based on the keys specified in the query.
+   * The key values are replaced by positional parameters; their values are added to the given map,
+   * numbered after the parameters already contained.
+   * 
+   * @param keyPredicates
+   * @param tableAlias
+   * @param positionalParameters
+   * map receiving the parameter values; if null, literals are written into the expression
+   * @return the evaluated where expression
+   */
+  public static String parseKeyPredicates(final List<KeyPredicate> keyPredicates, final String tableAlias,
+      final Map<Integer, Object> positionalParameters) throws ODataJPARuntimeException {
     String literal = null;
     String propertyName = null;
     EdmSimpleType edmSimpleType = null;
@@ -281,11 +454,16 @@ public class ODataExpressionParser {
         throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
       }
 
-      literal = evaluateComparingExpression(literal, edmSimpleType);
+      if (positionalParameters != null) {
+        literal = addParameter(positionalParameters,
+            getParameterValue(literal, EdmLiteralKind.DEFAULT, edmSimpleType, keyPredicate.getProperty()));
+      } else {
+        literal = evaluateComparingExpression(literal, edmSimpleType);
 
-      if (edmSimpleType == EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance()
-          || edmSimpleType == EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance()) {
-        literal = literal.substring(literal.indexOf('\''), literal.indexOf('}'));
+        if (edmSimpleType == EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance()
+            || edmSimpleType == EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance()) {
+          literal = literal.substring(literal.indexOf('\''), literal.indexOf('}'));
+        }
       }
 
       keyFilters.append(tableAlias + JPQLStatement.DELIMITER.PERIOD + propertyName + JPQLStatement.DELIMITER.SPACE
@@ -360,7 +538,7 @@ public class ODataExpressionParser {
 
   public static HashMap<String, String> parseKeyPropertiesToJPAOrderByExpression(
       final List<EdmProperty> edmPropertylist, final String tableAlias) throws ODataJPARuntimeException {
-    HashMap<String, String> orderByMap = new HashMap<String, String>();
+    HashMap<String, String> orderByMap = new LinkedHashMap<String, String>();
     String propertyName = null;
     for (EdmProperty edmProperty : edmPropertylist) {
       try {
@@ -24,11 +24,12 @@ import javax.persistence.EntityManagerFactory;
 import org.apache.olingo.odata2.api.edm.provider.EdmProvider;
 import org.apache.olingo.odata2.api.processor.ODataContext;
 import org.apache.olingo.odata2.api.processor.ODataProcessor;
-import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAPaging;
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
 import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmExtension;
 
-public class ODataJPAContextImpl implements ODataJPAContext {
+public class ODataJPAContextImpl implements ODataJPAKeysetPagingContext {
 
   private String pUnitName;
   private EntityManagerFactory emf;
@@ -40,6 +41,7 @@ public class ODataJPAContextImpl implements ODataJPAContext {
   private JPAEdmExtension jpaEdmExtension;
   private int pageSize = 0;
   private JPAPaging jpaPaging;
+  private JPASkipTokenFormat skipTokenFormat;
   private static final ThreadLocal<ODataContext> oDataContextThreadLocal = new ThreadLocal<ODataContext>();
   private boolean defaultNaming = true;
 
@@ -166,4 +168,14 @@ public class ODataJPAContextImpl implements ODataJPAContext {
   public JPAPaging getPaging() {
     return jpaPaging;
   }
+
+  @Override
+  public void setSkipTokenFormat(final JPASkipTokenFormat format) {
+    skipTokenFormat = format;
+  }
+
+  @Override
+  public JPASkipTokenFormat getSkipTokenFormat() {
+    return skipTokenFormat;
+  }
 }
@@ -68,6 +68,7 @@ import org.apache.olingo.odata2.jpa.processor.api.ODataJPATombstoneContext;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAPaging;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.core.access.data.JPAEntityParser;
+import org.apache.olingo.odata2.jpa.processor.core.access.data.JPAPage;
 import org.apache.olingo.odata2.jpa.processor.core.callback.JPAExpandCallBack;
 import org.apache.olingo.odata2.jpa.processor.core.callback.JPATombstoneCallBack;
 
@@ -408,7 +409,10 @@ public final class ODataJPAResponseBuilderDefault implements ODataJPAResponseBui
       }
 
       Integer count = null;
-      if (resultsView.getInlineCount() != null) {
+      if (resultsView.getInlineCount() == InlineCount.ALLPAGES && getCountedInlineCount(oDataJPAContext) != null) {
+        // counted by the database; $skip and $top have already been applied
+        count = getCountedInlineCount(oDataJPAContext);
+      } else if (resultsView.getInlineCount() != null) {
         if ((resultsView.getSkip() != null || resultsView.getTop() != null)) {
           // when $skip and/or $top is present with $inlinecount
           count = getInlineCountForNonFilterQueryLinks(edmEntityList, resultsView);
@@ -469,6 +473,24 @@ public final class ODataJPAResponseBuilderDefault implements ODataJPAResponseBui
     return count;
   }
 
+  /*
+   * Returns the skip token of the next page, which is the next page itself unless the page has been read
+   * with keyset paging
+   */
+  private static String getNextSkipToken(final JPAPaging paging) {
+    final String skipToken = paging instanceof JPAPage ? ((JPAPage) paging).getNextSkipToken() : null;
+    return skipToken != null ? skipToken : String.valueOf(paging.getNextPage());
+  }
+
+  /*
+   * Returns the number of entities counted by the database for $inlinecount=allpages
+   * or null if the entities have not been counted
+   */
+  private static Integer getCountedInlineCount(final ODataJPAContext odataJPAContext) {
+    final JPAPaging paging = odataJPAContext.getPaging();
+    return paging instanceof JPAPage ? ((JPAPage) paging).getInlineCount() : null;
+  }
+
   /*
    * Method to build the entity provider Property.Callbacks for $expand would
    * be registered here
@@ -480,7 +502,10 @@ public final class ODataJPAResponseBuilderDefault implements ODataJPAResponseBui
     ODataContext context = odataJPAContext.getODataContext();
 
     Integer count = null;
-    if (resultsView.getInlineCount() != null) {
+    if (resultsView.getInlineCount() == InlineCount.ALLPAGES && getCountedInlineCount(odataJPAContext) != null) {
+      // counted by the database; $skip and $top have already been applied
+      count = getCountedInlineCount(odataJPAContext);
+    } else if (resultsView.getInlineCount() != null) {
       if ((resultsView.getSkip() != null || resultsView.getTop() != null)) {
         // when $skip and/or $top is present with $inlinecount
         count = getInlineCountForNonFilterQueryEntitySet(edmEntityList, resultsView);
@@ -502,7 +527,8 @@ public final class ODataJPAResponseBuilderDefault implements ODataJPAResponseBui
             serviceRoot.relativize(pathInfo.getRequestUri()).toString();
         nextLink = percentEncodeNextLink(nextLink);
         nextLink += (nextLink.contains("?") ? "&" : "?")
-            + "$skiptoken=" + odataJPAContext.getPaging().getNextPage();
+            + "$skiptoken="
+            + getNextSkipToken(paging);
         entityFeedPropertiesBuilder.nextLink(nextLink);
       }
       entityFeedPropertiesBuilder.inlineCount(count);
@@ -537,8 +563,8 @@ public final class ODataJPAResponseBuilderDefault implements ODataJPAResponseBui
       return null;
     }
 
-    return link.replaceAll("\\$skiptoken=.+?(?:&|$)", "")
-        .replaceAll("\\$skip=.+?(?:&|$)", "")
+    return link.replaceAll("(?:\\$|%24)skiptoken=.+?(?:&|$)", "")
+        .replaceAll("(?:\\$|%24)skip=.+?(?:&|$)", "")
         .replaceFirst("(?:\\?|&)$", ""); // Remove potentially trailing "?" or "&" left over from remove actions
   }
 
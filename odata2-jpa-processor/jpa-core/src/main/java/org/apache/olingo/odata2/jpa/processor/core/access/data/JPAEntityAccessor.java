@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolved accessor methods of a JPA entity or embeddable class.
+ * <p>The getter and setter methods of a class are looked up once and kept
+ * accessible, so that reading and writing entities only pays for the method
+ * invocation itself. Accessors are shared between all requests; the lookup of
+ * a method that does not exist is not cached and fails with
+ * {@link NoSuchMethodException} every time.</p>
+ * <p>The classes are referenced weakly and their accessors softly, so that the accessors do not keep
+ * the class loader of an undeployed application alive if this library is loaded by a shared class loader.</p>
+ */
+public final class JPAEntityAccessor {
+
+  /** guarded by itself */
+  private static final Map<Class<?>, SoftReference<JPAEntityAccessor>> ACCESSORS =
+      new WeakHashMap<Class<?>, SoftReference<JPAEntityAccessor>>();
+
+  private final Class<?> type;
+  private final ConcurrentMap<String, Method> getters = new ConcurrentHashMap<String, Method>();
+  private final ConcurrentMap<String, Method> declaredGetters = new ConcurrentHashMap<String, Method>();
+  private final ConcurrentMap<String, Method> setters = new ConcurrentHashMap<String, Method>();
+
+  private JPAEntityAccessor(final Class<?> type) {
+    this.type = type;
+  }
+
+  /**
+   * Returns the accessor of the given class.
+   */
+  public static JPAEntityAccessor getInstance(final Class<?> type) {
+    synchronized (ACCESSORS) {
+      final SoftReference<JPAEntityAccessor> reference = ACCESSORS.get(type);
+      JPAEntityAccessor accessor = reference == null ? null : reference.get();
+      if (accessor == null) {
+        accessor = new JPAEntityAccessor(type);
+        ACCESSORS.put(type, new SoftReference<JPAEntityAccessor>(accessor));
+      }
+      return accessor;
+    }
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the public method without parameters with the given name.
+   */
+  public Method getGetter(final String methodName) throws NoSuchMethodException {
+    Method method = getters.get(methodName);
+    if (method == null) {
+      method = cache(getters, methodName, type.getMethod(methodName, (Class<?>[]) null));
+    }
+    return method;
+  }
+
+  /**
+   * Returns the method without parameters with the given name declared by the class
+   * itself, or the public one inherited from a super class.
+   */
+  public Method getDeclaredGetter(final String methodName) throws NoSuchMethodException {
+    Method method = declaredGetters.get(methodName);
+    if (method == null) {
+      Method found = null;
+      try {
+        found = type.getDeclaredMethod(methodName, (Class<?>[]) null);
+      } catch (NoSuchMethodException e) {
+        found = type.getMethod(methodName, (Class<?>[]) null);
+      }
+      method = cache(declaredGetters, methodName, found);
+    }
+    return method;
+  }
+
+  /**
+   * Returns the public method with the given name and the given single parameter type.
+   */
+  public Method getSetter(final String methodName, final Class<?> parameterType) throws NoSuchMethodException {
+    String key = methodName + '(' + parameterType.getName() + ')';
+    Method method = setters.get(key);
+    if (method == null) {
+      method = cache(setters, key, type.getMethod(methodName, new Class<?>[] { parameterType }));
+    }
+    return method;
+  }
+
+  /**
+   * Returns the public setter with the given name whose parameter type is the
+   * return type of the corresponding getter.
+   */
+  public Method getSetter(final String methodName) throws NoSuchMethodException {
+    Method method = setters.get(methodName);
+    if (method == null) {
+      String getterName = JPAEntityParser.ACCESS_MODIFIER_GET + methodName.substring(3);
+      Class<?> parameterType = getGetter(getterName).getReturnType();
+      method = cache(setters, methodName, getSetter(methodName, parameterType));
+    }
+    return method;
+  }
+
+  /**
+   * Removes the accessors of all classes, e.g. after the entity classes have been reloaded.
+   */
+  public static void clear() {
+    synchronized (ACCESSORS) {
+      ACCESSORS.clear();
+    }
+  }
+
+  private static Method cache(final ConcurrentMap<String, Method> methods, final String key, final Method method) {
+    method.setAccessible(true);
+    Method existing = methods.putIfAbsent(key, method);
+    return existing == null ? method : existing;
+  }
+}
@@ -80,7 +80,7 @@ public final class JPAEntityParser {
     if (jpaEntityList == null) {
       return null;
     }
-    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
+    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>(jpaEntityList.size());
     for (Object item : jpaEntityList) {
       edmEntityList.add(parse2EdmPropertyValueMap(item, properties));
     }
@@ -91,7 +91,7 @@ public final class JPAEntityParser {
   public final HashMap<String, Object> parse2EdmPropertyValueMap(final Object jpaEntity,
       final List<EdmProperty> selectPropertyList) throws ODataJPARuntimeException {
 
-    HashMap<String, Object> edmEntity = new HashMap<String, Object>();
+    HashMap<String, Object> edmEntity = new HashMap<String, Object>(mapCapacity(selectPropertyList.size()));
     HashMap<String, Method> accessModifierMap = null;
     Object propertyValue = null;
     String jpaEntityAccessKey = null;
@@ -116,7 +116,7 @@ public final class JPAEntityParser {
             propertyValue = getEmbeddablePropertyValue(methodName, propertyValue);
           }
         } else {
-          propertyValue = getPropertyValue(accessModifierMap.get(propertyName), propertyValue);
+          propertyValue = getPropertyValue(method, propertyValue);
         }
         if (property.getType().getKind()
             .equals(EdmTypeKind.COMPLEX)) {
@@ -141,7 +141,7 @@ public final class JPAEntityParser {
       return null;
     }
     List<EdmProperty> edmProperties = getEdmProperties(structuralType);
-    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
+    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>(jpaEntityList.size());
     for (Object jpaEntity : jpaEntityList) {
       edmEntityList.add(parse2EdmPropertyValueMap(jpaEntity, edmProperties));
     }
@@ -162,42 +162,36 @@ public final class JPAEntityParser {
       throws ODataJPARuntimeException {
     Object result = null;
     String methodName = null;
-    HashMap<String, Object> navigationMap = new HashMap<String, Object>();
-    if (navigationPropertyList != null
-        && navigationPropertyList.size() != 0) {
-
-      try {
-        for (EdmNavigationProperty navigationProperty : navigationPropertyList) {
-          methodName = getAccessModifierName(navigationProperty.getName(),
-              navigationProperty.getMapping(), ACCESS_MODIFIER_GET);
-          Method getterMethod = jpaEntity.getClass()
-              .getDeclaredMethod(methodName, (Class<?>[]) null);
-          getterMethod.setAccessible(true);
-          result = getPropertyValue(getterMethod, jpaEntity);
-          navigationMap.put(navigationProperty.getName(), result);
-        }
-      } catch (IllegalArgumentException e) {
-        throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
-      } catch (EdmException e) {
-        throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
-      } catch (SecurityException e) {
-        throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
-      } catch (NoSuchMethodException e) {
-        throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
+    if (navigationPropertyList == null || navigationPropertyList.size() == 0) {
+      return new HashMap<String, Object>();
+    }
+    HashMap<String, Object> navigationMap = new HashMap<String, Object>(mapCapacity(navigationPropertyList.size()));
+    JPAEntityAccessor accessor = JPAEntityAccessor.getInstance(jpaEntity.getClass());
+    try {
+      for (EdmNavigationProperty navigationProperty : navigationPropertyList) {
+        methodName = getAccessModifierName(navigationProperty.getName(),
+            navigationProperty.getMapping(), ACCESS_MODIFIER_GET);
+        Method getterMethod = accessor.getDeclaredGetter(methodName);
+        result = getPropertyValue(getterMethod, jpaEntity);
+        navigationMap.put(navigationProperty.getName(), result);
       }
+    } catch (IllegalArgumentException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
+    } catch (SecurityException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
+    } catch (NoSuchMethodException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
     }
     return navigationMap;
   }
 
   public Method getAccessModifierSet(final Object jpaEntity, final String methodName) throws ODataJPARuntimeException {
-    Class<?> jpaType = jpaEntity.getClass();
-    String methodNameGet = ACCESS_MODIFIER_GET + methodName.substring(3);
     Method method = null;
 
     try {
-      method = jpaType.getMethod(methodNameGet, (Class<?>[]) null);
-      Class<?> parameterType = method.getReturnType();
-      method = jpaType.getMethod(methodName, new Class<?>[] { parameterType });
+      method = JPAEntityAccessor.getInstance(jpaEntity.getClass()).getSetter(methodName);
     } catch (NoSuchMethodException e) {
       throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
     } catch (SecurityException e) {
@@ -218,13 +212,15 @@ public final class JPAEntityParser {
       return null;
     }
     try {
-      method.setAccessible(true);
+      if (!method.isAccessible()) {
+        method.setAccessible(true);
+      }
       Class<?> returnType = method.getReturnType();
 
       if (returnType.equals(char[].class)) {
         char[] ch = (char[]) method.invoke(entity);
         if (ch != null) {
-          propertyValue = (String) String.valueOf((char[]) method.invoke(entity));
+          propertyValue = (String) String.valueOf(ch);
         }
       } else if (returnType.equals(Character[].class)) {
         propertyValue = (String) toString((Character[]) method.invoke(entity));
@@ -362,8 +358,7 @@ public final class JPAEntityParser {
         if (propertyValue == null) {
           break;
         }
-        method = propertyValue.getClass().getMethod(namePart, (Class<?>[]) null);
-        method.setAccessible(true);
+        method = JPAEntityAccessor.getInstance(propertyValue.getClass()).getGetter(namePart);
         propertyValue = getPropertyValue(method, propertyValue);
       }
     } catch (NoSuchMethodException e) {
@@ -458,6 +453,7 @@ public final class JPAEntityParser {
       JPAEdmMapping navPropMapping = (JPAEdmMapping) navigationProperty.getMapping();
       String name = getAccessModifierName(navigationProperty.getName(), (EdmMapping) navPropMapping, accessModifier);
 
+      JPAEntityAccessor accessor = JPAEntityAccessor.getInstance(jpaEntityType);
       Class<?>[] params = null;
       if (accessModifier.equals(ACCESS_MODIFIER_SET)) {
         EdmAssociationEnd end = navigationProperty.getRelationship().getEnd(navigationProperty.getToRole());
@@ -471,7 +467,10 @@ public final class JPAEntityParser {
           break;
         }
       }
-      return jpaEntityType.getMethod(name, params);
+      if (params == null) {
+        return accessor.getGetter(name);
+      }
+      return accessor.getSetter(name, params[0]);
 
     } catch (NoSuchMethodException e) {
       throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
@@ -496,6 +495,7 @@ public final class JPAEntityParser {
       embeddableKey = new HashMap<String, String>();
     }
 
+    JPAEntityAccessor accessor = JPAEntityAccessor.getInstance(jpaEntityType);
     Method method = null;
     try {
       for (EdmProperty property : edmProperties) {
@@ -514,10 +514,9 @@ public final class JPAEntityParser {
           } else {
             if (accessModifier.equals(ACCESS_MODIFIER_SET)) {
               JPAEdmMapping jpaEdmMapping = (JPAEdmMapping) property.getMapping();
-              accessModifierMap.put(propertyName, jpaEntityType.getMethod(methodName,
-                  new Class<?>[] { jpaEdmMapping.getJPAType() }));
+              accessModifierMap.put(propertyName, accessor.getSetter(methodName, jpaEdmMapping.getJPAType()));
             } else {
-              method = jpaEntityType.getMethod(methodName, (Class<?>[]) null);
+              method = accessor.getGetter(methodName);
             }
           }
         } catch (EdmException exp) {
@@ -529,7 +528,7 @@ public final class JPAEntityParser {
                 && accessModifier.equals(ACCESS_MODIFIER_GET)) {
               String nameWithIs = getAccessModifierName(property.getName(),
                   property.getMapping(), ACCESS_MODIFIER_IS);
-              method = jpaEntityType.getMethod(nameWithIs, (Class<?>[]) null);
+              method = accessor.getGetter(nameWithIs);
             }
           } catch (EdmException exp) {
             throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, exp);
@@ -554,6 +553,10 @@ public final class JPAEntityParser {
     return accessModifierMap;
   }
 
+  private static int mapCapacity(final int size) {
+    return size < 3 ? 4 : (int) (size / 0.75f) + 1;
+  }
+
   private List<EdmProperty> getEdmProperties(final EdmStructuralType structuralType) throws ODataJPARuntimeException {
     List<EdmProperty> edmProperties = new ArrayList<EdmProperty>();
     try {
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockTimeoutException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
+import javax.persistence.QueryTimeoutException;
+
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmMapping;
+import org.apache.olingo.odata2.api.edm.EdmNavigationProperty;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmTypeKind;
+import org.apache.olingo.odata2.api.uri.NavigationPropertySegment;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
+
+/**
+ * Loads the navigation properties of a $expand for all entities of a result in
+ * one query per navigation level instead of one lazy load per entity.
+ * <p>For each level the keys of the parent entities are collected and a
+ * <code>LEFT JOIN FETCH</code> query restricted to these keys is executed.
+ * Since the query returns the instances already managed by the entity manager,
+ * the fetched relationships are initialized on the parent entities and reading
+ * them afterwards does not hit the database.</p>
+ * <p>Levels that cannot be loaded this way - entities with composite keys,
+ * navigation properties without JPA mapping, a fetch query rejected by the JPA provider,
+ * or a fetch query which timed out without marking the transaction for rollback - are left
+ * to the lazy loading of the JPA provider. All other persistence errors are thrown.</p>
+ */
+public class JPAExpandLoader {
+
+  /** Maximum number of keys in a single IN clause. */
+  public static final int BATCH_SIZE = 500;
+
+  private static final String ALIAS = "E1";
+  private static final String KEYS = "keys";
+
+  private final EntityManager em;
+  private final JPAEntityParser parser = new JPAEntityParser();
+
+  public JPAExpandLoader(final EntityManager em) {
+    this.em = em;
+  }
+
+  /**
+   * Loads all navigation paths of the $expand for the given entities of the given entity set.
+   */
+  public void load(final List<Object> jpaEntities, final EdmEntitySet entitySet,
+      final List<ArrayList<NavigationPropertySegment>> expandList) throws ODataJPARuntimeException {
+    if (jpaEntities == null || jpaEntities.isEmpty() || expandList == null || expandList.isEmpty()) {
+      return;
+    }
+    Set<String> loadedPaths = new HashSet<String>();
+    try {
+      for (List<NavigationPropertySegment> segments : expandList) {
+        List<Object> parents = jpaEntities;
+        EdmEntityType parentType = entitySet.getEntityType();
+        String path = "";
+        for (NavigationPropertySegment segment : segments) {
+          EdmNavigationProperty navigationProperty = segment.getNavigationProperty();
+          path = path + '/' + navigationProperty.getName();
+          if (loadedPaths.add(path)) {
+            load(parents, parentType, navigationProperty);
+          }
+          parents = getRelatedEntities(parents, navigationProperty);
+          if (parents.isEmpty()) {
+            break;
+          }
+          parentType = segment.getTargetEntitySet().getEntityType();
+        }
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    }
+  }
+
+  private void load(final List<Object> parents, final EdmEntityType parentType,
+      final EdmNavigationProperty navigationProperty) throws EdmException {
+    final EdmMapping navigationMapping = navigationProperty.getMapping();
+    final String keyAttribute = getKeyAttribute(parentType);
+    if (navigationMapping == null || navigationMapping.getInternalName() == null || keyAttribute == null) {
+      return;
+    }
+    final String jpql = "SELECT DISTINCT " + ALIAS
+        + " FROM " + getJPAEntityName(parentType) + " " + ALIAS
+        + " LEFT JOIN FETCH " + ALIAS + "." + navigationMapping.getInternalName()
+        + " WHERE " + ALIAS + "." + keyAttribute + " IN :" + KEYS;
+
+    final PersistenceUnitUtil unitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+    List<Object> keys = new ArrayList<Object>();
+    for (Object parent : parents) {
+      keys.add(unitUtil.getIdentifier(parent));
+      if (keys.size() == BATCH_SIZE) {
+        if (!fetch(jpql, keys)) {
+          return;
+        }
+        keys = new ArrayList<Object>();
+      }
+    }
+    if (!keys.isEmpty()) {
+      fetch(jpql, keys);
+    }
+  }
+
+  /**
+   * Executes the fetch query; returns <code>false</code> if the JPA provider
+   * rejects it or if it times out, in which case the relationships are loaded lazily.
+   * In both cases the current transaction can be continued: a rejected query has not been executed,
+   * and a timeout rolls back only the statement. Other {@link javax.persistence.PersistenceException}s
+   * are not caught.
+   */
+  private boolean fetch(final String jpql, final List<Object> keys) {
+    Query query;
+    try {
+      query = em.createQuery(jpql);
+      query.setParameter(KEYS, keys);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    try {
+      query.getResultList();
+      return true;
+    } catch (QueryTimeoutException e) {
+      return false;
+    } catch (LockTimeoutException e) {
+      return false;
+    }
+  }
+
+  private List<Object> getRelatedEntities(final List<Object> parents,
+      final EdmNavigationProperty navigationProperty) throws EdmException, ODataJPARuntimeException {
+    List<EdmNavigationProperty> navigationProperties = new ArrayList<EdmNavigationProperty>();
+    navigationProperties.add(navigationProperty);
+    Map<Object, Object> related = new IdentityHashMap<Object, Object>();
+    List<Object> relatedEntities = new ArrayList<Object>();
+    for (Object parent : parents) {
+      Object value =
+          parser.parse2EdmNavigationValueMap(parent, navigationProperties).get(navigationProperty.getName());
+      if (value instanceof Collection<?>) {
+        for (Object entity : (Collection<?>) value) {
+          if (entity != null && related.put(entity, entity) == null) {
+            relatedEntities.add(entity);
+          }
+        }
+      } else if (value != null && related.put(value, value) == null) {
+        relatedEntities.add(value);
+      }
+    }
+    return relatedEntities;
+  }
+
+  /** Returns the JPA attribute of the single simple key property or <code>null</code>. */
+  private static String getKeyAttribute(final EdmEntityType entityType) throws EdmException {
+    final List<EdmProperty> keyProperties = entityType.getKeyProperties();
+    if (keyProperties == null || keyProperties.size() != 1) {
+      return null;
+    }
+    final EdmProperty keyProperty = keyProperties.get(0);
+    final EdmMapping mapping = keyProperty.getMapping();
+    if (keyProperty.getType().getKind() != EdmTypeKind.SIMPLE
+        || mapping == null || mapping.getInternalName() == null || mapping.getInternalName().indexOf('.') >= 0) {
+      return null;
+    }
+    return mapping.getInternalName();
+  }
+
+  private static String getJPAEntityName(final EdmEntityType entityType) throws EdmException {
+    final EdmMapping mapping = entityType.getMapping();
+    return mapping == null ? entityType.getName() : mapping.getInternalName();
+  }
+}
@@ -31,6 +31,8 @@ public class JPAPage implements JPAPaging {
   private int startPage;
   private int nextPage;
   private List<Object> pagedEntries;
+  private String nextSkipToken;
+  private Integer inlineCount;
 
   protected JPAPage(final int startPage, final int nextPage, final List<Object> pagedEntities, final int pageSize) {
     this.pageSize = pageSize;
@@ -59,6 +61,30 @@ public class JPAPage implements JPAPaging {
     return startPage;
   }
 
+  /**
+   * @return the skip token of the next page if the page has been read with keyset paging,
+   * otherwise null and the skip token is the next page
+   */
+  public String getNextSkipToken() {
+    return nextSkipToken;
+  }
+
+  protected void setNextSkipToken(final String nextSkipToken) {
+    this.nextSkipToken = nextSkipToken;
+  }
+
+  /**
+   * @return the number of entities counted by the database for $inlinecount=allpages, in which case
+   * the paged entities are already restricted by $top and $skip, otherwise null
+   */
+  public Integer getInlineCount() {
+    return inlineCount;
+  }
+
+  protected void setInlineCount(final Integer inlineCount) {
+    this.inlineCount = inlineCount;
+  }
+
   public static class JPAPageBuilder {
 
     private int pageSize;
@@ -22,19 +22,31 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
 import javax.persistence.Query;
 
+import org.apache.olingo.odata2.api.commons.InlineCount;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmEntityType;
 import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmFacets;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmMultiplicity;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.exception.ODataBadRequestException;
 import org.apache.olingo.odata2.api.uri.UriInfo;
+import org.apache.olingo.odata2.api.uri.expression.ExpressionKind;
+import org.apache.olingo.odata2.api.uri.expression.OrderExpression;
+import org.apache.olingo.odata2.api.uri.expression.PropertyExpression;
 import org.apache.olingo.odata2.api.uri.info.DeleteUriInfo;
 import org.apache.olingo.odata2.api.uri.info.GetEntityCountUriInfo;
 import org.apache.olingo.odata2.api.uri.info.GetEntityLinkUriInfo;
@@ -46,11 +58,13 @@ import org.apache.olingo.odata2.api.uri.info.GetFunctionImportUriInfo;
 import org.apache.olingo.odata2.api.uri.info.PostUriInfo;
 import org.apache.olingo.odata2.api.uri.info.PutMergePatchUriInfo;
 import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext;
 import org.apache.olingo.odata2.jpa.processor.api.ODataJPATombstoneContext;
 import org.apache.olingo.odata2.jpa.processor.api.ODataJPATombstoneEntityListener;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAFunction;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAMethodContext;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAProcessor;
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAModelException;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext;
@@ -59,9 +73,12 @@ import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLStatement;
 import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmMapping;
 import org.apache.olingo.odata2.jpa.processor.core.ODataEntityParser;
 import org.apache.olingo.odata2.jpa.processor.core.access.data.JPAPage.JPAPageBuilder;
+import org.apache.olingo.odata2.jpa.processor.core.jpql.JPQLSelectContext;
 
 public class JPAProcessorImpl implements JPAProcessor {
 
+  private static final Pattern OFFSET_SKIP_TOKEN = Pattern.compile("-?\\d+");
+
   ODataJPAContext oDataJPAContext;
   EntityManager em;
 
@@ -148,6 +165,27 @@ public class JPAProcessorImpl implements JPAProcessor {
             uriParserResultView).build();
       }
 
+      JPAEdmMapping mapping = (JPAEdmMapping) uriParserResultView.getTargetEntitySet().getEntityType().getMapping();
+
+      // Keyset paging: the skip token holds the order by and key values of the last entity of the previous page
+      String skipToken = uriParserResultView.getSkipToken();
+      JPASkipTokenFormat skipTokenFormat = getSkipTokenFormat();
+      List<EdmProperty> seekProperties = null;
+      if (skipTokenFormat != null && oDataJPAContext.getPageSize() > 0 && contextType == JPQLContextType.SELECT
+          && jpqlContext instanceof JPQLSelectContext && mapping.getODataJPATombstoneEntityListener() == null) {
+        seekProperties = getSeekProperties(uriParserResultView);
+        if (seekProperties != null && skipToken != null && !OFFSET_SKIP_TOKEN.matcher(skipToken).matches()) {
+          List<Object> seekValues;
+          try {
+            seekValues = skipTokenFormat.parse(seekProperties, skipToken);
+          } catch (ODataJPARuntimeException e) {
+            throw invalidSkipToken(skipToken, e);
+          }
+          ((JPQLSelectContext) jpqlContext).seek(seekValues);
+          skipToken = null;
+        }
+      }
+
       JPQLStatement jpqlStatement = JPQLStatement.createBuilder(jpqlContext)
           .build();
       Map<String, String> customQueryOptions = uriParserResultView.getCustomQueryOptions();
@@ -162,29 +200,37 @@ public class JPAProcessorImpl implements JPAProcessor {
       Query query = null;
       List<Object> result = null;
 
-      JPAEdmMapping mapping = (JPAEdmMapping) uriParserResultView.getTargetEntitySet().getEntityType().getMapping();
       ODataJPATombstoneEntityListener listener = null;
       if (mapping.getODataJPATombstoneEntityListener() != null) {
         listener = (ODataJPATombstoneEntityListener) mapping.getODataJPATombstoneEntityListener().newInstance();
         query = listener.getQuery(uriParserResultView, em);
       }
       if (query == null) {
-        query = em.createQuery(jpqlStatement.toString());
+        query = createQuery(jpqlStatement);
         if (listener != null) {
           query.getResultList();
           List<Object> deltaResult =
               (List<Object>) ODataJPATombstoneContext.getDeltaResult(((EdmMapping) mapping).getInternalName());
           result = handlePaging(deltaResult, uriParserResultView);
         } else {
-          result = handlePaging(query, uriParserResultView);
+          Integer inlineCount = null;
+          if (uriParserResultView.getInlineCount() == InlineCount.ALLPAGES) {
+            long count = count(JPQLContext.createBuilder(contextType == JPQLContextType.JOIN ?
+                JPQLContextType.JOIN_COUNT : JPQLContextType.SELECT_COUNT, uriParserResultView).build());
+            inlineCount = (int) Math.min(count, Integer.MAX_VALUE);
+          }
+          result = handlePaging(query, uriParserResultView, skipToken, seekProperties, inlineCount);
         }
       } else {
-        result = handlePaging(query, uriParserResultView);
+        result = handlePaging(query, uriParserResultView, uriParserResultView.getSkipToken(), null, null);
       }
 
       // Set New Token
       if (listener != null) {
         ODataJPATombstoneContext.setDeltaToken(listener.generateDeltaToken((List<Object>) result, query));
+      } else {
+        new JPAExpandLoader(em).load(result, uriParserResultView.getTargetEntitySet(),
+            uriParserResultView.getExpand());
       }
 
       return result == null ? new ArrayList<Object>() : result;
@@ -220,29 +266,117 @@ public class JPAProcessorImpl implements JPAProcessor {
     return page.getPagedEntities();
   }
 
-  private List<Object> handlePaging(final Query query, final GetEntitySetUriInfo uriParserResultView) {
+  private List<Object> handlePaging(final Query query, final GetEntitySetUriInfo uriParserResultView,
+      final String skipToken, final List<EdmProperty> seekProperties, final Integer inlineCount)
+      throws ODataJPARuntimeException {
 
     JPAPageBuilder pageBuilder = new JPAPageBuilder();
-    pageBuilder.pageSize(oDataJPAContext.getPageSize())
-        .query(query)
-        .skipToken(uriParserResultView.getSkipToken());
+    try {
+      pageBuilder.pageSize(oDataJPAContext.getPageSize())
+          .query(query)
+          .skipToken(skipToken);
+    } catch (NumberFormatException e) {
+      throw invalidSkipToken(skipToken, e);
+    }
 
-    // $top/$skip with $inlinecount case handled in response builder to avoid multiple DB call
-    if (uriParserResultView.getSkip() != null && uriParserResultView.getInlineCount() == null) {
+    // $top/$skip are left to the response builder only if $inlinecount has not been counted by the database
+    final boolean countedInMemory = uriParserResultView.getInlineCount() == InlineCount.ALLPAGES
+        && inlineCount == null;
+    // $skip only applies to the first page; later keyset pages start after the entity in the skip token
+    final boolean seeking = seekProperties != null && skipToken == null
+        && uriParserResultView.getSkipToken() != null;
+    if (uriParserResultView.getSkip() != null && !countedInMemory && !seeking) {
       pageBuilder.skip(uriParserResultView.getSkip().intValue());
     }
 
-    if (uriParserResultView.getTop() != null && uriParserResultView.getInlineCount() == null) {
+    if (uriParserResultView.getTop() != null && !countedInMemory) {
       pageBuilder.top(uriParserResultView.getTop().intValue());
     }
 
     JPAPage page = pageBuilder.build();
+    if (seekProperties != null && page.getNextPage() > 0) {
+      page.setNextSkipToken(createSkipToken(page.getPagedEntities(), seekProperties));
+    }
+    page.setInlineCount(inlineCount);
     oDataJPAContext.setPaging(page);
 
     return page.getPagedEntities();
 
   }
 
+  private static ODataJPARuntimeException invalidSkipToken(final String skipToken, final Exception e) {
+    return ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+        .addContent("Invalid $skiptoken " + skipToken),
+        new ODataBadRequestException(ODataBadRequestException.INVALID_SYNTAX, e));
+  }
+
+  /*
+   * The properties whose values the skip token holds for keyset paging: the order by properties
+   * followed by the key properties. Returns null if the order is not suitable for keyset paging,
+   * that is if an order by property is nullable or one of the properties is not a simple attribute
+   * of the JPA entity.
+   */
+  private List<EdmProperty> getSeekProperties(final GetEntitySetUriInfo uriParserResultView) throws EdmException {
+    List<EdmProperty> seekProperties = new ArrayList<EdmProperty>();
+    Set<String> internalNames = new HashSet<String>();
+    if (uriParserResultView.getOrderBy() != null) {
+      for (OrderExpression orderExpression : uriParserResultView.getOrderBy().getOrders()) {
+        if (orderExpression.getExpression().getKind() != ExpressionKind.PROPERTY) {
+          return null;
+        }
+        EdmProperty property = (EdmProperty) ((PropertyExpression) orderExpression.getExpression()).getEdmProperty();
+        EdmFacets facets = property.getFacets();
+        if (facets == null || !Boolean.FALSE.equals(facets.isNullable()) || !isSeekable(property)) {
+          return null;
+        }
+        if (internalNames.add(property.getMapping().getInternalName())) {
+          seekProperties.add(property);
+        }
+      }
+    }
+    for (EdmProperty keyProperty : uriParserResultView.getTargetEntitySet().getEntityType().getKeyProperties()) {
+      if (!isSeekable(keyProperty)) {
+        return null;
+      }
+      if (internalNames.add(keyProperty.getMapping().getInternalName())) {
+        seekProperties.add(keyProperty);
+      }
+    }
+    return seekProperties;
+  }
+
+  private boolean isSeekable(final EdmProperty property) throws EdmException {
+    if (!(property.getMapping() instanceof JPAEdmMapping) || property.getMapping().getInternalName() == null
+        || property.getMapping().getInternalName().indexOf('.') >= 0) {
+      return false;
+    }
+    Class<?> type = ((JPAEdmMapping) property.getMapping()).getJPAType();
+    return type != null && !type.isArray() && type != char.class && type != Character.class;
+  }
+
+  /*
+   * Returns the format of the skip tokens for keyset paging or null if entity sets are paged by offset
+   */
+  private JPASkipTokenFormat getSkipTokenFormat() {
+    return oDataJPAContext instanceof ODataJPAKeysetPagingContext ?
+        ((ODataJPAKeysetPagingContext) oDataJPAContext).getSkipTokenFormat() : null;
+  }
+
+  private String createSkipToken(final List<Object> pagedEntities, final List<EdmProperty> seekProperties)
+      throws ODataJPARuntimeException {
+    Object lastEntity = pagedEntities.get(pagedEntities.size() - 1);
+    Map<String, Object> lastValues = new JPAEntityParser().parse2EdmPropertyValueMap(lastEntity, seekProperties);
+    List<Object> values = new ArrayList<Object>(seekProperties.size());
+    try {
+      for (EdmProperty property : seekProperties) {
+        values.add(lastValues.get(property.getName()));
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.INNER_EXCEPTION, e);
+    }
+    return getSkipTokenFormat().format(seekProperties, values);
+  }
+
   /* Process Get Entity Request (Read) */
   @Override
   public <T> Object process(GetEntityUriInfo uriParserResultView)
@@ -264,7 +398,12 @@ public class JPAProcessorImpl implements JPAProcessor {
           ODataJPARuntimeException.GENERAL, e);
     }
 
-    return readEntity(uriParserResultView, contextType);
+    Object selectedObject = readEntity(uriParserResultView, contextType);
+    if (selectedObject != null) {
+      new JPAExpandLoader(em).load(Collections.singletonList(selectedObject),
+          uriParserResultView.getTargetEntitySet(), uriParserResultView.getExpand());
+    }
+    return selectedObject;
   }
 
   /* Process $count for Get Entity Set Request */
@@ -285,24 +424,7 @@ public class JPAProcessorImpl implements JPAProcessor {
           ODataJPARuntimeException.GENERAL, e);
     }
 
-    JPQLContext jpqlContext = JPQLContext.createBuilder(contextType,
-        resultsView).build();
-
-    JPQLStatement jpqlStatement = JPQLStatement.createBuilder(jpqlContext)
-        .build();
-    Query query = null;
-    try {
-
-      query = em.createQuery(jpqlStatement.toString());
-      List<?> resultList = query.getResultList();
-      if (resultList != null && resultList.size() == 1) {
-        return Long.valueOf(resultList.get(0).toString());
-      }
-    } catch (IllegalArgumentException e) {
-      throw ODataJPARuntimeException.throwException(
-          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
-    }
-    return 0;
+    return count(JPQLContext.createBuilder(contextType, resultsView).build());
   }
 
   /* Process $count for Get Entity Request */
@@ -322,25 +444,7 @@ public class JPAProcessorImpl implements JPAProcessor {
           ODataJPARuntimeException.GENERAL, e);
     }
 
-    JPQLContext jpqlContext = JPQLContext.createBuilder(contextType,
-        resultsView).build();
-
-    JPQLStatement jpqlStatement = JPQLStatement.createBuilder(jpqlContext)
-        .build();
-    Query query = null;
-    try {
-
-      query = em.createQuery(jpqlStatement.toString());
-      List<?> resultList = query.getResultList();
-      if (resultList != null && resultList.size() == 1) {
-        return Long.valueOf(resultList.get(0).toString());
-      }
-    } catch (IllegalArgumentException e) {
-      throw ODataJPARuntimeException.throwException(
-          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
-    }
-
-    return 0;
+    return count(JPQLContext.createBuilder(contextType, resultsView).build());
   }
 
   /* Process Create Entity Request */
@@ -528,6 +632,28 @@ public class JPAProcessorImpl implements JPAProcessor {
     link.save();
   }
 
+  /* Executes the count query of the given context; only the number is transferred from the database */
+  private long count(final JPQLContext jpqlContext) throws ODataJPARuntimeException {
+    JPQLStatement jpqlStatement = JPQLStatement.createBuilder(jpqlContext).build();
+    try {
+      Object result = createQuery(jpqlStatement).getSingleResult();
+      return result == null ? 0 : Long.valueOf(result.toString());
+    } catch (NoResultException e) {
+      return 0;
+    } catch (IllegalArgumentException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
+    }
+  }
+
+  private Query createQuery(final JPQLStatement jpqlStatement) {
+    Query query = em.createQuery(jpqlStatement.toString());
+    for (Map.Entry<Integer, Object> parameter : jpqlStatement.getPositionalParameters().entrySet()) {
+      query.setParameter(parameter.getKey(), parameter.getValue());
+    }
+    return query;
+  }
+
   /* Common method for Read and Delete */
   private Object readEntity(final Object uriParserResultView, final JPQLContextType contextType)
       throws ODataJPAModelException, ODataJPARuntimeException {
@@ -544,7 +670,7 @@ public class JPAProcessorImpl implements JPAProcessor {
           selectJPQLContext).build();
       Query query = null;
       try {
-        query = em.createQuery(selectJPQLStatement.toString());
+        query = createQuery(selectJPQLStatement);
         if (!query.getResultList().isEmpty()) {
           selectedObject = query.getResultList().get(0);
         }
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmLiteralKind;
+import org.apache.olingo.odata2.api.edm.EdmMapping;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleType;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
+import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmMapping;
+import org.apache.olingo.odata2.jpa.processor.core.ODataExpressionParser;
+
+/**
+ * Default format of skip tokens for keyset paging. The values are written as
+ * EDM literals separated by commas; the UTF-8 encoding of the list, preceded by
+ * a version byte, is Base64 encoded with the URL safe alphabet and without padding.
+ * Due to the version byte a skip token always starts with the letter <code>A</code>.
+ */
+public class JPASkipTokenFormatDefault implements JPASkipTokenFormat {
+
+  private static final byte VERSION = 1;
+  private static final String CHARSET = "UTF-8";
+  private static final char SEPARATOR = ',';
+  private static final char ESCAPE = '\\';
+  private static final EdmSimpleType BINARY = EdmSimpleTypeKind.Binary.getEdmSimpleTypeInstance();
+
+  @Override
+  public String format(final List<EdmProperty> properties, final List<Object> values)
+      throws ODataJPARuntimeException {
+    if (properties.size() != values.size()) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+          .addContent("Number of skip token values does not match the properties"), null);
+    }
+    StringBuilder builder = new StringBuilder();
+    try {
+      for (int i = 0; i < properties.size(); i++) {
+        EdmProperty property = properties.get(i);
+        Object value = values.get(i);
+        if (value == null) {
+          throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+              .addContent("Skip token value of property " + property.getName() + " is null"), null);
+        }
+        if (i > 0) {
+          builder.append(SEPARATOR);
+        }
+        String literal = ((EdmSimpleType) property.getType()).valueToString(value, EdmLiteralKind.DEFAULT,
+            property.getFacets());
+        for (int j = 0; j < literal.length(); j++) {
+          char c = literal.charAt(j);
+          if (c == SEPARATOR || c == ESCAPE) {
+            builder.append(ESCAPE);
+          }
+          builder.append(c);
+        }
+      }
+      byte[] text = builder.toString().getBytes(CHARSET);
+      byte[] token = new byte[text.length + 1];
+      token[0] = VERSION;
+      System.arraycopy(text, 0, token, 1, text.length);
+      return toURLSafe(BINARY.valueToString(token, EdmLiteralKind.DEFAULT, null));
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    } catch (UnsupportedEncodingException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    }
+  }
+
+  @Override
+  public List<Object> parse(final List<EdmProperty> properties, final String skipToken)
+      throws ODataJPARuntimeException {
+    try {
+      byte[] token = BINARY.valueOfString(fromURLSafe(skipToken), EdmLiteralKind.DEFAULT, null, byte[].class);
+      if (token.length == 0 || token[0] != VERSION) {
+        throw invalid(skipToken, null);
+      }
+      List<String> literals = split(new String(token, 1, token.length - 1, CHARSET));
+      if (literals.size() != properties.size()) {
+        throw invalid(skipToken, null);
+      }
+      List<Object> values = new ArrayList<Object>(literals.size());
+      for (int i = 0; i < literals.size(); i++) {
+        EdmProperty property = properties.get(i);
+        EdmSimpleType type = (EdmSimpleType) property.getType();
+        values.add(ODataExpressionParser.getJPAValue(literals.get(i), EdmLiteralKind.DEFAULT,
+            property.getFacets(), type, getJPAType(property)));
+      }
+      return values;
+    } catch (EdmException e) {
+      throw invalid(skipToken, e);
+    } catch (ClassCastException e) {
+      throw invalid(skipToken, e);
+    } catch (UnsupportedEncodingException e) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    }
+  }
+
+  private static ODataJPARuntimeException invalid(final String skipToken, final Exception e) {
+    return ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+        .addContent("Invalid $skiptoken " + skipToken), e);
+  }
+
+  private static List<String> split(final String text) {
+    List<String> literals = new ArrayList<String>();
+    StringBuilder literal = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == ESCAPE && i + 1 < text.length()) {
+        literal.append(text.charAt(++i));
+      } else if (c == SEPARATOR) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+      } else {
+        literal.append(c);
+      }
+    }
+    literals.add(literal.toString());
+    return literals;
+  }
+
+  private static Class<?> getJPAType(final EdmProperty property) throws EdmException {
+    EdmMapping mapping = property.getMapping();
+    return mapping instanceof JPAEdmMapping ? ((JPAEdmMapping) mapping).getJPAType() : null;
+  }
+
+  private static String toURLSafe(final String base64) {
+    int end = base64.length();
+    while (end > 0 && base64.charAt(end - 1) == '=') {
+      end--;
+    }
+    return base64.substring(0, end).replace('+', '-').replace('/', '_');
+  }
+
+  private static String fromURLSafe(final String token) {
+    StringBuilder base64 = new StringBuilder(token.replace('-', '+').replace('_', '/'));
+    while (base64.length() % 4 != 0) {
+      base64.append('=');
+    }
+    return base64.toString();
+  }
+}
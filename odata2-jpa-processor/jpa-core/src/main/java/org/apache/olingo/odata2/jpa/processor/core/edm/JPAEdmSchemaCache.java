@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.edm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.olingo.odata2.api.edm.provider.Schema;
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAModelException;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
+import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
+import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmExtension;
+import org.apache.olingo.odata2.jpa.processor.api.model.JPAEdmModelView;
+
+/**
+ * Cache of the EDM schemas built from the JPA metamodel.
+ * <p>Schemas are built once per entity manager factory, persistence unit, mapping model, naming mode
+ * and class of the JPA EDM extension, and are shared between all requests; they must not be modified.
+ * Entity manager factories are held weakly, so their schemas are dropped together with them.</p>
+ */
+public class JPAEdmSchemaCache {
+
+  private static final JPAEdmSchemaCache INSTANCE = new JPAEdmSchemaCache();
+
+  private final Map<EntityManagerFactory, Map<Key, List<Schema>>> entries =
+      new WeakHashMap<EntityManagerFactory, Map<Key, List<Schema>>>();
+
+  public static JPAEdmSchemaCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the schemas for the given context, building them from the JPA metamodel
+   * if they have not been built yet.
+   */
+  public List<Schema> getSchemas(final ODataJPAContext context) throws ODataJPAModelException,
+      ODataJPARuntimeException {
+    final EntityManagerFactory emf = context.getEntityManagerFactory();
+    final Key key = new Key(context);
+    List<Schema> schemas = get(emf, key);
+    if (schemas == null) {
+      JPAEdmModelView jpaEdmModel =
+          ODataJPAFactory.createFactory().getJPAAccessFactory().getJPAEdmModelView(context);
+      jpaEdmModel.getBuilder().build();
+      List<Schema> builtSchemas = new ArrayList<Schema>();
+      builtSchemas.add(jpaEdmModel.getEdmSchemaView().getEdmSchema());
+      schemas = put(emf, key, Collections.unmodifiableList(builtSchemas));
+    }
+    return schemas;
+  }
+
+  /**
+   * Discards the schemas built for the given entity manager factory;
+   * they are built again on their next use.
+   */
+  public synchronized void refresh(final EntityManagerFactory emf) {
+    entries.remove(emf);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    int size = 0;
+    for (Map<Key, List<Schema>> schemas : entries.values()) {
+      size += schemas.size();
+    }
+    return size;
+  }
+
+  private synchronized List<Schema> get(final EntityManagerFactory emf, final Key key) {
+    final Map<Key, List<Schema>> schemas = entries.get(emf);
+    return schemas == null ? null : schemas.get(key);
+  }
+
+  /** Stores the schemas unless another thread has been faster; returns the stored ones. */
+  private synchronized List<Schema> put(final EntityManagerFactory emf, final Key key, final List<Schema> schemas) {
+    Map<Key, List<Schema>> emfSchemas = entries.get(emf);
+    if (emfSchemas == null) {
+      emfSchemas = new HashMap<Key, List<Schema>>();
+      entries.put(emf, emfSchemas);
+    }
+    final List<Schema> existing = emfSchemas.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    emfSchemas.put(key, schemas);
+    return schemas;
+  }
+
+  private static final class Key {
+    private final String pUnitName;
+    private final String mappingModel;
+    private final boolean defaultNaming;
+    private final Class<? extends JPAEdmExtension> extensionClass;
+
+    private Key(final ODataJPAContext context) {
+      pUnitName = context.getPersistenceUnitName();
+      mappingModel = context.getJPAEdmMappingModel();
+      defaultNaming = context.getDefaultNaming();
+      extensionClass = context.getJPAEdmExtension() == null ? null : context.getJPAEdmExtension().getClass();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return equal(pUnitName, other.pUnitName)
+          && equal(mappingModel, other.mappingModel)
+          && defaultNaming == other.defaultNaming
+          && extensionClass == other.extensionClass;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = pUnitName == null ? 0 : pUnitName.hashCode();
+      result = 31 * result + (mappingModel == null ? 0 : mappingModel.hashCode());
+      result = 31 * result + (defaultNaming ? 1 : 0);
+      return 31 * result + (extensionClass == null ? 0 : extensionClass.hashCode());
+    }
+
+    private static boolean equal(final Object o1, final Object o2) {
+      return o1 == null ? o2 == null : o1.equals(o2);
+    }
+  }
+}
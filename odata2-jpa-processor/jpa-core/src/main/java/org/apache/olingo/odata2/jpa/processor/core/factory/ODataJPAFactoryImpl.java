@@ -27,11 +27,13 @@ import org.apache.olingo.odata2.jpa.processor.api.ODataJPAResponseBuilder;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAEdmMappingModelAccess;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAMethodContext.JPAMethodContextBuilder;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAProcessor;
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAMessageService;
 import org.apache.olingo.odata2.jpa.processor.api.factory.JPAAccessFactory;
 import org.apache.olingo.odata2.jpa.processor.api.factory.JPQLBuilderFactory;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAAccessFactory;
 import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAFactory;
+import org.apache.olingo.odata2.jpa.processor.api.factory.ODataJPAEdmRefresh;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext.JPQLContextBuilder;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextType;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextView;
@@ -42,7 +44,9 @@ import org.apache.olingo.odata2.jpa.processor.core.ODataJPAProcessorDefault;
 import org.apache.olingo.odata2.jpa.processor.core.ODataJPAResponseBuilderDefault;
 import org.apache.olingo.odata2.jpa.processor.core.access.data.JPAFunctionContext;
 import org.apache.olingo.odata2.jpa.processor.core.access.data.JPAProcessorImpl;
+import org.apache.olingo.odata2.jpa.processor.core.access.data.JPASkipTokenFormatDefault;
 import org.apache.olingo.odata2.jpa.processor.core.access.model.JPAEdmMappingModelService;
+import org.apache.olingo.odata2.jpa.processor.core.edm.JPAEdmSchemaCache;
 import org.apache.olingo.odata2.jpa.processor.core.edm.ODataJPAEdmProvider;
 import org.apache.olingo.odata2.jpa.processor.core.exception.ODataJPAMessageServiceDefault;
 import org.apache.olingo.odata2.jpa.processor.core.jpql.JPQLJoinSelectContext;
@@ -72,6 +76,11 @@ public class ODataJPAFactoryImpl extends ODataJPAFactory {
     return ODataJPAAccessFactoryImpl.create();
   };
 
+  @Override
+  public JPASkipTokenFormat createJPASkipTokenFormat() {
+    return new JPASkipTokenFormatDefault();
+  }
+
   private static class JPQLBuilderFactoryImpl implements JPQLBuilderFactory {
 
     private static JPQLBuilderFactoryImpl factory = null;
@@ -163,7 +172,7 @@ public class ODataJPAFactoryImpl extends ODataJPAFactory {
 
   }
 
-  private static class ODataJPAAccessFactoryImpl implements ODataJPAAccessFactory {
+  private static class ODataJPAAccessFactoryImpl implements ODataJPAAccessFactory, ODataJPAEdmRefresh {
 
     private static ODataJPAAccessFactoryImpl factory = null;
 
@@ -179,6 +188,11 @@ public class ODataJPAFactoryImpl extends ODataJPAFactory {
       return new ODataJPAEdmProvider(oDataJPAContext);
     }
 
+    @Override
+    public void refreshJPAEdmProvider(final ODataJPAContext oDataJPAContext) {
+      JPAEdmSchemaCache.getInstance().refresh(oDataJPAContext.getEntityManagerFactory());
+    }
+
     @Override
     public ODataJPAContext createODataJPAContext() {
       return new ODataJPAContextImpl();
@@ -93,7 +93,8 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements JPQLJoin
       JPAJoinClause jpaOuterJoinClause = null;
       String joinCondition = null;
       String entityAlias = generateJPAEntityAlias();
-      joinCondition = ODataExpressionParser.parseKeyPredicates(entitySetView.getKeyPredicates(), entityAlias);
+      joinCondition = ODataExpressionParser.parseKeyPredicates(entitySetView.getKeyPredicates(), entityAlias,
+          getParameters());
 
       EdmEntityType entityType = entitySetView.getStartEntitySet().getEntityType();
       Mapping mapping = (Mapping) entityType.getMapping();
@@ -116,7 +117,8 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements JPQLJoin
         String relationShipAlias = generateRelationShipAlias();
 
         joinCondition =
-            ODataExpressionParser.parseKeyPredicates(navigationSegment.getKeyPredicates(), relationShipAlias);
+            ODataExpressionParser.parseKeyPredicates(navigationSegment.getKeyPredicates(), relationShipAlias,
+                getParameters());
 
         jpaOuterJoinClause =
             new JPAJoinClause(getFromEntityName(navigationProperty), entityAlias,
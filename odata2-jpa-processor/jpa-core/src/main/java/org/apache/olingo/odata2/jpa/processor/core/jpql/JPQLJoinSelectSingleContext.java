@@ -76,7 +76,8 @@ public class JPQLJoinSelectSingleContext extends JPQLSelectSingleContext impleme
       JPAJoinClause jpaOuterJoinClause = null;
       String joinCondition = null;
       String entityAlias = generateJPAEntityAlias();
-      joinCondition = ODataExpressionParser.parseKeyPredicates(entityView.getKeyPredicates(), entityAlias);
+      joinCondition = ODataExpressionParser.parseKeyPredicates(entityView.getKeyPredicates(), entityAlias,
+          getParameters());
 
       EdmEntityType entityType = entityView.getStartEntitySet().getEntityType();
       Mapping mapping = (Mapping) entityType.getMapping();
@@ -99,7 +100,8 @@ public class JPQLJoinSelectSingleContext extends JPQLSelectSingleContext impleme
         String relationShipAlias = generateRelationShipAlias();
 
         joinCondition =
-            ODataExpressionParser.parseKeyPredicates(navigationSegment.getKeyPredicates(), relationShipAlias);
+            ODataExpressionParser.parseKeyPredicates(navigationSegment.getKeyPredicates(), relationShipAlias,
+                getParameters());
 
         jpaOuterJoinClause =
             new JPAJoinClause(getFromEntityName(navigationProperty), entityAlias,
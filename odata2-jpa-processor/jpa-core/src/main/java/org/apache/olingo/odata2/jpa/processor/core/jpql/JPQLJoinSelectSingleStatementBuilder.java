@@ -38,7 +38,7 @@ public class JPQLJoinSelectSingleStatementBuilder extends JPQLStatementBuilder {
 
   @Override
   public JPQLStatement build() throws ODataJPARuntimeException {
-    jpqlStatement = createStatement(createJPQLQuery());
+    jpqlStatement = createStatement(createJPQLQuery(), getParameters(context));
     return jpqlStatement;
 
   }
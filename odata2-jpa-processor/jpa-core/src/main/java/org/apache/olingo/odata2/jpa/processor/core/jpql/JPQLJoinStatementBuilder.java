@@ -41,7 +41,7 @@ public class JPQLJoinStatementBuilder extends JPQLStatementBuilder {
 
   @Override
   public JPQLStatement build() throws ODataJPARuntimeException {
-    jpqlStatement = createStatement(createJPQLQuery());
+    jpqlStatement = createStatement(createJPQLQuery(), getParameters(context));
     return jpqlStatement;
 
   }
@@ -118,7 +118,8 @@ public class JPQLJoinStatementBuilder extends JPQLStatementBuilder {
 
     }
 
-    if (context.getOrderByCollection() != null && context.getOrderByCollection().size() > 0) {
+    if (!context.getType().equals(JPQLContextType.JOIN_COUNT)
+        && context.getOrderByCollection() != null && context.getOrderByCollection().size() > 0) {
 
       StringBuilder orderByBuilder = new StringBuilder();
       Iterator<Entry<String, String>> orderItr = context.getOrderByCollection().entrySet().iterator();
@@ -18,7 +18,11 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.jpa.processor.core.jpql;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.olingo.odata2.api.edm.EdmEntityType;
 import org.apache.olingo.odata2.api.edm.EdmException;
@@ -30,6 +34,7 @@ import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeExcep
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextType;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLSelectContextView;
+import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLStatement;
 import org.apache.olingo.odata2.jpa.processor.core.ODataExpressionParser;
 
 public class JPQLSelectContext extends JPQLContext implements JPQLSelectContextView {
@@ -40,6 +45,9 @@ public class JPQLSelectContext extends JPQLContext implements JPQLSelectContextV
 
   protected boolean isCountOnly = false;// Support for $count
 
+  private static final String DESCENDING = "DESC"; //$NON-NLS-1$
+  private static final String PARAMETER = "?"; //$NON-NLS-1$
+
   public JPQLSelectContext(final boolean isCountOnly) {
     this.isCountOnly = isCountOnly;
   }
@@ -71,6 +79,57 @@ public class JPQLSelectContext extends JPQLContext implements JPQLSelectContextV
     return whereCondition;
   }
 
+  /**
+   * Restricts the selection to the entities that follow the given values in the order
+   * of the order by clause (keyset paging). The values correspond to the fields of the
+   * order by clause in their order; they are bound as positional parameters.
+   */
+  public final void seek(final List<Object> values) throws ODataJPARuntimeException {
+    if (orderByCollection == null || values == null || values.size() != orderByCollection.size()) {
+      throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+          .addContent("Seek values do not match the order by clause"), null);
+    }
+    List<String> fields = new ArrayList<String>(orderByCollection.size());
+    List<String> operators = new ArrayList<String>(orderByCollection.size());
+    for (Entry<String, String> orderBy : orderByCollection.entrySet()) {
+      fields.add(orderBy.getKey());
+      operators.add(DESCENDING.equals(orderBy.getValue()) ? JPQLStatement.Operator.LT : JPQLStatement.Operator.GT);
+    }
+    List<String> positions = new ArrayList<String>(values.size());
+    for (Object value : values) {
+      int position = parameters.size() + 1;
+      parameters.put(position, value);
+      positions.add(PARAMETER + position);
+    }
+
+    // (f1 > ?1) OR (f1 = ?1 AND f2 > ?2) OR ...
+    StringBuilder condition = new StringBuilder();
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        condition.append(JPQLStatement.DELIMITER.SPACE).append(JPQLStatement.Operator.OR)
+            .append(JPQLStatement.DELIMITER.SPACE);
+      }
+      condition.append(JPQLStatement.DELIMITER.PARENTHESIS_LEFT);
+      for (int j = 0; j < i; j++) {
+        condition.append(fields.get(j)).append(JPQLStatement.DELIMITER.SPACE).append(JPQLStatement.Operator.EQ)
+            .append(JPQLStatement.DELIMITER.SPACE).append(positions.get(j)).append(JPQLStatement.DELIMITER.SPACE)
+            .append(JPQLStatement.Operator.AND).append(JPQLStatement.DELIMITER.SPACE);
+      }
+      condition.append(fields.get(i)).append(JPQLStatement.DELIMITER.SPACE).append(operators.get(i))
+          .append(JPQLStatement.DELIMITER.SPACE).append(positions.get(i))
+          .append(JPQLStatement.DELIMITER.PARENTHESIS_RIGHT);
+    }
+
+    if (whereCondition == null) {
+      whereCondition = condition.toString();
+    } else {
+      whereCondition = JPQLStatement.DELIMITER.PARENTHESIS_LEFT + whereCondition
+          + JPQLStatement.DELIMITER.PARENTHESIS_RIGHT + JPQLStatement.DELIMITER.SPACE + JPQLStatement.Operator.AND
+          + JPQLStatement.DELIMITER.SPACE + JPQLStatement.DELIMITER.PARENTHESIS_LEFT + condition
+          + JPQLStatement.DELIMITER.PARENTHESIS_RIGHT;
+    }
+  }
+
   public class JPQLSelectContextBuilder extends
       org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext.JPQLContextBuilder {
 
@@ -138,7 +197,19 @@ public class JPQLSelectContext extends JPQLContext implements JPQLSelectContextV
 
       if (entitySetView.getOrderBy() != null) {
 
-        return ODataExpressionParser.parseToJPAOrderByExpression(entitySetView.getOrderBy(), getJPAEntityAlias());
+        HashMap<String, String> orderByMap =
+            ODataExpressionParser.parseToJPAOrderByExpression(entitySetView.getOrderBy(), getJPAEntityAlias());
+        if (pagingRequested) {
+          // the keys make the order unique, so that the pages neither overlap nor leave gaps
+          Map<String, String> keyOrderByMap = ODataExpressionParser.parseKeyPropertiesToJPAOrderByExpression(
+              entitySetView.getTargetEntitySet().getEntityType().getKeyProperties(), getJPAEntityAlias());
+          for (Entry<String, String> keyOrderBy : keyOrderByMap.entrySet()) {
+            if (!orderByMap.containsKey(keyOrderBy.getKey())) {
+              orderByMap.put(keyOrderBy.getKey(), keyOrderBy.getValue());
+            }
+          }
+        }
+        return orderByMap;
 
       } else if (entitySetView.getTop() != null || entitySetView.getSkip() != null ||
           pagingRequested == true) {
@@ -156,7 +227,8 @@ public class JPQLSelectContext extends JPQLContext implements JPQLSelectContextV
      */
     protected String generateWhereExpression() throws ODataException {
       if (entitySetView.getFilter() != null) {
-        return ODataExpressionParser.parseToJPAWhereExpression(entitySetView.getFilter(), getJPAEntityAlias());
+        return ODataExpressionParser.parseToJPAWhereExpression(entitySetView.getFilter(), getJPAEntityAlias(),
+            getParameters());
       }
       return null;
     }
@@ -18,6 +18,9 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.jpa.processor.core.jpql;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextView;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLSelectSingleContextView;
@@ -29,6 +32,7 @@ public class JPQLSelectSingleStatementBuilder extends JPQLStatementBuilder {
 
   JPQLStatement jpqlStatement;
   private JPQLSelectSingleContextView context;
+  private Map<Integer, Object> parameters;
 
   public JPQLSelectSingleStatementBuilder(final JPQLContextView context) {
     this.context = (JPQLSelectSingleContextView) context;
@@ -36,13 +40,16 @@ public class JPQLSelectSingleStatementBuilder extends JPQLStatementBuilder {
 
   @Override
   public JPQLStatement build() throws ODataJPARuntimeException {
-    jpqlStatement = createStatement(createJPQLQuery());
+    final String query = createJPQLQuery();
+    jpqlStatement = createStatement(query, parameters);
     return jpqlStatement;
 
   }
 
   private String createJPQLQuery() throws ODataJPARuntimeException {
 
+    parameters = getParameters(context) == null ?
+        new HashMap<Integer, Object>() : new HashMap<Integer, Object>(getParameters(context));
     StringBuilder jpqlQuery = new StringBuilder();
     String tableAlias = context.getJPAEntityAlias();
     String fromClause = context.getJPAEntityName() + JPQLStatement.DELIMITER.SPACE + tableAlias;
@@ -56,7 +63,7 @@ public class JPQLSelectSingleStatementBuilder extends JPQLStatementBuilder {
       jpqlQuery.append(JPQLStatement.DELIMITER.SPACE);
       jpqlQuery.append(JPQLStatement.KEYWORD.WHERE).append(JPQLStatement.DELIMITER.SPACE);
       jpqlQuery.append(ODataExpressionParser
-          .parseKeyPredicates(context.getKeyPredicates(), context.getJPAEntityAlias()));
+          .parseKeyPredicates(context.getKeyPredicates(), context.getJPAEntityAlias(), parameters));
     }
 
     return jpqlQuery.toString();
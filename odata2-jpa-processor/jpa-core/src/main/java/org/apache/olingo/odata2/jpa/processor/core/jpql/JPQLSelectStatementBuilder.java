@@ -39,7 +39,7 @@ public class JPQLSelectStatementBuilder extends JPQLStatementBuilder {
 
   @Override
   public JPQLStatement build() throws ODataJPARuntimeException {
-    jpqlStatement = createStatement(createJPQLQuery());
+    jpqlStatement = createStatement(createJPQLQuery(), getParameters(context));
     return jpqlStatement;
 
   }
@@ -69,7 +69,8 @@ public class JPQLSelectStatementBuilder extends JPQLStatementBuilder {
       jpqlQuery.append(context.getWhereExpression());
     }
 
-    if (context.getOrderByCollection() != null && context.getOrderByCollection().size() > 0) {
+    if (!context.getType().equals(JPQLContextType.SELECT_COUNT)
+        && context.getOrderByCollection() != null && context.getOrderByCollection().size() > 0) {
 
       StringBuilder orderByBuilder = new StringBuilder();
       Iterator<Entry<String, String>> orderItr = context.getOrderByCollection().entrySet().iterator();
@@ -22,7 +22,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmFacets;
@@ -498,6 +500,39 @@ public class ODataExpressionParserTest {
     assertEquals(EXPECTED_STR_8, str);
   }
 
+  @Test
+  public void testParseKeyPredicatesToParameters() throws EdmException, ODataJPARuntimeException {
+    KeyPredicate keyPredicate1 = EasyMock.createMock(KeyPredicate.class);
+    EdmProperty kpProperty1 = EasyMock.createMock(EdmProperty.class);
+    EdmMapping edmMapping1 = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(keyPredicate1.getLiteral()).andStubReturn("1");
+    EasyMock.expect(keyPredicate1.getProperty()).andStubReturn(kpProperty1);
+    EasyMock.expect(kpProperty1.getType()).andStubReturn(EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance());
+    EasyMock.expect(kpProperty1.getMapping()).andStubReturn(edmMapping1);
+    EasyMock.expect(edmMapping1.getInternalName()).andStubReturn(SAMPLE_DATA_FIELD1);
+    KeyPredicate keyPredicate2 = EasyMock.createMock(KeyPredicate.class);
+    EdmProperty kpProperty2 = EasyMock.createMock(EdmProperty.class);
+    EdmMapping edmMapping2 = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(keyPredicate2.getLiteral()).andStubReturn("abc");
+    EasyMock.expect(keyPredicate2.getProperty()).andStubReturn(kpProperty2);
+    EasyMock.expect(kpProperty2.getType()).andStubReturn(EdmSimpleTypeKind.String.getEdmSimpleTypeInstance());
+    EasyMock.expect(kpProperty2.getMapping()).andStubReturn(edmMapping2);
+    EasyMock.expect(edmMapping2.getInternalName()).andStubReturn(SAMPLE_DATA_FIELD2);
+    EasyMock.replay(keyPredicate1, kpProperty1, edmMapping1, keyPredicate2, kpProperty2, edmMapping2);
+
+    List<KeyPredicate> keyPredicates = new ArrayList<KeyPredicate>();
+    keyPredicates.add(keyPredicate1);
+    keyPredicates.add(keyPredicate2);
+    Map<Integer, Object> parameters = new HashMap<Integer, Object>();
+    parameters.put(1, "existing");
+
+    assertEquals("gwt1.field1 = ?2 AND gwt1.field2 = ?3",
+        ODataExpressionParser.parseKeyPredicates(keyPredicates, TABLE_ALIAS, parameters));
+    assertEquals(3, parameters.size());
+    assertEquals(Integer.valueOf(1), parameters.get(2));
+    assertEquals("abc", parameters.get(3));
+  }
+
   @Test
   public void testParseToJPASelectExpression() {
 
@@ -373,7 +373,7 @@ public class ODataJPAProcessorDefaultTest extends JPAEdmTestModelView {
 
   private Query getQueryForSelectCount() {
     Query query = EasyMock.createMock(Query.class);
-    EasyMock.expect(query.getResultList()).andStubReturn(getResultListForSelectCount());
+    EasyMock.expect(query.getSingleResult()).andStubReturn(Long.valueOf(11));
     EasyMock.replay(query);
     return query;
   }
@@ -384,12 +384,6 @@ public class ODataJPAProcessorDefaultTest extends JPAEdmTestModelView {
     return list;
   }
 
-  private List<?> getResultListForSelectCount() {
-    List<Object> list = new ArrayList<Object>();
-    list.add(new Long(11));
-    return list;
-  }
-
   class Address {
     private String soId = "12";
 
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.apache.olingo.odata2.jpa.processor.core.mock.data.SalesOrderHeader;
+import org.junit.Test;
+
+public class JPAEntityAccessorTest {
+
+  @Test
+  public void accessorsAreResolvedOncePerClass() throws Exception {
+    JPAEntityAccessor accessor = JPAEntityAccessor.getInstance(SalesOrderHeader.class);
+    assertSame(accessor, JPAEntityAccessor.getInstance(SalesOrderHeader.class));
+
+    Method getter = accessor.getGetter("getDescription");
+    assertSame(getter, accessor.getGetter("getDescription"));
+    assertTrue(getter.isAccessible());
+    assertEquals("first", getter.invoke(new SalesOrderHeader(1, "first")));
+  }
+
+  @Test
+  public void setterParameterTypeIsTakenFromGetter() throws Exception {
+    JPAEntityAccessor accessor = JPAEntityAccessor.getInstance(SalesOrderHeader.class);
+    Method setter = accessor.getSetter("setId");
+    assertEquals(int.class, setter.getParameterTypes()[0]);
+    assertSame(setter, accessor.getSetter("setId", int.class));
+
+    SalesOrderHeader header = new SalesOrderHeader();
+    setter.invoke(header, 5);
+    assertEquals(5, header.getId());
+  }
+
+  @Test(expected = NoSuchMethodException.class)
+  public void missingMethodIsReported() throws Exception {
+    JPAEntityAccessor.getInstance(SalesOrderHeader.class).getGetter("getUnknown");
+  }
+}
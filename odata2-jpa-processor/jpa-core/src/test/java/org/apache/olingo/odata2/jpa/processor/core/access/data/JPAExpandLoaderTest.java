@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
+import javax.persistence.QueryTimeoutException;
+
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.edm.EdmMapping;
+import org.apache.olingo.odata2.api.edm.EdmNavigationProperty;
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
+import org.apache.olingo.odata2.api.uri.NavigationPropertySegment;
+import org.apache.olingo.odata2.jpa.processor.core.mock.data.SalesOrderHeader;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+public class JPAExpandLoaderTest {
+
+  private static final String FETCH_QUERY =
+      "SELECT DISTINCT E1 FROM SalesOrderHeader E1 LEFT JOIN FETCH E1.salesOrderLineItems WHERE E1.id IN :keys";
+
+  @Test
+  public void navigationIsFetchedInOneQueryForAllEntities() throws Exception {
+    SalesOrderHeader header1 = new SalesOrderHeader(1, "first");
+    SalesOrderHeader header2 = new SalesOrderHeader(2, "second");
+
+    PersistenceUnitUtil unitUtil = EasyMock.createMock(PersistenceUnitUtil.class);
+    EasyMock.expect(unitUtil.getIdentifier(header1)).andReturn(1);
+    EasyMock.expect(unitUtil.getIdentifier(header2)).andReturn(2);
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setParameter("keys", Arrays.asList(1, 2))).andReturn(query);
+    EasyMock.expect(query.getResultList()).andReturn(new ArrayList<Object>());
+    EntityManager em = mockEntityManager(unitUtil);
+    EasyMock.expect(em.createQuery(FETCH_QUERY)).andReturn(query).once();
+    EasyMock.replay(unitUtil, query, em);
+
+    new JPAExpandLoader(em).load(Arrays.<Object> asList(header1, header2), mockEntitySet(1), getExpandList());
+
+    EasyMock.verify(unitUtil, query, em);
+  }
+
+  @Test
+  public void compositeKeyIsLeftToLazyLoading() throws Exception {
+    EntityManager em = EasyMock.createMock(EntityManager.class);
+    EasyMock.replay(em);
+
+    new JPAExpandLoader(em).load(Arrays.<Object> asList(new SalesOrderHeader(1, "first")), mockEntitySet(2),
+        getExpandList());
+
+    EasyMock.verify(em);
+  }
+
+  @Test
+  public void rejectedFetchQueryIsIgnored() throws Exception {
+    SalesOrderHeader header = new SalesOrderHeader(1, "first");
+    PersistenceUnitUtil unitUtil = EasyMock.createMock(PersistenceUnitUtil.class);
+    EasyMock.expect(unitUtil.getIdentifier(header)).andReturn(1);
+    EntityManager em = mockEntityManager(unitUtil);
+    EasyMock.expect(em.createQuery(FETCH_QUERY)).andThrow(new IllegalArgumentException());
+    EasyMock.replay(unitUtil, em);
+
+    new JPAExpandLoader(em).load(Arrays.<Object> asList(header), mockEntitySet(1), getExpandList());
+
+    EasyMock.verify(em);
+  }
+
+  @Test
+  public void timedOutFetchQueryIsIgnored() throws Exception {
+    SalesOrderHeader header = new SalesOrderHeader(1, "first");
+    PersistenceUnitUtil unitUtil = EasyMock.createMock(PersistenceUnitUtil.class);
+    EasyMock.expect(unitUtil.getIdentifier(header)).andReturn(1);
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setParameter("keys", Arrays.asList(1))).andReturn(query);
+    EasyMock.expect(query.getResultList()).andThrow(new QueryTimeoutException());
+    EntityManager em = mockEntityManager(unitUtil);
+    EasyMock.expect(em.createQuery(FETCH_QUERY)).andReturn(query);
+    EasyMock.replay(unitUtil, query, em);
+
+    new JPAExpandLoader(em).load(Arrays.<Object> asList(header), mockEntitySet(1), getExpandList());
+
+    EasyMock.verify(query, em);
+  }
+
+  @Test(expected = PersistenceException.class)
+  public void failingFetchQueryIsThrown() throws Exception {
+    SalesOrderHeader header = new SalesOrderHeader(1, "first");
+    PersistenceUnitUtil unitUtil = EasyMock.createMock(PersistenceUnitUtil.class);
+    EasyMock.expect(unitUtil.getIdentifier(header)).andReturn(1);
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setParameter("keys", Arrays.asList(1))).andReturn(query);
+    EasyMock.expect(query.getResultList()).andThrow(new PersistenceException());
+    EntityManager em = mockEntityManager(unitUtil);
+    EasyMock.expect(em.createQuery(FETCH_QUERY)).andReturn(query);
+    EasyMock.replay(unitUtil, query, em);
+
+    new JPAExpandLoader(em).load(Arrays.<Object> asList(header), mockEntitySet(1), getExpandList());
+  }
+
+  private EntityManager mockEntityManager(final PersistenceUnitUtil unitUtil) {
+    EntityManagerFactory emf = EasyMock.createMock(EntityManagerFactory.class);
+    EasyMock.expect(emf.getPersistenceUnitUtil()).andStubReturn(unitUtil);
+    EasyMock.replay(emf);
+    EntityManager em = EasyMock.createMock(EntityManager.class);
+    EasyMock.expect(em.getEntityManagerFactory()).andStubReturn(emf);
+    return em;
+  }
+
+  private EdmEntitySet mockEntitySet(final int numberOfKeys) throws EdmException {
+    List<EdmProperty> keyProperties = new ArrayList<EdmProperty>();
+    for (int i = 0; i < numberOfKeys; i++) {
+      EdmProperty keyProperty = EasyMock.createMock(EdmProperty.class);
+      EasyMock.expect(keyProperty.getType()).andStubReturn(EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance());
+      EasyMock.expect(keyProperty.getMapping()).andStubReturn(mockMapping(i == 0 ? "id" : "description"));
+      EasyMock.replay(keyProperty);
+      keyProperties.add(keyProperty);
+    }
+    EdmEntityType entityType = EasyMock.createMock(EdmEntityType.class);
+    EasyMock.expect(entityType.getKeyProperties()).andStubReturn(keyProperties);
+    EasyMock.expect(entityType.getName()).andStubReturn("SalesOrderHeader");
+    EasyMock.expect(entityType.getMapping()).andStubReturn(mockMapping("SalesOrderHeader"));
+    EdmEntitySet entitySet = EasyMock.createMock(EdmEntitySet.class);
+    EasyMock.expect(entitySet.getEntityType()).andStubReturn(entityType);
+    EasyMock.replay(entityType, entitySet);
+    return entitySet;
+  }
+
+  private List<ArrayList<NavigationPropertySegment>> getExpandList() throws EdmException {
+    EdmNavigationProperty navigationProperty = EasyMock.createMock(EdmNavigationProperty.class);
+    EasyMock.expect(navigationProperty.getName()).andStubReturn("SalesOrderLineItems");
+    EasyMock.expect(navigationProperty.getMapping()).andStubReturn(mockMapping("salesOrderLineItems"));
+    NavigationPropertySegment segment = EasyMock.createMock(NavigationPropertySegment.class);
+    EasyMock.expect(segment.getNavigationProperty()).andStubReturn(navigationProperty);
+    EasyMock.replay(navigationProperty, segment);
+    ArrayList<NavigationPropertySegment> segments = new ArrayList<NavigationPropertySegment>();
+    segments.add(segment);
+    List<ArrayList<NavigationPropertySegment>> expandList = new ArrayList<ArrayList<NavigationPropertySegment>>();
+    expandList.add(segments);
+    return expandList;
+  }
+
+  private EdmMapping mockMapping(final String internalName) {
+    EdmMapping mapping = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(mapping.getInternalName()).andStubReturn(internalName);
+    EasyMock.replay(mapping);
+    return mapping;
+  }
+}
@@ -24,6 +24,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,7 @@ import javax.persistence.metamodel.Metamodel;
 
 import junit.framework.Assert;
 
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.api.commons.InlineCount;
 import org.apache.olingo.odata2.api.edm.EdmConcurrencyMode;
 import org.apache.olingo.odata2.api.edm.EdmEntityContainer;
@@ -50,6 +52,7 @@ import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmFacets;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.edm.EdmType;
 import org.apache.olingo.odata2.api.edm.EdmTypeKind;
 import org.apache.olingo.odata2.api.edm.EdmTyped;
@@ -66,11 +69,14 @@ import org.apache.olingo.odata2.api.uri.info.GetEntityCountUriInfo;
 import org.apache.olingo.odata2.api.uri.info.GetEntitySetCountUriInfo;
 import org.apache.olingo.odata2.api.uri.info.GetEntitySetUriInfo;
 import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAKeysetPagingContext;
 import org.apache.olingo.odata2.jpa.processor.api.access.JPAPaging;
+import org.apache.olingo.odata2.jpa.processor.api.access.JPASkipTokenFormat;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAModelException;
 import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
 import org.apache.olingo.odata2.jpa.processor.core.common.ODataJPATestConstants;
 import org.apache.olingo.odata2.jpa.processor.core.model.JPAEdmMappingImpl;
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -126,6 +132,138 @@ public class JPAProcessorImplTest {
     }
   }
 
+  @Test
+  public void testProcessGetEntitySetUriInfoWithInlineCount() throws Exception {
+    ODataJPAContext odataJPAContext = EasyMock.createMock(ODataJPAContext.class);
+    EasyMock.expect(odataJPAContext.getEntityManager()).andStubReturn(getLocalEntityManager());
+    EasyMock.expect(odataJPAContext.getPageSize()).andStubReturn(0);
+    Capture<JPAPaging> paging = new Capture<JPAPaging>();
+    odataJPAContext.setPaging(EasyMock.capture(paging));
+    EasyMock.replay(odataJPAContext);
+
+    Assert.assertNotNull(new JPAProcessorImpl(odataJPAContext).process(getEntitySetUriInfo(InlineCount.ALLPAGES)));
+    EasyMock.verify(odataJPAContext);
+    Assert.assertEquals(Integer.valueOf(11), ((JPAPage) paging.getValue()).getInlineCount());
+  }
+
+  @Test
+  public void skipAppliesToFirstKeysetPageOnly() throws Exception {
+    JPASkipTokenFormat skipTokenFormat = new JPASkipTokenFormatDefault();
+    EdmProperty keyProperty = getSeekableKeyProperty();
+    String skipToken = skipTokenFormat.format(Collections.singletonList(keyProperty),
+        Collections.<Object> singletonList(Long.valueOf(42)));
+
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setParameter(1, Long.valueOf(42))).andReturn(query);
+    EasyMock.expect(query.setFirstResult(0)).andReturn(query);
+    EasyMock.expect(query.setMaxResults(10)).andReturn(query);
+    EasyMock.expect(query.getResultList()).andReturn(new ArrayList<Object>());
+    EasyMock.replay(query);
+
+    new JPAProcessorImpl(getKeysetContext(query, skipTokenFormat)).process(getKeysetUriInfo(keyProperty, 2,
+        skipToken));
+    EasyMock.verify(query);
+  }
+
+  @Test
+  public void skipAppliesToFirstKeysetPage() throws Exception {
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setFirstResult(2)).andReturn(query);
+    EasyMock.expect(query.setMaxResults(10)).andReturn(query);
+    EasyMock.expect(query.getResultList()).andReturn(new ArrayList<Object>());
+    EasyMock.replay(query);
+
+    new JPAProcessorImpl(getKeysetContext(query, new JPASkipTokenFormatDefault())).process(getKeysetUriInfo(
+        getSeekableKeyProperty(), 2, null));
+    EasyMock.verify(query);
+  }
+
+  @Test
+  public void malformedSeekTokenIsBadRequest() throws Exception {
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.replay(query);
+    try {
+      new JPAProcessorImpl(getKeysetContext(query, new JPASkipTokenFormatDefault())).process(getKeysetUriInfo(
+          getSeekableKeyProperty(), null, "A!x"));
+      fail("Expected an ODataJPARuntimeException");
+    } catch (ODataJPARuntimeException e) {
+      Assert.assertTrue(e.isCausedByHttpException());
+      Assert.assertEquals(HttpStatusCodes.BAD_REQUEST, e.getHttpExceptionCause().getHttpStatus());
+    }
+  }
+
+  @Test
+  public void malformedOffsetTokenIsBadRequest() throws Exception {
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.replay(query);
+    try {
+      new JPAProcessorImpl(getKeysetContext(query, null)).process(getKeysetUriInfo(getSeekableKeyProperty(), null,
+          "99999999999"));
+      fail("Expected an ODataJPARuntimeException");
+    } catch (ODataJPARuntimeException e) {
+      Assert.assertTrue(e.isCausedByHttpException());
+      Assert.assertEquals(HttpStatusCodes.BAD_REQUEST, e.getHttpExceptionCause().getHttpStatus());
+    }
+  }
+
+  private ODataJPAContext getKeysetContext(final Query query, final JPASkipTokenFormat skipTokenFormat) {
+    EntityManager em = EasyMock.createMock(EntityManager.class);
+    EasyMock.expect(em.createQuery(EasyMock.isA(String.class))).andStubReturn(query);
+    EasyMock.replay(em);
+    ODataJPAKeysetPagingContext odataJPAContext = EasyMock.createMock(ODataJPAKeysetPagingContext.class);
+    EasyMock.expect(odataJPAContext.getEntityManager()).andStubReturn(em);
+    EasyMock.expect(odataJPAContext.getPageSize()).andStubReturn(10);
+    EasyMock.expect(odataJPAContext.getSkipTokenFormat()).andStubReturn(skipTokenFormat);
+    odataJPAContext.setPaging(EasyMock.isA(JPAPaging.class));
+    EasyMock.expectLastCall().anyTimes();
+    EasyMock.replay(odataJPAContext);
+    return odataJPAContext;
+  }
+
+  private GetEntitySetUriInfo getKeysetUriInfo(final EdmProperty keyProperty, final Integer skip,
+      final String skipToken) throws EdmException {
+    JPAEdmMappingImpl mapping = new JPAEdmMappingImpl();
+    mapping.setInternalName(SALES_ORDER_HEADERS);
+    EdmEntityType entityType = EasyMock.createMock(EdmEntityType.class);
+    EasyMock.expect(entityType.getKeyProperties()).andStubReturn(Collections.singletonList(keyProperty));
+    EasyMock.expect(entityType.getName()).andStubReturn(SALES_ORDER_HEADERS);
+    EasyMock.expect(entityType.getMapping()).andStubReturn(mapping);
+    EasyMock.replay(entityType);
+    EdmEntitySet entitySet = EasyMock.createMock(EdmEntitySet.class);
+    EasyMock.expect(entitySet.getName()).andStubReturn(SALES_ORDER_HEADERS);
+    EasyMock.expect(entitySet.getEntityType()).andStubReturn(entityType);
+    EasyMock.replay(entitySet);
+
+    UriInfo uriInfo = EasyMock.createMock(UriInfo.class);
+    EasyMock.expect(uriInfo.getStartEntitySet()).andStubReturn(entitySet);
+    EasyMock.expect(uriInfo.getTargetEntitySet()).andStubReturn(entitySet);
+    EasyMock.expect(uriInfo.getSelect()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getFunctionImport()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getOrderBy()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getFilter()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getTop()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getSkip()).andStubReturn(skip);
+    EasyMock.expect(uriInfo.getSkipToken()).andStubReturn(skipToken);
+    EasyMock.expect(uriInfo.getInlineCount()).andStubReturn(InlineCount.NONE);
+    EasyMock.expect(uriInfo.getCustomQueryOptions()).andStubReturn(null);
+    EasyMock.expect(uriInfo.getExpand()).andStubReturn(null);
+    EasyMock.replay(uriInfo);
+    return uriInfo;
+  }
+
+  private EdmProperty getSeekableKeyProperty() throws EdmException {
+    JPAEdmMappingImpl mapping = new JPAEdmMappingImpl();
+    mapping.setInternalName("soId");
+    mapping.setJPAType(long.class);
+    EdmProperty keyProperty = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(keyProperty.getName()).andStubReturn(SO_ID);
+    EasyMock.expect(keyProperty.getMapping()).andStubReturn(mapping);
+    EasyMock.expect(keyProperty.getType()).andStubReturn(EdmSimpleTypeKind.Int64.getEdmSimpleTypeInstance());
+    EasyMock.expect(keyProperty.getFacets()).andStubReturn(null);
+    EasyMock.replay(keyProperty);
+    return keyProperty;
+  }
+
   @Test
   public void testProcessDeleteUriInfo() {
     try {
@@ -183,6 +321,10 @@ public class JPAProcessorImplTest {
   }
 
   private GetEntitySetUriInfo getEntitySetUriInfo() {
+    return getEntitySetUriInfo(getInlineCount());
+  }
+
+  private GetEntitySetUriInfo getEntitySetUriInfo(final InlineCount inlineCount) {
 
     UriInfo objUriInfo = EasyMock.createMock(UriInfo.class);
     EasyMock.expect(objUriInfo.getStartEntitySet()).andStubReturn(getLocalEdmEntitySet());
@@ -192,10 +334,11 @@ public class JPAProcessorImplTest {
     EasyMock.expect(objUriInfo.getTop()).andStubReturn(getTop());
     EasyMock.expect(objUriInfo.getSkip()).andStubReturn(getSkip());
     EasyMock.expect(objUriInfo.getSkipToken()).andReturn("5");
-    EasyMock.expect(objUriInfo.getInlineCount()).andStubReturn(getInlineCount());
+    EasyMock.expect(objUriInfo.getInlineCount()).andStubReturn(inlineCount);
     EasyMock.expect(objUriInfo.getFilter()).andStubReturn(getFilter());
     EasyMock.expect(objUriInfo.getFunctionImport()).andStubReturn(null);
     EasyMock.expect(objUriInfo.getCustomQueryOptions()).andStubReturn(null);
+    EasyMock.expect(objUriInfo.getExpand()).andStubReturn(null);
     EasyMock.replay(objUriInfo);
     return objUriInfo;
   }
@@ -498,7 +641,7 @@ public class JPAProcessorImplTest {
 
   private Query getQueryForSelectCount() {
     Query query = EasyMock.createMock(Query.class);
-    EasyMock.expect(query.getResultList()).andStubReturn(getResultListForSelectCount());
+    EasyMock.expect(query.getSingleResult()).andStubReturn(Long.valueOf(11));
     EasyMock.replay(query);
     return query;
   }
@@ -509,12 +652,6 @@ public class JPAProcessorImplTest {
     return list;
   }
 
-  private List<?> getResultListForSelectCount() {
-    List<Object> list = new ArrayList<Object>();
-    list.add(new Long(11));
-    return list;
-  }
-
   private class Address {
     private String soId = "12";
 
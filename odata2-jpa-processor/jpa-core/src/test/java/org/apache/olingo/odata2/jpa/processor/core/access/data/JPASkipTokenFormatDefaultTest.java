@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.access.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
+import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeException;
+import org.apache.olingo.odata2.jpa.processor.core.model.JPAEdmMappingImpl;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+public class JPASkipTokenFormatDefaultTest {
+
+  private final JPASkipTokenFormatDefault format = new JPASkipTokenFormatDefault();
+
+  @Test
+  public void valuesAreRestoredFromSkipToken() throws Exception {
+    List<EdmProperty> properties = Arrays.asList(
+        mockProperty(EdmSimpleTypeKind.String, String.class),
+        mockProperty(EdmSimpleTypeKind.Int32, int.class));
+
+    String skipToken = format.format(properties, Arrays.<Object> asList("a,b\\c/\u00e4", 42));
+
+    assertTrue(skipToken.startsWith("A"));
+    assertTrue(skipToken.matches("[A-Za-z0-9_-]+"));
+    assertEquals(Arrays.<Object> asList("a,b\\c/\u00e4", Integer.valueOf(42)), format.parse(properties, skipToken));
+  }
+
+  @Test
+  public void temporalValuesAreRestoredAsSqlTypes() throws Exception {
+    List<EdmProperty> properties = Arrays.asList(
+        mockProperty(EdmSimpleTypeKind.DateTime, Timestamp.class),
+        mockProperty(EdmSimpleTypeKind.DateTime, java.sql.Date.class));
+    List<Object> values = Arrays.<Object> asList(new Timestamp(1330477323123L), new java.sql.Date(1330473600000L));
+
+    assertEquals(values, format.parse(properties, format.format(properties, values)));
+  }
+
+  @Test(expected = ODataJPARuntimeException.class)
+  public void skipTokenWithOtherPropertiesIsRejected() throws Exception {
+    EdmProperty id = mockProperty(EdmSimpleTypeKind.Int32, Integer.class);
+    String skipToken = format.format(Arrays.asList(id), Arrays.<Object> asList(7));
+
+    format.parse(Arrays.asList(id, id), skipToken);
+  }
+
+  @Test(expected = ODataJPARuntimeException.class)
+  public void invalidSkipTokenIsRejected() throws Exception {
+    format.parse(Arrays.asList(mockProperty(EdmSimpleTypeKind.Int32, Integer.class)), "no token");
+  }
+
+  @Test
+  public void skipTokenIsNoOffset() throws Exception {
+    EdmProperty id = mockProperty(EdmSimpleTypeKind.Int64, Long.class);
+    assertFalse(format.format(Arrays.asList(id), Arrays.<Object> asList(1234L)).matches("-?\\d+"));
+  }
+
+  private EdmProperty mockProperty(final EdmSimpleTypeKind kind, final Class<?> jpaType) throws Exception {
+    JPAEdmMappingImpl mapping = new JPAEdmMappingImpl();
+    mapping.setJPAType(jpaType);
+    EdmProperty property = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(property.getName()).andStubReturn(kind.name());
+    EasyMock.expect(property.getType()).andStubReturn(kind.getEdmSimpleTypeInstance());
+    EasyMock.expect(property.getFacets()).andStubReturn(null);
+    EasyMock.expect(property.getMapping()).andStubReturn(mapping);
+    EasyMock.replay(property);
+    return property;
+  }
+}
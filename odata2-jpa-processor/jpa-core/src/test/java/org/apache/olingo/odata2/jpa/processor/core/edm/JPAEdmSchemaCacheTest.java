@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.jpa.processor.core.edm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashSet;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EmbeddableType;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+
+import org.apache.olingo.odata2.api.edm.provider.Schema;
+import org.apache.olingo.odata2.jpa.processor.api.ODataJPAContext;
+import org.apache.olingo.odata2.jpa.processor.core.ODataJPAContextImpl;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JPAEdmSchemaCacheTest {
+
+  private JPAEdmSchemaCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new JPAEdmSchemaCache();
+  }
+
+  @Test
+  public void schemasAreBuiltOncePerEntityManagerFactory() throws Exception {
+    EntityManagerFactory emf = mockEntityManagerFactory();
+    List<Schema> schemas = cache.getSchemas(createContext(emf, "salesorderprocessing"));
+
+    assertEquals(1, schemas.size());
+    assertSame(schemas, cache.getSchemas(createContext(emf, "salesorderprocessing")));
+    assertEquals(1, cache.size());
+
+    assertNotSame(schemas, cache.getSchemas(createContext(emf, "otherunit")));
+    assertNotSame(schemas, cache.getSchemas(createContext(mockEntityManagerFactory(), "salesorderprocessing")));
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void refreshDiscardsSchemasOfEntityManagerFactory() throws Exception {
+    EntityManagerFactory emf = mockEntityManagerFactory();
+    EntityManagerFactory otherEmf = mockEntityManagerFactory();
+    List<Schema> schemas = cache.getSchemas(createContext(emf, "salesorderprocessing"));
+    List<Schema> otherSchemas = cache.getSchemas(createContext(otherEmf, "salesorderprocessing"));
+
+    cache.refresh(emf);
+
+    assertEquals(1, cache.size());
+    assertSame(otherSchemas, cache.getSchemas(createContext(otherEmf, "salesorderprocessing")));
+    assertNotSame(schemas, cache.getSchemas(createContext(emf, "salesorderprocessing")));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void sharedSchemasCannotBeModified() throws Exception {
+    cache.getSchemas(createContext(mockEntityManagerFactory(), "salesorderprocessing")).clear();
+  }
+
+  private ODataJPAContext createContext(final EntityManagerFactory emf, final String pUnitName) {
+    ODataJPAContext context = new ODataJPAContextImpl();
+    context.setEntityManagerFactory(emf);
+    context.setPersistenceUnitName(pUnitName);
+    return context;
+  }
+
+  private EntityManagerFactory mockEntityManagerFactory() {
+    Metamodel metaModel = EasyMock.createMock(Metamodel.class);
+    EasyMock.expect(metaModel.getEntities()).andStubReturn(new HashSet<EntityType<?>>());
+    EasyMock.expect(metaModel.getEmbeddables()).andStubReturn(new HashSet<EmbeddableType<?>>());
+    EasyMock.expect(metaModel.getManagedTypes()).andStubReturn(new HashSet<ManagedType<?>>());
+    EasyMock.replay(metaModel);
+    EntityManagerFactory emf = EasyMock.createMock(EntityManagerFactory.class);
+    EasyMock.expect(emf.getMetamodel()).andStubReturn(metaModel);
+    EasyMock.replay(emf);
+    return emf;
+  }
+}
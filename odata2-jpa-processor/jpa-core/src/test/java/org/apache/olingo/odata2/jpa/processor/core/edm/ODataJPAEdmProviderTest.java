@@ -40,7 +40,6 @@ import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPAModelExcepti
 import org.apache.olingo.odata2.jpa.processor.core.common.ODataJPATestConstants;
 import org.apache.olingo.odata2.jpa.processor.core.mock.ODataJPAContextMock;
 import org.apache.olingo.odata2.jpa.processor.core.mock.model.EdmSchemaMock;
-import org.apache.olingo.odata2.jpa.processor.core.model.JPAEdmModel;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -62,9 +61,6 @@ public class ODataJPAEdmProviderTest {
       field = clazz.getDeclaredField("oDataJPAContext");
       field.setAccessible(true);
       field.set(edmProvider, ODataJPAContextMock.mockODataJPAContext());
-      field = clazz.getDeclaredField("jpaEdmModel");
-      field.setAccessible(true);
-      field.set(edmProvider, new JPAEdmModel(null, null));
     } catch (IllegalArgumentException e) {
       fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage() + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
     } catch (IllegalAccessException e) {
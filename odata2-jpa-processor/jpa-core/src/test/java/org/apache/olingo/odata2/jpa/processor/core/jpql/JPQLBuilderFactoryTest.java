@@ -42,6 +42,7 @@ import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.edm.EdmSimpleType;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.exception.ODataException;
 import org.apache.olingo.odata2.api.uri.KeyPredicate;
 import org.apache.olingo.odata2.api.uri.NavigationSegment;
@@ -179,7 +180,7 @@ public class JPQLBuilderFactoryTest {
     EasyMock.expect(getEntitySetView.getNavigationSegments()).andStubReturn(navigationSegments);
     KeyPredicate keyPredicate = EasyMock.createMock(KeyPredicate.class);
     EdmProperty kpProperty = EasyMock.createMock(EdmProperty.class);
-    EdmSimpleType edmType = EasyMock.createMock(EdmSimpleType.class);
+    EdmSimpleType edmType = EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance();
     EdmMapping edmMapping = EasyMock.createMock(EdmMapping.class);
     EasyMock.expect(edmMapping.getInternalName()).andStubReturn("Field1");
     EasyMock.expect(keyPredicate.getLiteral()).andStubReturn("1");
@@ -193,7 +194,7 @@ public class JPQLBuilderFactoryTest {
       fail("this should not happen");
     }
     EasyMock.expect(keyPredicate.getProperty()).andStubReturn(kpProperty);
-    EasyMock.replay(edmMapping, edmType, kpProperty, keyPredicate);
+    EasyMock.replay(edmMapping, kpProperty, keyPredicate);
     List<KeyPredicate> keyPredicates = new ArrayList<KeyPredicate>();
     keyPredicates.add(keyPredicate);
     EasyMock.expect(getEntitySetView.getKeyPredicates()).andStubReturn(keyPredicates);
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
@@ -276,6 +277,21 @@ public class JPQLSelectContextImplTest {
     assertEquals("DESC", selectContext.getOrderByCollection().get("E1." + JPQLSelectContextImplTest.fields[1]));
   }
 
+  @Test
+  public void testSeek() throws ODataJPARuntimeException {
+    buildSelectContext(false, false, true, true, true);
+    selectContext.seek(Arrays.<Object> asList(1, "b"));
+    assertEquals("(E1.Field1 > ?1) OR (E1.Field1 = ?1 AND E1.Field2 < ?2)", selectContext.getWhereExpression());
+    assertEquals(1, selectContext.getParameters().get(1));
+    assertEquals("b", selectContext.getParameters().get(2));
+  }
+
+  @Test(expected = ODataJPARuntimeException.class)
+  public void testSeekWithoutOrderByValues() throws ODataJPARuntimeException {
+    buildSelectContext(false, false, true, true, true);
+    selectContext.seek(Arrays.<Object> asList(1));
+  }
+
   @Test
   public void testGetWhereExpression() {
     buildSelectContext(false, false, true, true, true);
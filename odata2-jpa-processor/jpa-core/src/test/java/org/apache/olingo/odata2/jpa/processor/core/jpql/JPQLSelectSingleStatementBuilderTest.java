@@ -30,6 +30,7 @@ import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.edm.EdmSimpleType;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.uri.KeyPredicate;
 import org.apache.olingo.odata2.api.uri.SelectItem;
 import org.apache.olingo.odata2.api.uri.info.GetEntityUriInfo;
@@ -38,6 +39,7 @@ import org.apache.olingo.odata2.jpa.processor.api.exception.ODataJPARuntimeExcep
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContext.JPQLContextBuilder;
 import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLContextType;
+import org.apache.olingo.odata2.jpa.processor.api.jpql.JPQLStatement;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -67,7 +69,7 @@ public class JPQLSelectSingleStatementBuilderTest {
     // Setting up the expected value
     KeyPredicate keyPredicate = EasyMock.createMock(KeyPredicate.class);
     EdmProperty kpProperty = EasyMock.createMock(EdmProperty.class);
-    EdmSimpleType edmType = EasyMock.createMock(EdmSimpleType.class);
+    EdmSimpleType edmType = EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance();
     EdmMapping edmMapping = EasyMock.createMock(EdmMapping.class);
     EasyMock.expect(edmMapping.getInternalName()).andStubReturn("Field1");
     EasyMock.expect(keyPredicate.getLiteral()).andStubReturn("1");
@@ -81,7 +83,7 @@ public class JPQLSelectSingleStatementBuilderTest {
       fail("this should not happen");
     }
     EasyMock.expect(keyPredicate.getProperty()).andStubReturn(kpProperty);
-    EasyMock.replay(edmMapping, edmType, kpProperty, keyPredicate);
+    EasyMock.replay(edmMapping, kpProperty, keyPredicate);
     EasyMock.expect(getEntityView.getTargetEntitySet()).andStubReturn(edmEntitySet);
     EasyMock.expect(getEntityView.getSelect()).andStubReturn(selectItemList);
 
@@ -116,8 +118,9 @@ public class JPQLSelectSingleStatementBuilderTest {
     JPQLSelectSingleContext JPQLSelectSingleContextImpl = createSelectContext();
     JPQLSelectSingleStatementBuilder = new JPQLSelectSingleStatementBuilder(JPQLSelectSingleContextImpl);
 
-    assertEquals("SELECT E1 FROM SalesOrderHeader E1 WHERE E1.Field1 = 1", JPQLSelectSingleStatementBuilder.build()
-        .toString());
+    JPQLStatement statement = JPQLSelectSingleStatementBuilder.build();
+    assertEquals("SELECT E1 FROM SalesOrderHeader E1 WHERE E1.Field1 = ?1", statement.toString());
+    assertEquals(Integer.valueOf(1), statement.getPositionalParameters().get(1));
   }
 
 }
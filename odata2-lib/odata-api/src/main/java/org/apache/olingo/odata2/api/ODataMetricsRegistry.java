@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api;
+
+/**
+ * Receives the metrics of the requests handled by the OData library.
+ * <p>The library asks the service factory for an implementation with
+ * {@link ODataServiceFactory#getCallback(Class)}; if there is none,
+ * the metrics are recorded in a registry of the core library which is published as JMX MBean
+ * while an <code>ODataServlet</code> is in service.</p>
+ * <p>The methods are called by all request threads concurrently;
+ * implementations must be thread-safe and should not block.</p>
+ * 
+ */
+public interface ODataMetricsRegistry extends ODataCallback {
+
+  /**
+   * Phases of the request handling; their durations add up to the total duration of the request.
+   */
+  enum Phase {
+    /** parsing of the resource path and the system query options */
+    URI_PARSING,
+    /** validation, content negotiation, and completion of the response outside of the processor */
+    DISPATCH,
+    /** the processor without the serialization of its result */
+    PROCESSOR,
+    /** the entity provider writing the response body */
+    SERIALIZATION
+  }
+
+  /**
+   * Records a handled request; if the response body is streamed, the request is recorded
+   * after the body has been written, and the writing counts as serialization.
+   * @param uriType name of the URI type, e.g., <code>URI1</code> for an entity set,
+   * or <code>null</code> if the request URI could not be parsed
+   * @param entitySetName name of the target entity set or <code>null</code>
+   * @param statusCode HTTP status code of the response
+   * @param nanos total duration in nanoseconds
+   * @param rows number of entries and links written into the response body
+   */
+  void recordRequest(String uriType, String entitySetName, int statusCode, long nanos, long rows);
+
+  /**
+   * Records the duration of a phase of a handled request.
+   * @param uriType name of the URI type or <code>null</code>
+   * @param entitySetName name of the target entity set or <code>null</code>
+   * @param phase the phase
+   * @param nanos duration in nanoseconds
+   */
+  void recordPhase(String uriType, String entitySetName, Phase phase, long nanos);
+
+  /**
+   * Records the size of a response body; it is called once the body has been read completely,
+   * which is usually after the request has been recorded.
+   * @param uriType name of the URI type or <code>null</code>
+   * @param entitySetName name of the target entity set or <code>null</code>
+   * @param bytes number of bytes in the response body
+   */
+  void recordBytes(String uriType, String entitySetName, long bytes);
+}
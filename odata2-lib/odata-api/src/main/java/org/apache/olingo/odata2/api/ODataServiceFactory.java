@@ -18,6 +18,7 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.api;
 
+import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.provider.EdmProvider;
 import org.apache.olingo.odata2.api.exception.ODataException;
 import org.apache.olingo.odata2.api.processor.ODataContext;
@@ -46,6 +47,20 @@ public abstract class ODataServiceFactory {
    */
   public static final String PATH_SPLIT_LABEL = "org.apache.olingo.odata2.path.split";
 
+  /**
+   * Label used in web.xml to assign servlet init parameter for the minimum size in bytes of a response body
+   * to be compressed with a content coding accepted by the client (<code>gzip</code> or <code>deflate</code>);
+   * per default responses are not compressed.
+   */
+  public static final String COMPRESSION_THRESHOLD_LABEL = "org.apache.olingo.odata2.compression.threshold";
+
+  /**
+   * Label used in web.xml to assign servlet init parameter for the maximum size in bytes of a compressed
+   * request body after decoding; per default 16 MiB. Request bodies are only decoded if compression
+   * has been configured with {@link #COMPRESSION_THRESHOLD_LABEL}.
+   */
+  public static final String MAX_DECODED_SIZE_LABEL = "org.apache.olingo.odata2.compression.max.decoded.size";
+
   /**
    * Create instance of custom {@link ODataService}.
    * @param ctx OData context object
@@ -65,6 +80,18 @@ public abstract class ODataServiceFactory {
     return RuntimeDelegate.createODataSingleProcessorService(provider, processor);
   }
 
+  /**
+   * Create a default service instance based on <code>ODataSingleProcessor</code> for an existing entity data model.
+   * The entity data model created by {@link RuntimeDelegate#createEdm(EdmProvider)} can be
+   * created once and shared by all requests, which avoids reading the metadata again for every request.
+   * @param edm An entity data model, e.g., created once with {@link RuntimeDelegate#createEdm(EdmProvider)}.
+   * @param processor A custom processor implementation derived from <code>ODataSingleProcessor</code> .
+   * @return A new default <code>ODataSingleProcessorService</code> instance.
+   */
+  public ODataService createODataSingleProcessorService(final Edm edm, final ODataSingleProcessor processor) {
+    return RuntimeDelegate.createODataSingleProcessorService(edm, processor);
+  }
+
   /**
    * A service can return implementation classes for various callback interfaces.
    * @param callbackInterface a interface type to query for implementation
@@ -74,4 +101,14 @@ public abstract class ODataServiceFactory {
     return null;
   }
 
+  /**
+   * Determines whether one instance of this factory can serve concurrent requests.
+   * Per default a new factory instance is created for each request; a factory which keeps
+   * no request-specific state may return <code>true</code> so that its instance is shared.
+   * @return <code>true</code> if this factory is thread-safe
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
 }
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.odata2.api.exception.ODataException;
+
+/**
+ * Base class for {@link BatchHandler} implementations which can handle all parts of a batch request at once.
+ * 
+ */
+public abstract class AbstractBatchHandler implements BatchHandler {
+
+  /**
+   * <p>Handles all {@link BatchRequestPart parts} of a batch request while they are parsed and returns the
+   * {@link BatchResponsePart response parts} in request order; the iterator is closed afterwards.</p>
+   * <p>The default implementation calls {@link #handleBatchPart(BatchRequestPart)} for each part.</p>
+   * @param batchRequestParts the incoming MIME parts
+   * @return the corresponding results
+   * @throws ODataException
+   */
+  public List<BatchResponsePart> handleBatchParts(final BatchRequestPartIterator batchRequestParts)
+      throws ODataException {
+    return handleSequentially(this, batchRequestParts);
+  }
+
+  /**
+   * Handles all {@link BatchRequestPart parts} of a batch request with the given handler and closes the iterator.
+   * <p>If the handler extends this class, its {@link #handleBatchParts(BatchRequestPartIterator)} method is used
+   * (which may execute parts in parallel); otherwise the parts are handled one after the other.</p>
+   * @param handler the batch handler
+   * @param batchRequestParts the incoming MIME parts
+   * @return the corresponding results in request order
+   * @throws ODataException
+   */
+  public static List<BatchResponsePart> handleBatchParts(final BatchHandler handler,
+      final BatchRequestPartIterator batchRequestParts) throws ODataException {
+    if (handler instanceof AbstractBatchHandler) {
+      return ((AbstractBatchHandler) handler).handleBatchParts(batchRequestParts);
+    } else {
+      return handleSequentially(handler, batchRequestParts);
+    }
+  }
+
+  private static List<BatchResponsePart> handleSequentially(final BatchHandler handler,
+      final BatchRequestPartIterator batchRequestParts) throws ODataException {
+    List<BatchResponsePart> responseParts = new ArrayList<BatchResponsePart>();
+    try {
+      while (batchRequestParts.hasNext()) {
+        responseParts.add(handler.handleBatchPart(batchRequestParts.next()));
+      }
+    } finally {
+      batchRequestParts.close();
+    }
+    return responseParts;
+  }
+}
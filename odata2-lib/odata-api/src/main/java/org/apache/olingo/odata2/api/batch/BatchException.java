@@ -120,6 +120,12 @@ public class BatchException extends ODataMessageException {
   public static final MessageReference UNSUPPORTED_ABSOLUTE_PATH = createMessageReference(BatchException.class,
       "UNSUPPORTED_ABSOLUTE_PATH");
 
+  /** LINE_TOO_LONG requires 2 content values ('line number', 'maximum length') */
+  public static final MessageReference LINE_TOO_LONG = createMessageReference(BatchException.class, "LINE_TOO_LONG");
+
+  /** BODY_TOO_LARGE requires 2 content values ('line number', 'maximum size') */
+  public static final MessageReference BODY_TOO_LARGE = createMessageReference(BatchException.class, "BODY_TOO_LARGE");
+
   public BatchException(final MessageReference messageReference) {
     super(messageReference);
   }
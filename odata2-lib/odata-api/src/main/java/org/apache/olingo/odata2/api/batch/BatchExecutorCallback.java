@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.batch;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.olingo.odata2.api.ODataCallback;
+
+/**
+ * Enables the parallel execution of query operations in batch requests.
+ * <p>If the service factory is {@link org.apache.olingo.odata2.api.ODataServiceFactory#isThreadSafe() thread-safe}
+ * and provides this callback through {@link org.apache.olingo.odata2.api.ODataServiceFactory#getCallback(Class)},
+ * {@link AbstractBatchHandler#handleBatchParts(BatchRequestPartIterator)} executes consecutive query operations
+ * concurrently on the returned executor. Change sets are still executed one after the other
+ * and in request order; the responses are returned in request order.
+ * The callback is ignored for factories which are not thread-safe.</p>
+ * <p>Every query operation executed in parallel gets its own context and its own service instance
+ * created concurrently by {@link org.apache.olingo.odata2.api.ODataServiceFactory#createService(
+ * org.apache.olingo.odata2.api.processor.ODataContext)}; the created services must see the data changed
+ * by preceding change sets.</p>
+ * 
+ */
+public interface BatchExecutorCallback extends ODataCallback {
+
+  /**
+   * Returns the executor for the query operations of a batch request.
+   * The executor is not shut down by the library.
+   * @return an executor or <code>null</code> to execute all operations sequentially
+   */
+  ExecutorService getExecutorService();
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.batch;
+
+/**
+ * Iterator over the parts of a batch request body.
+ * <p>Each part is parsed only when it is requested, so a part can be executed while the following
+ * parts of the request body are still being received. Syntax errors in a part are therefore reported
+ * only when that part is reached.</p>
+ * <p>The body of the batch request is closed when the last part has been read, when an error occurred,
+ * or when {@link #close()} is called.</p>
+ * 
+ */
+public interface BatchRequestPartIterator {
+
+  /**
+   * Determines whether the batch request body contains a further part.
+   * @return <code>true</code> if {@link #next()} will return a part
+   * @throws BatchException if the request body is not a valid batch request
+   */
+  boolean hasNext() throws BatchException;
+
+  /**
+   * Parses the next part of the batch request body.
+   * @return the next part
+   * @throws BatchException if the part is not valid
+   * @throws java.util.NoSuchElementException if there is no further part
+   */
+  BatchRequestPart next() throws BatchException;
+
+  /**
+   * Closes the batch request body; remaining parts are not parsed.
+   */
+  void close();
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.edm;
+
+import org.apache.olingo.odata2.api.exception.ODataException;
+
+/**
+ * Base class for {@link EdmServiceMetadata} implementations which can provide an entity tag
+ * for their metadata document.
+ * 
+ */
+public abstract class AbstractEdmServiceMetadata implements EdmServiceMetadata {
+
+  /**
+   * Returns the strong entity tag of the metadata document (including the surrounding quotes);
+   * it changes only if the content of the metadata document changes.
+   * The default implementation provides no entity tag.
+   * @return the entity tag or <code>null</code> if none is available
+   * @throws ODataException
+   */
+  public String getMetadataETag() throws ODataException {
+    return null;
+  }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.edm;
+
+/**
+ * @org.apache.olingo.odata2.DoNotImplement
+ * <p>Implemented by an {@link Edm} that caches the elements it has read from its
+ * {@link org.apache.olingo.odata2.api.edm.provider.EdmProvider EdmProvider}.</p>
+ * <p>Such an {@link Edm} is thread-safe and can be shared by all requests of a service
+ * (see {@link org.apache.olingo.odata2.api.ODataServiceFactory#createODataSingleProcessorService(Edm,
+ * org.apache.olingo.odata2.api.processor.ODataSingleProcessor)}).
+ * If the provider's schema changes at runtime, the cache has to be invalidated.</p>
+ * 
+ */
+public interface EdmCache {
+
+  /**
+   * Drops all cached elements so that they are read again from the provider on next access.
+   * Elements already handed out keep their old state.
+   */
+  void invalidate();
+}
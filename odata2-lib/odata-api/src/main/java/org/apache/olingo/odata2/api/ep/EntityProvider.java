@@ -19,11 +19,14 @@
 package org.apache.olingo.odata2.api.ep;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.olingo.odata2.api.batch.BatchException;
 import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.client.batch.BatchPart;
 import org.apache.olingo.odata2.api.client.batch.BatchSingleResponse;
@@ -32,9 +35,14 @@ import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmFunctionImport;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.edm.provider.Schema;
+import org.apache.olingo.odata2.api.ep.callback.OnReadEntry;
+import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeedReader;
+import org.apache.olingo.odata2.api.exception.ODataApplicationException;
 import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.api.rt.RuntimeDelegate;
@@ -433,6 +441,89 @@ public final class EntityProvider {
     ODataErrorContext readErrorDocument(InputStream errorDocument, String contentType) throws EntityProviderException;
   }
 
+  /**
+   * (Internal) optional extension of the {@link EntityProviderInterface} for reading and writing content
+   * incrementally.
+   * <p>The entity provider of the core library implements it; for other entity providers the corresponding
+   * methods of {@link EntityProvider} fall back to reading or writing the complete content at once.</p>
+   */
+  public interface IncrementalEntityProviderInterface {
+
+    /**
+     * Provide the parts of a Batch Request body <code>inputStream</code> (as {@link InputStream}) as
+     * {@link BatchRequestPartIterator}, which parses every part only when it is requested.
+     * 
+     * @param contentType format of content in the given input stream
+     * @param content request body
+     * @param properties additional properties necessary for parsing. Must not be null.
+     * @return iterator over the {@link BatchRequestPart}s
+     * @throws BatchException if the content type is not valid
+     */
+    BatchRequestPartIterator parseBatchRequestIncrementally(String contentType, InputStream content,
+        EntityProviderBatchProperties properties) throws BatchException;
+
+    /**
+     * Write responses of Batch Response Parts in Batch Response as {@link ODataResponse} whose entity is an
+     * {@link org.apache.olingo.odata2.api.processor.ODataStreamingOutput} writing one part after the other.
+     * The response has no Content-Length header.
+     * 
+     * @param batchResponseParts a list of {@link BatchResponsePart}
+     * @return Batch Response as {@link ODataResponse}
+     * @throws BatchException
+     */
+    ODataResponse writeStreamedBatchResponse(List<BatchResponsePart> batchResponseParts) throws BatchException;
+
+    /**
+     * Opens a reader which reads (de-serializes) the entries of a (delta) data feed from <code>content</code>
+     * (as {@link InputStream}) in specified format (given as <code>contentType</code>) one after the other
+     * based on <code>entity data model</code> (given as {@link EdmEntitySet}).
+     * 
+     * @param contentType format of content in the given input stream.
+     * @param entitySet entity data model for entity set to be read
+     * @param content feed data in form of an {@link InputStream} which contains the data in specified format
+     * @param properties additional properties necessary for reading content from {@link InputStream} into {@link Map}.
+     * @return an {@link ODataFeedReader} positioned before the first entry
+     * @throws EntityProviderException if reading of data (de-serialization) fails
+     */
+    ODataFeedReader openFeedReader(String contentType, EdmEntitySet entitySet, InputStream content,
+        EntityProviderReadProperties properties) throws EntityProviderException;
+
+    /**
+     * Read (de-serialize) a (delta) data feed from <code>content</code> (as {@link InputStream}) in specified format
+     * (given as <code>contentType</code>) based on <code>entity data model</code> (given as {@link EdmEntitySet})
+     * and hand each entry and deleted entry to the given <code>callback</code> directly after it has been read.
+     * 
+     * @param contentType format of content in the given input stream.
+     * @param entitySet entity data model for entity set to be read
+     * @param content feed data in form of an {@link InputStream} which contains the data in specified format
+     * @param properties additional properties necessary for reading content from {@link InputStream} into {@link Map}.
+     * @param callback the {@link OnReadEntry} callback receiving the read entries
+     * @return the {@link FeedMetadata} of the read feed
+     * @throws EntityProviderException if reading of data (de-serialization) fails
+     */
+    FeedMetadata readFeed(String contentType, EdmEntitySet entitySet, InputStream content,
+        EntityProviderReadProperties properties, OnReadEntry callback) throws EntityProviderException;
+
+    /**
+     * Write the entries delivered by the given <code>data</code> iterator (each entry is a {@link Map} which contains
+     * all properties as <code>property name</code> to <code>property value</code> mapping) as a feed in the specified
+     * format (given as <code>contentType</code>) based on given <code>entity data model for an entity set</code>
+     * (given as {@link EdmEntitySet}) and <code>properties</code> for this entity provider (given as
+     * {@link EntityProviderWriteProperties}).
+     * <p>The entries are requested from the iterator one at a time while writing, so that they can be produced
+     * lazily and need not be held in memory all at once.</p>
+     * 
+     * @param contentType format in which the feed should be written
+     * @param entitySet entity data model for given entity data set
+     * @param data iterator over the entries of the feed
+     * @param properties additional properties necessary for writing of data
+     * @return resulting {@link ODataResponse} with written feed content.
+     * @throws EntityProviderException if writing of data (serialization) fails
+     */
+    ODataResponse writeFeed(String contentType, EdmEntitySet entitySet, Iterator<Map<String, Object>> data,
+        EntityProviderWriteProperties properties) throws EntityProviderException;
+  }
+
   /**
    * Create an instance for the {@link EntityProviderInterface} over the {@link RuntimeDelegate}.
    * 
@@ -540,6 +631,42 @@ public final class EntityProvider {
     return createEntityProvider().writeFeed(contentType, entitySet, data, properties);
   }
 
+  /**
+   * Write the entries delivered by the given <code>data</code> iterator (each entry is a {@link Map} which contains
+   * all properties as <code>property name</code> to <code>property value</code> mapping) as a feed in the specified
+   * format (given as <code>contentType</code>) based on given <code>entity data model for an entity set</code>
+   * (given as {@link EdmEntitySet}) and <code>properties</code> for this entity provider (given as
+   * {@link EntityProviderWriteProperties}).
+   * <p>The entries are requested from the iterator one at a time while writing, so that they can be produced
+   * lazily (e.g., from a database cursor) and need not be held in memory all at once.
+   * Together with {@link EntityProviderWriteProperties#isStreaming()} the memory consumption
+   * of writing a feed is independent of the number of its entries.
+   * If the entity provider does not support this, the entries are collected into a list
+   * and written with {@link #writeFeed(String, EdmEntitySet, List, EntityProviderWriteProperties)}.</p>
+   * 
+   * @param contentType format in which the feed should be written
+   * @param entitySet entity data model for given entity data set
+   * @param data iterator over the entries of the feed
+   * @param properties additional properties necessary for writing of data
+   * @return resulting {@link ODataResponse} with written feed content.
+   * @throws EntityProviderException if writing of data (serialization) fails
+   */
+  public static ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet,
+      final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties)
+      throws EntityProviderException {
+    final EntityProviderInterface entityProvider = createEntityProvider();
+    if (entityProvider instanceof IncrementalEntityProviderInterface) {
+      return ((IncrementalEntityProviderInterface) entityProvider)
+          .writeFeed(contentType, entitySet, data, properties);
+    }
+
+    List<Map<String, Object>> entries = new ArrayList<Map<String, Object>>();
+    while (data.hasNext()) {
+      entries.add(data.next());
+    }
+    return entityProvider.writeFeed(contentType, entitySet, entries, properties);
+  }
+
   /**
    * Write given <code>data</code> (which is given in form of a {@link Map} for which contains all properties
    * as <code>property name</code> to <code>property value</code> mapping) for the entry in the specified
@@ -679,6 +806,97 @@ public final class EntityProvider {
     return createEntityProvider().readDeltaFeed(contentType, entitySet, content, properties);
   }
 
+  /**
+   * Open a reader which reads (de-serializes) the entries of a (delta) data feed from <code>content</code>
+   * (as {@link InputStream}) in specified format (given as <code>contentType</code>) one after the other
+   * based on <code>entity data model</code> (given as {@link EdmEntitySet}), so that the entries
+   * need not be held in memory all at once.
+   * If the entity provider does not support this, the complete feed is read before the reader is returned.
+   * 
+   * @param contentType format of content in the given input stream.
+   * @param entitySet entity data model for entity set to be read
+   * @param content feed data in form of an {@link InputStream} which contains the data in specified format
+   * @param properties additional properties necessary for reading content from {@link InputStream} into {@link Map}.
+   * Must not be null.
+   * @return an {@link ODataFeedReader} positioned before the first entry
+   * @throws EntityProviderException if reading of data (de-serialization) fails
+   */
+  public static ODataFeedReader openFeedReader(final String contentType, final EdmEntitySet entitySet,
+      final InputStream content, final EntityProviderReadProperties properties) throws EntityProviderException {
+    final EntityProviderInterface entityProvider = createEntityProvider();
+    if (entityProvider instanceof IncrementalEntityProviderInterface) {
+      return ((IncrementalEntityProviderInterface) entityProvider)
+          .openFeedReader(contentType, entitySet, content, properties);
+    }
+
+    final ODataDeltaFeed feed = entityProvider.readDeltaFeed(contentType, entitySet, content, properties);
+    final Iterator<ODataEntry> entries = feed.getEntries().iterator();
+    return new ODataFeedReader() {
+      @Override
+      public boolean hasNext() {
+        return entries.hasNext();
+      }
+
+      @Override
+      public ODataEntry next() {
+        return entries.next();
+      }
+
+      @Override
+      public FeedMetadata getFeedMetadata() {
+        return feed.getFeedMetadata();
+      }
+
+      @Override
+      public List<DeletedEntryMetadata> getDeletedEntries() {
+        return feed.getDeletedEntries();
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  /**
+   * Read (de-serialize) a (delta) data feed from <code>content</code> (as {@link InputStream}) in specified format
+   * (given as <code>contentType</code>) based on <code>entity data model</code> (given as {@link EdmEntitySet})
+   * and hand each entry and deleted entry to the given <code>callback</code> directly after it has been read,
+   * so that the entries need not be held in memory all at once.
+   * If the entity provider does not support this, the complete feed is read before the callback is called.
+   * 
+   * @param contentType format of content in the given input stream.
+   * @param entitySet entity data model for entity set to be read
+   * @param content feed data in form of an {@link InputStream} which contains the data in specified format
+   * @param properties additional properties necessary for reading content from {@link InputStream} into {@link Map}.
+   * Must not be null.
+   * @param callback the {@link OnReadEntry} callback receiving the read entries
+   * @return the {@link FeedMetadata} of the read feed
+   * @throws EntityProviderException if reading of data (de-serialization) fails
+   */
+  public static FeedMetadata readFeed(final String contentType, final EdmEntitySet entitySet,
+      final InputStream content, final EntityProviderReadProperties properties, final OnReadEntry callback)
+      throws EntityProviderException {
+    final EntityProviderInterface entityProvider = createEntityProvider();
+    if (entityProvider instanceof IncrementalEntityProviderInterface) {
+      return ((IncrementalEntityProviderInterface) entityProvider)
+          .readFeed(contentType, entitySet, content, properties, callback);
+    }
+
+    final ODataDeltaFeed feed = entityProvider.readDeltaFeed(contentType, entitySet, content, properties);
+    try {
+      for (final ODataEntry entry : feed.getEntries()) {
+        callback.handleReadEntry(entry);
+      }
+      for (final DeletedEntryMetadata deletedEntry : feed.getDeletedEntries()) {
+        callback.handleDeletedEntry(deletedEntry);
+      }
+    } catch (final ODataApplicationException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
+    }
+    return feed.getFeedMetadata();
+  }
+
   /**
    * Read (de-serialize) data from <code>content</code> (as {@link InputStream}) in specified format (given as
    * <code>contentType</code>)
@@ -853,6 +1071,45 @@ public final class EntityProvider {
     return createEntityProvider().parseBatchRequest(contentType, content, properties);
   }
 
+  /**
+   * Provide the parts of a Batch Request body <code>inputStream</code> (as {@link InputStream}) as
+   * {@link BatchRequestPartIterator}. In contrast to
+   * {@link #parseBatchRequest(String, InputStream, EntityProviderBatchProperties)} every part is parsed only
+   * when it is requested, so that it can be executed while the rest of the request body is still being received
+   * and only one part has to be kept in memory.
+   * 
+   * @param contentType format of content in the given input stream
+   * @param content request body
+   * @param properties additional properties necessary for parsing. Must not be null.
+   * @return iterator over the {@link BatchRequestPart}s
+   * @throws BatchException if the content type is not valid
+   */
+  public static BatchRequestPartIterator parseBatchRequestIncrementally(final String contentType,
+      final InputStream content, final EntityProviderBatchProperties properties) throws BatchException {
+    final EntityProviderInterface entityProvider = createEntityProvider();
+    if (entityProvider instanceof IncrementalEntityProviderInterface) {
+      return ((IncrementalEntityProviderInterface) entityProvider)
+          .parseBatchRequestIncrementally(contentType, content, properties);
+    }
+
+    final Iterator<BatchRequestPart> parts =
+        entityProvider.parseBatchRequest(contentType, content, properties).iterator();
+    return new BatchRequestPartIterator() {
+      @Override
+      public boolean hasNext() {
+        return parts.hasNext();
+      }
+
+      @Override
+      public BatchRequestPart next() {
+        return parts.next();
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
   /**
    * Write responses of Batch Response Parts in Batch Response as {@link ODataResponse}.
    * Batch Response body matches one-to-one with the corresponding Batch Request body
@@ -866,6 +1123,27 @@ public final class EntityProvider {
     return createEntityProvider().writeBatchResponse(batchResponseParts);
   }
 
+  /**
+   * Write responses of Batch Response Parts in Batch Response as {@link ODataResponse} which is written
+   * into the output stream part by part.
+   * <p>Unlike {@link #writeBatchResponse(List)}, the entity of the response is an
+   * {@link org.apache.olingo.odata2.api.processor.ODataStreamingOutput} and no Content-Length header is set;
+   * the body of a part is read only when the part is written, and binary bodies are written unchanged.
+   * If the entity provider does not support this, the result of {@link #writeBatchResponse(List)} is
+   * returned.</p>
+   * 
+   * @param batchResponseParts a list of {@link BatchResponsePart}
+   * @return Batch Response as {@link ODataResponse}
+   * @throws BatchException
+   */
+  public static ODataResponse writeStreamedBatchResponse(final List<BatchResponsePart> batchResponseParts)
+      throws BatchException {
+    final EntityProviderInterface entityProvider = createEntityProvider();
+    return entityProvider instanceof IncrementalEntityProviderInterface ?
+        ((IncrementalEntityProviderInterface) entityProvider).writeStreamedBatchResponse(batchResponseParts) :
+        entityProvider.writeBatchResponse(batchResponseParts);
+  }
+
   /**
    * Create Batch Request body as InputStream.
    * 
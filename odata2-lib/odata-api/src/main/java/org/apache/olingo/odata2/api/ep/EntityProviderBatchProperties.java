@@ -26,10 +26,14 @@ import org.apache.olingo.odata2.api.uri.PathInfo;
  * 
  */
 public class EntityProviderBatchProperties {
+  /** Maximum size in bytes of the body of a request in a change set if none has been set, 16 MiB. */
+  public static final int DEFAULT_MAX_BODY_SIZE = 16 * 1024 * 1024;
+
   /**
    * PathInfo contains service root and preceding segments which should be used for URI parsing of a single request
    */
   private PathInfo pathInfo;
+  private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
 
   public static EntityProviderBatchPropertiesBuilder init() {
     return new EntityProviderBatchPropertiesBuilder();
@@ -39,6 +43,14 @@ public class EntityProviderBatchProperties {
     return pathInfo;
   }
 
+  /**
+   * Returns the maximum size in bytes of the body of a request in a change set;
+   * parsing a larger body fails with a {@link org.apache.olingo.odata2.api.batch.BatchException}.
+   */
+  public int getMaxBodySize() {
+    return maxBodySize;
+  }
+
   public static class EntityProviderBatchPropertiesBuilder {
     private final EntityProviderBatchProperties properties = new EntityProviderBatchProperties();
 
@@ -46,6 +58,7 @@ public class EntityProviderBatchProperties {
 
     public EntityProviderBatchPropertiesBuilder(final EntityProviderBatchProperties propertiesFrom) {
       properties.pathInfo = propertiesFrom.pathInfo;
+      properties.maxBodySize = propertiesFrom.maxBodySize;
     }
 
     public EntityProviderBatchPropertiesBuilder pathInfo(final PathInfo pathInfo) {
@@ -53,6 +66,11 @@ public class EntityProviderBatchProperties {
       return this;
     }
 
+    public EntityProviderBatchPropertiesBuilder maxBodySize(final int maxBodySize) {
+      properties.maxBodySize = maxBodySize;
+      return this;
+    }
+
     public EntityProviderBatchProperties build() {
       return properties;
     }
@@ -44,6 +44,7 @@ public class EntityProviderWriteProperties {
   private URI selfLink;
   private boolean includeSimplePropertyType;
   private Map<String, Map<String, Object>> additionalLinks;
+  private boolean streaming;
 
   private EntityProviderWriteProperties() {}
 
@@ -129,6 +130,15 @@ public class EntityProviderWriteProperties {
     return additionalLinks;
   }
 
+  /**
+   * Returns if the result should be written directly into the response output stream.
+   * @return true if the response entity is an {@link org.apache.olingo.odata2.api.processor.ODataStreamingOutput}
+   * instead of a buffered input stream
+   */
+  public final boolean isStreaming() {
+    return streaming;
+  }
+
   public static ODataEntityProviderPropertiesBuilder serviceRoot(final URI serviceRoot) {
     return new ODataEntityProviderPropertiesBuilder().serviceRoot(serviceRoot);
   }
@@ -229,6 +239,18 @@ public class EntityProviderWriteProperties {
       return this;
     }
 
+    /**
+     * Sets whether the result should be streamed into the response output stream instead of being buffered.
+     * Streaming keeps memory consumption bounded for large feeds, but an error during serialization can then
+     * only abort the response and not produce an error document.
+     * @param streaming true to write the result directly into the response output stream
+     * @return properties builder
+     */
+    public ODataEntityProviderPropertiesBuilder streaming(final boolean streaming) {
+      properties.streaming = streaming;
+      return this;
+    }
+
     public ODataEntityProviderPropertiesBuilder fromProperties(final EntityProviderWriteProperties properties) {
       this.properties.mediaResourceMimeType = properties.getMediaResourceMimeType();
       this.properties.inlineCountType = properties.getInlineCountType();
@@ -239,6 +261,7 @@ public class EntityProviderWriteProperties {
       this.properties.selfLink = properties.getSelfLink();
       this.properties.includeSimplePropertyType = properties.includeSimplePropertyType;
       this.properties.additionalLinks = properties.additionalLinks;
+      this.properties.streaming = properties.streaming;
       return this;
     }
   }
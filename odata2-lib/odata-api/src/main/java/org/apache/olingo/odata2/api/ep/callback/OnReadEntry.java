@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.ep.callback;
+
+import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
+import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.exception.ODataApplicationException;
+
+/**
+ * <p>
+ * Callback interface for reading (de-serializing) a feed one entry at a time.
+ * The methods are called in document order for each entry and each deleted entry (of a delta feed)
+ * directly after it has been read, so that the read entries need not be held in memory all at once.
+ * </p>
+ * @see org.apache.olingo.odata2.api.ep.EntityProvider#readFeed(String,
+ * org.apache.olingo.odata2.api.edm.EdmEntitySet, java.io.InputStream,
+ * org.apache.olingo.odata2.api.ep.EntityProviderReadProperties, OnReadEntry)
+ */
+public interface OnReadEntry {
+
+  /**
+   * Handles a read (de-serialized) entry of the feed.
+   * @param entry the read entry
+   * @throws ODataApplicationException
+   */
+  void handleReadEntry(ODataEntry entry) throws ODataApplicationException;
+
+  /**
+   * Handles the metadata of a read deleted entry (tombstone) of a delta feed.
+   * @param deletedEntry the read metadata of the deleted entry
+   * @throws ODataApplicationException
+   */
+  void handleDeletedEntry(DeletedEntryMetadata deletedEntry) throws ODataApplicationException;
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.ep.feed;
+
+import java.util.List;
+
+import org.apache.olingo.odata2.api.ep.EntityProviderException;
+import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
+import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+
+/**
+ * <p>Reads (de-serializes) the entries of a feed one after the other, so that
+ * only the current entry has to be held in memory.</p>
+ * <p>The {@link FeedMetadata feed metadata} and the metadata of deleted entries (in case of a delta feed)
+ * are complete only after {@link #hasNext()} has returned <code>false</code>, because they may appear
+ * anywhere in the feed content.</p>
+ * <p>The reader is closed automatically when the end of the feed has been reached or reading failed;
+ * if the iteration is abandoned before, {@link #close()} has to be called.</p>
+ */
+public interface ODataFeedReader {
+
+  /**
+   * Returns whether the feed contains a further entry.
+   * @return <code>true</code> if {@link #next()} will return an entry
+   * @throws EntityProviderException if reading of data (de-serialization) fails
+   */
+  boolean hasNext() throws EntityProviderException;
+
+  /**
+   * Reads the next entry of the feed.
+   * @return the next entry as {@link ODataEntry}
+   * @throws EntityProviderException if reading of data (de-serialization) fails
+   * @throws java.util.NoSuchElementException if the feed contains no further entry
+   */
+  ODataEntry next() throws EntityProviderException;
+
+  /**
+   * @return metadata of the feed read so far
+   */
+  FeedMetadata getFeedMetadata();
+
+  /**
+   * @return metadata of the deleted entries read so far; empty if the feed is not a delta feed
+   */
+  List<DeletedEntryMetadata> getDeletedEntries();
+
+  /**
+   * Releases the resources used for reading; the input stream is closed by the caller.
+   * @throws EntityProviderException if the resources could not be released
+   */
+  void close() throws EntityProviderException;
+}
@@ -37,6 +37,9 @@ public class ODataUnsupportedMediaTypeException extends ODataHttpException {
   /** NOT_SUPPORTED_ACCEPT_HEADER requires 1 content value ('media type') */
   public static final MessageReference NOT_SUPPORTED_ACCEPT_HEADER = createMessageReference(
       ODataUnsupportedMediaTypeException.class, "NOT_SUPPORTED_ACCEPT_HEADER");
+  /** NOT_SUPPORTED_CONTENT_ENCODING requires 1 content value ('content coding') */
+  public static final MessageReference NOT_SUPPORTED_CONTENT_ENCODING = createMessageReference(
+      ODataUnsupportedMediaTypeException.class, "NOT_SUPPORTED_CONTENT_ENCODING");
 
   public ODataUnsupportedMediaTypeException(final MessageReference context) {
     super(context, HttpStatusCodes.UNSUPPORTED_MEDIA_TYPE);
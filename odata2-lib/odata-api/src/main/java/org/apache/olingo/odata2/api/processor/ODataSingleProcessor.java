@@ -27,6 +27,7 @@ import org.apache.olingo.odata2.api.batch.BatchHandler;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.api.commons.ODataHttpHeaders;
+import org.apache.olingo.odata2.api.edm.AbstractEdmServiceMetadata;
 import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmServiceMetadata;
 import org.apache.olingo.odata2.api.ep.EntityProvider;
@@ -374,9 +375,12 @@ public abstract class ODataSingleProcessor implements MetadataProcessor, Service
   @Override
   public ODataResponse readMetadata(final GetMetadataUriInfo uriInfo, final String contentType) throws ODataException {
     final EdmServiceMetadata edmServiceMetadata = getContext().getService().getEntityDataModel().getServiceMetadata();
+    final String eTag = edmServiceMetadata instanceof AbstractEdmServiceMetadata ?
+        ((AbstractEdmServiceMetadata) edmServiceMetadata).getMetadataETag() : null;
 
     return ODataResponse.status(HttpStatusCodes.OK)
         .header(ODataHttpHeaders.DATASERVICEVERSION, edmServiceMetadata.getDataServiceVersion())
+        .eTag(eTag)
         .entity(edmServiceMetadata.getMetadata()).build();
   }
 
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.api.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <p>A response entity which writes its content directly into the output stream of the front end
+ * (servlet or JAX-RS) instead of being buffered completely in memory before the response is sent.</p>
+ * <p>Because the HTTP status and headers are already committed when {@link #write(OutputStream)} is called,
+ * an error during writing can no longer be turned into an OData error document; the response is simply
+ * aborted. Therefore the buffered entity (an {@link java.io.InputStream}) stays the default and
+ * streaming has to be requested explicitly, e.g. via
+ * {@link org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties#isStreaming()}.</p>
+ * 
+ */
+public interface ODataStreamingOutput {
+
+  /**
+   * Writes the entity content into the given output stream.
+   * The stream must not be closed by the implementation.
+   * @param output the output stream of the response
+   * @throws IOException if the content could not be written
+   */
+  void write(OutputStream output) throws IOException;
+}
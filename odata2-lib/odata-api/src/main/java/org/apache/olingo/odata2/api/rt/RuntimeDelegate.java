@@ -96,6 +96,8 @@ public abstract class RuntimeDelegate {
     protected abstract ODataService createODataSingleProcessorService(EdmProvider provider,
         ODataSingleProcessor processor);
 
+    protected abstract ODataService createODataSingleProcessorService(Edm edm, ODataSingleProcessor processor);
+
     protected abstract EdmProvider createEdmProvider(InputStream metadataXml, boolean validate)
         throws EntityProviderException;
 
@@ -147,6 +149,8 @@ public abstract class RuntimeDelegate {
 
   /**
    * Creates and returns an entity data model.
+   * The returned model caches all elements read from the provider and is thread-safe,
+   * so it can be created once and shared by all requests (see {@link org.apache.olingo.odata2.api.edm.EdmCache}).
    * @param provider a provider implemented by the OData service
    * @return an implementation object
    */
@@ -182,6 +186,17 @@ public abstract class RuntimeDelegate {
     return RuntimeDelegate.getInstance().createODataSingleProcessorService(provider, processor);
   }
 
+  /**
+   * Creates and returns a single processor service for an existing entity data model,
+   * e.g., one created once with {@link #createEdm(EdmProvider)} and shared by all requests.
+   * @param edm the entity data model of the OData service
+   * @param processor a single data processor implementation of the OData service
+   * @return a implementation object
+   */
+  public static ODataService createODataSingleProcessorService(final Edm edm, final ODataSingleProcessor processor) {
+    return RuntimeDelegate.getInstance().createODataSingleProcessorService(edm, processor);
+  }
+
   /**
    * Creates and returns an edm provider.
    * @param metadataXml a metadata xml input stream (means the metadata document)
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.ep.EntityProvider;
+import org.apache.olingo.odata2.api.ep.EntityProviderBatchProperties;
+import org.apache.olingo.odata2.core.PathInfoImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of <code>BatchRequestParser.parse</code> for batch requests consisting of
+ * retrieve requests and one change set with PUT requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BatchParserBenchmark {
+
+  private static final String CRLF = "\r\n";
+  private static final String BOUNDARY = "batch_8194-cf13-1f56";
+  private static final String CHANGE_SET_BOUNDARY = "changeset_f980-1cb6-94dd";
+
+  @Param({ "10", "100" })
+  private int parts;
+
+  private EntityProviderBatchProperties properties;
+  private byte[] body;
+
+  @Setup
+  public void setup() throws Exception {
+    PathInfoImpl pathInfo = new PathInfoImpl();
+    pathInfo.setServiceRoot(ScenarioData.SERVICE_ROOT);
+    properties = EntityProviderBatchProperties.init().pathInfo(pathInfo).build();
+
+    StringBuilder batch = new StringBuilder();
+    for (int i = 1; i <= parts; i++) {
+      batch.append("--").append(BOUNDARY).append(CRLF)
+          .append("Content-Type: application/http").append(CRLF)
+          .append("Content-Transfer-Encoding: binary").append(CRLF)
+          .append(CRLF)
+          .append("GET Employees('").append(i).append("')?$format=json HTTP/1.1").append(CRLF)
+          .append("Accept: application/json").append(CRLF)
+          .append("MaxDataServiceVersion: 2.0").append(CRLF)
+          .append(CRLF)
+          .append(CRLF);
+    }
+    batch.append("--").append(BOUNDARY).append(CRLF)
+        .append("Content-Type: multipart/mixed; boundary=").append(CHANGE_SET_BOUNDARY).append(CRLF)
+        .append(CRLF);
+    for (int i = 1; i <= parts; i++) {
+      final String content = "{\"EmployeeName\":\"Employee " + i + "\"}";
+      batch.append("--").append(CHANGE_SET_BOUNDARY).append(CRLF)
+          .append("Content-Type: application/http").append(CRLF)
+          .append("Content-Transfer-Encoding: binary").append(CRLF)
+          .append(CRLF)
+          .append("PUT Employees('").append(i).append("')/EmployeeName HTTP/1.1").append(CRLF)
+          .append("Content-Type: application/json").append(CRLF)
+          .append("Content-Length: ").append(content.length()).append(CRLF)
+          .append(CRLF)
+          .append(content).append(CRLF)
+          .append(CRLF);
+    }
+    batch.append("--").append(CHANGE_SET_BOUNDARY).append("--").append(CRLF)
+        .append(CRLF)
+        .append("--").append(BOUNDARY).append("--");
+    body = batch.toString().getBytes("UTF-8");
+  }
+
+  @Benchmark
+  public List<BatchRequestPart> parse() throws Exception {
+    return EntityProvider.parseBatchRequest("multipart/mixed;boundary=" + BOUNDARY, new ByteArrayInputStream(body),
+        properties);
+  }
+}
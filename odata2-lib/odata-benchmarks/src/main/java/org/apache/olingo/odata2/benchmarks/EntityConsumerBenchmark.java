@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.odata2.api.commons.HttpContentType;
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.ep.EntityProvider;
+import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties;
+import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
+import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of reading employees of the reference scenario from Atom and JSON entries and feeds
+ * (<code>XmlEntryConsumer</code>, <code>XmlFeedConsumer</code>, <code>JsonEntryConsumer</code>
+ * and <code>JsonFeedConsumer</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityConsumerBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int feedSize;
+
+  private EdmEntitySet entitySet;
+  private EntityProviderReadProperties properties;
+  private byte[] atomEntry;
+  private byte[] jsonEntry;
+  private byte[] atomFeed;
+  private byte[] jsonFeed;
+
+  @Setup
+  public void setup() throws Exception {
+    entitySet = ScenarioData.getEntitySet("Employees");
+    properties = EntityProviderReadProperties.init().mergeSemantic(false).build();
+
+    final EntityProviderWriteProperties writeProperties =
+        EntityProviderWriteProperties.serviceRoot(ScenarioData.SERVICE_ROOT).mediaResourceMimeType("image/jpeg")
+            .build();
+    final Map<String, Object> entry = ScenarioData.employee(1);
+    final List<Map<String, Object>> feed = ScenarioData.employees(feedSize);
+    atomEntry = toBytes(EntityProvider.writeEntry(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet, entry,
+        writeProperties));
+    jsonEntry = toBytes(EntityProvider.writeEntry(HttpContentType.APPLICATION_JSON_UTF8, entitySet, entry,
+        writeProperties));
+    atomFeed = toBytes(EntityProvider.writeFeed(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet, feed,
+        writeProperties));
+    jsonFeed = toBytes(EntityProvider.writeFeed(HttpContentType.APPLICATION_JSON_UTF8, entitySet, feed,
+        writeProperties));
+  }
+
+  @Benchmark
+  public ODataEntry readAtomEntry() throws Exception {
+    return EntityProvider.readEntry(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet,
+        new ByteArrayInputStream(atomEntry), properties);
+  }
+
+  @Benchmark
+  public ODataEntry readJsonEntry() throws Exception {
+    return EntityProvider.readEntry(HttpContentType.APPLICATION_JSON_UTF8, entitySet,
+        new ByteArrayInputStream(jsonEntry), properties);
+  }
+
+  @Benchmark
+  public ODataFeed readAtomFeed() throws Exception {
+    return EntityProvider.readFeed(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet,
+        new ByteArrayInputStream(atomFeed), properties);
+  }
+
+  @Benchmark
+  public ODataFeed readJsonFeed() throws Exception {
+    return EntityProvider.readFeed(HttpContentType.APPLICATION_JSON_UTF8, entitySet,
+        new ByteArrayInputStream(jsonFeed), properties);
+  }
+
+  private static byte[] toBytes(final ODataResponse response) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final Object entity = response.getEntity();
+    if (entity instanceof ODataStreamingOutput) {
+      ((ODataStreamingOutput) entity).write(output);
+    } else {
+      final InputStream content = (InputStream) entity;
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+      }
+    }
+    response.close();
+    return output.toByteArray();
+  }
+}
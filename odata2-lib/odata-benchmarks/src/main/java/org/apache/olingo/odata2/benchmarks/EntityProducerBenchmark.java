@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.odata2.api.commons.HttpContentType;
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.ep.EntityProvider;
+import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of writing employees of the reference scenario as Atom and JSON entries and feeds
+ * (<code>AtomEntryEntityProducer</code>, <code>AtomFeedProducer</code>, <code>JsonEntryEntityProducer</code>
+ * and <code>JsonFeedEntityProducer</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityProducerBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int feedSize;
+
+  private EdmEntitySet entitySet;
+  private Map<String, Object> entry;
+  private List<Map<String, Object>> feed;
+  private EntityProviderWriteProperties properties;
+
+  @Setup
+  public void setup() throws Exception {
+    entitySet = ScenarioData.getEntitySet("Employees");
+    entry = ScenarioData.employee(1);
+    feed = ScenarioData.employees(feedSize);
+    properties = EntityProviderWriteProperties.serviceRoot(ScenarioData.SERVICE_ROOT)
+        .mediaResourceMimeType("image/jpeg").build();
+  }
+
+  @Benchmark
+  public long writeAtomEntry() throws Exception {
+    return consume(EntityProvider.writeEntry(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet, entry,
+        properties));
+  }
+
+  @Benchmark
+  public long writeJsonEntry() throws Exception {
+    return consume(EntityProvider.writeEntry(HttpContentType.APPLICATION_JSON_UTF8, entitySet, entry, properties));
+  }
+
+  @Benchmark
+  public long writeAtomFeed() throws Exception {
+    return consume(EntityProvider.writeFeed(HttpContentType.APPLICATION_ATOM_XML_UTF8, entitySet, feed, properties));
+  }
+
+  @Benchmark
+  public long writeJsonFeed() throws Exception {
+    return consume(EntityProvider.writeFeed(HttpContentType.APPLICATION_JSON_UTF8, entitySet, feed, properties));
+  }
+
+  /** Reads the entity of the response completely, so that streamed output is produced as well. */
+  static long consume(final ODataResponse response) throws Exception {
+    final Object entity = response.getEntity();
+    long length = 0;
+    if (entity instanceof InputStream) {
+      final InputStream content = (InputStream) entity;
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        length += read;
+      }
+    } else if (entity instanceof ODataStreamingOutput) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream(8192);
+      ((ODataStreamingOutput) entity).write(output);
+      length = output.size();
+    }
+    response.close();
+    return length;
+  }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.odata2.api.ODataService;
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
+import org.apache.olingo.odata2.api.commons.ODataHttpMethod;
+import org.apache.olingo.odata2.api.processor.ODataRequest;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.uri.PathSegment;
+import org.apache.olingo.odata2.core.ODataContextImpl;
+import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
+import org.apache.olingo.odata2.core.ODataRequestHandler;
+import org.apache.olingo.odata2.core.PathInfoImpl;
+import org.apache.olingo.odata2.ref.processor.ScenarioServiceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end throughput of {@link ODataRequestHandler#handle(ODataRequest)} for GET requests against the
+ * reference scenario, including URI parsing, dispatching and serialization, but without a servlet container.
+ * The service is created once because the reference scenario builds its complete sample data on creation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestHandlerBenchmark {
+
+  @Param({ "$metadata", "Employees", "Employees?$format=json", "Employees('2')?$expand=ne_Team,ne_Room",
+      "Employees?$filter=Age%20gt%2030&$orderby=EmployeeName&$format=json" })
+  private String uri;
+
+  private ODataServiceFactory serviceFactory;
+  private ODataService service;
+  private ODataRequest request;
+
+  @Setup
+  public void setup() throws Exception {
+    serviceFactory = new ScenarioServiceFactory();
+
+    final int queryStart = uri.indexOf('?');
+    final String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+    Map<String, String> queryParameters = new HashMap<String, String>();
+    if (queryStart >= 0) {
+      for (final String option : uri.substring(queryStart + 1).split("&")) {
+        final String[] nameAndValue = option.split("=", 2);
+        queryParameters.put(nameAndValue[0], nameAndValue[1].replace("%20", " "));
+      }
+    }
+    List<PathSegment> pathSegments = new ArrayList<PathSegment>();
+    pathSegments.add(new ODataPathSegmentImpl(path, null));
+
+    PathInfoImpl pathInfo = new PathInfoImpl();
+    pathInfo.setServiceRoot(ScenarioData.SERVICE_ROOT);
+    pathInfo.setPrecedingPathSegment(new ArrayList<PathSegment>());
+    pathInfo.setODataPathSegment(pathSegments);
+    pathInfo.setRequestUri(new URI(ScenarioData.SERVICE_ROOT + uri));
+
+    request = ODataRequest.method(ODataHttpMethod.GET)
+        .pathInfo(pathInfo)
+        .queryParameters(queryParameters)
+        .acceptHeaders(Arrays.asList("*/*"))
+        .acceptableLanguages(Arrays.asList(Locale.ENGLISH))
+        .requestHeaders(new HashMap<String, List<String>>())
+        .build();
+    service = serviceFactory.createService(new ODataContextImpl(request, serviceFactory));
+
+    final ODataResponse response = new ODataRequestHandler(serviceFactory, service, createContext()).handle(request);
+    if (response.getStatus() != HttpStatusCodes.OK) {
+      throw new IllegalStateException("GET " + uri + " returned " + response.getStatus());
+    }
+    response.close();
+  }
+
+  @Benchmark
+  public long handle() throws Exception {
+    return EntityProducerBenchmark.consume(
+        new ODataRequestHandler(serviceFactory, service, createContext()).handle(request));
+  }
+
+  private ODataContextImpl createContext() throws Exception {
+    ODataContextImpl context = new ODataContextImpl(request, serviceFactory);
+    context.setService(service);
+    service.getProcessor().setContext(context);
+    return context;
+  }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.apache.olingo.odata2.api.edm.Edm;
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.rt.RuntimeDelegate;
+import org.apache.olingo.odata2.ref.edm.ScenarioEdmProvider;
+
+/**
+ * Entity data model and payloads of the reference scenario shared by the benchmarks.
+ */
+final class ScenarioData {
+
+  static final Edm EDM = RuntimeDelegate.createEdm(new ScenarioEdmProvider());
+
+  static final URI SERVICE_ROOT = createUri("http://localhost/service/");
+
+  private ScenarioData() {}
+
+  static EdmEntitySet getEntitySet(final String name) throws EdmException {
+    return EDM.getDefaultEntityContainer().getEntitySet(name);
+  }
+
+  static Map<String, Object> employee(final int index) {
+    Map<String, Object> city = new HashMap<String, Object>();
+    city.put("PostalCode", "69124");
+    city.put("CityName", "Heidelberg");
+    Map<String, Object> location = new HashMap<String, Object>();
+    location.put("City", city);
+    location.put("Country", "Germany");
+
+    Calendar entryDate = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    entryDate.clear();
+    entryDate.set(1999, Calendar.JANUARY, 1);
+
+    Map<String, Object> employee = new HashMap<String, Object>();
+    employee.put("EmployeeId", String.valueOf(index));
+    employee.put("EmployeeName", "Employee " + index);
+    employee.put("ManagerId", "1");
+    employee.put("RoomId", "1");
+    employee.put("TeamId", "1");
+    employee.put("Location", location);
+    employee.put("Age", 52);
+    employee.put("EntryDate", entryDate);
+    employee.put("ImageUrl", "Employees('" + index + "')/$value");
+    return employee;
+  }
+
+  static List<Map<String, Object>> employees(final int count) {
+    List<Map<String, Object>> employees = new ArrayList<Map<String, Object>>(count);
+    for (int i = 1; i <= count; i++) {
+      employees.add(employee(i));
+    }
+    return employees;
+  }
+
+  private static URI createUri(final String uri) {
+    try {
+      return new URI(uri);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.uri.PathSegment;
+import org.apache.olingo.odata2.api.uri.UriInfo;
+import org.apache.olingo.odata2.api.uri.UriParser;
+import org.apache.olingo.odata2.api.uri.expression.FilterExpression;
+import org.apache.olingo.odata2.api.uri.expression.OrderByExpression;
+import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of <code>UriParserImpl.parse</code> and of the <code>$filter</code> and <code>$orderby</code>
+ * expression parsers (<code>FilterParserImpl.parseFilterString</code>, <code>OrderByParserImpl</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UriParserBenchmark {
+
+  private static final String FILTER = "Age gt 30 and (substringof('Smith', EmployeeName) or Location/Country eq "
+      + "'Germany') and EntryDate lt datetime'2013-01-01T00:00:00' and not (TeamId eq '4')";
+  private static final String ORDER_BY = "Location/City/CityName desc, Age, EmployeeName asc";
+
+  private EdmEntityType entityType;
+  private List<PathSegment> keyPathSegments;
+  private List<PathSegment> navigationPathSegments;
+  private Map<String, String> queryParameters;
+
+  @Setup
+  public void setup() throws Exception {
+    entityType = ScenarioData.getEntitySet("Employees").getEntityType();
+    keyPathSegments = pathSegments("Employees('2')", "Location", "City", "CityName");
+    navigationPathSegments = pathSegments("Managers('1')", "nm_Employees");
+    queryParameters = new HashMap<String, String>();
+    queryParameters.put("$filter", FILTER);
+    queryParameters.put("$orderby", ORDER_BY);
+    queryParameters.put("$expand", "ne_Team,ne_Room/nr_Building");
+    queryParameters.put("$select", "EmployeeName,Age,ne_Team,ne_Room/nr_Building/Name");
+    queryParameters.put("$top", "20");
+    queryParameters.put("$skip", "10");
+    queryParameters.put("$inlinecount", "allpages");
+  }
+
+  @Benchmark
+  public UriInfo parseKeyPath() throws Exception {
+    return UriParser.parse(ScenarioData.EDM, keyPathSegments, Collections.<String, String> emptyMap());
+  }
+
+  @Benchmark
+  public UriInfo parseWithSystemQueryOptions() throws Exception {
+    return UriParser.parse(ScenarioData.EDM, navigationPathSegments, queryParameters);
+  }
+
+  @Benchmark
+  public FilterExpression parseFilter() throws Exception {
+    return UriParser.parseFilter(ScenarioData.EDM, entityType, FILTER);
+  }
+
+  @Benchmark
+  public OrderByExpression parseOrderBy() throws Exception {
+    return UriParser.parseOrderBy(ScenarioData.EDM, entityType, ORDER_BY);
+  }
+
+  private static List<PathSegment> pathSegments(final String... paths) {
+    List<PathSegment> pathSegments = new ArrayList<PathSegment>();
+    for (final String path : paths) {
+      pathSegments.add(new ODataPathSegmentImpl(path, null));
+    }
+    return pathSegments;
+  }
+}
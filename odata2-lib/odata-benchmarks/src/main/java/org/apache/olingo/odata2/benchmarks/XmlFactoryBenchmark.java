@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
+import org.apache.olingo.odata2.api.rt.RuntimeDelegate;
+import org.apache.olingo.odata2.core.commons.XmlHelper;
+import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
+import org.apache.olingo.odata2.core.ep.producer.AtomEntryEntityProducer;
+import org.apache.olingo.odata2.ref.edm.ScenarioEdmProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the per-request cost of looking up a new StAX factory
+ * with the shared factories of {@link XmlHelper} for a small Atom entry
+ * (one room of the reference scenario).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class XmlFactoryBenchmark {
+
+  private EntityInfoAggregator eia;
+  private Map<String, Object> data;
+  private EntityProviderWriteProperties properties;
+  private byte[] entry;
+
+  @Setup
+  public void setup() throws Exception {
+    EdmEntitySet entitySet = RuntimeDelegate.createEdm(new ScenarioEdmProvider())
+        .getDefaultEntityContainer().getEntitySet("Rooms");
+    eia = EntityInfoAggregator.create(entitySet);
+    data = new HashMap<String, Object>();
+    data.put("Id", "1");
+    data.put("Name", "Room 1");
+    data.put("Seats", (short) 4);
+    data.put("Version", (short) 1);
+    properties = EntityProviderWriteProperties.serviceRoot(new URI("http://localhost/service/")).build();
+    entry = writeEntry(XmlHelper.getXMLOutputFactory());
+  }
+
+  @Benchmark
+  public byte[] writeEntryNewFactory() throws Exception {
+    return writeEntry(XMLOutputFactory.newInstance());
+  }
+
+  @Benchmark
+  public byte[] writeEntrySharedFactory() throws Exception {
+    return writeEntry(XmlHelper.getXMLOutputFactory());
+  }
+
+  @Benchmark
+  public void readEntryNewFactory(final Blackhole blackhole) throws Exception {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    readEntry(factory.createXMLStreamReader(new ByteArrayInputStream(entry), "UTF-8"), blackhole);
+  }
+
+  @Benchmark
+  public void readEntrySharedFactory(final Blackhole blackhole) throws Exception {
+    readEntry(XmlHelper.createStreamReader(new ByteArrayInputStream(entry)), blackhole);
+  }
+
+  private byte[] writeEntry(final XMLOutputFactory factory) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+    XMLStreamWriter writer = factory.createXMLStreamWriter(output, "UTF-8");
+    writer.writeStartDocument();
+    new AtomEntryEntityProducer(properties).append(writer, eia, data, true, false);
+    writer.flush();
+    writer.close();
+    return output.toByteArray();
+  }
+
+  private void readEntry(final XMLStreamReader reader, final Blackhole blackhole) throws Exception {
+    while (reader.hasNext()) {
+      blackhole.consume(reader.next());
+    }
+    reader.close();
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core;
 
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -48,6 +49,7 @@ public class ODataContextImpl implements ODataContext {
   private static final String PATH_INFO = "~pathInfo";
   private static final String RUNTIME_MEASUREMENTS = "~runtimeMeasurements";
   private static final String HTTP_METHOD = "~httpMethod";
+  private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
 
   private Map<String, Object> parameterTable = new HashMap<String, Object>();
 
@@ -126,7 +128,7 @@ public class ODataContextImpl implements ODataContext {
       measurement.setTimeStarted(System.nanoTime());
       measurement.setClassName(className);
       measurement.setMethodName(methodName);
-      measurement.setMemoryStarted(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+      measurement.setMemoryStarted(MEMORY.getHeapMemoryUsage().getUsed());
 
       runtimeMeasurements.add(measurement);
 
@@ -140,7 +142,7 @@ public class ODataContextImpl implements ODataContext {
   public void stopRuntimeMeasurement(final int handle) {
     if (isInDebugMode()) {
       long stopTime = System.nanoTime();
-      long stopMemory = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+      long stopMemory = MEMORY.getHeapMemoryUsage().getUsed();
 
       RuntimeMeasurement runtimeMeasurement = getRuntimeMeasurement(handle);
       if (runtimeMeasurement != null) {
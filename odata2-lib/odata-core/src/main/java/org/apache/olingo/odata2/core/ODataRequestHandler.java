@@ -18,6 +18,7 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +62,7 @@ import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.commons.ContentType.ODataFormat;
 import org.apache.olingo.odata2.core.debug.ODataDebugResponseWrapper;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.core.metrics.RequestMetrics;
 import org.apache.olingo.odata2.core.rest.ODataExceptionWrapper;
 import org.apache.olingo.odata2.core.uri.UriInfoImpl;
 import org.apache.olingo.odata2.core.uri.UriParserImpl;
@@ -94,6 +96,7 @@ public class ODataRequestHandler {
     Exception exception = null;
     ODataResponse odataResponse;
     final int timingHandle = context.startRuntimeMeasurement("ODataRequestHandler", "handle");
+    final RequestMetrics metrics = RequestMetrics.start(serviceFactory);
     try {
       UriParser uriParser = new UriParserImpl(service.getEntityDataModel());
       Dispatcher dispatcher = new Dispatcher(serviceFactory, service);
@@ -104,7 +107,9 @@ public class ODataRequestHandler {
 
       final List<PathSegment> pathSegments = context.getPathInfo().getODataSegments();
       int timingHandle2 = context.startRuntimeMeasurement("UriParserImpl", "parse");
+      long started = System.nanoTime();
       uriInfo = (UriInfoImpl) uriParser.parse(pathSegments, request.getQueryParameters());
+      metrics.uriParsed(started);
       context.stopRuntimeMeasurement(timingHandle2);
 
       final ODataHttpMethod method = request.getMethod();
@@ -126,9 +131,11 @@ public class ODataRequestHandler {
           context.getRequestHeader(HttpHeaders.IF_UNMODIFIED_SINCE));
 
       timingHandle2 = context.startRuntimeMeasurement("Dispatcher", "dispatch");
+      started = System.nanoTime();
       odataResponse =
           dispatcher.dispatch(method, uriInfo, request.getBody(), request.getContentType(), acceptContentType
               .toContentTypeString());
+      metrics.processed(started);
       context.stopRuntimeMeasurement(timingHandle2);
 
       ODataResponseBuilder extendedResponse = ODataResponse.fromResponse(odataResponse);
@@ -147,11 +154,18 @@ public class ODataRequestHandler {
       }
 
       odataResponse = extendedResponse.build();
+
+      if (method == ODataHttpMethod.GET && (uriType == UriType.URI0 || uriType == UriType.URI8)
+          && HttpStatusCodes.OK.equals(s)
+          && isNotModified(context.getRequestHeader(HttpHeaders.IF_NONE_MATCH), odataResponse.getETag())) {
+        odataResponse = createNotModifiedResponse(odataResponse);
+      }
     } catch (final Exception e) {
       exception = e;
       odataResponse = new ODataExceptionWrapper(context, request.getQueryParameters(), request.getAcceptHeaders())
           .wrapInExceptionResponse(e);
     }
+    odataResponse = metrics.stop(uriInfo, odataResponse);
     context.stopRuntimeMeasurement(timingHandle);
 
     if (context.isInDebugMode()) {
@@ -517,6 +531,34 @@ public class ODataRequestHandler {
     }
   }
 
+  /**
+   * Checks whether the entity tag of the response matches one of the entity tags in the
+   * <code>If-None-Match</code> request header, using the weak comparison function as required for GET requests.
+   */
+  private static boolean isNotModified(final String ifNoneMatch, final String eTag) {
+    if (ifNoneMatch == null || eTag == null) {
+      return false;
+    }
+    final String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    for (String requestedTag : ifNoneMatch.split(",")) {
+      requestedTag = requestedTag.trim();
+      if ("*".equals(requestedTag)
+          || opaqueTag.equals(requestedTag.startsWith("W/") ? requestedTag.substring(2) : requestedTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ODataResponse createNotModifiedResponse(final ODataResponse response) throws IOException {
+    response.close();
+    return ODataResponse.fromResponse(response)
+        .status(HttpStatusCodes.NOT_MODIFIED)
+        .entity(null)
+        .contentHeader(null)
+        .build();
+  }
+
   private static boolean hasConcurrencyControl(final EdmEntityType entityType) throws EdmException {
     boolean concurrency = false;
     for (final String propertyName : entityType.getPropertyNames()) {
@@ -22,14 +22,21 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.olingo.odata2.api.ODataService;
 import org.apache.olingo.odata2.api.ODataServiceFactory;
-import org.apache.olingo.odata2.api.batch.BatchHandler;
+import org.apache.olingo.odata2.api.batch.AbstractBatchHandler;
+import org.apache.olingo.odata2.api.batch.BatchExecutorCallback;
 import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.commons.HttpHeaders;
 import org.apache.olingo.odata2.api.commons.ODataHttpMethod;
@@ -43,7 +50,7 @@ import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
 import org.apache.olingo.odata2.core.ODataRequestHandler;
 import org.apache.olingo.odata2.core.PathInfoImpl;
 
-public class BatchHandlerImpl implements BatchHandler {
+public class BatchHandlerImpl extends AbstractBatchHandler {
   private static final int BAD_REQUEST = 400;
   private ODataServiceFactory factory;
   private ODataService service;
@@ -61,20 +68,145 @@ public class BatchHandlerImpl implements BatchHandler {
       contentIdMap = new HashMap<String, String>();
       return service.getBatchProcessor().executeChangeSet(this, changeSetRequests);
     } else {
-      if (batchPart.getRequests().size() != 1) {
-        throw new ODataException("Query Operation should contain one request");
+      ODataRequest request = getQueryRequest(batchPart);
+      return handleQueryRequest(request, createHandler(request));
+    }
+  }
+
+  /**
+   * Handles all parts of a batch request, see {@link #handleBatchParts(BatchRequestPartIterator)}.
+   * @param batchParts the incoming MIME parts
+   * @return the corresponding results in request order
+   * @throws ODataException
+   */
+  public List<BatchResponsePart> handleBatchParts(final List<BatchRequestPart> batchParts) throws ODataException {
+    return handleBatchParts(new ListPartIterator(batchParts));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>The iterator is closed in any case.</p>
+   */
+  @Override
+  public List<BatchResponsePart> handleBatchParts(final BatchRequestPartIterator batchParts) throws ODataException {
+    try {
+      return handleParts(batchParts);
+    } finally {
+      batchParts.close();
+    }
+  }
+
+  private List<BatchResponsePart> handleParts(final BatchRequestPartIterator batchParts) throws ODataException {
+    // Parallel query operations create their services concurrently, which only a thread-safe factory allows.
+    final BatchExecutorCallback callback = factory.isThreadSafe() ?
+        factory.<BatchExecutorCallback> getCallback(BatchExecutorCallback.class) : null;
+    final ExecutorService executor = callback == null ? null : callback.getExecutorService();
+    List<BatchResponsePart> responseParts = new ArrayList<BatchResponsePart>();
+    if (executor == null) {
+      while (batchParts.hasNext()) {
+        responseParts.add(handleBatchPart(batchParts.next()));
+      }
+      return responseParts;
+    }
+
+    // Consecutive query operations are submitted as soon as they are read; a single query operation
+    // between change sets is executed directly.
+    final ODataContext parentContext = service.getProcessor().getContext();
+    List<Future<BatchResponsePart>> futures = new ArrayList<Future<BatchResponsePart>>();
+    BatchRequestPart pendingQueryPart = null;
+    try {
+      while (batchParts.hasNext()) {
+        final BatchRequestPart batchPart = batchParts.next();
+        if (batchPart.isChangeSet()) {
+          if (pendingQueryPart != null) {
+            responseParts.add(handleBatchPart(pendingQueryPart));
+            pendingQueryPart = null;
+          }
+          responseParts.addAll(getResponseParts(futures));
+          futures.clear();
+          responseParts.add(handleBatchPart(batchPart));
+        } else if (pendingQueryPart == null && futures.isEmpty()) {
+          pendingQueryPart = batchPart;
+        } else {
+          if (pendingQueryPart != null) {
+            futures.add(submit(pendingQueryPart, executor, parentContext));
+            pendingQueryPart = null;
+          }
+          futures.add(submit(batchPart, executor, parentContext));
+        }
+      }
+      if (pendingQueryPart != null) {
+        responseParts.add(handleBatchPart(pendingQueryPart));
+      }
+      responseParts.addAll(getResponseParts(futures));
+      futures.clear();
+    } finally {
+      cancel(futures);
+    }
+    return responseParts;
+  }
+
+  /**
+   * Submits a query operation to the executor; it is executed with its own context and service instance.
+   */
+  private Future<BatchResponsePart> submit(final BatchRequestPart queryPart, final ExecutorService executor,
+      final ODataContext parentContext) throws ODataException {
+    final ODataRequest request = getQueryRequest(queryPart);
+    return executor.submit(new Callable<BatchResponsePart>() {
+      @Override
+      public BatchResponsePart call() throws ODataException {
+        return handleQueryRequest(request, createParallelHandler(request, parentContext));
+      }
+    });
+  }
+
+  private List<BatchResponsePart> getResponseParts(final List<Future<BatchResponsePart>> futures)
+      throws ODataException {
+    List<BatchResponsePart> responseParts = new ArrayList<BatchResponsePart>(futures.size());
+    try {
+      for (Future<BatchResponsePart> future : futures) {
+        responseParts.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataException(e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ODataException) {
+        throw (ODataException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
       }
-      ODataRequest request = batchPart.getRequests().get(0);
-      ODataRequestHandler handler = createHandler(request);
-      String mimeHeaderContentId =
-          request.getRequestHeaderValue(BatchHelper.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
-      String requestHeaderContentId =
-          request.getRequestHeaderValue(BatchHelper.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
-      ODataResponse response = setContentIdHeader(handler.handle(request), mimeHeaderContentId, requestHeaderContentId);
-      List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
-      responses.add(response);
-      return BatchResponsePart.responses(responses).changeSet(false).build();
+      throw new ODataException(cause);
     }
+    return responseParts;
+  }
+
+  private void cancel(final List<Future<BatchResponsePart>> futures) {
+    for (Future<BatchResponsePart> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private ODataRequest getQueryRequest(final BatchRequestPart batchPart) throws ODataException {
+    if (batchPart.getRequests().size() != 1) {
+      throw new ODataException("Query Operation should contain one request");
+    }
+    return batchPart.getRequests().get(0);
+  }
+
+  private BatchResponsePart handleQueryRequest(final ODataRequest request, final ODataRequestHandler handler)
+      throws ODataException {
+    String mimeHeaderContentId =
+        request.getRequestHeaderValue(BatchHelper.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
+    String requestHeaderContentId =
+        request.getRequestHeaderValue(BatchHelper.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
+    ODataResponse response = setContentIdHeader(handler.handle(request), mimeHeaderContentId, requestHeaderContentId);
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(response);
+    return BatchResponsePart.responses(responses).changeSet(false).build();
   }
 
   @Override
@@ -184,4 +316,35 @@ public class BatchHandlerImpl implements BatchHandler {
     return new ODataRequestHandler(factory, service, context);
   }
 
+  private ODataRequestHandler createParallelHandler(final ODataRequest request, final ODataContext parentContext)
+      throws ODataException {
+    ODataContextImpl context = new ODataContextImpl(request, factory);
+    context.setBatchParentContext(parentContext);
+    ODataService partService = factory.createService(context);
+    context.setService(partService);
+    partService.getProcessor().setContext(context);
+    return new ODataRequestHandler(factory, partService, context);
+  }
+
+  private static class ListPartIterator implements BatchRequestPartIterator {
+    private final Iterator<BatchRequestPart> iterator;
+
+    ListPartIterator(final List<BatchRequestPart> batchParts) {
+      iterator = batchParts.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public BatchRequestPart next() {
+      return iterator.next();
+    }
+
+    @Override
+    public void close() {}
+  }
+
 }
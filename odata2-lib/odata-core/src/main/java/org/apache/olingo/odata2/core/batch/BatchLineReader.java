@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Reads a batch request body line by line directly from the bytes of the input stream.
+ * <p>One line can be looked at before it is consumed. Lines which are decoded into strings may have at most
+ * {@link #MAX_LINE_LENGTH} bytes; they are decoded directly from the read buffer, which never grows.
+ * Request bodies are not decoded but collected as bytes, up to a maximum size
+ * (see {@link #readBody(DelimiterCheck)}).
+ * Lines are terminated by LF; a CR preceding the LF is not part of the decoded line.</p>
+ */
+class BatchLineReader {
+
+  /** Maximum length in bytes (including the line break) of a line which is decoded. */
+  static final int MAX_LINE_LENGTH = 8192;
+
+  private static final int BUFFER_SIZE = 2 * MAX_LINE_LENGTH;
+  private static final Charset CHARSET = Charset.forName(BatchHelper.DEFAULT_ENCODING);
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+  private static final byte HYPHEN = '-';
+
+  private final InputStream in;
+  private final int maxBodySize;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  private boolean endOfStream;
+
+  private String line;
+  private int lineEnd;
+  private boolean lookAhead;
+  private int consumedLines;
+
+  /**
+   * Decides whether a line starting with two hyphens ends a body.
+   */
+  interface DelimiterCheck {
+    boolean isDelimiter(String line);
+  }
+
+  /**
+   * Signals a line which is longer than {@link BatchLineReader#MAX_LINE_LENGTH}.
+   */
+  static class LineTooLongException extends IOException {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * Signals a body which is larger than the maximum body size.
+   */
+  static class BodyTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * @param in the batch request body
+   * @param maxBodySize maximum size in bytes of a body read with {@link #readBody(DelimiterCheck)}
+   */
+  BatchLineReader(final InputStream in, final int maxBodySize) {
+    this.in = in;
+    this.maxBodySize = maxBodySize;
+  }
+
+  /**
+   * Returns the next line without consuming it.
+   * @return the line without line break or <code>null</code> at the end of the stream
+   * @throws LineTooLongException if the line is longer than {@link #MAX_LINE_LENGTH}
+   */
+  String peekLine() throws IOException {
+    if (!lookAhead) {
+      findLine();
+      lookAhead = true;
+    }
+    return line;
+  }
+
+  /**
+   * Consumes the next line.
+   * @return the line without line break or <code>null</code> at the end of the stream
+   * @throws LineTooLongException if the line is longer than {@link #MAX_LINE_LENGTH}
+   */
+  String readLine() throws IOException {
+    final String result = peekLine();
+    consume();
+    return result;
+  }
+
+  /**
+   * Consumes all lines up to the next line which starts with two hyphens and is a delimiter according to
+   * the given check, or up to the end of the stream.
+   * <p>Only lines starting with two hyphens are decoded; all other bytes are copied unchanged.</p>
+   * @return a stream over the consumed bytes without the line break preceding the delimiter
+   * @throws BodyTooLargeException if the body is larger than the maximum body size
+   */
+  InputStream readBody(final DelimiterCheck check) throws IOException {
+    byte[] body = new byte[0];
+    int length = 0;
+    boolean lineStart = true;
+    while (true) {
+      int end;
+      if (lookAhead
+          || lineStart && ensure(2) && buffer[position] == HYPHEN && buffer[position + 1] == HYPHEN) {
+        String candidate;
+        try {
+          candidate = peekLine();
+        } catch (final LineTooLongException e) {
+          // a line of that length is not a delimiter
+          candidate = null;
+        }
+        if (candidate != null && check.isDelimiter(candidate)) {
+          break;
+        }
+        end = lookAhead ? lineEnd : findLineBreak();
+        lookAhead = false;
+      } else {
+        end = findLineBreak();
+      }
+      if (end == position) {
+        break;
+      }
+      // The line break preceding the delimiter is not part of the body.
+      if ((long) length + end - position > (long) maxBodySize + 2) {
+        throw new BodyTooLargeException();
+      }
+      if (length + end - position > body.length) {
+        byte[] newBody = new byte[Math.max(2 * body.length, length + end - position)];
+        System.arraycopy(body, 0, newBody, 0, length);
+        body = newBody;
+      }
+      System.arraycopy(buffer, position, body, length, end - position);
+      length += end - position;
+      position = end;
+      lineStart = buffer[end - 1] == LF;
+      if (lineStart) {
+        consumedLines++;
+      }
+    }
+
+    if (length > 0 && body[length - 1] == LF) {
+      length--;
+      if (length > 0 && body[length - 1] == CR) {
+        length--;
+      }
+    }
+    if (length > maxBodySize) {
+      throw new BodyTooLargeException();
+    }
+    return new ByteArrayInputStream(body, 0, length);
+  }
+
+  /**
+   * @return the number of lines consumed so far
+   */
+  int getConsumedLines() {
+    return consumedLines;
+  }
+
+  void close() throws IOException {
+    in.close();
+  }
+
+  private void consume() {
+    if (line != null) {
+      position = lineEnd;
+      consumedLines++;
+    }
+    lookAhead = false;
+  }
+
+  /**
+   * Finds the next line, which has to fit into the buffer, and decodes it.
+   */
+  private void findLine() throws IOException {
+    int scanned = 0;
+    int end = -1;
+    while (end < 0) {
+      final int searchLimit = Math.min(limit, position + MAX_LINE_LENGTH);
+      int index = position + scanned;
+      while (index < searchLimit && buffer[index] != LF) {
+        index++;
+      }
+      scanned = index - position;
+      if (index < searchLimit) {
+        end = index + 1;
+      } else if (scanned >= MAX_LINE_LENGTH) {
+        throw new LineTooLongException();
+      } else if (!ensure(scanned + 1)) {
+        end = limit;
+      }
+    }
+    if (end == position) {
+      line = null;
+    } else {
+      int length = end - position;
+      if (buffer[end - 1] == LF) {
+        length--;
+        if (length > 0 && buffer[position + length - 1] == CR) {
+          length--;
+        }
+      }
+      line = new String(buffer, position, length, CHARSET);
+    }
+    lineEnd = end;
+  }
+
+  /**
+   * Returns the end (after the LF) of the current line or of the part of it which is in the buffer;
+   * reads more bytes if the buffer is empty.
+   */
+  private int findLineBreak() throws IOException {
+    if (position == limit) {
+      ensure(1);
+    }
+    int end = position;
+    while (end < limit && buffer[end] != LF) {
+      end++;
+    }
+    return end < limit ? end + 1 : end;
+  }
+
+  /**
+   * Makes sure that at least the given number of bytes is available in the buffer unless the stream ends;
+   * the unread bytes are moved to the beginning of the buffer.
+   * @return whether the number of bytes is available
+   */
+  private boolean ensure(final int count) throws IOException {
+    if (limit - position >= count) {
+      return true;
+    }
+    if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, limit - position);
+      limit -= position;
+      position = 0;
+    }
+    while (limit < count && !endOfStream) {
+      final int read = in.read(buffer, limit, BUFFER_SIZE - limit);
+      if (read == -1) {
+        endOfStream = true;
+      } else {
+        limit += read;
+      }
+    }
+    return limit - position >= count;
+  }
+}
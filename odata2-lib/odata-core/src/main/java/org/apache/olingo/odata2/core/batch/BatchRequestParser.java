@@ -27,17 +27,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 import org.apache.olingo.odata2.api.batch.BatchException;
 import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.commons.HttpContentType;
 import org.apache.olingo.odata2.api.commons.HttpHeaders;
 import org.apache.olingo.odata2.api.commons.ODataHttpMethod;
@@ -52,31 +51,22 @@ import org.apache.olingo.odata2.core.commons.Decoder;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
 
 /**
- *  
+ * Parser for batch request bodies.
+ * <p>The body is read line by line from its bytes; the parts are parsed one after the other on request
+ * (see {@link #parseIncrementally(InputStream)}), so only the current part is kept in memory.
+ * Header lines, request lines, and delimiters may have at most {@link BatchLineReader#MAX_LINE_LENGTH} bytes.
+ * The bodies of requests in change sets are the unchanged bytes between the header block and the
+ * line break preceding the next delimiter; they are collected without decoding and may have at most
+ * {@link EntityProviderBatchProperties#getMaxBodySize()} bytes.</p>
  */
 public class BatchRequestParser {
-  private static final String LF = "\n";
-  private static final String REG_EX_OPTIONAL_WHITESPACE = "\\s?";
-  private static final String REG_EX_ZERO_OR_MORE_WHITESPACES = "\\s*";
-  private static final String ANY_CHARACTERS = ".*";
-
-  private static final Pattern REG_EX_BLANK_LINE = Pattern.compile("(|" + REG_EX_ZERO_OR_MORE_WHITESPACES + ")");
-  private static final Pattern REG_EX_HEADER = Pattern.compile("([a-zA-Z\\-]+):" + REG_EX_OPTIONAL_WHITESPACE + "(.*)"
-      + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_VERSION = Pattern.compile("(?:HTTP/[0-9]\\.[0-9])");
-  private static final Pattern REG_EX_ANY_BOUNDARY_STRING = Pattern.compile("--" + ANY_CHARACTERS
-      + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_REQUEST_LINE = Pattern.compile("(GET|POST|PUT|DELETE|MERGE|PATCH)\\s(.*)\\s?"
-      + REG_EX_VERSION + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_BOUNDARY_PARAMETER = Pattern.compile(REG_EX_OPTIONAL_WHITESPACE
-      + "boundary=(\".*\"|.*)" + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_CONTENT_TYPE = Pattern.compile(REG_EX_OPTIONAL_WHITESPACE
-      + HttpContentType.MULTIPART_MIXED);
-  private static final Pattern REG_EX_QUERY_PARAMETER = Pattern.compile("((?:\\$|)[^=]+)=([^=]+)");
-
-  private static final String REG_EX_BOUNDARY =
+  private static final String BOUNDARY_PARAMETER = "boundary=";
+  private static final String HTTP_VERSION_PREFIX = "HTTP/";
+  private static final int HTTP_VERSION_LENGTH = HTTP_VERSION_PREFIX.length() + 3;
+
+  private static final Pattern REG_EX_BOUNDARY = Pattern.compile(
       "([a-zA-Z0-9_\\-\\.'\\+]{1,70})|\"([a-zA-Z0-9_\\-\\.'\\+\\s\\" +
-          "(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\""; // See RFC 2046
+          "(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\""); // See RFC 2046
 
   private String baseUri;
   private PathInfo batchRequestPathInfo;
@@ -84,6 +74,8 @@ public class BatchRequestParser {
   private String boundary;
   private String currentMimeHeaderContentId;
   private int currentLineNumber = 0;
+  private BatchLineReader reader;
+  private final int maxBodySize;
   private final static Set<String> HTTP_CHANGESET_METHODS;
   private final static Set<String> HTTP_BATCH_METHODS;
 
@@ -104,62 +96,121 @@ public class BatchRequestParser {
   public BatchRequestParser(final String contentType, final EntityProviderBatchProperties properties) {
     contentTypeMime = contentType;
     batchRequestPathInfo = properties.getPathInfo();
+    maxBodySize = properties.getMaxBodySize();
   }
 
   public List<BatchRequestPart> parse(final InputStream in) throws BatchException {
-    Scanner scanner = new Scanner(in, BatchHelper.DEFAULT_ENCODING).useDelimiter(LF);
-    baseUri = getBaseUri();
-    List<BatchRequestPart> requestList;
+    List<BatchRequestPart> requestList = new ArrayList<BatchRequestPart>();
+    BatchRequestPartIterator iterator = null;
     try {
-      requestList = parseBatchRequest(scanner);
+      iterator = parseIncrementally(in);
+      while (iterator.hasNext()) {
+        requestList.add(iterator.next());
+      }
     } finally {// NOPMD (suppress DoNotThrowExceptionInFinally)
-      scanner.close();
-      try {
-        in.close();
-      } catch (IOException e) {
-        throw new ODataRuntimeException(e);
+      if (iterator == null) {
+        close(in);
+      } else {
+        iterator.close();
       }
     }
     return requestList;
   }
 
-  private List<BatchRequestPart> parseBatchRequest(final Scanner scanner) throws BatchException {
-    List<BatchRequestPart> requests = new LinkedList<BatchRequestPart>();
-    if (contentTypeMime != null) {
-      boundary = getBoundary(contentTypeMime);
-      parsePreamble(scanner);
-      final String closeDelimiter = "--" + boundary + "--" + REG_EX_ZERO_OR_MORE_WHITESPACES;
-      while (scanner.hasNext() && !scanner.hasNext(closeDelimiter)) {
-        requests.add(parseMultipart(scanner, boundary, false));
-        parseOptionalLine(scanner);
+  /**
+   * Returns an iterator which parses the parts of the given batch request body one after the other.
+   * @param in the batch request body
+   * @return iterator over the batch request parts
+   * @throws BatchException if the content type or the path information is not valid
+   */
+  public BatchRequestPartIterator parseIncrementally(final InputStream in) throws BatchException {
+    baseUri = getBaseUri();
+    if (contentTypeMime == null) {
+      throw new BatchException(BatchException.MISSING_CONTENT_TYPE);
+    }
+    boundary = getBoundary(contentTypeMime);
+    reader = new BatchLineReader(in, maxBodySize);
+    return new PartIterator();
+  }
+
+  private class PartIterator implements BatchRequestPartIterator {
+    private boolean started;
+    private boolean finished;
+
+    @Override
+    public boolean hasNext() throws BatchException {
+      if (finished) {
+        return false;
       }
-      if (scanner.hasNext(closeDelimiter)) {
-        scanner.next(closeDelimiter);
-        currentLineNumber++;
-      } else {
-        throw new BatchException(BatchException.MISSING_CLOSE_DELIMITER.addContent(currentLineNumber));
+      boolean hasNext = false;
+      try {
+        if (!started) {
+          parsePreamble();
+          started = true;
+        }
+        final String line = peekLine();
+        if (line == null) {
+          throw new BatchException(BatchException.MISSING_CLOSE_DELIMITER.addContent(currentLineNumber));
+        } else if (isCloseDelimiter(line, boundary)) {
+          readLine();
+          hasNext = false;
+        } else {
+          hasNext = true;
+        }
+      } finally {
+        if (!hasNext) {
+          close();
+        }
+      }
+      return hasNext;
+    }
+
+    @Override
+    public BatchRequestPart next() throws BatchException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      boolean successful = false;
+      try {
+        final BatchRequestPart part = parseMultipart(boundary, false);
+        parseOptionalLine();
+        successful = true;
+        return part;
+      } finally {
+        if (!successful) {
+          close();
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!finished) {
+        finished = true;
+        try {
+          reader.close();
+        } catch (IOException e) {
+          throw new ODataRuntimeException(e);
+        }
       }
-    } else {
-      throw new BatchException(BatchException.MISSING_CONTENT_TYPE);
     }
-    return requests;
   }
 
   // The method parses additional information prior to the first boundary delimiter line
-  private void parsePreamble(final Scanner scanner) {
-    while (scanner.hasNext() && !scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
-      scanner.next();
-      currentLineNumber++;
+  private void parsePreamble() throws BatchException {
+    String line = peekLine();
+    while (line != null && !line.startsWith("--")) {
+      readLine();
+      line = peekLine();
     }
   }
 
-  private BatchRequestPart parseMultipart(final Scanner scanner, final String boundary, final boolean isChangeSet)
+  private BatchRequestPart parseMultipart(final String boundary, final boolean isChangeSet)
       throws BatchException {
-
-    if (scanner.hasNext("--" + boundary + REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-      scanner.next();
-      currentLineNumber++;
-      Map<String, String> mimeHeaders = parseHeaders(scanner);
+    final String line = peekLine();
+    if (line != null && isDelimiter(line, boundary)) {
+      readLine();
+      Map<String, String> mimeHeaders = parseHeaders();
       currentMimeHeaderContentId = mimeHeaders.get(BatchHelper.HTTP_CONTENT_ID.toLowerCase(Locale.ENGLISH));
 
       String contentType = mimeHeaders.get(HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ENGLISH));
@@ -167,14 +218,14 @@ public class BatchRequestParser {
         throw new BatchException(BatchException.MISSING_CONTENT_TYPE);
       }
       if (isChangeSet) {
-        return parseBatchRequestPartInChangeset(scanner, boundary, mimeHeaders, contentType);
+        return parseBatchRequestPartInChangeset(boundary, mimeHeaders, contentType);
       } else {
-        return parseBatchRequestPart(scanner, boundary, mimeHeaders, contentType);
+        return parseBatchRequestPart(boundary, mimeHeaders, contentType);
       }
-    } else if (scanner.hasNext(boundary + REG_EX_ZERO_OR_MORE_WHITESPACES)) {
+    } else if (line != null && line.startsWith(boundary) && isBlank(line.substring(boundary.length()))) {
       currentLineNumber++;
       throw new BatchException(BatchException.INVALID_BOUNDARY_DELIMITER.addContent(currentLineNumber));
-    } else if (scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
+    } else if (line != null && line.startsWith("--")) {
       currentLineNumber++;
       throw new BatchException(BatchException.NO_MATCH_WITH_BOUNDARY_STRING.addContent(boundary).addContent(
           currentLineNumber));
@@ -184,30 +235,28 @@ public class BatchRequestParser {
     }
   }
 
-  private BatchRequestPart parseBatchRequestPart(final Scanner scanner, final String boundary,
-                                                 final Map<String, String> mimeHeaders,
-                                                 final String contentType) throws BatchException {
+  private BatchRequestPart parseBatchRequestPart(final String boundary, final Map<String, String> mimeHeaders,
+      final String contentType) throws BatchException {
     if (HttpContentType.APPLICATION_HTTP.equalsIgnoreCase(contentType)) {
       validateEncoding(mimeHeaders.get(BatchHelper.HTTP_CONTENT_TRANSFER_ENCODING.toLowerCase(Locale.ENGLISH)));
-      parseNewLine(scanner);// mandatory
+      parseNewLine();// mandatory
       List<ODataRequest> requests = new ArrayList<ODataRequest>(1);
-      requests.add(parseRequest(scanner, false, boundary));
+      requests.add(parseRequest(false, boundary));
       return new BatchRequestPartImpl(false, requests);
-    } else if (contentType.matches(REG_EX_OPTIONAL_WHITESPACE + HttpContentType.MULTIPART_MIXED + ANY_CHARACTERS)) {
+    } else if (contentType.trim().startsWith(HttpContentType.MULTIPART_MIXED)) {
       String changeSetBoundary = getBoundary(contentType);
       if (boundary.equals(changeSetBoundary)) {
         throw new BatchException(BatchException.INVALID_CHANGESET_BOUNDARY.addContent(currentLineNumber));
       }
-      List<ODataRequest> changeSetRequests = new LinkedList<ODataRequest>();
-      parseNewLine(scanner);// mandatory
-      Pattern changeSetCloseDelimiter =
-          Pattern.compile("--" + changeSetBoundary + "--" + REG_EX_ZERO_OR_MORE_WHITESPACES);
-      while (!scanner.hasNext(changeSetCloseDelimiter)) {
-        BatchRequestPart part = parseMultipart(scanner, changeSetBoundary, true);
+      List<ODataRequest> changeSetRequests = new ArrayList<ODataRequest>();
+      parseNewLine();// mandatory
+      String line = peekLine();
+      while (line == null || !isCloseDelimiter(line, changeSetBoundary)) {
+        BatchRequestPart part = parseMultipart(changeSetBoundary, true);
         changeSetRequests.addAll(part.getRequests());
+        line = peekLine();
       }
-      scanner.next(changeSetCloseDelimiter);
-      currentLineNumber++;
+      readLine();
       return new BatchRequestPartImpl(true, changeSetRequests);
     } else {
       throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(HttpContentType.MULTIPART_MIXED
@@ -215,36 +264,31 @@ public class BatchRequestParser {
     }
   }
 
-  private BatchRequestPart parseBatchRequestPartInChangeset(final Scanner scanner, final String boundary,
-                                                            final Map<String, String> mimeHeaders,
-                                                            final String contentType) throws BatchException {
+  private BatchRequestPart parseBatchRequestPartInChangeset(final String boundary,
+      final Map<String, String> mimeHeaders, final String contentType) throws BatchException {
     if (HttpContentType.APPLICATION_HTTP.equalsIgnoreCase(contentType)) {
       validateEncoding(mimeHeaders.get(BatchHelper.HTTP_CONTENT_TRANSFER_ENCODING.toLowerCase(Locale.ENGLISH)));
-      parseNewLine(scanner);// mandatory
+      parseNewLine();// mandatory
       List<ODataRequest> requests = new ArrayList<ODataRequest>(1);
-      requests.add(parseRequest(scanner, true, boundary));
+      requests.add(parseRequest(true, boundary));
       return new BatchRequestPartImpl(false, requests);
     } else {
       throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(HttpContentType.APPLICATION_HTTP));
     }
   }
 
-  private ODataRequest parseRequest(final Scanner scanner, final boolean isChangeSet, final String boundary)
-          throws BatchException {
-    if (scanner.hasNext(REG_EX_REQUEST_LINE)) {
-      scanner.next(REG_EX_REQUEST_LINE);
-      currentLineNumber++;
-      final String method;
-      final String uri;
-      MatchResult result = scanner.match();
-      if (result.groupCount() == 2) {
-        method = result.group(1);
-        uri = result.group(2).trim();
-      } else {
-        currentLineNumber++;
-        throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(scanner.next()).addContent(
-            currentLineNumber));
-      }
+  private ODataRequest parseRequest(final boolean isChangeSet, final String boundary) throws BatchException {
+    final String requestLine = peekLine();
+    final int methodEnd = requestLine == null ? -1 : requestLine.indexOf(' ');
+    final String trimmedLine = requestLine == null ? null : requestLine.trim();
+    if (methodEnd > 0
+        && isHttpVersion(trimmedLine)
+        && trimmedLine.length() - HTTP_VERSION_LENGTH > methodEnd
+        && (HTTP_CHANGESET_METHODS.contains(requestLine.substring(0, methodEnd))
+        || HTTP_BATCH_METHODS.contains(requestLine.substring(0, methodEnd)))) {
+      readLine();
+      final String method = requestLine.substring(0, methodEnd);
+      final String uri = trimmedLine.substring(methodEnd + 1, trimmedLine.length() - HTTP_VERSION_LENGTH).trim();
       PathInfo pathInfo = parseRequestUri(uri);
       Map<String, String> queryParameters = parseQueryParameters(uri);
       if (isChangeSet) {
@@ -255,7 +299,7 @@ public class BatchRequestParser {
         throw new BatchException(BatchException.INVALID_QUERY_OPERATION_METHOD.addContent(currentLineNumber));
       }
       ODataHttpMethod httpMethod = ODataHttpMethod.valueOf(method);
-      Map<String, List<String>> headers = parseRequestHeaders(scanner, boundary);
+      Map<String, List<String>> headers = parseRequestHeaders(boundary);
       if (currentMimeHeaderContentId != null) {
         List<String> headerList = new ArrayList<String>();
         headerList.add(currentMimeHeaderContentId);
@@ -267,7 +311,7 @@ public class BatchRequestParser {
       List<Locale> acceptLanguages = getAcceptLanguageHeader(headers);
       InputStream body = new ByteArrayInputStream(new byte[0]);
       if (isChangeSet) {
-        body = parseBody(scanner);
+        body = parseBody(boundary);
       }
 
       ODataRequestBuilder requestBuilder = ODataRequest.method(httpMethod)
@@ -284,50 +328,53 @@ public class BatchRequestParser {
       return requestBuilder.build();
     } else {
       currentLineNumber++;
-      throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(scanner.next()).addContent(
+      throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(requestLine).addContent(
           currentLineNumber));
     }
+  }
 
+  private static boolean isHttpVersion(final String line) {
+    final int start = line.length() - HTTP_VERSION_LENGTH;
+    return start > 0
+        && line.startsWith(HTTP_VERSION_PREFIX, start)
+        && Character.isDigit(line.charAt(start + HTTP_VERSION_PREFIX.length()))
+        && line.charAt(start + HTTP_VERSION_PREFIX.length() + 1) == '.'
+        && Character.isDigit(line.charAt(start + HTTP_VERSION_PREFIX.length() + 2));
   }
 
-  private Map<String, List<String>> parseRequestHeaders(final Scanner scanner, final String boundary)
-          throws BatchException {
+  private Map<String, List<String>> parseRequestHeaders(final String boundary) throws BatchException {
     Map<String, List<String>> headers = new HashMap<String, List<String>>();
-    while (scanner.hasNext()
-            && !scanner.hasNext(REG_EX_BLANK_LINE)
-            && !scanner.hasNext("--" + boundary + REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-      if (scanner.hasNext(REG_EX_HEADER)) {
-        scanner.next(REG_EX_HEADER);
-        currentLineNumber++;
-        MatchResult result = scanner.match();
-        if (result.groupCount() == 2) {
-          String headerName = result.group(1).trim().toLowerCase(Locale.ENGLISH);
-          String headerValue = result.group(2).trim();
-          if (HttpHeaders.ACCEPT.equalsIgnoreCase(headerName)) {
-            List<String> acceptHeaders = parseAcceptHeaders(headerValue);
-            headers.put(headerName, acceptHeaders);
-          } else if (HttpHeaders.ACCEPT_LANGUAGE.equalsIgnoreCase(headerName)) {
-            List<String> acceptLanguageHeaders = parseAcceptableLanguages(headerValue);
-            headers.put(headerName, acceptLanguageHeaders);
-          } else if (!BatchHelper.HTTP_CONTENT_ID.equalsIgnoreCase(headerName)) {
-            if (headers.containsKey(headerName)) {
-              headers.get(headerName).add(headerValue);
-            } else {
-              List<String> headerList = new ArrayList<String>();
-              headerList.add(headerValue);
-              headers.put(headerName, headerList);
-            }
+    String line = peekLine();
+    while (line != null && !isBlank(line) && !isDelimiter(line, boundary)) {
+      final int separator = getHeaderSeparator(line);
+      if (separator > 0) {
+        readLine();
+        String headerName = line.substring(0, separator).toLowerCase(Locale.ENGLISH);
+        String headerValue = line.substring(separator + 1).trim();
+        if (HttpHeaders.ACCEPT.equalsIgnoreCase(headerName)) {
+          List<String> acceptHeaders = parseAcceptHeaders(headerValue);
+          headers.put(headerName, acceptHeaders);
+        } else if (HttpHeaders.ACCEPT_LANGUAGE.equalsIgnoreCase(headerName)) {
+          List<String> acceptLanguageHeaders = parseAcceptableLanguages(headerValue);
+          headers.put(headerName, acceptLanguageHeaders);
+        } else if (!BatchHelper.HTTP_CONTENT_ID.equalsIgnoreCase(headerName)) {
+          if (headers.containsKey(headerName)) {
+            headers.get(headerName).add(headerValue);
           } else {
             List<String> headerList = new ArrayList<String>();
             headerList.add(headerValue);
-            headers.put(BatchHelper.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
+            headers.put(headerName, headerList);
           }
+        } else {
+          List<String> headerList = new ArrayList<String>();
+          headerList.add(headerValue);
+          headers.put(BatchHelper.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
         }
       } else {
         currentLineNumber++;
-        throw new BatchException(BatchException.INVALID_HEADER.addContent(scanner.next())
-            .addContent(currentLineNumber));
+        throw new BatchException(BatchException.INVALID_HEADER.addContent(line).addContent(currentLineNumber));
       }
+      line = peekLine();
     }
     return headers;
   }
@@ -336,49 +383,26 @@ public class BatchRequestParser {
     PathInfoImpl pathInfo = new PathInfoImpl();
     pathInfo.setServiceRoot(batchRequestPathInfo.getServiceRoot());
     pathInfo.setPrecedingPathSegment(batchRequestPathInfo.getPrecedingSegments());
-    final String odataPathSegmentsAsString;
-    final String queryParametersAsString;
+    final String relativeUri;
     try {
-      Scanner uriScanner = new Scanner(uri).useDelimiter(LF);
       URI uriObject = new URI(uri);
       if (uriObject.isAbsolute()) {
-        Pattern regexRequestUri = Pattern.compile(baseUri + "/([^/][^?]*)(\\?.*)?");
-        if (uriScanner.hasNext(regexRequestUri)) {
-          uriScanner.next(regexRequestUri);
-          MatchResult result = uriScanner.match();
-          if (result.groupCount() == 2) {
-            odataPathSegmentsAsString = result.group(1);
-            queryParametersAsString = result.group(2) != null ? result.group(2) : "";
-          } else {
-            uriScanner.close();
-            throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
-          }
-        } else {
-          uriScanner.close();
+        if (!uri.startsWith(baseUri + "/")) {
           throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
         }
+        relativeUri = uri.substring(baseUri.length() + 1);
+      } else if (uri.startsWith("/")) {
+        throw new BatchException(BatchException.UNSUPPORTED_ABSOLUTE_PATH.addContent(currentLineNumber));
       } else {
-        Pattern regexRequestUri = Pattern.compile("([^/][^?]*)(\\?.*)?");
-        if (uriScanner.hasNext(regexRequestUri)) {
-          uriScanner.next(regexRequestUri);
-          MatchResult result = uriScanner.match();
-          if (result.groupCount() == 2) {
-            odataPathSegmentsAsString = result.group(1);
-            queryParametersAsString = result.group(2) != null ? result.group(2) : "";
-          } else {
-            uriScanner.close();
-            throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
-          }
-        } else if (uriScanner.hasNext("/(.*)")) {
-          uriScanner.close();
-          throw new BatchException(BatchException.UNSUPPORTED_ABSOLUTE_PATH.addContent(currentLineNumber));
-        } else {
-          uriScanner.close();
-          throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
-        }
-
+        relativeUri = uri;
+      }
+      if (relativeUri.length() == 0 || relativeUri.charAt(0) == '/') {
+        throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
       }
-      uriScanner.close();
+      final int queryStart = relativeUri.indexOf('?', 1);
+      final String odataPathSegmentsAsString = queryStart < 0 ? relativeUri : relativeUri.substring(0, queryStart);
+      final String queryParametersAsString = queryStart < 0 ? "" : relativeUri.substring(queryStart);
+
       pathInfo.setODataPathSegment(parseODataPathSegments(odataPathSegmentsAsString));
       if (!odataPathSegmentsAsString.startsWith("$")) {
         String requestUri = baseUri + "/" + odataPathSegmentsAsString + queryParametersAsString;
@@ -388,49 +412,33 @@ public class BatchRequestParser {
     } catch (URISyntaxException e) {
       throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber), e);
     }
-
   }
 
   private Map<String, String> parseQueryParameters(final String uri) throws BatchException {
-    Scanner uriScanner = new Scanner(uri).useDelimiter("\n");
     Map<String, String> queryParametersMap = new HashMap<String, String>();
-    Pattern regex = Pattern.compile("(?:" + baseUri + "/)?" + "[^?]+" + "\\?(.*)");
-    if (uriScanner.hasNext(regex)) {
-      uriScanner.next(regex);
-      MatchResult uriResult = uriScanner.match();
-      if (uriResult.groupCount() == 1) {
-        String queryParams = uriResult.group(1);
-        Scanner queryParamsScanner = new Scanner(queryParams).useDelimiter("&");
-        while (queryParamsScanner.hasNext(REG_EX_QUERY_PARAMETER)) {
-          queryParamsScanner.next(REG_EX_QUERY_PARAMETER);
-          MatchResult result = queryParamsScanner.match();
-          if (result.groupCount() == 2) {
-            String systemQueryOption = result.group(1);
-            String value = result.group(2);
-            queryParametersMap.put(systemQueryOption, Decoder.decode(value));
-          } else {
-            queryParamsScanner.close();
-            throw new BatchException(BatchException.INVALID_QUERY_PARAMETER);
-          }
+    final int queryStart = uri.indexOf('?');
+    if (queryStart > 0) {
+      for (String queryParameter : uri.substring(queryStart + 1).split("&")) {
+        if (queryParameter.length() == 0) {
+          continue;
         }
-        queryParamsScanner.close();
-
-      } else {
-        uriScanner.close();
-        throw new BatchException(BatchException.INVALID_URI.addContent(currentLineNumber));
+        final int separator = queryParameter.indexOf('=');
+        if (separator <= 0 || separator == queryParameter.length() - 1
+            || queryParameter.indexOf('=', separator + 1) >= 0) {
+          break;
+        }
+        queryParametersMap.put(queryParameter.substring(0, separator),
+            Decoder.decode(queryParameter.substring(separator + 1)));
       }
     }
-    uriScanner.close();
     return queryParametersMap;
   }
 
   private List<PathSegment> parseODataPathSegments(final String odataPathSegmentsAsString) {
-    Scanner pathSegmentScanner = new Scanner(odataPathSegmentsAsString).useDelimiter("/");
     List<PathSegment> odataPathSegments = new ArrayList<PathSegment>();
-    while (pathSegmentScanner.hasNext()) {
-      odataPathSegments.add(new ODataPathSegmentImpl(pathSegmentScanner.next(), null));
+    for (String segment : odataPathSegmentsAsString.split("/")) {
+      odataPathSegments.add(new ODataPathSegmentImpl(segment, null));
     }
-    pathSegmentScanner.close();
     return odataPathSegments;
   }
 
@@ -442,50 +450,47 @@ public class BatchRequestParser {
     return AcceptParser.parseAcceptableLanguages(headerValue);
   }
 
-  private InputStream parseBody(final Scanner scanner) {
-    StringBuilder body = null;
-    final InputStream requestBody;
-
-    while (scanner.hasNext() && !scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
-      if (!scanner.hasNext(REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-        if (body == null) {
-          body = new StringBuilder(scanner.next());
-        } else {
-          body.append(LF).append(scanner.next());
-        }
-      } else {
-        scanner.next();
-      }
-      currentLineNumber++;
+  /**
+   * Reads the body of a request in a change set: all bytes up to the line break preceding the next
+   * delimiter of the change set or of the batch request.
+   */
+  private InputStream parseBody(final String changeSetBoundary) throws BatchException {
+    if (peekLine() != null && isBlank(peekLine())) {
+      readLine();
     }
-
-    if (body != null) {
-      requestBody = new ByteArrayInputStream(BatchHelper.getBytes(body.toString()));
-    } else {
-      requestBody = new ByteArrayInputStream(new byte[0]);
+    final int consumedLines = reader.getConsumedLines();
+    try {
+      final InputStream body = reader.readBody(new BatchLineReader.DelimiterCheck() {
+        @Override
+        public boolean isDelimiter(final String line) {
+          return BatchRequestParser.isDelimiter(line, changeSetBoundary)
+              || isCloseDelimiter(line, changeSetBoundary)
+              || BatchRequestParser.isDelimiter(line, boundary) || isCloseDelimiter(line, boundary);
+        }
+      });
+      currentLineNumber += reader.getConsumedLines() - consumedLines;
+      return body;
+    } catch (BatchLineReader.BodyTooLargeException e) {
+      throw new BatchException(BatchException.BODY_TOO_LARGE.addContent(currentLineNumber + 1)
+          .addContent(maxBodySize), e);
+    } catch (IOException e) {
+      throw new BatchException(BatchException.TRUNCATED_BODY.addContent(currentLineNumber), e);
     }
-    return requestBody;
   }
 
   private String getBoundary(final String contentType) throws BatchException {
-    Scanner contentTypeScanner = new Scanner(contentType).useDelimiter(";\\s?");
-    if (contentTypeScanner.hasNext(REG_EX_CONTENT_TYPE)) {
-      contentTypeScanner.next(REG_EX_CONTENT_TYPE);
-    } else {
-      contentTypeScanner.close();
+    final String[] parameters = contentType.split(";");
+    if (!HttpContentType.MULTIPART_MIXED.equals(parameters[0].trim())) {
       throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(HttpContentType.MULTIPART_MIXED));
     }
-    if (contentTypeScanner.hasNext(REG_EX_BOUNDARY_PARAMETER)) {
-      contentTypeScanner.next(REG_EX_BOUNDARY_PARAMETER);
-      MatchResult result = contentTypeScanner.match();
-      contentTypeScanner.close();
-      if (result.groupCount() == 1 && result.group(1).trim().matches(REG_EX_BOUNDARY)) {
-        return trimQuota(result.group(1).trim());
+    if (parameters.length > 1 && parameters[1].trim().startsWith(BOUNDARY_PARAMETER)) {
+      final String value = parameters[1].trim().substring(BOUNDARY_PARAMETER.length()).trim();
+      if (REG_EX_BOUNDARY.matcher(value).matches()) {
+        return trimQuota(value);
       } else {
         throw new BatchException(BatchException.INVALID_BOUNDARY);
       }
     } else {
-      contentTypeScanner.close();
       throw new BatchException(BatchException.MISSING_PARAMETER_IN_CONTENT_TYPE);
     }
   }
@@ -496,45 +501,100 @@ public class BatchRequestParser {
     }
   }
 
-  private Map<String, String> parseHeaders(final Scanner scanner) throws BatchException {
+  private Map<String, String> parseHeaders() throws BatchException {
     Map<String, String> headers = new HashMap<String, String>();
-    while (scanner.hasNext() && !(scanner.hasNext(REG_EX_BLANK_LINE))) {
-      if (scanner.hasNext(REG_EX_HEADER)) {
-        scanner.next(REG_EX_HEADER);
-        currentLineNumber++;
-        MatchResult result = scanner.match();
-        if (result.groupCount() == 2) {
-          String headerName = result.group(1).trim().toLowerCase(Locale.ENGLISH);
-          String headerValue = result.group(2).trim();
-          headers.put(headerName, headerValue);
-        }
+    String line = peekLine();
+    while (line != null && !isBlank(line)) {
+      final int separator = getHeaderSeparator(line);
+      if (separator > 0) {
+        readLine();
+        headers.put(line.substring(0, separator).toLowerCase(Locale.ENGLISH), line.substring(separator + 1).trim());
       } else {
-        throw new BatchException(BatchException.INVALID_HEADER.addContent(scanner.next()));
+        throw new BatchException(BatchException.INVALID_HEADER.addContent(line));
       }
+      line = peekLine();
     }
     return headers;
   }
 
-  private void parseNewLine(final Scanner scanner) throws BatchException {
-    if (scanner.hasNext() && scanner.hasNext(REG_EX_BLANK_LINE)) {
-      scanner.next();
-      currentLineNumber++;
+  /**
+   * Returns the position of the colon separating a header name consisting of letters and hyphens
+   * from the header value, or <code>-1</code> if the line is not a header.
+   */
+  private static int getHeaderSeparator(final String line) {
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == ':') {
+        return i;
+      } else if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '-')) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private void parseNewLine() throws BatchException {
+    final String line = peekLine();
+    if (line != null && isBlank(line)) {
+      readLine();
     } else {
       currentLineNumber++;
-      if (scanner.hasNext()) {
-        throw new BatchException(BatchException.MISSING_BLANK_LINE.addContent(scanner.next()).addContent(
-            currentLineNumber));
+      if (line != null) {
+        throw new BatchException(BatchException.MISSING_BLANK_LINE.addContent(line).addContent(currentLineNumber));
       } else {
         throw new BatchException(BatchException.TRUNCATED_BODY.addContent(currentLineNumber));
-
       }
     }
   }
 
-  private void parseOptionalLine(final Scanner scanner) throws BatchException {
-    while (scanner.hasNext() && scanner.hasNext(REG_EX_BLANK_LINE)) {
-      scanner.next();
+  private void parseOptionalLine() throws BatchException {
+    String line = peekLine();
+    while (line != null && isBlank(line)) {
+      readLine();
+      line = peekLine();
+    }
+  }
+
+  private String peekLine() throws BatchException {
+    try {
+      return reader.peekLine();
+    } catch (BatchLineReader.LineTooLongException e) {
+      throw new BatchException(BatchException.LINE_TOO_LONG.addContent(currentLineNumber + 1)
+          .addContent(BatchLineReader.MAX_LINE_LENGTH), e);
+    } catch (IOException e) {
+      throw new BatchException(BatchException.TRUNCATED_BODY.addContent(currentLineNumber), e);
+    }
+  }
+
+  private String readLine() throws BatchException {
+    final String line = peekLine();
+    try {
+      reader.readLine();
       currentLineNumber++;
+      return line;
+    } catch (IOException e) {
+      throw new BatchException(BatchException.TRUNCATED_BODY.addContent(currentLineNumber), e);
+    }
+  }
+
+  private static boolean isBlank(final String line) {
+    return line.trim().length() == 0;
+  }
+
+  private static boolean isDelimiter(final String line, final String boundary) {
+    return line.startsWith("--") && line.startsWith(boundary, 2) && isBlank(line.substring(boundary.length() + 2));
+  }
+
+  private static boolean isCloseDelimiter(final String line, final String boundary) {
+    return line.startsWith("--") && line.startsWith(boundary, 2) && line.startsWith("--", boundary.length() + 2)
+        && isBlank(line.substring(boundary.length() + 4));
+  }
+
+  private static void close(final InputStream in) {
+    try {
+      in.close();
+    } catch (IOException e) {
+      throw new ODataRuntimeException(e);
     }
   }
 
@@ -556,17 +616,12 @@ public class BatchRequestParser {
     return null;
   }
 
-  private String trimQuota(String boundary) {
-    if (boundary.matches("\".*\"")) {
-      boundary = boundary.replace("\"", "");
+  private String trimQuota(final String boundary) {
+    if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+      return boundary.replace("\"", "");
     }
-    boundary = boundary.replaceAll("\\)", "\\\\)");
-    boundary = boundary.replaceAll("\\(", "\\\\(");
-    boundary = boundary.replaceAll("\\?", "\\\\?");
-    boundary = boundary.replaceAll("\\+", "\\\\+");
     return boundary;
   }
-
   private List<String> getAcceptHeader(final Map<String, List<String>> headers) {
     List<String> acceptHeaders = new ArrayList<String>();
     List<String> requestAcceptHeaderList = headers.get(HttpHeaders.ACCEPT.toLowerCase(Locale.ENGLISH));
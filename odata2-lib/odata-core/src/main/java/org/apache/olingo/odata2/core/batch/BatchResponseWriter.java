@@ -18,8 +18,11 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.batch;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.batch.BatchException;
@@ -29,49 +32,87 @@ import org.apache.olingo.odata2.api.commons.HttpHeaders;
 import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.api.exception.ODataMessageException;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 
+/**
+ * Writes the multipart body of a batch response.
+ * <p>By default the response entity is the complete body as <code>String</code>. A streamed writer
+ * instead returns an {@link ODataStreamingOutput} without overall content length, which writes the response
+ * parts into the output stream one after the other; the body of each part is read into a byte array only
+ * when the part is written, and written unchanged.</p>
+ */
 public class BatchResponseWriter {
   private static final String COLON = ":";
   private static final String SP = " ";
   private static final String LF = "\r\n";
-  private ResponseWriter writer = new ResponseWriter();
+  private static final Charset CHARSET = Charset.forName(BatchHelper.DEFAULT_ENCODING);
+  private final boolean streamed;
+
+  public BatchResponseWriter() {
+    this(false);
+  }
+
+  /**
+   * @param streamed whether the response entity is an {@link ODataStreamingOutput} instead of a
+   * <code>String</code>
+   */
+  public BatchResponseWriter(final boolean streamed) {
+    this.streamed = streamed;
+  }
 
   public ODataResponse writeResponse(final List<BatchResponsePart> batchResponseParts) throws BatchException {
-    String boundary = BatchHelper.generateBoundary("batch");
-    appendResponsePart(batchResponseParts, boundary);
-    String batchResponseBody = writer.toString();
-    return ODataResponse.entity(batchResponseBody).status(HttpStatusCodes.ACCEPTED)
+    final String boundary = BatchHelper.generateBoundary("batch");
+    if (streamed) {
+      return ODataResponse.entity(new ODataStreamingOutput() {
+        @Override
+        public void write(final OutputStream output) throws IOException {
+          try {
+            appendResponsePart(new ResponseWriter(output), batchResponseParts, boundary);
+          } catch (BatchException e) {
+            throw new IOException(e);
+          }
+        }
+      }).status(HttpStatusCodes.ACCEPTED)
+          .header(HttpHeaders.CONTENT_TYPE, HttpContentType.MULTIPART_MIXED + "; boundary=" + boundary)
+          .build();
+    }
+
+    final ResponseWriter writer = new ResponseWriter(null);
+    appendResponsePart(writer, batchResponseParts, boundary);
+    return ODataResponse.entity(writer.toString()).status(HttpStatusCodes.ACCEPTED)
         .header(HttpHeaders.CONTENT_TYPE, HttpContentType.MULTIPART_MIXED + "; boundary=" + boundary)
         .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(writer.length()))
         .build();
   }
 
-  private void appendChangeSet(final BatchResponsePart batchResponsePart) throws BatchException {
+  private void appendChangeSet(final ResponseWriter writer, final BatchResponsePart batchResponsePart)
+      throws BatchException {
     String boundary = BatchHelper.generateBoundary("changeset");
     writer.append(HttpHeaders.CONTENT_TYPE).append(COLON).append(SP)
         .append("multipart/mixed; boundary=" + boundary).append(LF).append(LF);
     for (ODataResponse response : batchResponsePart.getResponses()) {
       writer.append("--").append(boundary).append(LF);
-      appendResponsePartBody(response);
+      appendResponsePartBody(writer, response);
     }
     writer.append("--").append(boundary).append("--").append(LF).append(LF);
   }
 
-  private void appendResponsePart(final List<BatchResponsePart> batchResponseParts, final String boundary)
-      throws BatchException {
+  private void appendResponsePart(final ResponseWriter writer, final List<BatchResponsePart> batchResponseParts,
+      final String boundary) throws BatchException {
     for (BatchResponsePart batchResponsePart : batchResponseParts) {
       writer.append("--").append(boundary).append(LF);
       if (batchResponsePart.isChangeSet()) {
-        appendChangeSet(batchResponsePart);
+        appendChangeSet(writer, batchResponsePart);
       } else {
         ODataResponse response = batchResponsePart.getResponses().get(0);
-        appendResponsePartBody(response);
+        appendResponsePartBody(writer, response);
       }
     }
     writer.append("--").append(boundary).append("--");
   }
 
-  private void appendResponsePartBody(final ODataResponse response) throws BatchException {
+  private void appendResponsePartBody(final ResponseWriter writer, final ODataResponse response)
+      throws BatchException {
     writer.append(HttpHeaders.CONTENT_TYPE).append(COLON).append(SP)
         .append(HttpContentType.APPLICATION_HTTP).append(LF);
     writer.append(BatchHelper.HTTP_CONTENT_TRANSFER_ENCODING).append(COLON).append(SP)
@@ -83,23 +124,25 @@ public class BatchResponseWriter {
     writer.append(LF);
     writer.append("HTTP/1.1").append(SP).append(String.valueOf(response.getStatus().getStatusCode())).append(SP)
         .append(response.getStatus().getInfo()).append(LF);
-    appendHeader(response);
+    appendHeader(writer, response);
     if (!HttpStatusCodes.NO_CONTENT.equals(response.getStatus())) {
-      String body;
+      byte[] body;
       if (response.getEntity() instanceof InputStream) {
-        InputStream in = (InputStream) response.getEntity();
-        body = readBody(in);
+        body = readBody((InputStream) response.getEntity());
+      } else if (response.getEntity() instanceof ODataStreamingOutput) {
+        body = readBody((ODataStreamingOutput) response.getEntity());
       } else {
-        body = response.getEntity().toString();
+        body = BatchHelper.getBytes(response.getEntity().toString());
       }
+      body = writer.getWrittenBytes(body);
       writer.append(HttpHeaders.CONTENT_LENGTH).append(COLON).append(SP)
-          .append(String.valueOf(BatchHelper.getBytes(body).length)).append(LF).append(LF);
+          .append(String.valueOf(body.length)).append(LF).append(LF);
       writer.append(body);
     }
     writer.append(LF).append(LF);
   }
 
-  private void appendHeader(final ODataResponse response) {
+  private void appendHeader(final ResponseWriter writer, final ODataResponse response) throws BatchException {
     for (String name : response.getHeaderNames()) {
       if (!BatchHelper.MIME_HEADER_CONTENT_ID.equalsIgnoreCase(name)
           && !BatchHelper.REQUEST_HEADER_CONTENT_ID.equalsIgnoreCase(name)) {
@@ -111,15 +154,25 @@ public class BatchResponseWriter {
     }
   }
 
-  private String readBody(final InputStream in) throws BatchException {
+  private byte[] readBody(final ODataStreamingOutput streamingOutput) throws BatchException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      streamingOutput.write(buffer);
+    } catch (IOException e) {
+      throw new BatchException(ODataMessageException.COMMON, e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private byte[] readBody(final InputStream in) throws BatchException {
     byte[] tmp = new byte[2048];
     int count;
     BatchException cachedException = null;
-    StringBuffer b = new StringBuffer();
+    ByteArrayOutputStream b = new ByteArrayOutputStream();
     try {
       count = in.read(tmp);
       while (count >= 0) {
-        b.append(new String(tmp, 0, count, BatchHelper.DEFAULT_ENCODING));
+        b.write(tmp, 0, count);
         count = in.read(tmp);
       }
     } catch (IOException e) {
@@ -134,19 +187,53 @@ public class BatchResponseWriter {
         }
       }
     }
-    return b.toString();
+    return b.toByteArray();
   }
 
+  /**
+   * Collects the response in a <code>String</code> or, if an output stream is given, writes it
+   * directly into the output stream.
+   */
   private static class ResponseWriter {
-    private StringBuilder sb = new StringBuilder();
+    private final OutputStream output;
+    private final StringBuilder sb = new StringBuilder();
     private int length = 0;
 
-    public ResponseWriter append(final String content) {
-      length += BatchHelper.getBytes(content).length;
-      sb.append(content);
+    public ResponseWriter(final OutputStream output) {
+      this.output = output;
+    }
+
+    public ResponseWriter append(final String content) throws BatchException {
+      if (output == null) {
+        length += BatchHelper.getBytes(content).length;
+        sb.append(content);
+        return this;
+      } else {
+        return append(BatchHelper.getBytes(content));
+      }
+    }
+
+    public ResponseWriter append(final byte[] content) throws BatchException {
+      if (output == null) {
+        return append(new String(content, CHARSET));
+      }
+      length += content.length;
+      try {
+        output.write(content);
+      } catch (IOException e) {
+        throw new BatchException(ODataMessageException.COMMON, e);
+      }
       return this;
     }
 
+    /**
+     * Returns the bytes which are actually written for the given body; a <code>String</code> can hold
+     * only the decoded body.
+     */
+    public byte[] getWrittenBytes(final byte[] body) {
+      return output == null ? BatchHelper.getBytes(new String(body, CHARSET)) : body;
+    }
+
     public int length() {
       return length;
     }
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.commons;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.exception.ODataBadRequestException;
+import org.apache.olingo.odata2.api.exception.ODataException;
+import org.apache.olingo.odata2.api.exception.ODataRequestEntityTooLargeException;
+import org.apache.olingo.odata2.api.exception.ODataUnsupportedMediaTypeException;
+import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+
+/**
+ * Handles the HTTP content codings <code>gzip</code> and <code>deflate</code>
+ * (RFC 2616, 3.5) for request and response bodies.
+ * 
+ */
+public class ContentCoding {
+
+  public static final String GZIP = "gzip";
+  public static final String DEFLATE = "deflate";
+  public static final String IDENTITY = "identity";
+  /** Maximum size in bytes of a decoded request body if none has been configured, 16 MiB. */
+  public static final long DEFAULT_MAX_DECODED_SIZE = 16 * 1024 * 1024;
+
+  private static final String X_GZIP = "x-gzip";
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Parses the configured minimum size of a response body to be compressed.
+   * @param thresholdAsString the value of the init parameter
+   * {@link ODataServiceFactory#COMPRESSION_THRESHOLD_LABEL} or <code>null</code>
+   * @return the threshold in bytes or <code>-1</code> if compression is not configured
+   * @throws ODataRuntimeException if the value is not a non-negative number
+   */
+  public static int parseThreshold(final String thresholdAsString) {
+    return thresholdAsString == null ? -1 :
+        (int) parseSize(ODataServiceFactory.COMPRESSION_THRESHOLD_LABEL, thresholdAsString, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Parses the configured maximum size of a decoded request body.
+   * @param maxDecodedSizeAsString the value of the init parameter
+   * {@link ODataServiceFactory#MAX_DECODED_SIZE_LABEL} or <code>null</code>
+   * @return the maximum size in bytes, {@link #DEFAULT_MAX_DECODED_SIZE} if it is not configured
+   * @throws ODataRuntimeException if the value is not a non-negative number
+   */
+  public static long parseMaxDecodedSize(final String maxDecodedSizeAsString) {
+    return maxDecodedSizeAsString == null ? DEFAULT_MAX_DECODED_SIZE :
+        parseSize(ODataServiceFactory.MAX_DECODED_SIZE_LABEL, maxDecodedSizeAsString, Long.MAX_VALUE);
+  }
+
+  private static long parseSize(final String label, final String sizeAsString, final long maxValue) {
+    try {
+      final long size = Long.parseLong(sizeAsString.trim());
+      if (size < 0) {
+        throw new ODataRuntimeException("config invalid: " + label + " must not be negative but is " + size);
+      } else if (size > maxValue) {
+        throw new ODataRuntimeException("config invalid: " + label + " must not exceed " + maxValue
+            + " but is " + size);
+      }
+      return size;
+    } catch (NumberFormatException e) {
+      throw new ODataRuntimeException("config invalid: " + label + " is not a number: " + sizeAsString, e);
+    }
+  }
+
+  /**
+   * Selects the content coding for a response from the value of an Accept-Encoding header.
+   * <code>gzip</code> is preferred over <code>deflate</code> if the client accepts both
+   * with the same quality; codings with quality zero are not acceptable.
+   * @param acceptEncoding the value of the Accept-Encoding header or <code>null</code>
+   * @return {@link #GZIP}, {@link #DEFLATE}, or <code>null</code> if the body has to be sent unencoded
+   */
+  public static String negotiate(final String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return null;
+    }
+    float gzip = -1;
+    float deflate = -1;
+    float wildcard = -1;
+    for (final String element : acceptEncoding.split(",")) {
+      final String[] parts = element.split(";");
+      final String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+      final float quality = parseQuality(parts);
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        gzip = Math.max(gzip, quality);
+      } else if (DEFLATE.equals(coding)) {
+        deflate = quality;
+      } else if ("*".equals(coding)) {
+        wildcard = quality;
+      }
+    }
+    // RFC 2616, 14.3: "The special "*" symbol in an Accept-Encoding field matches any available
+    // content-coding not explicitly listed in the header field."
+    if (gzip < 0) {
+      gzip = wildcard;
+    }
+    if (deflate < 0) {
+      deflate = wildcard;
+    }
+    if (gzip > 0 && gzip >= deflate) {
+      return GZIP;
+    } else if (deflate > 0) {
+      return DEFLATE;
+    } else {
+      return null;
+    }
+  }
+
+  private static float parseQuality(final String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      final String parameter = parts[i].trim();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        try {
+          return Float.parseFloat(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Checks whether a response body of the given content type is worth compressing.
+   * Textual formats like Atom, XML, JSON, and batch responses are; images, archives,
+   * and other binary media resources usually are compressed already.
+   * @param contentType the value of the Content-Type header or <code>null</code>
+   */
+  public static boolean isCompressible(final String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    final String type = contentType.toLowerCase(Locale.ENGLISH);
+    return type.startsWith("text/")
+        || type.startsWith("multipart/")
+        || type.contains("xml")
+        || type.contains("json");
+  }
+
+  /**
+   * Wraps the output stream into a compressing stream for the given coding.
+   * The returned stream has to be finished to write the trailing data.
+   * @param output the stream receiving the encoded body
+   * @param coding {@link #GZIP} or {@link #DEFLATE}
+   */
+  public static DeflaterOutputStream encode(final OutputStream output, final String coding) throws IOException {
+    if (GZIP.equals(coding)) {
+      return new GZIPOutputStream(output, BUFFER_SIZE);
+    } else if (DEFLATE.equals(coding)) {
+      return new DeflaterOutputStream(output);
+    } else {
+      throw new IllegalArgumentException("unsupported content coding: " + coding);
+    }
+  }
+
+  /**
+   * Reads up to <code>limit</code> bytes from the input stream.
+   * If the returned array is shorter than <code>limit</code>, the stream has been read completely.
+   */
+  public static byte[] readPrefix(final InputStream input, final int limit) throws IOException {
+    byte[] buffer = new byte[Math.min(limit, BUFFER_SIZE)];
+    int position = 0;
+    while (position < limit) {
+      if (position == buffer.length) {
+        final byte[] bigger = new byte[Math.min(limit, buffer.length * 2)];
+        System.arraycopy(buffer, 0, bigger, 0, position);
+        buffer = bigger;
+      }
+      final int count = input.read(buffer, position, buffer.length - position);
+      if (count == -1) {
+        final byte[] result = new byte[position];
+        System.arraycopy(buffer, 0, result, 0, position);
+        return result;
+      }
+      position += count;
+    }
+    return buffer;
+  }
+
+  /**
+   * Copies the remaining content of the input stream to the output stream.
+   */
+  public static void copy(final InputStream input, final OutputStream output) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int count;
+    while ((count = input.read(buffer)) != -1) {
+      output.write(buffer, 0, count);
+    }
+  }
+
+  /**
+   * Decodes a request body according to the value of its Content-Encoding header.
+   * Several codings are removed in reverse order of their application (RFC 2616, 14.11).
+   * The body is decoded while it is read; reading more than <code>maxDecodedSize</code> decoded bytes
+   * fails with an {@link IOException} caused by an {@link ODataRequestEntityTooLargeException},
+   * so that a small compressed body cannot expand without bounds.
+   * @param content the request body as received
+   * @param contentEncoding the value of the Content-Encoding header or <code>null</code>
+   * @param maxDecodedSize maximum size in bytes of the decoded body
+   * @return the decoded request body
+   * @throws ODataUnsupportedMediaTypeException if a coding is not supported
+   * @throws ODataBadRequestException if the body cannot be read as announced
+   */
+  public static InputStream decode(final InputStream content, final String contentEncoding,
+      final long maxDecodedSize) throws ODataException {
+    if (content == null || contentEncoding == null || contentEncoding.isEmpty()) {
+      return content;
+    }
+    final String[] codings = contentEncoding.split(",");
+    InputStream result = content;
+    try {
+      for (int i = codings.length - 1; i >= 0; i--) {
+        final String coding = codings[i].trim().toLowerCase(Locale.ENGLISH);
+        if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+          result = new GZIPInputStream(result, BUFFER_SIZE);
+        } else if (DEFLATE.equals(coding)) {
+          result = new InflaterInputStream(result);
+        } else if (!IDENTITY.equals(coding) && !coding.isEmpty()) {
+          throw new ODataUnsupportedMediaTypeException(
+              ODataUnsupportedMediaTypeException.NOT_SUPPORTED_CONTENT_ENCODING.addContent(coding));
+        }
+      }
+    } catch (final IOException e) {
+      throw new ODataBadRequestException(ODataBadRequestException.COMMON, e);
+    }
+    return result == content ? content : new LimitedInputStream(result, maxDecodedSize);
+  }
+
+  /**
+   * Counts the bytes read from a decoding stream and fails once more than the limit has been read.
+   * The decoding stream is closed at its end or when the limit is exceeded
+   * to release the native memory of its inflater.
+   */
+  private static final class LimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long remaining;
+    private boolean ended;
+
+    private LimitedInputStream(final InputStream input, final long limit) {
+      super(input);
+      this.limit = limit;
+      remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (ended) {
+        return -1;
+      }
+      final int value = super.read();
+      count(value == -1 ? -1 : 1);
+      return value;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+      if (ended) {
+        return -1;
+      }
+      final int count = super.read(buffer, offset, length);
+      count(count);
+      return count;
+    }
+
+    @Override
+    public long skip(final long count) throws IOException {
+      if (ended) {
+        return 0;
+      }
+      final long skipped = super.skip(count);
+      count(skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return ended ? 0 : super.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    private void count(final long count) throws IOException {
+      if (count == -1) {
+        ended = true;
+        close();
+      } else {
+        remaining -= count;
+        if (remaining < 0) {
+          close();
+          throw new IOException("decoded request body too large", new ODataRequestEntityTooLargeException(
+              ODataRequestEntityTooLargeException.DECODED_BODY.addContent(limit)));
+        }
+      }
+    }
+  }
+}
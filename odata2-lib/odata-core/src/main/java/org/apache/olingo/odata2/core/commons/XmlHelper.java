@@ -21,6 +21,7 @@ package org.apache.olingo.odata2.core.commons;
 import java.io.InputStream;
 
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -31,6 +32,67 @@ public class XmlHelper {
   /** Default used charset for reader */
   private static final String DEFAULT_CHARSET = "UTF-8";
 
+  private static volatile XMLInputFactory xmlInputFactory;
+  private static volatile XMLOutputFactory xmlOutputFactory;
+
+  /**
+   * <p>Returns the {@link XMLInputFactory} shared by all consumers.</p>
+   * <p>The factory is looked up only once with the StAX lookup mechanism (so the implementation
+   * can be chosen with the system property <code>javax.xml.stream.XMLInputFactory</code>)
+   * and is configured to neither support DTDs nor external entities.
+   * A configured factory is thread-safe for the creation of stream readers.</p>
+   * @return the shared input factory
+   */
+  public static XMLInputFactory getXMLInputFactory() {
+    XMLInputFactory factory = xmlInputFactory;
+    if (factory == null) {
+      factory = configure(XMLInputFactory.newInstance());
+      xmlInputFactory = factory;
+    }
+    return factory;
+  }
+
+  /**
+   * Replaces the shared {@link XMLInputFactory}, e.g. to use a specific StAX implementation.
+   * The factory gets the same secure configuration as the looked-up one.
+   * @param factory the factory to be used or <code>null</code> to look up the factory again on next use
+   */
+  public static void setXMLInputFactory(final XMLInputFactory factory) {
+    xmlInputFactory = factory == null ? null : configure(factory);
+  }
+
+  /**
+   * <p>Returns the {@link XMLOutputFactory} shared by all producers.</p>
+   * <p>The factory is looked up only once with the StAX lookup mechanism (so the implementation
+   * can be chosen with the system property <code>javax.xml.stream.XMLOutputFactory</code>).
+   * The factory is thread-safe for the creation of stream writers.</p>
+   * @return the shared output factory
+   */
+  public static XMLOutputFactory getXMLOutputFactory() {
+    XMLOutputFactory factory = xmlOutputFactory;
+    if (factory == null) {
+      factory = XMLOutputFactory.newInstance();
+      xmlOutputFactory = factory;
+    }
+    return factory;
+  }
+
+  /**
+   * Replaces the shared {@link XMLOutputFactory}, e.g. to use a specific StAX implementation.
+   * @param factory the factory to be used or <code>null</code> to look up the factory again on next use
+   */
+  public static void setXMLOutputFactory(final XMLOutputFactory factory) {
+    xmlOutputFactory = factory;
+  }
+
+  private static XMLInputFactory configure(final XMLInputFactory factory) {
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    return factory;
+  }
+
   public static XMLStreamReader createStreamReader(final Object content) throws EntityProviderException {
     if (content == null) {
       throw new EntityProviderException(EntityProviderException.ILLEGAL_ARGUMENT
@@ -38,11 +100,7 @@ public class XmlHelper {
     }
     XMLStreamReader streamReader;
     try {
-      XMLInputFactory factory = XMLInputFactory.newInstance();
-      factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
-      factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
-      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      XMLInputFactory factory = getXMLInputFactory();
 
       if (content instanceof InputStream) {
         streamReader = factory.createXMLStreamReader((InputStream) content, DEFAULT_CHARSET);
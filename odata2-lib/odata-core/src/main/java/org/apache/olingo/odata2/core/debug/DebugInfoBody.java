@@ -36,7 +36,9 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.olingo.odata2.api.commons.HttpContentType;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.core.ep.BasicEntityProvider;
+import org.apache.olingo.odata2.core.ep.util.CircleStreamBuffer;
 import org.apache.olingo.odata2.core.ep.util.JsonStreamWriter;
 
 import com.google.gson.GsonBuilder;
@@ -86,12 +88,15 @@ public class DebugInfoBody implements DebugInfo {
     if (response.getEntity() instanceof String) {
       return (String) response.getEntity();
     } else if (response.getEntity() instanceof InputStream) {
-      InputStream input = (InputStream) response.getEntity();
+      return getContentString((InputStream) response.getEntity());
+    } else if (response.getEntity() instanceof ODataStreamingOutput) {
+      CircleStreamBuffer buffer = new CircleStreamBuffer();
       try {
-        return isText ?
-            new BasicEntityProvider().readText(input) :
-            Base64.encodeBase64String(new BasicEntityProvider().readBinary((input)));
-      } catch (final EntityProviderException e) {
+        ((ODataStreamingOutput) response.getEntity()).write(buffer.getOutputStream());
+        buffer.closeWrite();
+        return getContentString(buffer.getInputStream());
+      } catch (final IOException e) {
+        buffer.close();
         return null;
       }
     } else {
@@ -99,6 +104,16 @@ public class DebugInfoBody implements DebugInfo {
     }
   }
 
+  private String getContentString(final InputStream input) {
+    try {
+      return isText ?
+          new BasicEntityProvider().readText(input) :
+          Base64.encodeBase64String(new BasicEntityProvider().readBinary((input)));
+    } catch (final EntityProviderException e) {
+      return null;
+    }
+  }
+
   @Override
   public void appendHtml(final Writer writer) throws IOException {
     final String body = getContentString();
@@ -18,12 +18,16 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.edm;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmAssociation;
+import org.apache.olingo.odata2.api.edm.EdmCache;
 import org.apache.olingo.odata2.api.edm.EdmComplexType;
 import org.apache.olingo.odata2.api.edm.EdmEntityContainer;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
@@ -35,50 +39,59 @@ import org.apache.olingo.odata2.api.edm.FullQualifiedName;
 import org.apache.olingo.odata2.api.exception.ODataException;
 
 /**
- *  
+ * <p>Base implementation of the {@link Edm} which caches all created elements.</p>
+ * <p>The caches are thread-safe so that one instance can be shared by all requests of a service;
+ * after all elements have been read once, no further calls to the creating methods happen and
+ * reads do not lock. {@link #invalidate()} drops all cached elements, e.g., after a schema change.</p>
  */
-public abstract class EdmImpl implements Edm {
+public abstract class EdmImpl implements Edm, EdmCache {
+
+  /**
+   * The cached elements. {@link #invalidate()} replaces the whole holder, so an element a concurrent
+   * reader creates from the old schema ends up in the discarded holder and not in the new one.
+   */
+  private static final class Elements {
+    final ConcurrentMap<String, EdmEntityContainer> entityContainers =
+        new ConcurrentHashMap<String, EdmEntityContainer>();
+    final ConcurrentMap<FullQualifiedName, EdmEntityType> entityTypes =
+        new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
+    final ConcurrentMap<FullQualifiedName, EdmComplexType> complexTypes =
+        new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
+    final ConcurrentMap<FullQualifiedName, EdmAssociation> associations =
+        new ConcurrentHashMap<FullQualifiedName, EdmAssociation>();
+    volatile EdmEntityContainer defaultEntityContainer;
+    volatile Map<String, String> aliasToNamespaceInfo;
+    volatile List<EdmEntitySet> entitySets;
+    volatile List<EdmFunctionImport> functionImports;
+  }
 
-  private Map<String, EdmEntityContainer> edmEntityContainers;
-  private Map<FullQualifiedName, EdmEntityType> edmEntityTypes;
-  private Map<FullQualifiedName, EdmComplexType> edmComplexTypes;
-  private Map<FullQualifiedName, EdmAssociation> edmAssociations;
-  private Map<String, String> aliasToNamespaceInfo;
-  private List<EdmEntitySet> edmEntitySets;
-  private List<EdmFunctionImport> edmFunctionImports;
+  private volatile Elements elements = new Elements();
 
   protected EdmServiceMetadata edmServiceMetadata;
 
   public EdmImpl(final EdmServiceMetadata edmServiceMetadata) {
-    edmEntityContainers = new HashMap<String, EdmEntityContainer>();
-    edmEntityTypes = new HashMap<FullQualifiedName, EdmEntityType>();
-    edmComplexTypes = new HashMap<FullQualifiedName, EdmComplexType>();
-    edmAssociations = new HashMap<FullQualifiedName, EdmAssociation>();
     this.edmServiceMetadata = edmServiceMetadata;
   }
 
   @Override
   public EdmEntityContainer getEntityContainer(final String name) throws EdmException {
-    if (edmEntityContainers.containsKey(name)) {
-      return edmEntityContainers.get(name);
+    final Elements current = elements;
+    EdmEntityContainer edmEntityContainer =
+        name == null ? current.defaultEntityContainer : current.entityContainers.get(name);
+    if (edmEntityContainer != null) {
+      return edmEntityContainer;
     }
 
-    EdmEntityContainer edmEntityContainer = null;
-
     try {
       edmEntityContainer = createEntityContainer(name);
       if (edmEntityContainer != null) {
-        if (name == null && edmEntityContainers.containsKey(edmEntityContainer.getName())) {
-          // ensure that the same default entity container is stored in the HashMap under null and its name
-          edmEntityContainer = edmEntityContainers.get(edmEntityContainer.getName());
-          edmEntityContainers.put(name, edmEntityContainer);
-        } else if (edmEntityContainers.containsKey(null) && edmEntityContainers.get(null) != null
-            && name.equals(edmEntityContainers.get(null).getName())) {
-          // ensure that the same default entity container is stored in the HashMap under null and its name
-          edmEntityContainer = edmEntityContainers.get(null);
-          edmEntityContainers.put(name, edmEntityContainer);
-        } else {
-          edmEntityContainers.put(name, edmEntityContainer);
+        // ensure that the same default entity container is returned for null and its name
+        final String containerName = name == null ? edmEntityContainer.getName() : name;
+        if (containerName != null) {
+          edmEntityContainer = cache(current.entityContainers, containerName, edmEntityContainer);
+        }
+        if (name == null) {
+          current.defaultEntityContainer = edmEntityContainer;
         }
       }
     } catch (ODataException e) {
@@ -93,16 +106,16 @@ public abstract class EdmImpl implements Edm {
     String finalNamespace = getNamespaceForAlias(namespaceOrAlias);
 
     FullQualifiedName fqName = new FullQualifiedName(finalNamespace, name);
-    if (edmEntityTypes.containsKey(fqName)) {
-      return edmEntityTypes.get(fqName);
+    final Elements current = elements;
+    EdmEntityType edmEntityType = current.entityTypes.get(fqName);
+    if (edmEntityType != null) {
+      return edmEntityType;
     }
 
-    EdmEntityType edmEntityType = null;
-
     try {
       edmEntityType = createEntityType(fqName);
       if (edmEntityType != null) {
-        edmEntityTypes.put(fqName, edmEntityType);
+        edmEntityType = cache(current.entityTypes, fqName, edmEntityType);
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
@@ -112,17 +125,20 @@ public abstract class EdmImpl implements Edm {
   }
 
   private String getNamespaceForAlias(final String namespaceOrAlias) throws EdmException {
-    if (aliasToNamespaceInfo == null) {
+    final Elements current = elements;
+    Map<String, String> aliasToNamespace = current.aliasToNamespaceInfo;
+    if (aliasToNamespace == null) {
       try {
-        aliasToNamespaceInfo = createAliasToNamespaceInfo();
-        if (aliasToNamespaceInfo == null) {
-          aliasToNamespaceInfo = new HashMap<String, String>();
+        aliasToNamespace = createAliasToNamespaceInfo();
+        if (aliasToNamespace == null) {
+          aliasToNamespace = new HashMap<String, String>();
         }
+        current.aliasToNamespaceInfo = aliasToNamespace;
       } catch (ODataException e) {
         throw new EdmException(EdmException.COMMON, e);
       }
     }
-    String namespace = aliasToNamespaceInfo.get(namespaceOrAlias);
+    String namespace = aliasToNamespace.get(namespaceOrAlias);
     // If not contained in info it must be a namespace
     if (namespace == null) {
       namespace = namespaceOrAlias;
@@ -134,16 +150,16 @@ public abstract class EdmImpl implements Edm {
   public EdmComplexType getComplexType(final String namespaceOrAlias, final String name) throws EdmException {
     String finalNamespace = getNamespaceForAlias(namespaceOrAlias);
     FullQualifiedName fqName = new FullQualifiedName(finalNamespace, name);
-    if (edmComplexTypes.containsKey(fqName)) {
-      return edmComplexTypes.get(fqName);
+    final Elements current = elements;
+    EdmComplexType edmComplexType = current.complexTypes.get(fqName);
+    if (edmComplexType != null) {
+      return edmComplexType;
     }
 
-    EdmComplexType edmComplexType = null;
-
     try {
       edmComplexType = createComplexType(fqName);
       if (edmComplexType != null) {
-        edmComplexTypes.put(fqName, edmComplexType);
+        edmComplexType = cache(current.complexTypes, fqName, edmComplexType);
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
@@ -156,16 +172,16 @@ public abstract class EdmImpl implements Edm {
   public EdmAssociation getAssociation(final String namespaceOrAlias, final String name) throws EdmException {
     String finalNamespace = getNamespaceForAlias(namespaceOrAlias);
     FullQualifiedName fqName = new FullQualifiedName(finalNamespace, name);
-    if (edmAssociations.containsKey(fqName)) {
-      return edmAssociations.get(fqName);
+    final Elements current = elements;
+    EdmAssociation edmAssociation = current.associations.get(fqName);
+    if (edmAssociation != null) {
+      return edmAssociation;
     }
 
-    EdmAssociation edmAssociation = null;
-
     try {
       edmAssociation = createAssociation(fqName);
       if (edmAssociation != null) {
-        edmAssociations.put(fqName, edmAssociation);
+        edmAssociation = cache(current.associations, fqName, edmAssociation);
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
@@ -174,6 +190,23 @@ public abstract class EdmImpl implements Edm {
     return edmAssociation;
   }
 
+  /**
+   * Puts the value into the cache unless another thread has been faster;
+   * the value in the cache is returned so that all callers get the same instance.
+   */
+  private static <K, V> V cache(final ConcurrentMap<K, V> cache, final K key, final V value) {
+    final V previous = cache.putIfAbsent(key, value);
+    return previous == null ? value : previous;
+  }
+
+  /**
+   * Drops all cached elements; they are created again on next access.
+   */
+  @Override
+  public void invalidate() {
+    elements = new Elements();
+  }
+
   @Override
   public EdmServiceMetadata getServiceMetadata() {
     return edmServiceMetadata;
@@ -186,26 +219,32 @@ public abstract class EdmImpl implements Edm {
 
   @Override
   public List<EdmEntitySet> getEntitySets() throws EdmException {
+    final Elements current = elements;
+    List<EdmEntitySet> entitySets = current.entitySets;
     try {
-      if (edmEntitySets == null) {
-        edmEntitySets = createEntitySets();
+      if (entitySets == null) {
+        entitySets = Collections.unmodifiableList(createEntitySets());
+        current.entitySets = entitySets;
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
     }
-    return edmEntitySets;
+    return entitySets;
   }
 
   @Override
   public List<EdmFunctionImport> getFunctionImports() throws EdmException {
+    final Elements current = elements;
+    List<EdmFunctionImport> functionImports = current.functionImports;
     try {
-      if (edmFunctionImports == null) {
-        edmFunctionImports = createFunctionImports();
+      if (functionImports == null) {
+        functionImports = Collections.unmodifiableList(createFunctionImports());
+        current.functionImports = functionImports;
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
     }
-    return edmFunctionImports;
+    return functionImports;
   }
 
   protected abstract EdmEntityContainer createEntityContainer(String name) throws ODataException;
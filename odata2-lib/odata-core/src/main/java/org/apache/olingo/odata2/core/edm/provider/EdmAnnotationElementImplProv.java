@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.edm.EdmAnnotationAttribute;
@@ -28,8 +29,8 @@ import org.apache.olingo.odata2.api.edm.provider.AnnotationElement;
 public class EdmAnnotationElementImplProv implements EdmAnnotationElement {
 
   private AnnotationElement element;
-  ArrayList<EdmAnnotationElement> childElements;
-  List<EdmAnnotationAttribute> attributes;
+  volatile List<EdmAnnotationElement> childElements;
+  volatile List<EdmAnnotationAttribute> attributes;
 
   public EdmAnnotationElementImplProv(final AnnotationElement element) {
     this.element = element;
@@ -57,21 +58,27 @@ public class EdmAnnotationElementImplProv implements EdmAnnotationElement {
 
   @Override
   public List<EdmAnnotationElement> getChildElements() {
-    if (childElements == null && element.getChildElements() != null) {
-      childElements = new ArrayList<EdmAnnotationElement>();
+    List<EdmAnnotationElement> children = childElements;
+    if (children == null && element.getChildElements() != null) {
+      children = new ArrayList<EdmAnnotationElement>();
       for (AnnotationElement childElement : element.getChildElements()) {
-        childElements.add(new EdmAnnotationElementImplProv(childElement));
+        children.add(new EdmAnnotationElementImplProv(childElement));
       }
+      children = Collections.unmodifiableList(children);
+      childElements = children;
     }
-    return childElements;
+    return children;
   }
 
   @Override
   public List<EdmAnnotationAttribute> getAttributes() {
-    if (attributes == null && element.getAttributes() != null) {
-      attributes = new ArrayList<EdmAnnotationAttribute>();
-      attributes.addAll(element.getAttributes());
+    List<EdmAnnotationAttribute> annotationAttributes = attributes;
+    if (annotationAttributes == null && element.getAttributes() != null) {
+      annotationAttributes = new ArrayList<EdmAnnotationAttribute>();
+      annotationAttributes.addAll(element.getAttributes());
+      annotationAttributes = Collections.unmodifiableList(annotationAttributes);
+      attributes = annotationAttributes;
     }
-    return attributes;
+    return annotationAttributes;
   }
 }
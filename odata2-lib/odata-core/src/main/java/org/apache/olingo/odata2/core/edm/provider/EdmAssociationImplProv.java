@@ -34,7 +34,7 @@ public class EdmAssociationImplProv extends EdmNamedImplProv implements EdmAssoc
 
   private Association association;
   private String namespace;
-  private EdmAnnotations annotations;
+  private volatile EdmAnnotations annotations;
 
   public EdmAssociationImplProv(final EdmImplProv edm, final Association association, final String namespace)
       throws EdmException {
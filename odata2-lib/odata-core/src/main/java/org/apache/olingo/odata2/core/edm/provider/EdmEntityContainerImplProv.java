@@ -19,9 +19,12 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.odata2.api.edm.EdmAnnotatable;
 import org.apache.olingo.odata2.api.edm.EdmAnnotations;
@@ -47,22 +50,24 @@ import org.apache.olingo.odata2.api.exception.ODataException;
 public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnotatable {
 
   private EdmImplProv edm;
-  private List<EntityContainer> entityContainerHierachy;
+  private volatile List<EntityContainer> entityContainerHierachy;
   private EntityContainerInfo entityContainerInfo;
-  private Map<String, EdmEntitySet> edmEntitySets;
-  private Map<String, EdmAssociationSet> edmAssociationSets;
-  private Map<String, EdmFunctionImport> edmFunctionImports;
+  private ConcurrentMap<String, EdmEntitySet> edmEntitySets;
+  private ConcurrentMap<String, EdmAssociationSet> edmAssociationSets;
+  private ConcurrentMap<String, EdmFunctionImport> edmFunctionImports;
+  private volatile List<EdmEntitySet> edmEntitySetList;
+  private volatile List<EdmAssociationSet> edmAssociationSetList;
   private EdmEntityContainer edmExtendedEntityContainer;
   private boolean isDefaultContainer;
-  private EdmAnnotations annotations;
+  private volatile EdmAnnotations annotations;
 
   public EdmEntityContainerImplProv(final EdmImplProv edm, final EntityContainerInfo entityContainerInfo)
       throws EdmException {
     this.edm = edm;
     this.entityContainerInfo = entityContainerInfo;
-    edmEntitySets = new HashMap<String, EdmEntitySet>();
-    edmAssociationSets = new HashMap<String, EdmAssociationSet>();
-    edmFunctionImports = new HashMap<String, EdmFunctionImport>();
+    edmEntitySets = new ConcurrentHashMap<String, EdmEntitySet>();
+    edmAssociationSets = new ConcurrentHashMap<String, EdmAssociationSet>();
+    edmFunctionImports = new ConcurrentHashMap<String, EdmFunctionImport>();
     isDefaultContainer = entityContainerInfo.isDefaultEntityContainer();
 
     if (entityContainerInfo.getExtendz() != null) {
@@ -80,7 +85,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public EdmEntitySet getEntitySet(final String name) throws EdmException {
-    EdmEntitySet edmEntitySet = edmEntitySets.get(name);
+    EdmEntitySet edmEntitySet = name == null ? null : edmEntitySets.get(name);
     if (edmEntitySet != null) {
       return edmEntitySet;
     }
@@ -97,7 +102,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
     } else if (edmExtendedEntityContainer != null) {
       edmEntitySet = edmExtendedEntityContainer.getEntitySet(name);
       if (edmEntitySet != null) {
-        edmEntitySets.put(name, edmEntitySet);
+        edmEntitySet = cache(edmEntitySets, name, edmEntitySet);
       }
     }
 
@@ -106,7 +111,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public EdmFunctionImport getFunctionImport(final String name) throws EdmException {
-    EdmFunctionImport edmFunctionImport = edmFunctionImports.get(name);
+    EdmFunctionImport edmFunctionImport = name == null ? null : edmFunctionImports.get(name);
     if (edmFunctionImport != null) {
       return edmFunctionImport;
     }
@@ -119,12 +124,11 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
     }
 
     if (functionImport != null) {
-      edmFunctionImport = createFunctionImport(functionImport);
-      edmFunctionImports.put(name, edmFunctionImport);
+      edmFunctionImport = cache(edmFunctionImports, name, createFunctionImport(functionImport));
     } else if (edmExtendedEntityContainer != null) {
       edmFunctionImport = edmExtendedEntityContainer.getFunctionImport(name);
       if (edmFunctionImport != null) {
-        edmFunctionImports.put(name, edmFunctionImport);
+        edmFunctionImport = cache(edmFunctionImports, name, edmFunctionImport);
       }
     }
 
@@ -158,13 +162,10 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
     }
 
     if (associationSet != null) {
-      edmAssociationSet = createAssociationSet(associationSet);
-      edmAssociationSets.put(key, edmAssociationSet);
-      return edmAssociationSet;
+      return cache(edmAssociationSets, key, createAssociationSet(associationSet));
     } else if (edmExtendedEntityContainer != null) {
       edmAssociationSet = edmExtendedEntityContainer.getAssociationSet(sourceEntitySet, navigationProperty);
-      edmAssociationSets.put(key, edmAssociationSet);
-      return edmAssociationSet;
+      return edmAssociationSet == null ? null : cache(edmAssociationSets, key, edmAssociationSet);
     } else {
       throw new EdmException(EdmException.COMMON);
     }
@@ -175,13 +176,27 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
    * {@link #edmEntitySets}).
    * 
    * @param entitySet based on which the {@link EdmEntitySet} is created
-   * @return the created and cached {@link EdmEntitySet}
+   * @return the cached {@link EdmEntitySet}
    * @throws EdmException
    */
   private EdmEntitySet createEntitySet(final EntitySet entitySet) throws EdmException {
-    EdmEntitySet edmEntitySet = new EdmEntitySetImplProv(edm, entitySet, this);
-    edmEntitySets.put(entitySet.getName(), edmEntitySet);
-    return edmEntitySet;
+    EdmEntitySet edmEntitySet = entitySet.getName() == null ? null : edmEntitySets.get(entitySet.getName());
+    return edmEntitySet == null ?
+        cache(edmEntitySets, entitySet.getName(), new EdmEntitySetImplProv(edm, entitySet, this)) :
+        edmEntitySet;
+  }
+
+  /**
+   * Puts the value into the cache unless another thread has been faster;
+   * the value in the cache is returned so that all callers get the same instance.
+   * Values without a name are not cached.
+   */
+  private static <T> T cache(final ConcurrentMap<String, T> cache, final String key, final T value) {
+    if (key == null) {
+      return value;
+    }
+    final T previous = cache.putIfAbsent(key, value);
+    return previous == null ? value : previous;
   }
 
   private EdmFunctionImport createFunctionImport(final FunctionImport functionImport) throws EdmException {
@@ -208,6 +223,9 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public List<EdmEntitySet> getEntitySets() throws EdmException {
+    if (edmEntitySetList != null) {
+      return edmEntitySetList;
+    }
     try {
       List<EdmEntitySet> edmEntitySets = new ArrayList<EdmEntitySet>();
       List<EntityContainer> entityContainerHierachy = getEntityContainerHierachy();
@@ -218,7 +236,8 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
           edmEntitySets.add(ees);
         }
       }
-      return edmEntitySets;
+      edmEntitySetList = Collections.unmodifiableList(edmEntitySets);
+      return edmEntitySetList;
     } catch (ODataException e) {
       throw new EdmException(EdmException.PROVIDERPROBLEM, e);
     }
@@ -226,6 +245,9 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public List<EdmAssociationSet> getAssociationSets() throws EdmException {
+    if (edmAssociationSetList != null) {
+      return edmAssociationSetList;
+    }
     try {
       List<EntityContainer> containers = getEntityContainerHierachy();
       List<EdmAssociationSet> edmAssociationSets = new ArrayList<EdmAssociationSet>();
@@ -237,7 +259,8 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
         }
       }
 
-      return edmAssociationSets;
+      edmAssociationSetList = Collections.unmodifiableList(edmAssociationSets);
+      return edmAssociationSetList;
     } catch (ODataException e) {
       throw new EdmException(EdmException.PROVIDERPROBLEM, e);
     }
@@ -272,6 +295,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
     if (entityContainerHierachy.isEmpty()) {
       throw new EdmException(EdmException.PROVIDERPROBLEM, "No container at all found.");
     }
+    this.entityContainerHierachy = entityContainerHierachy;
     return entityContainerHierachy;
   }
 }
@@ -18,6 +18,9 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.edm.provider;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.apache.olingo.odata2.api.edm.EdmAnnotatable;
 import org.apache.olingo.odata2.api.edm.EdmAnnotations;
 import org.apache.olingo.odata2.api.edm.EdmAssociationSet;
@@ -30,13 +33,16 @@ import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmNavigationProperty;
 import org.apache.olingo.odata2.api.edm.FullQualifiedName;
 import org.apache.olingo.odata2.api.edm.provider.EntitySet;
+import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
 
 public class EdmEntitySetImplProv extends EdmNamedImplProv implements EdmEntitySet, EdmAnnotatable {
 
   private EntitySet entitySet;
   private EdmEntityContainer edmEntityContainer;
-  private EdmEntityType edmEntityType;
+  private volatile EdmEntityType edmEntityType;
   private EdmAnnotationsImplProv annotations;
+  private final ConcurrentMap<String, EntityInfoAggregator> entityInfoAggregators =
+      new ConcurrentHashMap<String, EntityInfoAggregator>();
 
   public EdmEntitySetImplProv(final EdmImplProv edm, final EntitySet entitySet,
       final EdmEntityContainer edmEntityContainer) throws EdmException {
@@ -77,6 +83,15 @@ public class EdmEntitySetImplProv extends EdmNamedImplProv implements EdmEntityS
     return edmEntityContainer;
   }
 
+  /**
+   * Returns the cache of {@link EntityInfoAggregator}s for this entity set, keyed by $select/$expand shape;
+   * it is dropped together with this entity set.
+   * @return the cache
+   */
+  public ConcurrentMap<String, EntityInfoAggregator> getEntityInfoAggregatorCache() {
+    return entityInfoAggregators;
+  }
+
   @Override
   public EdmAnnotations getAnnotations() throws EdmException {
     if (annotations == null) {
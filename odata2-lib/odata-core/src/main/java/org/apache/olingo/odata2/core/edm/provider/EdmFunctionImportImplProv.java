@@ -19,11 +19,13 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.odata2.api.edm.EdmAnnotatable;
 import org.apache.olingo.odata2.api.edm.EdmAnnotations;
@@ -47,8 +49,8 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
   private EdmEntityContainer edmEntityContainer;
   private Map<String, EdmParameter> edmParameters;
   private Map<String, FunctionImportParameter> parameters;
-  private List<String> parametersList;
-  private EdmAnnotations annotations;
+  private volatile List<String> parametersList;
+  private volatile EdmAnnotations annotations;
 
   public EdmFunctionImportImplProv(final EdmImplProv edm, final FunctionImport functionImport,
       final EdmEntityContainer edmEntityContainer) throws EdmException {
@@ -58,7 +60,7 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
     buildFunctionImportParametersInternal();
 
-    edmParameters = new HashMap<String, EdmParameter>();
+    edmParameters = new ConcurrentHashMap<String, EdmParameter>();
   }
 
   private void buildFunctionImportParametersInternal() {
@@ -76,10 +78,8 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
   @Override
   public EdmParameter getParameter(final String name) throws EdmException {
-    EdmParameter parameter = null;
-    if (edmParameters.containsKey(name)) {
-      parameter = edmParameters.get(name);
-    } else {
+    EdmParameter parameter = name == null ? null : edmParameters.get(name);
+    if (parameter == null) {
       parameter = createParameter(name);
     }
 
@@ -88,7 +88,7 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
   private EdmParameter createParameter(final String name) throws EdmException {
     EdmParameter edmParameter = null;
-    if (parameters.containsKey(name)) {
+    if (name != null && parameters.containsKey(name)) {
       FunctionImportParameter parameter = parameters.get(name);
       edmParameter = new EdmParameterImplProv(edm, parameter);
       edmParameters.put(name, edmParameter);
@@ -98,17 +98,20 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
   @Override
   public List<String> getParameterNames() throws EdmException {
-    if (parametersList == null) {
-      parametersList = new ArrayList<String>();
+    List<String> names = parametersList;
+    if (names == null) {
+      names = new ArrayList<String>();
 
       Set<String> keySet = parameters.keySet();
       Iterator<String> iterator = keySet.iterator();
       while (iterator.hasNext()) {
-        parametersList.add(iterator.next());
+        names.add(iterator.next());
       }
+      names = Collections.unmodifiableList(names);
+      parametersList = names;
     }
 
-    return parametersList;
+    return names;
   }
 
   @Override
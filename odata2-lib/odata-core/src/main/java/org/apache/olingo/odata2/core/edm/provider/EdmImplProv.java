@@ -47,7 +47,6 @@ import org.apache.olingo.odata2.core.edm.EdmImpl;
 public class EdmImplProv extends EdmImpl implements EdmProviderAccessor {
 
   protected EdmProvider edmProvider;
-  private List<Schema> schemas;
 
   public EdmImplProv(final EdmProvider edmProvider) {
     super(new EdmServiceMetadataImplProv(edmProvider));
@@ -91,6 +90,19 @@ public class EdmImplProv extends EdmImpl implements EdmProviderAccessor {
     return new EdmAssociationImplProv(this, association, fqName.getNamespace());
   }
 
+  /**
+   * The schemas are cached by the service metadata, so that both are dropped together on invalidation.
+   */
+  private List<Schema> getSchemas() throws ODataException {
+    return ((EdmServiceMetadataImplProv) edmServiceMetadata).getSchemas();
+  }
+
+  @Override
+  public void invalidate() {
+    ((EdmServiceMetadataImplProv) edmServiceMetadata).invalidate();
+    super.invalidate();
+  }
+
   @Override
   public EdmProvider getEdmProvider() {
     return edmProvider;
@@ -99,13 +111,10 @@ public class EdmImplProv extends EdmImpl implements EdmProviderAccessor {
   @Override
   protected List<EdmEntitySet> createEntitySets() throws ODataException {
     List<EdmEntitySet> edmEntitySets = new ArrayList<EdmEntitySet>();
-    if (schemas == null) {
-      schemas = edmProvider.getSchemas();
-    }
-    for (Schema schema : schemas) {
+    for (Schema schema : getSchemas()) {
       for (EntityContainer entityContainer : schema.getEntityContainers()) {
         for (EntitySet entitySet : entityContainer.getEntitySets()) {
-          EdmEntityContainer edmEntityContainer = createEntityContainer(entityContainer.getName());
+          EdmEntityContainer edmEntityContainer = getEntityContainer(entityContainer.getName());
           edmEntitySets.add(new EdmEntitySetImplProv(this, entitySet, edmEntityContainer));
         }
       }
@@ -116,13 +125,10 @@ public class EdmImplProv extends EdmImpl implements EdmProviderAccessor {
   @Override
   protected List<EdmFunctionImport> createFunctionImports() throws ODataException {
     List<EdmFunctionImport> edmFunctionImports = new ArrayList<EdmFunctionImport>();
-    if (schemas == null) {
-      schemas = edmProvider.getSchemas();
-    }
-    for (Schema schema : schemas) {
+    for (Schema schema : getSchemas()) {
       for (EntityContainer entityContainer : schema.getEntityContainers()) {
         for (FunctionImport functionImport : entityContainer.getFunctionImports()) {
-          EdmEntityContainer edmEntityContainer = createEntityContainer(entityContainer.getName());
+          EdmEntityContainer edmEntityContainer = getEntityContainer(entityContainer.getName());
           edmFunctionImports.add(new EdmFunctionImportImplProv(this, functionImport, edmEntityContainer));
         }
       }
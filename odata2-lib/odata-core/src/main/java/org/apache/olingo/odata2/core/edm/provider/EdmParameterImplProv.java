@@ -32,7 +32,7 @@ import org.apache.olingo.odata2.core.edm.EdmSimpleTypeFacadeImpl;
 public class EdmParameterImplProv extends EdmElementImplProv implements EdmParameter, EdmAnnotatable {
 
   FunctionImportParameter parameter;
-  private EdmAnnotations annotations;
+  private volatile EdmAnnotations annotations;
 
   public EdmParameterImplProv(final EdmImplProv edm, final FunctionImportParameter parameter) throws EdmException {
     super(edm, parameter.getName(), parameter.getType().getFullQualifiedName(), parameter.getFacets(), parameter
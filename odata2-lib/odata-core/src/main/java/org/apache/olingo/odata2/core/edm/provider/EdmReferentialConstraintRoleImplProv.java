@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.edm.EdmAnnotatable;
@@ -30,8 +31,8 @@ import org.apache.olingo.odata2.api.edm.provider.ReferentialConstraintRole;
 
 public class EdmReferentialConstraintRoleImplProv implements EdmReferentialConstraintRole, EdmAnnotatable {
   private ReferentialConstraintRole role;
-  private List<String> refNames;
-  private EdmAnnotations annotations;
+  private volatile List<String> refNames;
+  private volatile EdmAnnotations annotations;
 
   public EdmReferentialConstraintRoleImplProv(final ReferentialConstraintRole role) throws EdmException {
     this.role = role;
@@ -44,13 +45,16 @@ public class EdmReferentialConstraintRoleImplProv implements EdmReferentialConst
 
   @Override
   public List<String> getPropertyRefNames() {
-    if (refNames == null) {
-      refNames = new ArrayList<String>();
+    List<String> names = refNames;
+    if (names == null) {
+      names = new ArrayList<String>();
       for (PropertyRef ref : role.getPropertyRefs()) {
-        refNames.add(ref.getName());
+        names.add(ref.getName());
       }
+      names = Collections.unmodifiableList(names);
+      refNames = names;
     }
-    return refNames;
+    return names;
   }
 
   @Override
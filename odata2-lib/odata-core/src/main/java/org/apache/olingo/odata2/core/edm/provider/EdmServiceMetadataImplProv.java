@@ -18,20 +18,23 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.edm.provider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.olingo.odata2.api.ODataServiceVersion;
+import org.apache.olingo.odata2.api.edm.AbstractEdmServiceMetadata;
 import org.apache.olingo.odata2.api.edm.EdmEntitySetInfo;
-import org.apache.olingo.odata2.api.edm.EdmServiceMetadata;
 import org.apache.olingo.odata2.api.edm.provider.DataServices;
 import org.apache.olingo.odata2.api.edm.provider.EdmProvider;
 import org.apache.olingo.odata2.api.edm.provider.EntityContainer;
@@ -41,18 +44,44 @@ import org.apache.olingo.odata2.api.edm.provider.Property;
 import org.apache.olingo.odata2.api.edm.provider.Schema;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.exception.ODataException;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.core.commons.XmlHelper;
 import org.apache.olingo.odata2.core.ep.producer.XmlMetadataProducer;
-import org.apache.olingo.odata2.core.ep.util.CircleStreamBuffer;
+import org.apache.olingo.odata2.core.ep.util.CachedDocument;
 
 /**
- *  
+ * Service metadata based on an {@link EdmProvider}.
+ * <p>The metadata document and the service documents are rendered when they are requested first
+ * and kept together with their entity tags until {@link #invalidate()} is called.</p>
  */
-public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
+public class EdmServiceMetadataImplProv extends AbstractEdmServiceMetadata {
+
+  private static final int MAX_CACHED_SERVICE_DOCUMENTS = 32;
+
+  /**
+   * The information read from the provider and the documents rendered from it. {@link #invalidate()} replaces
+   * the whole holder, so a value a concurrent reader computes from the old schema ends up in the discarded
+   * holder and not in the new one.
+   */
+  private static final class Cache {
+    volatile String dataServiceVersion;
+    volatile List<Schema> schemas;
+    volatile List<EdmEntitySetInfo> entitySetInfos;
+    volatile CachedDocument metadataDocument;
+    /** in access order, guarded by itself */
+    final Map<String, ODataResponse> serviceDocuments =
+        new LinkedHashMap<String, ODataResponse>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, ODataResponse> eldest) {
+            return size() > MAX_CACHED_SERVICE_DOCUMENTS;
+          }
+        };
+  }
 
   private EdmProvider edmProvider;
-  private String dataServiceVersion;
-  private List<Schema> schemas;
-  private List<EdmEntitySetInfo> entitySetInfos;
+  private volatile Cache cache = new Cache();
 
   public EdmServiceMetadataImplProv(final EdmProvider edmProvider) {
     this.edmProvider = edmProvider;
@@ -60,73 +89,106 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
 
   @Override
   public InputStream getMetadata() throws ODataException {
-    if (schemas == null) {
-      schemas = edmProvider.getSchemas();
+    return getMetadataDocument(cache).getInputStream();
+  }
+
+  @Override
+  public String getMetadataETag() throws ODataException {
+    return getMetadataDocument(cache).getETag();
+  }
+
+  /**
+   * Returns the metadata document which is rendered only once.
+   */
+  private CachedDocument getMetadataDocument(final Cache current) throws ODataException {
+    CachedDocument document = current.metadataDocument;
+    if (document == null) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      writeMetadata(current, buffer);
+      document = new CachedDocument(buffer.toByteArray());
+      current.metadataDocument = document;
     }
+    return document;
+  }
 
-    OutputStreamWriter writer = null;
-    CircleStreamBuffer csb = new CircleStreamBuffer();
-    EntityProviderException cachedException = null;
-    DataServices metadata = new DataServices().setSchemas(schemas).setDataServiceVersion(getDataServiceVersion());
+  private void writeMetadata(final Cache current, final OutputStream outputStream) throws ODataException {
+    DataServices metadata = new DataServices().setSchemas(getSchemas(current))
+        .setDataServiceVersion(getDataServiceVersion(current));
 
     try {
-      writer = new OutputStreamWriter(csb.getOutputStream(), "UTF-8");
-      XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+      OutputStreamWriter writer = new OutputStreamWriter(outputStream, "UTF-8");
+      XMLStreamWriter xmlStreamWriter = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(writer);
       XmlMetadataProducer.writeMetadata(metadata, xmlStreamWriter, null);
-      return csb.getInputStream();
+      writer.close();
     } catch (XMLStreamException e) {
-      cachedException = new EntityProviderException(EntityProviderException.COMMON, e);
-      throw cachedException;
-    } catch (UnsupportedEncodingException e) {
-      cachedException = new EntityProviderException(EntityProviderException.COMMON, e);
-      throw cachedException;
-    } finally {// NOPMD (suppress DoNotThrowExceptionInFinally)
-      if (writer != null) {
-        try {
-          writer.close();
-        } catch (IOException e) {
-          if (cachedException != null) {
-            throw cachedException;
-          } else {
-            throw new EntityProviderException(EntityProviderException.COMMON, e);
-          }
-        }
+      throw new EntityProviderException(EntityProviderException.COMMON, e);
+    } catch (IOException e) {
+      throw new EntityProviderException(EntityProviderException.COMMON, e);
+    }
+  }
+
+  /**
+   * Returns a service document rendered before.
+   * @param key identifies format and service root of the service document
+   * @return the cached response (with a {@link CachedDocument} as entity) or <code>null</code>
+   */
+  public ODataResponse getServiceDocument(final String key) {
+    final Map<String, ODataResponse> serviceDocuments = cache.serviceDocuments;
+    synchronized (serviceDocuments) {
+      return serviceDocuments.get(key);
+    }
+  }
+
+  /**
+   * Caches a rendered service document. The key contains the service root which is taken from the request,
+   * so only the most recently used documents are kept; the least recently used one is evicted for a new one.
+   * @param key identifies format and service root of the service document
+   * @param response the response with a {@link CachedDocument} as entity
+   */
+  public void cacheServiceDocument(final String key, final ODataResponse response) {
+    final Map<String, ODataResponse> serviceDocuments = cache.serviceDocuments;
+    synchronized (serviceDocuments) {
+      if (!serviceDocuments.containsKey(key)) {
+        serviceDocuments.put(key, response);
       }
     }
   }
 
   @Override
   public String getDataServiceVersion() throws ODataException {
-    if (schemas == null) {
-      schemas = edmProvider.getSchemas();
+    return getDataServiceVersion(cache);
+  }
+
+  private String getDataServiceVersion(final Cache current) throws ODataException {
+    String version = current.dataServiceVersion;
+    if (version == null) {
+      version = determineDataServiceVersion(getSchemas(current));
+      current.dataServiceVersion = version;
     }
+    return version;
+  }
 
-    if (dataServiceVersion == null) {
-      dataServiceVersion = ODataServiceVersion.V10;
-
-      if (schemas != null) {
-        for (Schema schema : schemas) {
-          List<EntityType> entityTypes = schema.getEntityTypes();
-          if (entityTypes != null) {
-            for (EntityType entityType : entityTypes) {
-              List<Property> properties = entityType.getProperties();
-              if (properties != null) {
-                for (Property property : properties) {
-                  if (property.getCustomizableFeedMappings() != null) {
-                    if (property.getCustomizableFeedMappings().getFcKeepInContent() != null) {
-                      if (!property.getCustomizableFeedMappings().getFcKeepInContent()) {
-                        dataServiceVersion = ODataServiceVersion.V20;
-                        return dataServiceVersion;
-                      }
+  private static String determineDataServiceVersion(final List<Schema> schemas) {
+    if (schemas != null) {
+      for (Schema schema : schemas) {
+        List<EntityType> entityTypes = schema.getEntityTypes();
+        if (entityTypes != null) {
+          for (EntityType entityType : entityTypes) {
+            List<Property> properties = entityType.getProperties();
+            if (properties != null) {
+              for (Property property : properties) {
+                if (property.getCustomizableFeedMappings() != null) {
+                  if (property.getCustomizableFeedMappings().getFcKeepInContent() != null) {
+                    if (!property.getCustomizableFeedMappings().getFcKeepInContent()) {
+                      return ODataServiceVersion.V20;
                     }
                   }
                 }
-                if (entityType.getCustomizableFeedMappings() != null) {
-                  if (entityType.getCustomizableFeedMappings().getFcKeepInContent() != null) {
-                    if (entityType.getCustomizableFeedMappings().getFcKeepInContent()) {
-                      dataServiceVersion = ODataServiceVersion.V20;
-                      return dataServiceVersion;
-                    }
+              }
+              if (entityType.getCustomizableFeedMappings() != null) {
+                if (entityType.getCustomizableFeedMappings().getFcKeepInContent() != null) {
+                  if (entityType.getCustomizableFeedMappings().getFcKeepInContent()) {
+                    return ODataServiceVersion.V20;
                   }
                 }
               }
@@ -135,29 +197,50 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
         }
       }
     }
-    return dataServiceVersion;
+    return ODataServiceVersion.V10;
   }
 
   @Override
   public List<EdmEntitySetInfo> getEntitySetInfos() throws ODataException {
-    if (entitySetInfos == null) {
-      entitySetInfos = new ArrayList<EdmEntitySetInfo>();
-
-      if (schemas == null) {
-        schemas = edmProvider.getSchemas();
-      }
-
-      for (Schema schema : schemas) {
+    final Cache current = cache;
+    List<EdmEntitySetInfo> infos = current.entitySetInfos;
+    if (infos == null) {
+      infos = new ArrayList<EdmEntitySetInfo>();
+      for (Schema schema : getSchemas(current)) {
         for (EntityContainer entityContainer : schema.getEntityContainers()) {
           for (EntitySet entitySet : entityContainer.getEntitySets()) {
             EdmEntitySetInfo entitySetInfo = new EdmEntitySetInfoImplProv(entitySet, entityContainer);
-            entitySetInfos.add(entitySetInfo);
+            infos.add(entitySetInfo);
           }
         }
       }
+      infos = Collections.unmodifiableList(infos);
+      current.entitySetInfos = infos;
+    }
+
+    return infos;
+  }
+
+  /**
+   * Returns the schemas of the provider which are read only once until {@link #invalidate()} is called.
+   */
+  List<Schema> getSchemas() throws ODataException {
+    return getSchemas(cache);
+  }
 
+  private List<Schema> getSchemas(final Cache current) throws ODataException {
+    List<Schema> providerSchemas = current.schemas;
+    if (providerSchemas == null) {
+      providerSchemas = edmProvider.getSchemas();
+      current.schemas = providerSchemas;
     }
+    return providerSchemas;
+  }
 
-    return entitySetInfos;
+  /**
+   * Drops the cached information so that it is read again from the provider on next access.
+   */
+  public void invalidate() {
+    cache = new Cache();
   }
 }
@@ -19,9 +19,11 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmAnnotatable;
@@ -48,8 +50,8 @@ public abstract class EdmStructuralTypeImplProv extends EdmNamedImplProv impleme
   protected String namespace;
   protected Map<String, EdmTyped> edmProperties;
   private Map<String, Property> properties;
-  private List<String> edmPropertyNames;
-  private EdmAnnotations annotations;
+  private volatile List<String> edmPropertyNames;
+  private volatile EdmAnnotations annotations;
 
   public EdmStructuralTypeImplProv(final EdmImplProv edm, final ComplexType structuralType,
       final EdmTypeKind edmTypeKind, final String namespace) throws EdmException {
@@ -62,7 +64,7 @@ public abstract class EdmStructuralTypeImplProv extends EdmNamedImplProv impleme
 
     buildPropertiesInternal();
 
-    edmProperties = new HashMap<String, EdmTyped>();
+    edmProperties = new ConcurrentHashMap<String, EdmTyped>();
   }
 
   private void resolveBaseType() throws EdmException {
@@ -96,7 +98,7 @@ public abstract class EdmStructuralTypeImplProv extends EdmNamedImplProv impleme
 
   @Override
   public EdmTyped getProperty(final String name) throws EdmException {
-    EdmTyped property = edmProperties.get(name);
+    EdmTyped property = name == null ? null : edmProperties.get(name);
     if (property == null) {
       property = getPropertyInternal(name);
       if (property == null && edmBaseType != null) {
@@ -108,19 +110,22 @@ public abstract class EdmStructuralTypeImplProv extends EdmNamedImplProv impleme
 
   @Override
   public List<String> getPropertyNames() throws EdmException {
-    if (edmPropertyNames == null) {
-      edmPropertyNames = new ArrayList<String>();
+    List<String> propertyNames = edmPropertyNames;
+    if (propertyNames == null) {
+      propertyNames = new ArrayList<String>();
       if (edmBaseType != null) {
-        edmPropertyNames.addAll(edmBaseType.getPropertyNames());
+        propertyNames.addAll(edmBaseType.getPropertyNames());
       }
       if (structuralType.getProperties() != null) {
         for (final Property property : structuralType.getProperties()) {
-          edmPropertyNames.add(property.getName());
+          propertyNames.add(property.getName());
         }
       }
+      propertyNames = Collections.unmodifiableList(propertyNames);
+      edmPropertyNames = propertyNames;
     }
 
-    return edmPropertyNames;
+    return propertyNames;
   }
 
   @Override
@@ -18,14 +18,16 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.ep;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -49,14 +51,17 @@ import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
 import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.api.processor.ODataResponse.ODataResponseBuilder;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.api.servicedocument.ServiceDocument;
 import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.commons.ContentType.ODataFormat;
+import org.apache.olingo.odata2.core.commons.XmlHelper;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityPropertyInfo;
 import org.apache.olingo.odata2.core.ep.consumer.AtomServiceDocumentConsumer;
 import org.apache.olingo.odata2.core.ep.consumer.XmlEntityConsumer;
 import org.apache.olingo.odata2.core.ep.consumer.XmlErrorDocumentConsumer;
+import org.apache.olingo.odata2.core.ep.feed.ODataFeedReaderImpl;
 import org.apache.olingo.odata2.core.ep.producer.AtomEntryEntityProducer;
 import org.apache.olingo.odata2.core.ep.producer.AtomFeedProducer;
 import org.apache.olingo.odata2.core.ep.producer.AtomServiceDocumentProducer;
@@ -111,7 +116,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
 
       XmlErrorDocumentProducer producer = new XmlErrorDocumentProducer();
       producer.writeErrorDocument(writer, errorCode, message, locale, innerError);
@@ -166,7 +171,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       AtomEntryEntityProducer as = new AtomEntryEntityProducer(properties);
@@ -202,7 +207,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       XmlPropertyEntityProducer ps = new XmlPropertyEntityProducer(false);
@@ -225,11 +230,20 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
   @Override
   public ODataResponse writeFeed(final EdmEntitySet entitySet, final List<Map<String, Object>> data,
       final EntityProviderWriteProperties properties) throws EntityProviderException {
+    return writeFeed(entitySet, data.iterator(), properties);
+  }
+
+  @Override
+  public ODataResponse writeFeed(final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data,
+      final EntityProviderWriteProperties properties) throws EntityProviderException {
+    if (properties.isStreaming()) {
+      return writeFeedStreaming(entitySet, data, properties);
+    }
     CircleStreamBuffer csb = new CircleStreamBuffer();
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       AtomFeedProducer atomFeedProvider = new AtomFeedProducer(properties);
@@ -251,6 +265,31 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
     }
   }
 
+  private ODataResponse writeFeedStreaming(final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data,
+      final EntityProviderWriteProperties properties) throws EntityProviderException {
+    final EntityInfoAggregator eia = EntityInfoAggregator.create(entitySet, properties.getExpandSelectTree());
+
+    return ODataResponse.entity(new ODataStreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        try {
+          OutputStream outStream = new BufferedOutputStream(output);
+          XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+          writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
+
+          new AtomFeedProducer(properties).append(writer, eia, data, false);
+
+          writer.flush();
+          outStream.flush();
+        } catch (EntityProviderException e) {
+          throw new IOException(e);
+        } catch (XMLStreamException e) {
+          throw new IOException(e);
+        }
+      }
+    }).build();
+  }
+
   @Override
   public ODataResponse writeLink(final EdmEntitySet entitySet, final Map<String, Object> data,
       final EntityProviderWriteProperties properties) throws EntityProviderException {
@@ -258,7 +297,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       XmlLinkEntityProducer entity = new XmlLinkEntityProducer(properties);
@@ -287,7 +326,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       XmlLinksEntityProducer entity = new XmlLinksEntityProducer(properties);
@@ -314,7 +353,7 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = csb.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(outStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, XML_VERSION);
 
       XmlCollectionEntityProducer.append(writer, propertyInfo, data);
@@ -371,6 +410,12 @@ public class AtomEntityProvider implements ContentTypeBasedEntityProvider {
     return xec.readFeed(entitySet, content, properties);
   }
 
+  @Override
+  public ODataFeedReaderImpl openFeedReader(final EdmEntitySet entitySet, final InputStream content,
+      final EntityProviderReadProperties properties) throws EntityProviderException {
+    return new XmlEntityConsumer().openFeedReader(entitySet, content, properties);
+  }
+
   @Override
   public ODataEntry readEntry(final EdmEntitySet entitySet, final InputStream content,
       final EntityProviderReadProperties properties) throws EntityProviderException {
@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core.ep;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
 import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.api.servicedocument.ServiceDocument;
+import org.apache.olingo.odata2.core.ep.feed.ODataFeedReaderImpl;
 
 /**
  * Interface for all none basic (content type <b>dependent</b>) provider methods.
@@ -64,6 +66,9 @@ public interface ContentTypeBasedEntityProvider {
   ODataResponse writeFeed(EdmEntitySet entitySet, List<Map<String, Object>> data,
       EntityProviderWriteProperties properties) throws EntityProviderException;
 
+  ODataResponse writeFeed(EdmEntitySet entitySet, Iterator<Map<String, Object>> data,
+      EntityProviderWriteProperties properties) throws EntityProviderException;
+
   ODataResponse writeEntry(EdmEntitySet entitySet, Map<String, Object> data, EntityProviderWriteProperties properties)
       throws EntityProviderException;
 
@@ -86,5 +91,8 @@ public interface ContentTypeBasedEntityProvider {
   ODataDeltaFeed readDeltaFeed(EdmEntitySet entitySet, InputStream content, EntityProviderReadProperties properties)
       throws EntityProviderException;
 
+  ODataFeedReaderImpl openFeedReader(EdmEntitySet entitySet, InputStream content,
+      EntityProviderReadProperties properties) throws EntityProviderException;
+
   ODataErrorContext readErrorDocument(InputStream errorDocument) throws EntityProviderException;
 }
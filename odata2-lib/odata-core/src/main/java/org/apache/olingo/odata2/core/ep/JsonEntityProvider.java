@@ -18,10 +18,11 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.ep;
 
-import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -46,12 +47,14 @@ import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
 import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.api.processor.ODataResponse.ODataResponseBuilder;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.api.servicedocument.ServiceDocument;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityPropertyInfo;
 import org.apache.olingo.odata2.core.ep.consumer.JsonEntityConsumer;
 import org.apache.olingo.odata2.core.ep.consumer.JsonErrorDocumentConsumer;
 import org.apache.olingo.odata2.core.ep.consumer.JsonServiceDocumentConsumer;
+import org.apache.olingo.odata2.core.ep.feed.ODataFeedReaderImpl;
 import org.apache.olingo.odata2.core.ep.producer.JsonCollectionEntityProducer;
 import org.apache.olingo.odata2.core.ep.producer.JsonEntryEntityProducer;
 import org.apache.olingo.odata2.core.ep.producer.JsonErrorDocumentProducer;
@@ -61,6 +64,7 @@ import org.apache.olingo.odata2.core.ep.producer.JsonLinksEntityProducer;
 import org.apache.olingo.odata2.core.ep.producer.JsonPropertyEntityProducer;
 import org.apache.olingo.odata2.core.ep.producer.JsonServiceDocumentProducer;
 import org.apache.olingo.odata2.core.ep.util.CircleStreamBuffer;
+import org.apache.olingo.odata2.core.ep.util.Utf8Writer;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
 
 /**
@@ -68,8 +72,6 @@ import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
  */
 public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
 
-  private static final String DEFAULT_CHARSET = "UTF-8";
-
   /**
    * <p>Serializes an error message according to the OData standard.</p>
    * <p>In case an error occurs, it is logged.
@@ -88,7 +90,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       new JsonErrorDocumentProducer().writeErrorDocument(writer, errorCode, message, locale, innerError);
       writer.flush();
       buffer.closeWrite();
@@ -115,7 +117,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       JsonServiceDocumentProducer.writeServiceDocument(writer, edm);
       writer.flush();
       buffer.closeWrite();
@@ -136,7 +138,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       JsonEntryEntityProducer producer = new JsonEntryEntityProducer(properties);
       producer.append(writer, entityInfo, data, true);
       writer.flush();
@@ -167,7 +169,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
 
     try {
       OutputStream outStream = buffer.getOutputStream();
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outStream, DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(outStream);
       new JsonPropertyEntityProducer().append(writer, propertyInfo, value);
       writer.flush();
       buffer.closeWrite();
@@ -188,11 +190,20 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
   @Override
   public ODataResponse writeFeed(final EdmEntitySet entitySet, final List<Map<String, Object>> data,
       final EntityProviderWriteProperties properties) throws EntityProviderException {
+    return writeFeed(entitySet, data.iterator(), properties);
+  }
+
+  @Override
+  public ODataResponse writeFeed(final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data,
+      final EntityProviderWriteProperties properties) throws EntityProviderException {
     final EntityInfoAggregator entityInfo = EntityInfoAggregator.create(entitySet, properties.getExpandSelectTree());
+    if (properties.isStreaming()) {
+      return writeFeedStreaming(entityInfo, data, properties);
+    }
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       new JsonFeedEntityProducer(properties).append(writer, entityInfo, data, true);
       writer.flush();
       buffer.closeWrite();
@@ -208,6 +219,22 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     }
   }
 
+  private ODataResponse writeFeedStreaming(final EntityInfoAggregator entityInfo,
+      final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) {
+    return ODataResponse.entity(new ODataStreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        Writer writer = new Utf8Writer(output);
+        try {
+          new JsonFeedEntityProducer(properties).append(writer, entityInfo, data, true);
+        } catch (EntityProviderException e) {
+          throw new IOException(e);
+        }
+        writer.flush();
+      }
+    }).build();
+  }
+
   @Override
   public ODataResponse writeLink(final EdmEntitySet entitySet, final Map<String, Object> data,
       final EntityProviderWriteProperties properties) throws EntityProviderException {
@@ -215,7 +242,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       new JsonLinkEntityProducer(properties).append(writer, entityInfo, data);
       writer.flush();
       buffer.closeWrite();
@@ -240,7 +267,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       new JsonLinksEntityProducer(properties).append(writer, entityInfo, data);
       writer.flush();
       buffer.closeWrite();
@@ -265,7 +292,7 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
+      Writer writer = new Utf8Writer(buffer.getOutputStream());
       new JsonCollectionEntityProducer().append(writer, propertyInfo, data);
       writer.flush();
       buffer.closeWrite();
@@ -309,6 +336,12 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     return new JsonEntityConsumer().readFeed(entitySet, content, properties);
   }
 
+  @Override
+  public ODataFeedReaderImpl openFeedReader(final EdmEntitySet entitySet, final InputStream content,
+      final EntityProviderReadProperties properties) throws EntityProviderException {
+    return new JsonEntityConsumer().openFeedReader(entitySet, content, properties);
+  }
+
   @Override
   public ODataEntry readEntry(final EdmEntitySet entitySet, final InputStream content,
       final EntityProviderReadProperties properties) throws EntityProviderException {
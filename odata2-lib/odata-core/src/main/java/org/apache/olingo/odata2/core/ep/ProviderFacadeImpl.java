@@ -18,12 +18,15 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.ep;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.olingo.odata2.api.batch.BatchException;
 import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.client.batch.BatchPart;
 import org.apache.olingo.odata2.api.client.batch.BatchSingleResponse;
@@ -34,13 +37,17 @@ import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.edm.provider.EdmProvider;
 import org.apache.olingo.odata2.api.edm.provider.Schema;
 import org.apache.olingo.odata2.api.ep.EntityProvider.EntityProviderInterface;
+import org.apache.olingo.odata2.api.ep.EntityProvider.IncrementalEntityProviderInterface;
 import org.apache.olingo.odata2.api.ep.EntityProviderBatchProperties;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties;
 import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
+import org.apache.olingo.odata2.api.ep.callback.OnReadEntry;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeedReader;
 import org.apache.olingo.odata2.api.exception.ODataNotAcceptableException;
 import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
@@ -51,13 +58,16 @@ import org.apache.olingo.odata2.core.batch.BatchResponseParser;
 import org.apache.olingo.odata2.core.batch.BatchResponseWriter;
 import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.edm.provider.EdmImplProv;
+import org.apache.olingo.odata2.core.edm.provider.EdmServiceMetadataImplProv;
 import org.apache.olingo.odata2.core.edm.provider.EdmxProvider;
+import org.apache.olingo.odata2.core.ep.util.CachedDocument;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.core.metrics.RequestMetrics;
 
 /**
  *  
  */
-public class ProviderFacadeImpl implements EntityProviderInterface {
+public class ProviderFacadeImpl implements EntityProviderInterface, IncrementalEntityProviderInterface {
 
   private static BasicEntityProvider create() throws EntityProviderException {
     return new BasicEntityProvider();
@@ -97,13 +107,41 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
   @Override
   public ODataResponse writeServiceDocument(final String contentType, final Edm edm, final String serviceRoot)
       throws EntityProviderException {
-    return create(contentType).writeServiceDocument(edm, serviceRoot);
+    if (!(edm.getServiceMetadata() instanceof EdmServiceMetadataImplProv)) {
+      return create(contentType).writeServiceDocument(edm, serviceRoot);
+    }
+
+    // The service document depends only on the metadata, the format, and the service root,
+    // so it is rendered once and cached together with the metadata.
+    final EdmServiceMetadataImplProv serviceMetadata = (EdmServiceMetadataImplProv) edm.getServiceMetadata();
+    final String key = contentType + ' ' + serviceRoot;
+    ODataResponse cachedResponse = serviceMetadata.getServiceDocument(key);
+    if (cachedResponse == null) {
+      final ODataResponse response = create(contentType).writeServiceDocument(edm, serviceRoot);
+      final CachedDocument document;
+      try {
+        document = CachedDocument.read((InputStream) response.getEntity());
+      } catch (final IOException e) {
+        throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+            .getSimpleName()), e);
+      }
+      cachedResponse = ODataResponse.fromResponse(response).entity(document).eTag(document.getETag()).build();
+      serviceMetadata.cacheServiceDocument(key, cachedResponse);
+    }
+    return ODataResponse.fromResponse(cachedResponse)
+        .entity(((CachedDocument) cachedResponse.getEntity()).getInputStream())
+        .build();
   }
 
   @Override
   public ODataResponse writePropertyValue(final EdmProperty edmProperty, final Object value)
       throws EntityProviderException {
-    return create().writePropertyValue(edmProperty, value);
+    final long started = System.nanoTime();
+    try {
+      return create().writePropertyValue(edmProperty, value);
+    } finally {
+      RequestMetrics.serialized(started, 0);
+    }
   }
 
   @Override
@@ -120,38 +158,80 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
   public ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet,
       final List<Map<String, Object>> data, final EntityProviderWriteProperties properties)
       throws EntityProviderException {
-    return create(contentType).writeFeed(entitySet, data, properties);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeFeed(entitySet, data, properties);
+    } finally {
+      RequestMetrics.serialized(started, data == null ? 0 : data.size());
+    }
+  }
+
+  @Override
+  public ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet,
+      final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties)
+      throws EntityProviderException {
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeFeed(entitySet, RequestMetrics.countRows(data), properties);
+    } finally {
+      RequestMetrics.serialized(started, 0);
+    }
   }
 
   @Override
   public ODataResponse writeEntry(final String contentType, final EdmEntitySet entitySet,
       final Map<String, Object> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeEntry(entitySet, data, properties);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeEntry(entitySet, data, properties);
+    } finally {
+      RequestMetrics.serialized(started, 1);
+    }
   }
 
   @Override
   public ODataResponse writeProperty(final String contentType, final EdmProperty edmProperty, final Object value)
       throws EntityProviderException {
-    return create(contentType).writeProperty(edmProperty, value);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeProperty(edmProperty, value);
+    } finally {
+      RequestMetrics.serialized(started, 0);
+    }
   }
 
   @Override
   public ODataResponse writeLink(final String contentType, final EdmEntitySet entitySet,
       final Map<String, Object> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeLink(entitySet, data, properties);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeLink(entitySet, data, properties);
+    } finally {
+      RequestMetrics.serialized(started, 1);
+    }
   }
 
   @Override
   public ODataResponse writeLinks(final String contentType, final EdmEntitySet entitySet,
       final List<Map<String, Object>> data, final EntityProviderWriteProperties properties)
       throws EntityProviderException {
-    return create(contentType).writeLinks(entitySet, data, properties);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeLinks(entitySet, data, properties);
+    } finally {
+      RequestMetrics.serialized(started, data == null ? 0 : data.size());
+    }
   }
 
   @Override
   public ODataResponse writeFunctionImport(final String contentType, final EdmFunctionImport functionImport,
       final Object data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeFunctionImport(functionImport, data, properties);
+    final long started = System.nanoTime();
+    try {
+      return create(contentType).writeFunctionImport(functionImport, data, properties);
+    } finally {
+      RequestMetrics.serialized(started, 0);
+    }
   }
 
   @Override
@@ -173,6 +253,18 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
     return create(contentType).readDeltaFeed(entitySet, content, properties);
   }
 
+  @Override
+  public ODataFeedReader openFeedReader(final String contentType, final EdmEntitySet entitySet,
+      final InputStream content, final EntityProviderReadProperties properties) throws EntityProviderException {
+    return create(contentType).openFeedReader(entitySet, content, properties);
+  }
+
+  @Override
+  public FeedMetadata readFeed(final String contentType, final EdmEntitySet entitySet, final InputStream content,
+      final EntityProviderReadProperties properties, final OnReadEntry callback) throws EntityProviderException {
+    return create(contentType).openFeedReader(entitySet, content, properties).readFeed(callback);
+  }
+
   @Override
   public ODataEntry readEntry(final String contentType, final EdmEntitySet entitySet, final InputStream content,
       final EntityProviderReadProperties properties) throws EntityProviderException {
@@ -233,12 +325,24 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
     return batchParts;
   }
 
+  @Override
+  public BatchRequestPartIterator parseBatchRequestIncrementally(final String contentType, final InputStream content,
+      final EntityProviderBatchProperties properties) throws BatchException {
+    return new BatchRequestParser(contentType, properties).parseIncrementally(content);
+  }
+
   @Override
   public ODataResponse writeBatchResponse(final List<BatchResponsePart> batchResponseParts) throws BatchException {
     BatchResponseWriter batchWriter = new BatchResponseWriter();
     return batchWriter.writeResponse(batchResponseParts);
   }
 
+  @Override
+  public ODataResponse writeStreamedBatchResponse(final List<BatchResponsePart> batchResponseParts)
+      throws BatchException {
+    return new BatchResponseWriter(true).writeResponse(batchResponseParts);
+  }
+
   @Override
   public InputStream writeBatchRequest(final List<BatchPart> batchParts, final String boundary) {
     BatchRequestWriter batchWriter = new BatchRequestWriter();
@@ -27,7 +27,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmComplexType;
 import org.apache.olingo.odata2.api.edm.EdmConcurrencyMode;
 import org.apache.olingo.odata2.api.edm.EdmCustomizableFeedMappings;
@@ -44,15 +46,22 @@ import org.apache.olingo.odata2.api.edm.EdmType;
 import org.apache.olingo.odata2.api.edm.EdmTypeKind;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.uri.ExpandSelectTreeNode;
+import org.apache.olingo.odata2.core.commons.Encoder;
+import org.apache.olingo.odata2.core.edm.provider.EdmEntitySetImplProv;
 
 /**
  * Aggregator to get easy and fast access to all for serialization and de-serialization necessary {@link EdmEntitySet}
  * informations.
- * 
+ * <p>Aggregators created for an entity set of an {@link EdmEntitySetImplProv} are cached at the entity set
+ * per $select/$expand shape, so they live as long as the entity data model and are shared between all requests
+ * using it; they must not be modified after creation.</p>
  * 
  */
 public class EntityInfoAggregator {
 
+  /** Upper bound for the number of cached aggregators per entity set; further shapes are not cached. */
+  static final int MAX_CACHE_SIZE = 64;
+
   private static final Set<String> SYN_TARGET_PATHS = new HashSet<String>(Arrays.asList(
       EdmTargetPath.SYNDICATION_AUTHORNAME,
       EdmTargetPath.SYNDICATION_AUTHOREMAIL,
@@ -69,7 +78,7 @@ public class EntityInfoAggregator {
 
   private Map<String, EntityPropertyInfo> propertyInfo = new HashMap<String, EntityPropertyInfo>();
   private Map<String, NavigationPropertyInfo> navigationPropertyInfos = new HashMap<String, NavigationPropertyInfo>();
-  private List<EntityPropertyInfo> keyPropertyInfos;
+  private volatile List<EntityPropertyInfo> keyPropertyInfos;
 
   /*
    * list with all property names in the order based on order in {@link EdmProperty} (normally [key, entity,
@@ -82,6 +91,16 @@ public class EntityInfoAggregator {
   private List<String> selectedNavigationPropertyNames;
   private List<String> expandedNavigationPropertyNames;
 
+  /*
+   * write plan: derived once from the selection so that producers do not need lookups per written entry
+   */
+  private List<EntityPropertyInfo> selectedPropertyInfos;
+  private List<EntityPropertyInfo> selectedPropertyInfosInTypeOrder;
+  private List<String> selectedNavigationPropertyNamesInTypeOrder;
+  private Set<String> expandedNavigationPropertyNameSet;
+  private volatile String qualifiedEntityTypeName;
+  private volatile String entitySetPath;
+
   private Map<String, EntityPropertyInfo> targetPath2EntityPropertyInfo = new HashMap<String, EntityPropertyInfo>();
   private List<String> noneSyndicationTargetPaths = new ArrayList<String>();
 
@@ -111,8 +130,26 @@ public class EntityInfoAggregator {
    */
   public static EntityInfoAggregator create(final EdmEntitySet entitySet, final ExpandSelectTreeNode expandSelectTree)
       throws EntityProviderException {
-    EntityInfoAggregator eia = new EntityInfoAggregator();
-    eia.initialize(entitySet, expandSelectTree);
+    if (!(entitySet instanceof EdmEntitySetImplProv)) {
+      EntityInfoAggregator eia = new EntityInfoAggregator();
+      eia.initialize(entitySet, expandSelectTree);
+      return eia;
+    }
+
+    final ConcurrentMap<String, EntityInfoAggregator> cache =
+        ((EdmEntitySetImplProv) entitySet).getEntityInfoAggregatorCache();
+    final String shape = getShape(expandSelectTree);
+    EntityInfoAggregator eia = cache.get(shape);
+    if (eia == null) {
+      eia = new EntityInfoAggregator();
+      eia.initialize(entitySet, expandSelectTree);
+      if (cache.size() < MAX_CACHE_SIZE) {
+        final EntityInfoAggregator previous = cache.putIfAbsent(shape, eia);
+        if (previous != null) {
+          eia = previous;
+        }
+      }
+    }
     return eia;
   }
 
@@ -128,9 +165,7 @@ public class EntityInfoAggregator {
    * of {@link EdmEntitySet}).
    */
   public static EntityInfoAggregator create(final EdmEntitySet entitySet) throws EntityProviderException {
-    EntityInfoAggregator eia = new EntityInfoAggregator();
-    eia.initialize(entitySet, null);
-    return eia;
+    return create(entitySet, null);
   }
 
   /**
@@ -269,6 +304,59 @@ public class EntityInfoAggregator {
     return Collections.unmodifiableList(selectedNavigationPropertyNames);
   }
 
+  /**
+   * @return unmodifiable list of the property infos of the selected properties (in order of
+   * {@link #getSelectedPropertyNames()}).
+   */
+  public List<EntityPropertyInfo> getSelectedPropertyInfos() {
+    return selectedPropertyInfos;
+  }
+
+  /**
+   * @return unmodifiable list of the property infos of the selected properties
+   * in the order of the properties of the entity type.
+   */
+  public List<EntityPropertyInfo> getSelectedPropertyInfosInTypeOrder() {
+    return selectedPropertyInfosInTypeOrder;
+  }
+
+  /**
+   * @return unmodifiable list of the selected navigation property names
+   * in the order of the navigation properties of the entity type.
+   */
+  public List<String> getSelectedNavigationPropertyNamesInTypeOrder() {
+    return selectedNavigationPropertyNamesInTypeOrder;
+  }
+
+  /**
+   * @return <code>true</code> if the navigation property with the given name is expanded
+   */
+  public boolean isExpandedNavigationProperty(final String name) {
+    return expandedNavigationPropertyNameSet.contains(name);
+  }
+
+  /**
+   * @return namespace and name of the entity type, separated by {@link Edm#DELIMITER}
+   */
+  public String getQualifiedEntityTypeName() throws EdmException {
+    if (qualifiedEntityTypeName == null) {
+      qualifiedEntityTypeName = entityType.getNamespace() + Edm.DELIMITER + entityType.getName();
+    }
+    return qualifiedEntityTypeName;
+  }
+
+  /**
+   * @return the URI-encoded entity set name, prefixed with the encoded entity container name
+   * if the container is not the default container
+   */
+  public String getEntitySetPath() {
+    if (entitySetPath == null) {
+      entitySetPath = isDefaultEntityContainer ? Encoder.encode(entitySetName) :
+          Encoder.encode(entityContainerName) + Edm.DELIMITER + Encoder.encode(entitySetName);
+    }
+    return entitySetPath;
+  }
+
   public Collection<EntityPropertyInfo> getPropertyInfos() {
     return Collections.unmodifiableCollection(propertyInfo.values());
   }
@@ -294,10 +382,11 @@ public class EntityInfoAggregator {
 
     if (keyPropertyInfos == null) {
       try {
-        keyPropertyInfos = new ArrayList<EntityPropertyInfo>();
+        List<EntityPropertyInfo> infos = new ArrayList<EntityPropertyInfo>();
         for (String keyPropertyName : entityType.getKeyPropertyNames()) {
-          keyPropertyInfos.add(propertyInfo.get(keyPropertyName));
+          infos.add(propertyInfo.get(keyPropertyName));
         }
+        keyPropertyInfos = Collections.unmodifiableList(infos);
       } catch (EdmException e) {
         throw new EntityProviderException(EntityProviderException.COMMON, e);
       }
@@ -348,11 +437,37 @@ public class EntityInfoAggregator {
         }
       }
 
+      initializeWritePlan();
     } catch (EdmException e) {
       throw new EntityProviderException(EntityProviderException.COMMON, e);
     }
   }
 
+  private void initializeWritePlan() {
+    List<EntityPropertyInfo> infos = new ArrayList<EntityPropertyInfo>(selectedPropertyNames.size());
+    for (String name : selectedPropertyNames) {
+      infos.add(propertyInfo.get(name));
+    }
+    selectedPropertyInfos = Collections.unmodifiableList(infos);
+
+    infos = new ArrayList<EntityPropertyInfo>(selectedPropertyNames.size());
+    for (String name : propertyNames) {
+      if (selectedPropertyNames.contains(name)) {
+        infos.add(propertyInfo.get(name));
+      }
+    }
+    selectedPropertyInfosInTypeOrder = Collections.unmodifiableList(infos);
+
+    List<String> names = new ArrayList<String>(selectedNavigationPropertyNames.size());
+    for (String name : navigationPropertyNames) {
+      if (selectedNavigationPropertyNames.contains(name)) {
+        names.add(name);
+      }
+    }
+    selectedNavigationPropertyNamesInTypeOrder = Collections.unmodifiableList(names);
+    expandedNavigationPropertyNameSet = new HashSet<String>(expandedNavigationPropertyNames);
+  }
+
   private Map<String, EntityPropertyInfo> createPropertyInfoObjects(final EdmStructuralType type,
       final List<String> propertyNames) throws EntityProviderException {
     try {
@@ -456,6 +571,33 @@ public class EntityInfoAggregator {
   }
 
   public List<String> getExpandedNavigationPropertyNames() {
-    return expandedNavigationPropertyNames;
+    return Collections.unmodifiableList(expandedNavigationPropertyNames);
+  }
+
+  /**
+   * Reduces the given tree to the information used by {@link #initialize(EdmEntitySet, ExpandSelectTreeNode)}:
+   * the selected properties and which links are selected or expanded.
+   */
+  private static String getShape(final ExpandSelectTreeNode expandSelectTree) throws EntityProviderException {
+    if (expandSelectTree == null) {
+      return "";
+    }
+    StringBuilder shape = new StringBuilder();
+    try {
+      if (expandSelectTree.isAll()) {
+        shape.append('*');
+      } else {
+        for (EdmProperty property : expandSelectTree.getProperties()) {
+          shape.append(property.getName()).append(',');
+        }
+      }
+    } catch (EdmException e) {
+      throw new EntityProviderException(EntityProviderException.COMMON, e);
+    }
+    shape.append('/');
+    for (Map.Entry<String, ExpandSelectTreeNode> link : expandSelectTree.getLinks().entrySet()) {
+      shape.append(link.getKey()).append(link.getValue() == null ? ',' : '+');
+    }
+    return shape.toString();
   }
 }
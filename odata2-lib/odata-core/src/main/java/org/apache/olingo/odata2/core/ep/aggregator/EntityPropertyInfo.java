@@ -23,6 +23,7 @@ import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmFacets;
 import org.apache.olingo.odata2.api.edm.EdmMapping;
 import org.apache.olingo.odata2.api.edm.EdmProperty;
+import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.edm.EdmType;
 
 /**
@@ -36,6 +37,7 @@ public class EntityPropertyInfo {
   private final EdmCustomizableFeedMappings customMapping;
   private final String mimeType;
   private final EdmMapping mapping;
+  private volatile EdmSimpleTypeKind simpleTypeKind;
 
   EntityPropertyInfo(final String name, final EdmType type, final EdmFacets facets,
       final EdmCustomizableFeedMappings customizableFeedMapping, final String mimeType, final EdmMapping mapping) {
@@ -73,6 +75,19 @@ public class EntityPropertyInfo {
     return type;
   }
 
+  /**
+   * @return the {@link EdmSimpleTypeKind} of the (simple) type; it is resolved from the type name only once
+   * @throws EdmException
+   */
+  public EdmSimpleTypeKind getSimpleTypeKind() throws EdmException {
+    EdmSimpleTypeKind kind = simpleTypeKind;
+    if (kind == null) {
+      kind = EdmSimpleTypeKind.valueOf(type.getName());
+      simpleTypeKind = kind;
+    }
+    return kind;
+  }
+
   public EdmFacets getFacets() {
     return facets;
   }
@@ -30,9 +30,12 @@ import org.apache.olingo.odata2.api.edm.EdmProperty;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
+import org.apache.olingo.odata2.core.ep.feed.FeedEntry;
+import org.apache.olingo.odata2.core.ep.feed.ODataFeedReaderImpl;
 
 import com.google.gson.stream.JsonReader;
 
@@ -200,6 +203,54 @@ public class JsonEntityConsumer {
     }
   }
 
+  /**
+   * Opens a reader which reads the entries of the feed in <code>content</code> one after the other.
+   */
+  public ODataFeedReaderImpl openFeedReader(final EdmEntitySet entitySet, final InputStream content,
+      final EntityProviderReadProperties readProperties) throws EntityProviderException {
+    final EntityInfoAggregator eia = EntityInfoAggregator.create(entitySet);
+    final JsonReader reader;
+    try {
+      reader = createJsonReader(content);
+    } catch (UnsupportedEncodingException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
+    }
+    final JsonFeedConsumer jfc = new JsonFeedConsumer(reader, eia, readProperties);
+    try {
+      jfc.startFeed();
+    } catch (EntityProviderException e) {
+      try {
+        reader.close();
+      } catch (IOException closeException) {
+        // The exception thrown while starting to read is more relevant.
+      }
+      throw e;
+    }
+
+    return new ODataFeedReaderImpl() {
+      @Override
+      protected FeedEntry readNextFeedEntry() throws EntityProviderException {
+        return jfc.readNextFeedEntry();
+      }
+
+      @Override
+      public FeedMetadata getFeedMetadata() {
+        return jfc.getFeedMetadata();
+      }
+
+      @Override
+      protected void closeReader() throws EntityProviderException {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+              .getSimpleName()), e);
+        }
+      }
+    };
+  }
+
   private JsonReader createJsonReader(final Object content) throws EntityProviderException,
       UnsupportedEncodingException {
 
@@ -47,7 +47,7 @@ import org.apache.olingo.odata2.core.ep.entry.DeletedEntryMetadataImpl;
 import org.apache.olingo.odata2.core.ep.entry.EntryMetadataImpl;
 import org.apache.olingo.odata2.core.ep.entry.MediaMetadataImpl;
 import org.apache.olingo.odata2.core.ep.entry.ODataEntryImpl;
-import org.apache.olingo.odata2.core.ep.feed.JsonFeedEntry;
+import org.apache.olingo.odata2.core.ep.feed.FeedEntry;
 import org.apache.olingo.odata2.core.ep.util.FormatJson;
 import org.apache.olingo.odata2.core.uri.ExpandSelectTreeNodeImpl;
 
@@ -112,15 +112,15 @@ public class JsonEntryConsumer {
     return resultEntry;
   }
 
-  public JsonFeedEntry readFeedEntry() throws EdmException, EntityProviderException, IOException {
+  public FeedEntry readFeedEntry() throws EdmException, EntityProviderException, IOException {
     reader.beginObject();
     readEntryContent();
     reader.endObject();
 
     if (resultDeletedEntry == null) {
-      return new JsonFeedEntry(resultEntry);
+      return new FeedEntry(resultEntry);
     } else {
-      return new JsonFeedEntry(resultDeletedEntry);
+      return new FeedEntry(resultDeletedEntry);
     }
   }
 
@@ -30,8 +30,8 @@ import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
+import org.apache.olingo.odata2.core.ep.feed.FeedEntry;
 import org.apache.olingo.odata2.core.ep.feed.FeedMetadataImpl;
-import org.apache.olingo.odata2.core.ep.feed.JsonFeedEntry;
 import org.apache.olingo.odata2.core.ep.feed.ODataDeltaFeedImpl;
 import org.apache.olingo.odata2.core.ep.util.FormatJson;
 
@@ -50,6 +50,11 @@ public class JsonFeedConsumer {
   private List<ODataEntry> entries = new ArrayList<ODataEntry>();
   private FeedMetadataImpl feedMetadata = new FeedMetadataImpl();
   private boolean resultsArrayPresent = false;
+  private boolean documentEndExpected = false;
+  private boolean inFeedObject = false;
+  private boolean inResultsArray = false;
+  private boolean finished = false;
+  private int openObjects = 0;
 
   public JsonFeedConsumer(final JsonReader reader, final EntityInfoAggregator eia,
       final EntityProviderReadProperties readProperties) {
@@ -59,15 +64,45 @@ public class JsonFeedConsumer {
   }
 
   public ODataDeltaFeed readFeedStandalone() throws EntityProviderException {
-    try {
-      readFeed();
-
-      if (reader.peek() != JsonToken.END_DOCUMENT) {
+    startFeed();
+    FeedEntry entry = readNextFeedEntry();
+    while (entry != null) {
+      addEntry(entry);
+      entry = readNextFeedEntry();
+    }
+    return new ODataDeltaFeedImpl(entries, feedMetadata, deletedEntries);
+  }
 
-        throw new EntityProviderException(EntityProviderException.END_DOCUMENT_EXPECTED.addContent(reader.peek()
-            .toString()));
-      }
+  /**
+   * Reads the beginning of a standalone feed up to its first entry
+   * so that the entries can be read one after the other with {@link #readNextFeedEntry()}.
+   * @throws EntityProviderException if the content is not a valid feed
+   */
+  public void startFeed() throws EntityProviderException {
+    documentEndExpected = true;
+    try {
+      beginFeed();
+    } catch (IOException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
+    } catch (EdmException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
+    } catch (IllegalStateException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
+    }
+  }
 
+  /**
+   * Reads the next entry or deleted entry of a feed started with {@link #startFeed()}.
+   * Feed metadata found on the way is collected in the {@link #getFeedMetadata() feed metadata}.
+   * @return the next entry or <code>null</code> if the end of the feed has been reached
+   * @throws EntityProviderException if the content is not a valid feed
+   */
+  public FeedEntry readNextFeedEntry() throws EntityProviderException {
+    try {
+      return readNextEntry();
     } catch (IOException e) {
       throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
           .getSimpleName()), e);
@@ -78,50 +113,111 @@ public class JsonFeedConsumer {
       throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
           .getSimpleName()), e);
     }
-    return new ODataDeltaFeedImpl(entries, feedMetadata, deletedEntries);
   }
 
-  private void readFeed() throws IOException, EdmException, EntityProviderException {
+  public FeedMetadataImpl getFeedMetadata() {
+    return feedMetadata;
+  }
+
+  private void beginFeed() throws IOException, EdmException, EntityProviderException {
     JsonToken peek = reader.peek();
     if (peek == JsonToken.BEGIN_ARRAY) {
-      readArrayContent();
+      beginResultsArray();
     } else {
       reader.beginObject();
+      openObjects = 1;
+      inFeedObject = true;
       final String nextName = reader.nextName();
       if (FormatJson.D.equals(nextName)) {
         if (reader.peek() == JsonToken.BEGIN_ARRAY) {
-          readArrayContent();
+          inFeedObject = false;
+          beginResultsArray();
         } else {
           reader.beginObject();
-          readFeedContent();
-          reader.endObject();
+          openObjects = 2;
+          readFeedContentUntilResults(null);
         }
       } else {
-        handleName(nextName);
-        readFeedContent();
+        readFeedContentUntilResults(nextName);
       }
+    }
+  }
 
-      reader.endObject();
+  /**
+   * Reads the names of the feed object (starting with the given already read name, if any)
+   * until the results array begins or the feed object has no more names.
+   */
+  private void readFeedContentUntilResults(final String readName) throws IOException, EdmException,
+      EntityProviderException {
+    String name = readName;
+    while (name != null || reader.hasNext()) {
+      if (name == null) {
+        name = reader.nextName();
+      }
+      if (FormatJson.RESULTS.equals(name)) {
+        resultsArrayPresent = true;
+        beginResultsArray();
+        return;
+      }
+      handleName(name);
+      name = null;
     }
   }
 
-  private void readFeedContent() throws IOException, EdmException, EntityProviderException {
-    while (reader.hasNext()) {
-      final String nextName = reader.nextName();
-      handleName(nextName);
+  private void beginResultsArray() throws IOException {
+    reader.beginArray();
+    inResultsArray = true;
+  }
+
+  private FeedEntry readNextEntry() throws IOException, EdmException, EntityProviderException {
+    while (inResultsArray) {
+      if (reader.hasNext()) {
+        return new JsonEntryConsumer(reader, eia, readProperties).readFeedEntry();
+      }
+      reader.endArray();
+      inResultsArray = false;
+      if (inFeedObject) {
+        readFeedContentUntilResults(null);
+      }
     }
+    if (!finished) {
+      finished = true;
+      endFeed();
+    }
+    return null;
+  }
 
-    if (!resultsArrayPresent) {
+  private void endFeed() throws IOException, EntityProviderException {
+    if (inFeedObject && !resultsArrayPresent) {
       throw new EntityProviderException(EntityProviderException.MISSING_RESULTS_ARRAY);
     }
+    for (int i = 0; i < openObjects; i++) {
+      reader.endObject();
+    }
+    if (documentEndExpected && reader.peek() != JsonToken.END_DOCUMENT) {
+      throw new EntityProviderException(EntityProviderException.END_DOCUMENT_EXPECTED.addContent(reader.peek()
+          .toString()));
+    }
   }
 
-  private void handleName(final String nextName) throws IOException, EdmException, EntityProviderException {
-    if (FormatJson.RESULTS.equals(nextName)) {
-      resultsArrayPresent = true;
-      readArrayContent();
+  private void addEntry(final FeedEntry entry) {
+    if (entry.isODataEntry()) {
+      entries.add(entry.getODataEntry());
+    } else {
+      deletedEntries.add(entry.getDeletedEntryMetadata());
+    }
+  }
 
-    } else if (FormatJson.COUNT.equals(nextName)) {
+  private void readAllEntries() throws IOException, EdmException, EntityProviderException {
+    FeedEntry entry = readNextEntry();
+    while (entry != null) {
+      addEntry(entry);
+      entry = readNextEntry();
+    }
+  }
+
+  private void handleName(final String nextName) throws IOException, EdmException, EntityProviderException {
+    if (FormatJson.COUNT.equals(nextName)) {
       readInlineCount(reader, feedMetadata);
 
     } else if (FormatJson.NEXT.equals(nextName)) {
@@ -147,19 +243,6 @@ public class JsonFeedConsumer {
     }
   }
 
-  private void readArrayContent() throws IOException, EdmException, EntityProviderException {
-    reader.beginArray();
-    while (reader.hasNext()) {
-      final JsonFeedEntry entry = new JsonEntryConsumer(reader, eia, readProperties).readFeedEntry();
-      if (entry.isODataEntry()) {
-        entries.add(entry.getODataEntry());
-      } else {
-        deletedEntries.add(entry.getDeletedEntryMetadata());
-      }
-    }
-    reader.endArray();
-  }
-
   protected static void readInlineCount(final JsonReader reader, final FeedMetadataImpl feedMetadata)
       throws IOException, EntityProviderException {
     if (reader.peek() == JsonToken.STRING && feedMetadata.getInlineCount() == null) {
@@ -181,15 +264,16 @@ public class JsonFeedConsumer {
 
   protected ODataFeed readStartedInlineFeed(final String name) throws EdmException, EntityProviderException,
       IOException {
-    // consume the already started content
-    handleName(name);
-    // consume the rest of the entry content
-    readFeedContent();
+    // consume the already started content and the rest of the entry content
+    inFeedObject = true;
+    readFeedContentUntilResults(name);
+    readAllEntries();
     return new ODataDeltaFeedImpl(entries, feedMetadata);
   }
 
   protected ODataFeed readInlineFeedStandalone() throws EdmException, EntityProviderException, IOException {
-    readFeed();
+    beginFeed();
+    readAllEntries();
     return new ODataDeltaFeedImpl(entries, feedMetadata);
   }
 
@@ -33,9 +33,12 @@ import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties;
 import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties.EntityProviderReadPropertiesBuilder;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.core.commons.XmlHelper;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
+import org.apache.olingo.odata2.core.ep.feed.FeedEntry;
+import org.apache.olingo.odata2.core.ep.feed.ODataFeedReaderImpl;
 
 /**
  * Xml entity (content type dependent) consumer for reading input (from <code>content</code>).
@@ -78,6 +81,47 @@ public class XmlEntityConsumer {
     }
   }
 
+  /**
+   * Opens a reader which reads the entries of the feed in <code>content</code> one after the other.
+   */
+  public ODataFeedReaderImpl openFeedReader(final EdmEntitySet entitySet, final InputStream content,
+      final EntityProviderReadProperties properties) throws EntityProviderException {
+    final XMLStreamReader reader = XmlHelper.createStreamReader(content);
+    final XmlFeedConsumer xfc = new XmlFeedConsumer();
+    try {
+      xfc.startFeed(reader, EntityInfoAggregator.create(entitySet), properties);
+    } catch (EntityProviderException e) {
+      try {
+        reader.close();
+      } catch (XMLStreamException closeException) {
+        // The exception thrown while starting to read is more relevant.
+      }
+      throw e;
+    }
+
+    return new ODataFeedReaderImpl() {
+      @Override
+      protected FeedEntry readNextFeedEntry() throws EntityProviderException {
+        return xfc.readNextFeedEntry();
+      }
+
+      @Override
+      public FeedMetadata getFeedMetadata() {
+        return xfc.getFeedMetadata();
+      }
+
+      @Override
+      protected void closeReader() throws EntityProviderException {
+        try {
+          reader.close();
+        } catch (XMLStreamException e) {
+          throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+              .getSimpleName()), e);
+        }
+      }
+    };
+  }
+
   public ODataEntry readEntry(final EdmEntitySet entitySet, final InputStream content,
       final EntityProviderReadProperties properties) throws EntityProviderException {
     XMLStreamReader reader = null;
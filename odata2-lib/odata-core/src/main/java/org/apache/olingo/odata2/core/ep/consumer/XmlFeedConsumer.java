@@ -39,6 +39,7 @@ import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.core.edm.EdmDateTimeOffset;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
 import org.apache.olingo.odata2.core.ep.entry.DeletedEntryMetadataImpl;
+import org.apache.olingo.odata2.core.ep.feed.FeedEntry;
 import org.apache.olingo.odata2.core.ep.feed.FeedMetadataImpl;
 import org.apache.olingo.odata2.core.ep.feed.ODataDeltaFeedImpl;
 import org.apache.olingo.odata2.core.ep.util.FormatXml;
@@ -47,13 +48,19 @@ import org.apache.olingo.odata2.core.ep.util.FormatXml;
  * Atom/XML format reader/consumer for feeds.
  * 
  * {@link XmlFeedConsumer} instance use
- * {@link XmlEntryConsumer#readEntry(XMLStreamReader, EntityInfoAggregator, EntityProviderReadProperties)} for
- * read/consume of several entries.
+ * {@link XmlEntryConsumer#readEntry(XMLStreamReader, EntityInfoAggregator, EntityProviderReadProperties, boolean)}
+ * for read/consume of several entries.
  * 
  * 
  */
 public class XmlFeedConsumer {
 
+  private XMLStreamReader reader;
+  private EntityInfoAggregator eia;
+  private EntityProviderReadProperties entryReadProperties;
+  private final FeedMetadataImpl metadata = new FeedMetadataImpl();
+  private final XmlEntryConsumer xec = new XmlEntryConsumer();
+
   /**
    * 
    * @param reader
@@ -64,6 +71,34 @@ public class XmlFeedConsumer {
    */
   public ODataDeltaFeed readFeed(final XMLStreamReader reader, final EntityInfoAggregator eia,
       final EntityProviderReadProperties readProperties) throws EntityProviderException {
+    startFeed(reader, eia, readProperties);
+
+    // read feed data (metadata and entries)
+    List<ODataEntry> results = new ArrayList<ODataEntry>();
+    List<DeletedEntryMetadata> deletedEntries = new ArrayList<DeletedEntryMetadata>();
+    FeedEntry feedEntry = readNextFeedEntry();
+    while (feedEntry != null) {
+      if (feedEntry.isODataEntry()) {
+        results.add(feedEntry.getODataEntry());
+      } else {
+        deletedEntries.add(feedEntry.getDeletedEntryMetadata());
+      }
+      feedEntry = readNextFeedEntry();
+    }
+    return new ODataDeltaFeedImpl(results, metadata, deletedEntries);
+  }
+
+  /**
+   * Reads the start of the feed (the <code>feed</code> tag with its namespaces)
+   * so that the entries can be read one after the other with {@link #readNextFeedEntry()}.
+   * 
+   * @param reader xml stream reader with xml content to be read
+   * @param eia entity infos for validation and mapping
+   * @param readProperties properties which are used for read of feed
+   * @throws EntityProviderException if xml is malformed or does not start with a valid feed
+   */
+  public void startFeed(final XMLStreamReader reader, final EntityInfoAggregator eia,
+      final EntityProviderReadProperties readProperties) throws EntityProviderException {
     try {
       // read xml tag
       reader.require(XMLStreamConstants.START_DOCUMENT, null, null);
@@ -74,11 +109,10 @@ public class XmlFeedConsumer {
       Map<String, String> foundPrefix2NamespaceUri = extractNamespacesFromTag(reader);
       foundPrefix2NamespaceUri.putAll(readProperties.getValidatedPrefixNamespaceUris());
       checkAllMandatoryNamespacesAvailable(foundPrefix2NamespaceUri);
-      EntityProviderReadProperties entryReadProperties =
+      entryReadProperties =
           EntityProviderReadProperties.initFrom(readProperties).addValidatedPrefixes(foundPrefix2NamespaceUri).build();
-
-      // read feed data (metadata and entries)
-      return readFeedData(reader, eia, entryReadProperties);
+      this.reader = reader;
+      this.eia = eia;
     } catch (XMLStreamException e) {
       throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
           .getSimpleName()), e);
@@ -86,56 +120,58 @@ public class XmlFeedConsumer {
   }
 
   /**
-   * Read all feed specific data (like <code>inline count</code> and <code>next link</code>) as well as all feed entries
-   * (<code>entry</code>) and delta feed extensions (tombstones).
+   * Reads feed specific data (like <code>inline count</code> and <code>next link</code>) up to and including the
+   * next feed entry (<code>entry</code>) or delta feed extension (tombstone).
+   * The feed specific data is collected in the {@link #getFeedMetadata() feed metadata}.
    * 
-   * @param reader xml stream reader with xml content to be read
-   * @param eia entity infos for validation and mapping
-   * @param entryReadProperties properties which are used for read of feed.
-   * @return all feed specific data (like <code>inline count</code> and <code>next link</code>) as well as all feed
-   * entries (<code>entry</code>).
-   * @throws XMLStreamException if malformed xml is read in stream
-   * @throws EntityProviderException if xml contains invalid data (based on odata specification and edm definition)
+   * @return the next entry or deleted entry, or <code>null</code> if the end of the feed has been reached
+   * @throws EntityProviderException if xml is malformed or contains invalid data (based on odata specification and
+   * edm definition)
    */
-  private ODataDeltaFeed readFeedData(final XMLStreamReader reader, final EntityInfoAggregator eia,
-      final EntityProviderReadProperties entryReadProperties) throws XMLStreamException, EntityProviderException {
-    FeedMetadataImpl metadata = new FeedMetadataImpl();
-    XmlEntryConsumer xec = new XmlEntryConsumer();
-    List<ODataEntry> results = new ArrayList<ODataEntry>();
-    List<DeletedEntryMetadata> deletedEntries = new ArrayList<DeletedEntryMetadata>();
+  public FeedEntry readNextFeedEntry() throws EntityProviderException {
+    try {
+      while (reader.hasNext() && !isFeedEndTag(reader)) {
+        FeedEntry feedEntry = null;
+        if (FormatXml.ATOM_ENTRY.equals(reader.getLocalName())) {
+          feedEntry = new FeedEntry(xec.readEntry(reader, eia, entryReadProperties, true));
+        } else if (FormatXml.ATOM_TOMBSTONE_DELETED_ENTRY.equals(reader.getLocalName())) {
+          reader.require(XMLStreamConstants.START_ELEMENT, FormatXml.ATOM_TOMBSTONE_NAMESPACE,
+              FormatXml.ATOM_TOMBSTONE_DELETED_ENTRY);
 
-    while (reader.hasNext() && !isFeedEndTag(reader)) {
-      if (FormatXml.ATOM_ENTRY.equals(reader.getLocalName())) {
-        ODataEntry entry = xec.readEntry(reader, eia, entryReadProperties, true);
-        results.add(entry);
-      } else if (FormatXml.ATOM_TOMBSTONE_DELETED_ENTRY.equals(reader.getLocalName())) {
-        reader.require(XMLStreamConstants.START_ELEMENT, FormatXml.ATOM_TOMBSTONE_NAMESPACE,
-            FormatXml.ATOM_TOMBSTONE_DELETED_ENTRY);
-
-        DeletedEntryMetadataImpl deletedEntryMetadata = readDeletedEntryMetadata(reader);
-        deletedEntries.add(deletedEntryMetadata);
-        reader.next();
-      } else if (FormatXml.M_COUNT.equals(reader.getLocalName())) {
-        reader.require(XMLStreamConstants.START_ELEMENT, Edm.NAMESPACE_M_2007_08, FormatXml.M_COUNT);
-        readInlineCount(reader, metadata);
-      } else if (FormatXml.ATOM_LINK.equals(reader.getLocalName())) {
-        reader.require(XMLStreamConstants.START_ELEMENT, Edm.NAMESPACE_ATOM_2005, FormatXml.ATOM_LINK);
-
-        final String rel = reader.getAttributeValue(null, FormatXml.ATOM_REL);
-        if (FormatXml.ATOM_NEXT_LINK.equals(rel)) {
-          final String uri = reader.getAttributeValue(null, FormatXml.ATOM_HREF);
-          metadata.setNextLink(uri);
-        } else if (FormatXml.ATOM_DELTA_LINK.equals(rel)) {
-          final String uri = reader.getAttributeValue(null, FormatXml.ATOM_HREF);
-          metadata.setDeltaLink(uri);
+          feedEntry = new FeedEntry(readDeletedEntryMetadata(reader));
+          reader.next();
+        } else if (FormatXml.M_COUNT.equals(reader.getLocalName())) {
+          reader.require(XMLStreamConstants.START_ELEMENT, Edm.NAMESPACE_M_2007_08, FormatXml.M_COUNT);
+          readInlineCount(reader, metadata);
+        } else if (FormatXml.ATOM_LINK.equals(reader.getLocalName())) {
+          reader.require(XMLStreamConstants.START_ELEMENT, Edm.NAMESPACE_ATOM_2005, FormatXml.ATOM_LINK);
+
+          final String rel = reader.getAttributeValue(null, FormatXml.ATOM_REL);
+          if (FormatXml.ATOM_NEXT_LINK.equals(rel)) {
+            final String uri = reader.getAttributeValue(null, FormatXml.ATOM_HREF);
+            metadata.setNextLink(uri);
+          } else if (FormatXml.ATOM_DELTA_LINK.equals(rel)) {
+            final String uri = reader.getAttributeValue(null, FormatXml.ATOM_HREF);
+            metadata.setDeltaLink(uri);
+          }
+          reader.next();
+        } else {
+          reader.next();
+        }
+        readTillNextStartTag(reader);
+        if (feedEntry != null) {
+          return feedEntry;
         }
-        reader.next();
-      } else {
-        reader.next();
       }
-      readTillNextStartTag(reader);
+      return null;
+    } catch (XMLStreamException e) {
+      throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+          .getSimpleName()), e);
     }
-    return new ODataDeltaFeedImpl(results, metadata, deletedEntries);
+  }
+
+  public FeedMetadataImpl getFeedMetadata() {
+    return metadata;
   }
 
   private DeletedEntryMetadataImpl readDeletedEntryMetadata(final XMLStreamReader reader)
@@ -23,18 +23,18 @@ import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
 
 /**
  * Simple wrapper for {@link ODataEntry} or {@link DeletedEntryMetadata} object.
- * Currently used in Json consumer (Entry and Feed).
+ * Used by the Json entry consumer and by the (Json and Xml) feed consumers reading one entry at a time.
  */
-public class JsonFeedEntry {
+public class FeedEntry {
   private final ODataEntry oDataEntry;
   private final DeletedEntryMetadata deletedEntryMetadata;
 
-  public JsonFeedEntry(final ODataEntry entry) {
+  public FeedEntry(final ODataEntry entry) {
     oDataEntry = entry;
     deletedEntryMetadata = null;
   }
 
-  public JsonFeedEntry(final DeletedEntryMetadata entry) {
+  public FeedEntry(final DeletedEntryMetadata entry) {
     deletedEntryMetadata = entry;
     oDataEntry = null;
   }
@@ -57,6 +57,6 @@ public class JsonFeedEntry {
 
   @Override
   public String toString() {
-    return "JsonFeedEntry [oDataEntry=" + oDataEntry + ", deletedEntryMetadata=" + deletedEntryMetadata + "]";
+    return "FeedEntry [oDataEntry=" + oDataEntry + ", deletedEntryMetadata=" + deletedEntryMetadata + "]";
   }
 }
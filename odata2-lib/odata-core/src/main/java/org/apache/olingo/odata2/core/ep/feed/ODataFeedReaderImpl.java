@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.ep.feed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.olingo.odata2.api.ep.EntityProviderException;
+import org.apache.olingo.odata2.api.ep.callback.OnReadEntry;
+import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
+import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
+import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeedReader;
+import org.apache.olingo.odata2.api.exception.ODataApplicationException;
+
+/**
+ * Base of the format-specific {@link ODataFeedReader} implementations
+ * which deliver the feed content one {@link FeedEntry} after the other.
+ */
+public abstract class ODataFeedReaderImpl implements ODataFeedReader {
+
+  private final List<DeletedEntryMetadata> deletedEntries = new ArrayList<DeletedEntryMetadata>();
+  private ODataEntry nextEntry;
+  private boolean closed = false;
+
+  /**
+   * Reads the next entry or deleted entry.
+   * @return the next entry or <code>null</code> if the end of the feed has been reached
+   * @throws EntityProviderException if reading of data (de-serialization) fails
+   */
+  protected abstract FeedEntry readNextFeedEntry() throws EntityProviderException;
+
+  /**
+   * Releases the format-specific resources.
+   * @throws EntityProviderException if the resources could not be released
+   */
+  protected abstract void closeReader() throws EntityProviderException;
+
+  @Override
+  public boolean hasNext() throws EntityProviderException {
+    while (nextEntry == null && !closed) {
+      final FeedEntry feedEntry = readOrClose();
+      if (feedEntry == null) {
+        close();
+      } else if (feedEntry.isODataEntry()) {
+        nextEntry = feedEntry.getODataEntry();
+      } else {
+        deletedEntries.add(feedEntry.getDeletedEntryMetadata());
+      }
+    }
+    return nextEntry != null;
+  }
+
+  @Override
+  public ODataEntry next() throws EntityProviderException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final ODataEntry entry = nextEntry;
+    nextEntry = null;
+    return entry;
+  }
+
+  @Override
+  public List<DeletedEntryMetadata> getDeletedEntries() {
+    return deletedEntries;
+  }
+
+  @Override
+  public void close() throws EntityProviderException {
+    if (!closed) {
+      closed = true;
+      closeReader();
+    }
+  }
+
+  /**
+   * Reads the whole feed and hands each entry and deleted entry to the given callback
+   * directly after it has been read; the reader is closed afterwards.
+   * @param callback the callback receiving the entries
+   * @return the metadata of the feed
+   * @throws EntityProviderException if reading of data (de-serialization) fails or the callback fails
+   */
+  public FeedMetadata readFeed(final OnReadEntry callback) throws EntityProviderException {
+    FeedEntry feedEntry = readOrClose();
+    while (feedEntry != null) {
+      try {
+        if (feedEntry.isODataEntry()) {
+          callback.handleReadEntry(feedEntry.getODataEntry());
+        } else {
+          callback.handleDeletedEntry(feedEntry.getDeletedEntryMetadata());
+        }
+      } catch (ODataApplicationException e) {
+        closeQuietly();
+        throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass()
+            .getSimpleName()), e);
+      } catch (RuntimeException e) {
+        closeQuietly();
+        throw e;
+      }
+      feedEntry = readOrClose();
+    }
+    close();
+    return getFeedMetadata();
+  }
+
+  private FeedEntry readOrClose() throws EntityProviderException {
+    try {
+      return readNextFeedEntry();
+    } catch (EntityProviderException e) {
+      closeQuietly();
+      throw e;
+    } catch (RuntimeException e) {
+      closeQuietly();
+      throw e;
+    }
+  }
+
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (EntityProviderException e) {
+      // The exception which caused the reader to be closed is more relevant.
+    }
+  }
+}
@@ -136,10 +136,13 @@ public class AtomEntryEntityProducer {
   private void appendCustomProperties(final XMLStreamWriter writer, final EntityInfoAggregator eia,
       final Map<String, Object> data) throws EntityProviderException {
     List<String> noneSyndicationTargetPaths = eia.getNoneSyndicationTargetPathNames();
+    if (noneSyndicationTargetPaths.isEmpty()) {
+      return;
+    }
+    XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer(properties.isIncludeSimplePropertyType());
     for (String tpName : noneSyndicationTargetPaths) {
       EntityPropertyInfo info = eia.getTargetPathInfo(tpName);
       final String name = info.getName();
-      XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer(properties.isIncludeSimplePropertyType());
       aps.appendCustomProperty(writer, name, info, data.get(name));
     }
   }
@@ -221,7 +224,7 @@ public class AtomEntryEntityProducer {
       final EntityInfoAggregator eia, final Map<String, Object> data, final String self)
       throws EntityProviderException, XMLStreamException, EdmException, URISyntaxException {
 
-    if (eia.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
+    if (eia.isExpandedNavigationProperty(navigationPropertyName)) {
       if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_INLINE);
 
@@ -265,7 +268,7 @@ public class AtomEntryEntityProducer {
       final EntityInfoAggregator eia, final Map<String, Object> data) throws EntityProviderException,
       XMLStreamException, EdmException {
 
-    if (eia.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
+    if (eia.isExpandedNavigationProperty(navigationPropertyName)) {
       if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_INLINE);
 
@@ -491,7 +494,7 @@ public class AtomEntryEntityProducer {
       String published = getTargetPathValue(eia, EdmTargetPath.SYNDICATION_PUBLISHED, data);
       appendAtomOptionalPart(writer, FormatXml.ATOM_PUBLISHED, published, false);
 
-      String term = eia.getEntityType().getNamespace() + Edm.DELIMITER + eia.getEntityType().getName();
+      String term = eia.getQualifiedEntityTypeName();
       writer.writeStartElement(FormatXml.ATOM_CATEGORY);
       writer.writeAttribute(FormatXml.ATOM_CATEGORY_TERM, term);
       writer.writeAttribute(FormatXml.ATOM_CATEGORY_SCHEME, Edm.NAMESPACE_SCHEME_2007_08);
@@ -521,13 +524,11 @@ public class AtomEntryEntityProducer {
 
   static String createSelfLink(final EntityInfoAggregator eia, final Map<String, Object> data, final String extension)
       throws EntityProviderException {
-    StringBuilder sb = new StringBuilder();
-    if (!eia.isDefaultEntityContainer()) {
-      sb.append(Encoder.encode(eia.getEntityContainerName())).append(Edm.DELIMITER);
+    StringBuilder sb = new StringBuilder(eia.getEntitySetPath());
+    sb.append('(').append(createEntryKey(eia, data)).append(')');
+    if (extension != null) {
+      sb.append('/').append(extension);
     }
-    sb.append(Encoder.encode(eia.getEntitySetName()));
-
-    sb.append("(").append(createEntryKey(eia, data)).append(")").append(extension == null ? "" : ("/" + extension));
     return sb.toString();
   }
 
@@ -561,17 +562,15 @@ public class AtomEntryEntityProducer {
   private void appendProperties(final XMLStreamWriter writer, final EntityInfoAggregator eia,
       final Map<String, Object> data) throws EntityProviderException {
     try {
-      List<String> propertyNames = eia.getSelectedPropertyNames();
-      if (!propertyNames.isEmpty()) {
+      List<EntityPropertyInfo> propertyInfos = eia.getSelectedPropertyInfos();
+      if (!propertyInfos.isEmpty()) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_PROPERTIES);
 
-        for (String propertyName : propertyNames) {
-          EntityPropertyInfo propertyInfo = eia.getPropertyInfo(propertyName);
-
+        XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer(properties.isIncludeSimplePropertyType());
+        for (EntityPropertyInfo propertyInfo : propertyInfos) {
           if (isNotMappedViaCustomMapping(propertyInfo)) {
-            Object value = data.get(propertyName);
-            XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer(properties.isIncludeSimplePropertyType());
-            aps.append(writer, propertyInfo.getName(), propertyInfo, value);
+            final String propertyName = propertyInfo.getName();
+            aps.append(writer, propertyName, propertyInfo, data.get(propertyName));
           }
         }
 
@@ -25,7 +25,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.olingo.odata2.api.ODataCallback;
-import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmEntityType;
 import org.apache.olingo.odata2.api.edm.EdmException;
@@ -45,6 +44,7 @@ import org.apache.olingo.odata2.api.exception.ODataApplicationException;
 import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.commons.Encoder;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityInfoAggregator;
+import org.apache.olingo.odata2.core.ep.aggregator.EntityPropertyInfo;
 import org.apache.olingo.odata2.core.ep.util.FormatJson;
 import org.apache.olingo.odata2.core.ep.util.JsonStreamWriter;
 
@@ -56,12 +56,14 @@ import org.apache.olingo.odata2.core.ep.util.JsonStreamWriter;
 public class JsonEntryEntityProducer {
 
   private final EntityProviderWriteProperties properties;
+  private final String serviceRoot;
   private String eTag;
   private String location;
   private JsonStreamWriter jsonStreamWriter;
 
   public JsonEntryEntityProducer(final EntityProviderWriteProperties properties) throws EntityProviderException {
     this.properties = properties == null ? EntityProviderWriteProperties.serviceRoot(null).build() : properties;
+    serviceRoot = this.properties.getServiceRoot() == null ? "" : this.properties.getServiceRoot().toASCIIString();
   }
 
   public void append(final Writer writer, final EntityInfoAggregator entityInfo, final Map<String, Object> data,
@@ -102,19 +104,17 @@ public class JsonEntryEntityProducer {
   private void writeNavigationProperties(final Writer writer, final EntityInfoAggregator entityInfo,
       final Map<String, Object> data,
       final EdmEntityType type) throws EdmException, EntityProviderException, IOException {
-    for (final String navigationPropertyName : type.getNavigationPropertyNames()) {
-      if (entityInfo.getSelectedNavigationPropertyNames().contains(navigationPropertyName)) {
-        jsonStreamWriter.separator();
-        jsonStreamWriter.name(navigationPropertyName);
-        if (entityInfo.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
-          if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
-            writeExpandedNavigationProperty(writer, entityInfo, data, type, navigationPropertyName);
-          } else {
-            writeDeferredUri(entityInfo, navigationPropertyName);
-          }
+    for (final String navigationPropertyName : entityInfo.getSelectedNavigationPropertyNamesInTypeOrder()) {
+      jsonStreamWriter.separator();
+      jsonStreamWriter.name(navigationPropertyName);
+      if (entityInfo.isExpandedNavigationProperty(navigationPropertyName)) {
+        if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
+          writeExpandedNavigationProperty(writer, entityInfo, data, type, navigationPropertyName);
         } else {
           writeDeferredUri(entityInfo, navigationPropertyName);
         }
+      } else {
+        writeDeferredUri(entityInfo, navigationPropertyName);
       }
     }
   }
@@ -173,13 +173,11 @@ public class JsonEntryEntityProducer {
 
   private void writeProperties(final EntityInfoAggregator entityInfo, final Map<String, Object> data,
       final EdmEntityType type) throws EdmException, EntityProviderException, IOException {
-    for (final String propertyName : type.getPropertyNames()) {
-      if (entityInfo.getSelectedPropertyNames().contains(propertyName)) {
-        jsonStreamWriter.separator();
-        jsonStreamWriter.name(propertyName);
-        JsonPropertyEntityProducer.appendPropertyValue(jsonStreamWriter, entityInfo.getPropertyInfo(propertyName),
-            data.get(propertyName));
-      }
+    for (final EntityPropertyInfo propertyInfo : entityInfo.getSelectedPropertyInfosInTypeOrder()) {
+      final String propertyName = propertyInfo.getName();
+      jsonStreamWriter.separator();
+      jsonStreamWriter.name(propertyName);
+      JsonPropertyEntityProducer.appendPropertyValue(jsonStreamWriter, propertyInfo, data.get(propertyName));
     }
   }
 
@@ -188,12 +186,12 @@ public class JsonEntryEntityProducer {
     jsonStreamWriter.name(FormatJson.METADATA);
     jsonStreamWriter.beginObject();
     final String self = AtomEntryEntityProducer.createSelfLink(entityInfo, data, null);
-    location = (properties.getServiceRoot() == null ? "" : properties.getServiceRoot().toASCIIString()) + self;
+    location = serviceRoot + self;
     jsonStreamWriter.namedStringValue(FormatJson.ID, location);
     jsonStreamWriter.separator();
     jsonStreamWriter.namedStringValue(FormatJson.URI, location);
     jsonStreamWriter.separator();
-    jsonStreamWriter.namedStringValueRaw(FormatJson.TYPE, type.getNamespace() + Edm.DELIMITER + type.getName());
+    jsonStreamWriter.namedStringValueRaw(FormatJson.TYPE, entityInfo.getQualifiedEntityTypeName());
     eTag = AtomEntryEntityProducer.createETag(entityInfo, data);
     if (eTag != null) {
       jsonStreamWriter.separator();
@@ -253,8 +251,7 @@ public class JsonEntryEntityProducer {
       final EntityInfoAggregator targetEntityInfo = EntityInfoAggregator.create(
           entityInfo.getEntitySet().getRelatedEntitySet(
               (EdmNavigationProperty) entityInfo.getEntityType().getProperty(navigationPropertyName)));
-      target = (properties.getServiceRoot() == null ? "" : properties.getServiceRoot().toASCIIString())
-          + AtomEntryEntityProducer.createSelfLink(targetEntityInfo, key, null);
+      target = serviceRoot + AtomEntryEntityProducer.createSelfLink(targetEntityInfo, key, null);
     }
     JsonLinkEntityProducer.appendUri(jsonStreamWriter, target);
     jsonStreamWriter.endObject();
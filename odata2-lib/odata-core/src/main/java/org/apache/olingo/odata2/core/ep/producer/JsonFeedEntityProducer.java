@@ -20,6 +20,7 @@ package org.apache.olingo.odata2.core.ep.producer;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +47,15 @@ public class JsonFeedEntityProducer {
 
   public void append(final Writer writer, final EntityInfoAggregator entityInfo, final List<Map<String, Object>> data,
       final boolean isRootElement) throws EntityProviderException {
+    append(writer, entityInfo, data.iterator(), isRootElement);
+  }
+
+  /**
+   * Appends the feed with the entries delivered one after the other by the given iterator,
+   * so that the entries need not be held in memory all at once.
+   */
+  public void append(final Writer writer, final EntityInfoAggregator entityInfo,
+      final Iterator<Map<String, Object>> data, final boolean isRootElement) throws EntityProviderException {
     JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(writer);
 
     TombstoneCallback callback = getTombstoneCallback();
@@ -67,13 +77,13 @@ public class JsonFeedEntityProducer {
           .beginArray();
       JsonEntryEntityProducer entryProducer = new JsonEntryEntityProducer(properties);
       boolean first = true;
-      for (final Map<String, Object> entryData : data) {
+      while (data.hasNext()) {
         if (first) {
           first = false;
         } else {
           jsonStreamWriter.separator();
         }
-        entryProducer.append(writer, entityInfo, entryData, false);
+        entryProducer.append(writer, entityInfo, data.next(), false);
       }
 
       if (callback != null) {
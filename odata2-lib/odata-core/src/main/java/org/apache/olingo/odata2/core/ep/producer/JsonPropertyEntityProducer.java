@@ -26,7 +26,6 @@ import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmException;
 import org.apache.olingo.odata2.api.edm.EdmLiteralKind;
 import org.apache.olingo.odata2.api.edm.EdmSimpleType;
-import org.apache.olingo.odata2.api.edm.EdmSimpleTypeKind;
 import org.apache.olingo.odata2.api.edm.EdmType;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.core.ep.aggregator.EntityComplexPropertyInfo;
@@ -89,7 +88,7 @@ public class JsonPropertyEntityProducer {
       final EdmSimpleType type = (EdmSimpleType) propertyInfo.getType();
       final Object contentValue = value instanceof Map ? ((Map<?, ?>) value).get(propertyInfo.getName()) : value;
       final String valueAsString = type.valueToString(contentValue, EdmLiteralKind.JSON, propertyInfo.getFacets());
-      switch (EdmSimpleTypeKind.valueOf(type.getName())) {
+      switch (propertyInfo.getSimpleTypeKind()) {
       case String:
         jsonStreamWriter.stringValue(valueAsString);
         break;
@@ -105,7 +104,7 @@ public class JsonPropertyEntityProducer {
         // Although JSON escaping is (and should be) done in the JSON
         // serializer, we backslash-escape the forward slash here explicitly
         // because it is not required to escape it in JSON but in OData.
-        jsonStreamWriter.stringValueRaw(valueAsString == null ? null : valueAsString.replace("/", "\\/"));
+        jsonStreamWriter.stringValueRaw(valueAsString == null ? null : escapeSlashes(valueAsString));
         break;
       default:
         jsonStreamWriter.stringValueRaw(valueAsString);
@@ -114,6 +113,21 @@ public class JsonPropertyEntityProducer {
     }
   }
 
+  private static String escapeSlashes(final String value) {
+    int index = value.indexOf('/');
+    if (index < 0) {
+      return value;
+    }
+    StringBuilder escaped = new StringBuilder(value.length() + 4);
+    int start = 0;
+    while (index >= 0) {
+      escaped.append(value, start, index).append('\\').append('/');
+      start = index + 1;
+      index = value.indexOf('/', start);
+    }
+    return escaped.append(value, start, value.length()).toString();
+  }
+
   protected static void appendPropertyMetadata(final JsonStreamWriter jsonStreamWriter, final EdmType type)
       throws IOException, EdmException {
     jsonStreamWriter.name(FormatJson.METADATA)
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.ep.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+
+/**
+ * Immutable serialized document (e.g., the metadata document) which is rendered once and then served
+ * repeatedly; its strong entity tag is calculated from a hash over the content.
+ * 
+ */
+public final class CachedDocument {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final byte[] content;
+  private final String eTag;
+
+  public CachedDocument(final byte[] content) {
+    this.content = content;
+    eTag = createETag(content);
+  }
+
+  /**
+   * Reads the given stream completely and closes it.
+   * @param content the stream with the document
+   * @return the cached document
+   * @throws IOException if the stream could not be read
+   */
+  public static CachedDocument read(final InputStream content) throws IOException {
+    try {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      byte[] bytes = new byte[8192];
+      int count;
+      while ((count = content.read(bytes)) != -1) {
+        buffer.write(bytes, 0, count);
+      }
+      return new CachedDocument(buffer.toByteArray());
+    } finally {
+      content.close();
+    }
+  }
+
+  /**
+   * @return a new stream over the document content
+   */
+  public InputStream getInputStream() {
+    return new ByteArrayInputStream(content);
+  }
+
+  /**
+   * @return the strong entity tag including the surrounding quotes
+   */
+  public String getETag() {
+    return eTag;
+  }
+
+  public int getLength() {
+    return content.length;
+  }
+
+  private static String createETag(final byte[] content) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      StringBuilder eTag = new StringBuilder(digest.length * 2 + 2).append('"');
+      for (final byte b : digest) {
+        eTag.append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+      }
+      return eTag.append('"').toString();
+    } catch (final NoSuchAlgorithmException e) {
+      // every Java platform has to support SHA-256
+      throw new ODataRuntimeException(e);
+    }
+  }
+}
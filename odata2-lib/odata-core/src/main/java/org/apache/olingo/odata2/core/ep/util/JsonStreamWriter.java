@@ -19,17 +19,27 @@
 package org.apache.olingo.odata2.core.ep.util;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Writes JSON output.
- * 
+ * <p>If the given writer is a {@link Utf8Writer}, names are written as pre-encoded
+ * byte tokens and strings without characters to be escaped are copied
+ * directly into its byte buffer.</p>
  */
 public class JsonStreamWriter {
+  private static final int MAX_CACHED_NAME_TOKENS = 4096;
+  private static final Map<String, byte[]> NAME_TOKENS = new ConcurrentHashMap<String, byte[]>();
+
   private final Writer writer;
+  private final Utf8Writer utf8Writer;
 
   public JsonStreamWriter(final Writer writer) {
     this.writer = writer;
+    utf8Writer = writer instanceof Utf8Writer ? (Utf8Writer) writer : null;
   }
 
   public JsonStreamWriter beginObject() throws IOException {
@@ -53,7 +63,11 @@ public class JsonStreamWriter {
   }
 
   public JsonStreamWriter name(final String name) throws IOException {
-    writer.append('"').append(name).append('"').append(':');
+    if (utf8Writer == null) {
+      writer.append('"').append(name).append('"').append(':');
+    } else {
+      utf8Writer.writeBytes(getNameToken(name));
+    }
     return this;
   }
 
@@ -76,7 +90,11 @@ public class JsonStreamWriter {
       writer.append(FormatJson.NULL);
     } else {
       writer.append('"');
-      escape(value);
+      if (utf8Writer != null && !needsEscaping(value)) {
+        utf8Writer.writeAscii(value);
+      } else {
+        escape(value);
+      }
       writer.append('"');
     }
     return this;
@@ -99,12 +117,39 @@ public class JsonStreamWriter {
     return this;
   }
 
+  private static byte[] getNameToken(final String name) throws UnsupportedEncodingException {
+    byte[] token = NAME_TOKENS.get(name);
+    if (token == null) {
+      token = ('"' + name + "\":").getBytes("UTF-8");
+      if (NAME_TOKENS.size() < MAX_CACHED_NAME_TOKENS) {
+        NAME_TOKENS.put(name, token);
+      }
+    }
+    return token;
+  }
+
+  /**
+   * Returns whether the given value contains any character which is either not ASCII
+   * or has to be escaped.
+   */
+  private static boolean needsEscaping(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c < ' ' || c > '\u007F' || c == '"' || c == '\\') {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Writes the JSON-escaped form of a Java String value according to RFC 4627.
+   * <p>It is final because the byte token and ASCII paths for a {@link Utf8Writer}
+   * rely on exactly these escaping rules.</p>
    * @param value the Java String
    * @throws IOException if an I/O error occurs
    */
-  protected void escape(final String value) throws IOException {
+  protected final void escape(final String value) throws IOException {
     // RFC 4627 says: "All Unicode characters may be placed within the
     // quotation marks except for the characters that must be escaped:
     // quotation mark, reverse solidus, and the control characters
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.ep.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Writer encoding characters as UTF-8 directly into a reusable byte buffer
+ * which is handed over to the underlying output stream when it is full or flushed.
+ * <p>It replaces the combination of {@link java.io.BufferedWriter} and
+ * {@link java.io.OutputStreamWriter} and produces the same bytes,
+ * including the replacement of unpaired surrogates by a question mark.
+ * In addition to the methods of {@link Writer} it can write pre-encoded byte
+ * sequences and ASCII-only strings without any encoding work.</p>
+ * <p>Instances are not thread-safe.</p>
+ */
+public class Utf8Writer extends Writer {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+  private static final byte REPLACEMENT = '?';
+
+  private final OutputStream outputStream;
+  private final byte[] buffer;
+  private int position;
+  private char pendingHighSurrogate;
+
+  public Utf8Writer(final OutputStream outputStream) {
+    this(outputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  public Utf8Writer(final OutputStream outputStream, final int bufferSize) {
+    // At least four bytes are needed to hold the encoding of a supplementary character.
+    this.outputStream = outputStream;
+    buffer = new byte[Math.max(bufferSize, 4)];
+  }
+
+  /**
+   * Writes the given bytes, which must form complete UTF-8 sequences, unchanged.
+   * @param bytes the pre-encoded bytes
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeBytes(final byte[] bytes) throws IOException {
+    writePendingSurrogate();
+    if (bytes.length > buffer.length - position) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        outputStream.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  /**
+   * Writes a string the caller knows to consist of ASCII characters only.
+   * @param value the ASCII string
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeAscii(final String value) throws IOException {
+    writePendingSurrogate();
+    final int length = value.length();
+    int index = 0;
+    while (index < length) {
+      if (position == buffer.length) {
+        flushBuffer();
+      }
+      final int end = Math.min(length, index + buffer.length - position);
+      while (index < end) {
+        buffer[position++] = (byte) value.charAt(index++);
+      }
+    }
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    if (c < 0x80 && pendingHighSurrogate == 0) {
+      if (position == buffer.length) {
+        flushBuffer();
+      }
+      buffer[position++] = (byte) c;
+    } else {
+      writeChar((char) c);
+    }
+  }
+
+  @Override
+  public void write(final char[] chars, final int offset, final int length) throws IOException {
+    for (int i = offset; i < offset + length; i++) {
+      final char c = chars[i];
+      if (c < 0x80 && pendingHighSurrogate == 0 && position < buffer.length) {
+        buffer[position++] = (byte) c;
+      } else {
+        writeChar(c);
+      }
+    }
+  }
+
+  @Override
+  public void write(final String value, final int offset, final int length) throws IOException {
+    for (int i = offset; i < offset + length; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80 && pendingHighSurrogate == 0 && position < buffer.length) {
+        buffer[position++] = (byte) c;
+      } else {
+        writeChar(c);
+      }
+    }
+  }
+
+  @Override
+  public Writer append(final char c) throws IOException {
+    write(c);
+    return this;
+  }
+
+  @Override
+  public Writer append(final CharSequence value) throws IOException {
+    if (value instanceof String) {
+      write((String) value, 0, value.length());
+    } else {
+      final CharSequence sequence = value == null ? "null" : value;
+      for (int i = 0; i < sequence.length(); i++) {
+        writeChar(sequence.charAt(i));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    outputStream.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writePendingSurrogate();
+    flushBuffer();
+    outputStream.close();
+  }
+
+  private void writeChar(final char c) throws IOException {
+    if (buffer.length - position < 4) {
+      flushBuffer();
+    }
+    if (pendingHighSurrogate != 0) {
+      if (Character.isLowSurrogate(c)) {
+        final int codePoint = Character.toCodePoint(pendingHighSurrogate, c);
+        pendingHighSurrogate = 0;
+        buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+        buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+        return;
+      }
+      pendingHighSurrogate = 0;
+      buffer[position++] = REPLACEMENT;
+    }
+    if (c < 0x80) {
+      buffer[position++] = (byte) c;
+    } else if (c < 0x800) {
+      buffer[position++] = (byte) (0xC0 | c >> 6);
+      buffer[position++] = (byte) (0x80 | c & 0x3F);
+    } else if (Character.isHighSurrogate(c)) {
+      pendingHighSurrogate = c;
+    } else if (Character.isLowSurrogate(c)) {
+      buffer[position++] = REPLACEMENT;
+    } else {
+      buffer[position++] = (byte) (0xE0 | c >> 12);
+      buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+      buffer[position++] = (byte) (0x80 | c & 0x3F);
+    }
+  }
+
+  private void writePendingSurrogate() throws IOException {
+    if (pendingHighSurrogate != 0) {
+      pendingHighSurrogate = 0;
+      if (position == buffer.length) {
+        flushBuffer();
+      }
+      buffer[position++] = REPLACEMENT;
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      outputStream.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
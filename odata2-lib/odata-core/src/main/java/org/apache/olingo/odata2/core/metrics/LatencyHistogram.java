@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations with buckets of exponentially growing size.
+ * Bucket <code>i</code> counts durations from <code>2<sup>i-1</sup></code> to
+ * <code>2<sup>i</sup>-1</code> nanoseconds, so percentiles are exact within a factor of two.
+ * Like the {@link StripedCounter}, each thread updates its own stripe of buckets without locking.
+ * 
+ */
+public class LatencyHistogram {
+
+  static final int BUCKETS = 48;
+  private static final int SUM = BUCKETS;
+  /** size of a stripe in longs, a multiple of a cache line */
+  private static final int STRIDE = 56;
+
+  private final AtomicLongArray cells = new AtomicLongArray(StripedCounter.STRIPES * STRIDE);
+
+  /**
+   * Records a duration.
+   * @param nanos duration in nanoseconds; negative values are counted as zero
+   */
+  public void record(final long nanos) {
+    final long value = nanos < 0 ? 0 : nanos;
+    final int base = StripedCounter.stripe() * STRIDE;
+    cells.incrementAndGet(base + bucket(value));
+    cells.addAndGet(base + SUM, value);
+  }
+
+  static int bucket(final long nanos) {
+    return Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+  }
+
+  public LatencyStatistics getStatistics() {
+    long[] counts = new long[BUCKETS];
+    long count = 0;
+    long sum = 0;
+    for (int stripe = 0; stripe < StripedCounter.STRIPES; stripe++) {
+      final int base = stripe * STRIDE;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        final long bucketCount = cells.get(base + bucket);
+        counts[bucket] += bucketCount;
+        count += bucketCount;
+      }
+      sum += cells.get(base + SUM);
+    }
+    return new LatencyStatistics(count,
+        count == 0 ? 0 : sum / count / 1000,
+        percentile(counts, count, 0.5) / 1000,
+        percentile(counts, count, 0.9) / 1000,
+        percentile(counts, count, 0.99) / 1000);
+  }
+
+  /** Returns the upper bound of the bucket containing the percentile in nanoseconds. */
+  private static long percentile(final long[] counts, final long count, final double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = (long) Math.ceil(count * percentile);
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  public void reset() {
+    for (int i = 0; i < cells.length(); i++) {
+      cells.set(i, 0);
+    }
+  }
+}
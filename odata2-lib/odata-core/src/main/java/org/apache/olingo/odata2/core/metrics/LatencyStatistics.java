@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of a {@link LatencyHistogram}; all durations are in microseconds.
+ * Percentiles are upper bounds, exact within a factor of two.
+ * 
+ */
+public class LatencyStatistics {
+
+  private final long count;
+  private final long mean;
+  private final long median;
+  private final long percentile90;
+  private final long percentile99;
+
+  @ConstructorProperties({ "count", "mean", "median", "percentile90", "percentile99" })
+  public LatencyStatistics(final long count, final long mean, final long median, final long percentile90,
+      final long percentile99) {
+    this.count = count;
+    this.mean = mean;
+    this.median = median;
+    this.percentile90 = percentile90;
+    this.percentile99 = percentile99;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getMean() {
+    return mean;
+  }
+
+  public long getMedian() {
+    return median;
+  }
+
+  public long getPercentile90() {
+    return percentile90;
+  }
+
+  public long getPercentile99() {
+    return percentile99;
+  }
+
+  @Override
+  public String toString() {
+    return "count: " + count + ", mean: " + mean + ", median: " + median
+        + ", 90%: " + percentile90 + ", 99%: " + percentile99;
+  }
+}
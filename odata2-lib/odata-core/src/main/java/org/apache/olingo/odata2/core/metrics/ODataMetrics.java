@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.olingo.odata2.api.ODataMetricsRegistry;
+import org.apache.olingo.odata2.core.uri.expression.ExpressionCache;
+
+/**
+ * Default {@link ODataMetricsRegistry} aggregating the metrics per URI type, per entity set, and per phase.
+ * All values are kept in {@link StripedCounter}s and {@link LatencyHistogram}s so recording does not lock;
+ * only the first request for a new URI type or entity set allocates.
+ * 
+ */
+public class ODataMetrics implements ODataMetricsRegistry, ODataMetricsMXBean {
+
+  public static final String OBJECT_NAME = "org.apache.olingo.odata2:type=ODataMetrics";
+
+  private static final String NONE = "(none)";
+
+  private final StripedCounter requests = new StripedCounter();
+  private final StripedCounter errors = new StripedCounter();
+  private final StripedCounter rows = new StripedCounter();
+  private final StripedCounter bytes = new StripedCounter();
+  private final ConcurrentMap<String, LatencyHistogram> latencyByUriType =
+      new ConcurrentHashMap<String, LatencyHistogram>();
+  private final ConcurrentMap<String, LatencyHistogram> latencyByEntitySet =
+      new ConcurrentHashMap<String, LatencyHistogram>();
+  private final ConcurrentMap<String, StripedCounter> rowsByEntitySet =
+      new ConcurrentHashMap<String, StripedCounter>();
+  private final ConcurrentMap<String, StripedCounter> bytesByEntitySet =
+      new ConcurrentHashMap<String, StripedCounter>();
+  private final LatencyHistogram[] latencyByPhase = newPhaseHistograms();
+  private final ConcurrentMap<String, LatencyHistogram[]> phaseLatencyByUriType =
+      new ConcurrentHashMap<String, LatencyHistogram[]>();
+  private final ConcurrentMap<String, LatencyHistogram[]> phaseLatencyByEntitySet =
+      new ConcurrentHashMap<String, LatencyHistogram[]>();
+
+  private static final ODataMetrics DEFAULT = new ODataMetrics();
+  private static int defaultUsers;
+  private static ObjectName defaultName;
+
+  /**
+   * Returns the registry used if the service factory does not provide one;
+   * it is visible via JMX while {@link #registerDefault()} has been called more often than
+   * {@link #unregisterDefault()}.
+   */
+  public static ODataMetrics getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Registers the default registry at the platform MBean server if it is not registered yet.
+   * Each call must be balanced by a call of {@link #unregisterDefault()}, e.g., in the <code>init</code>
+   * and <code>destroy</code> methods of a servlet or, for JAX-RS deployments, in the
+   * {@link org.apache.olingo.odata2.core.rest.app.ODataMetricsListener}.
+   */
+  public static synchronized void registerDefault() {
+    if (defaultUsers++ == 0) {
+      try {
+        defaultName = DEFAULT.register(ManagementFactory.getPlatformMBeanServer());
+      } catch (JMException e) {
+        // The metrics are still recorded; they are just not visible via JMX.
+      } catch (SecurityException e) {
+        // The metrics are still recorded; they are just not visible via JMX.
+      }
+    }
+  }
+
+  /**
+   * Unregisters the default registry from the platform MBean server when the last user is gone
+   * so that the MBean does not keep the class loader of an undeployed web application alive.
+   */
+  public static synchronized void unregisterDefault() {
+    if (defaultUsers > 0 && --defaultUsers == 0 && defaultName != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(defaultName);
+      } catch (JMException e) {
+        // The MBean has already been removed by someone else.
+      } catch (SecurityException e) {
+        // The MBean could not have been registered either.
+      }
+      defaultName = null;
+    }
+  }
+
+  /**
+   * Registers this registry as MBean with the name {@link #OBJECT_NAME}.
+   * If the name is taken, e.g., by the library of another web application, an instance key is added.
+   * @return the name of the registered MBean
+   */
+  public ObjectName register(final MBeanServer server) throws JMException {
+    ObjectName name = new ObjectName(OBJECT_NAME);
+    for (int instance = 2;; instance++) {
+      try {
+        server.registerMBean(this, name);
+        return name;
+      } catch (InstanceAlreadyExistsException e) {
+        name = new ObjectName(OBJECT_NAME + ",instance=" + instance);
+      }
+    }
+  }
+
+  @Override
+  public void recordRequest(final String uriType, final String entitySetName, final int statusCode,
+      final long nanos, final long rowCount) {
+    requests.increment();
+    if (statusCode >= 400) {
+      errors.increment();
+    }
+    get(latencyByUriType, uriType).record(nanos);
+    if (entitySetName != null) {
+      get(latencyByEntitySet, entitySetName).record(nanos);
+    }
+    if (rowCount > 0) {
+      rows.add(rowCount);
+      getCounter(rowsByEntitySet, entitySetName).add(rowCount);
+    }
+  }
+
+  @Override
+  public void recordPhase(final String uriType, final String entitySetName, final Phase phase, final long nanos) {
+    latencyByPhase[phase.ordinal()].record(nanos);
+    getPhases(phaseLatencyByUriType, uriType)[phase.ordinal()].record(nanos);
+    if (entitySetName != null) {
+      getPhases(phaseLatencyByEntitySet, entitySetName)[phase.ordinal()].record(nanos);
+    }
+  }
+
+  @Override
+  public void recordBytes(final String uriType, final String entitySetName, final long byteCount) {
+    bytes.add(byteCount);
+    getCounter(bytesByEntitySet, entitySetName).add(byteCount);
+  }
+
+  private static LatencyHistogram get(final ConcurrentMap<String, LatencyHistogram> histograms, final String key) {
+    final String name = key == null ? NONE : key;
+    LatencyHistogram histogram = histograms.get(name);
+    if (histogram == null) {
+      histogram = new LatencyHistogram();
+      final LatencyHistogram previous = histograms.putIfAbsent(name, histogram);
+      if (previous != null) {
+        histogram = previous;
+      }
+    }
+    return histogram;
+  }
+
+  private static LatencyHistogram[] getPhases(final ConcurrentMap<String, LatencyHistogram[]> histograms,
+      final String key) {
+    final String name = key == null ? NONE : key;
+    LatencyHistogram[] phases = histograms.get(name);
+    if (phases == null) {
+      phases = newPhaseHistograms();
+      final LatencyHistogram[] previous = histograms.putIfAbsent(name, phases);
+      if (previous != null) {
+        phases = previous;
+      }
+    }
+    return phases;
+  }
+
+  private static LatencyHistogram[] newPhaseHistograms() {
+    LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+    return histograms;
+  }
+
+  private static StripedCounter getCounter(final ConcurrentMap<String, StripedCounter> counters,
+      final String key) {
+    final String name = key == null ? NONE : key;
+    StripedCounter counter = counters.get(name);
+    if (counter == null) {
+      counter = new StripedCounter();
+      final StripedCounter previous = counters.putIfAbsent(name, counter);
+      if (previous != null) {
+        counter = previous;
+      }
+    }
+    return counter;
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  @Override
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getRowCount() {
+    return rows.sum();
+  }
+
+  @Override
+  public long getByteCount() {
+    return bytes.sum();
+  }
+
+  @Override
+  public Map<String, LatencyStatistics> getLatencyByUriType() {
+    return getStatistics(latencyByUriType);
+  }
+
+  @Override
+  public Map<String, LatencyStatistics> getLatencyByEntitySet() {
+    return getStatistics(latencyByEntitySet);
+  }
+
+  @Override
+  public Map<String, LatencyStatistics> getLatencyByPhase() {
+    return getPhaseStatistics(latencyByPhase);
+  }
+
+  @Override
+  public Map<String, Map<String, LatencyStatistics>> getPhaseLatencyByUriType() {
+    return getPhaseStatistics(phaseLatencyByUriType);
+  }
+
+  @Override
+  public Map<String, Map<String, LatencyStatistics>> getPhaseLatencyByEntitySet() {
+    return getPhaseStatistics(phaseLatencyByEntitySet);
+  }
+
+  @Override
+  public Map<String, Long> getRowsByEntitySet() {
+    return getSums(rowsByEntitySet);
+  }
+
+  @Override
+  public Map<String, Long> getBytesByEntitySet() {
+    return getSums(bytesByEntitySet);
+  }
+
+  @Override
+  public long getExpressionCacheHitCount() {
+    return ExpressionCache.getTotalHitCount();
+  }
+
+  @Override
+  public long getExpressionCacheMissCount() {
+    return ExpressionCache.getTotalMissCount();
+  }
+
+  private static Map<String, LatencyStatistics> getStatistics(final Map<String, LatencyHistogram> histograms) {
+    Map<String, LatencyStatistics> statistics = new TreeMap<String, LatencyStatistics>();
+    for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+      statistics.put(entry.getKey(), entry.getValue().getStatistics());
+    }
+    return statistics;
+  }
+
+  private static Map<String, LatencyStatistics> getPhaseStatistics(final LatencyHistogram[] histograms) {
+    Map<String, LatencyStatistics> statistics = new TreeMap<String, LatencyStatistics>();
+    for (final Phase phase : Phase.values()) {
+      statistics.put(phase.name(), histograms[phase.ordinal()].getStatistics());
+    }
+    return statistics;
+  }
+
+  private static Map<String, Map<String, LatencyStatistics>> getPhaseStatistics(
+      final Map<String, LatencyHistogram[]> histograms) {
+    Map<String, Map<String, LatencyStatistics>> statistics = new TreeMap<String, Map<String, LatencyStatistics>>();
+    for (final Map.Entry<String, LatencyHistogram[]> entry : histograms.entrySet()) {
+      statistics.put(entry.getKey(), getPhaseStatistics(entry.getValue()));
+    }
+    return statistics;
+  }
+
+  private static Map<String, Long> getSums(final Map<String, StripedCounter> counters) {
+    Map<String, Long> sums = new TreeMap<String, Long>();
+    for (final Map.Entry<String, StripedCounter> entry : counters.entrySet()) {
+      sums.put(entry.getKey(), entry.getValue().sum());
+    }
+    return sums;
+  }
+
+  @Override
+  public void reset() {
+    requests.reset();
+    errors.reset();
+    rows.reset();
+    bytes.reset();
+    latencyByUriType.clear();
+    latencyByEntitySet.clear();
+    rowsByEntitySet.clear();
+    bytesByEntitySet.clear();
+    phaseLatencyByUriType.clear();
+    phaseLatencyByEntitySet.clear();
+    for (final LatencyHistogram histogram : latencyByPhase) {
+      histogram.reset();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link ODataMetrics}; durations are in microseconds.
+ * 
+ */
+public interface ODataMetricsMXBean {
+
+  long getRequestCount();
+
+  /** Returns the number of requests answered with a status code of 400 or above. */
+  long getErrorCount();
+
+  long getRowCount();
+
+  long getByteCount();
+
+  Map<String, LatencyStatistics> getLatencyByUriType();
+
+  Map<String, LatencyStatistics> getLatencyByEntitySet();
+
+  Map<String, LatencyStatistics> getLatencyByPhase();
+
+  /** Returns the latencies per phase, keyed by URI type and then by phase. */
+  Map<String, Map<String, LatencyStatistics>> getPhaseLatencyByUriType();
+
+  /** Returns the latencies per phase, keyed by entity set and then by phase. */
+  Map<String, Map<String, LatencyStatistics>> getPhaseLatencyByEntitySet();
+
+  Map<String, Long> getRowsByEntitySet();
+
+  Map<String, Long> getBytesByEntitySet();
+
+  /**
+   * Returns the number of $filter and $orderby expressions taken from the expression caches
+   * of all entity data models, independent of {@link #reset()}.
+   */
+  long getExpressionCacheHitCount();
+
+  /**
+   * Returns the number of $filter and $orderby expressions not found in the expression caches
+   * of all entity data models, independent of {@link #reset()}.
+   */
+  long getExpressionCacheMissCount();
+
+  void reset();
+}
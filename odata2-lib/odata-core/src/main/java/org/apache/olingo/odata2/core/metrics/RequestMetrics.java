@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.olingo.odata2.api.ODataMetricsRegistry;
+import org.apache.olingo.odata2.api.ODataMetricsRegistry.Phase;
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.edm.EdmException;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
+import org.apache.olingo.odata2.core.uri.UriInfoImpl;
+
+/**
+ * Collects the metrics of one request and hands them to the {@link ODataMetricsRegistry} when it is finished.
+ * <p>The metrics of the request handled by the current thread are kept in a thread-local variable
+ * so that the entity providers can add their serialization time without access to the context;
+ * requests handled within another request (i.e., batch parts) are measured separately.</p>
+ * <p>A response body written as {@link ODataStreamingOutput} is serialized only when the body is written;
+ * such a request is recorded once its body has been written the first time, including the writing time
+ * as serialization and the entries counted while writing.</p>
+ * 
+ */
+public final class RequestMetrics {
+
+  private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<RequestMetrics>();
+
+  private final ODataMetricsRegistry registry;
+  private final RequestMetrics outer;
+  private final long started;
+  private long total;
+  private long uriParsing;
+  private long processing;
+  private long serialization;
+  private long rows;
+
+  private RequestMetrics(final ODataMetricsRegistry registry) {
+    this.registry = registry;
+    outer = CURRENT.get();
+    CURRENT.set(this);
+    started = System.nanoTime();
+  }
+
+  /**
+   * Starts the measurement of a request for the current thread.
+   * @param serviceFactory the service factory which may provide an own {@link ODataMetricsRegistry}
+   */
+  public static RequestMetrics start(final ODataServiceFactory serviceFactory) {
+    final ODataMetricsRegistry registry =
+        serviceFactory == null ? null : serviceFactory.<ODataMetricsRegistry> getCallback(ODataMetricsRegistry.class);
+    return new RequestMetrics(registry == null ? ODataMetrics.getDefault() : registry);
+  }
+
+  /**
+   * Adds the time since <code>startedNanos</code> to the URI-parsing phase.
+   */
+  public void uriParsed(final long startedNanos) {
+    uriParsing += System.nanoTime() - startedNanos;
+  }
+
+  /**
+   * Adds the time since <code>startedNanos</code> to the processor phase.
+   */
+  public void processed(final long startedNanos) {
+    processing += System.nanoTime() - startedNanos;
+  }
+
+  /**
+   * Adds the time since <code>startedNanos</code> to the serialization phase
+   * of the request handled by the current thread, if any.
+   * @param startedNanos value of {@link System#nanoTime()} before the serialization
+   * @param rowCount number of written entries or links
+   */
+  public static void serialized(final long startedNanos, final int rowCount) {
+    final RequestMetrics current = CURRENT.get();
+    if (current != null) {
+      current.serialization += System.nanoTime() - startedNanos;
+      current.rows += rowCount;
+    }
+  }
+
+  /**
+   * Counts the entries taken from the iterator as rows of the request handled by the current thread
+   * at the time they are taken, i.e., also while a streamed response body is written.
+   */
+  public static <T> Iterator<T> countRows(final Iterator<T> iterator) {
+    return iterator == null ? null : new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public T next() {
+        final T next = iterator.next();
+        final RequestMetrics current = CURRENT.get();
+        if (current != null) {
+          current.rows++;
+        }
+        return next;
+      }
+
+      @Override
+      public void remove() {
+        iterator.remove();
+      }
+    };
+  }
+
+  /**
+   * Finishes the measurement and records it, or, for a streamed response body, wraps the body so that
+   * the measurement is recorded when the body has been written.
+   * The size of the response body is recorded when the body has been read or written completely.
+   * @param uriInfo the parsed request URI or <code>null</code>
+   * @param response the response
+   * @return the response whose body counts its bytes
+   */
+  public ODataResponse stop(final UriInfoImpl uriInfo, final ODataResponse response) {
+    total = System.nanoTime() - started;
+    if (outer == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(outer);
+    }
+
+    final String uriType = uriInfo == null || uriInfo.getUriType() == null ? null : uriInfo.getUriType().name();
+    final String entitySetName = getEntitySetName(uriInfo);
+    final int statusCode = response.getStatus().getStatusCode();
+    final Object entity = response.getEntity();
+    if (entity instanceof ODataStreamingOutput) {
+      return ODataResponse.fromResponse(response)
+          .entity(new MeteredStreamingOutput((ODataStreamingOutput) entity, this, uriType, entitySetName,
+              statusCode))
+          .build();
+    }
+
+    record(uriType, entitySetName, statusCode, 0);
+    if (entity instanceof FileInputStream) {
+      try {
+        registry.recordBytes(uriType, entitySetName,
+            ((FileInputStream) entity).getChannel().size() - ((FileInputStream) entity).getChannel().position());
+      } catch (final IOException e) {
+        // The size is not recorded for files that cannot be accessed.
+      }
+    } else if (entity instanceof InputStream) {
+      return ODataResponse.fromResponse(response)
+          .entity(new MeteredInputStream((InputStream) entity, registry, uriType, entitySetName)).build();
+    } else if (entity instanceof String) {
+      registry.recordBytes(uriType, entitySetName, utf8Length((String) entity));
+    } else if (entity instanceof byte[]) {
+      registry.recordBytes(uriType, entitySetName, ((byte[]) entity).length);
+    }
+    return response;
+  }
+
+  /**
+   * Records the request; the duration of writing a streamed body is added to the serialization.
+   */
+  private void record(final String uriType, final String entitySetName, final int statusCode,
+      final long writing) {
+    registry.recordRequest(uriType, entitySetName, statusCode, total + writing, rows);
+    registry.recordPhase(uriType, entitySetName, Phase.URI_PARSING, uriParsing);
+    registry.recordPhase(uriType, entitySetName, Phase.DISPATCH, Math.max(total - uriParsing - processing, 0));
+    registry.recordPhase(uriType, entitySetName, Phase.PROCESSOR, Math.max(processing - serialization, 0));
+    registry.recordPhase(uriType, entitySetName, Phase.SERIALIZATION, serialization + writing);
+  }
+
+  private static String getEntitySetName(final UriInfoImpl uriInfo) {
+    final EdmEntitySet entitySet = uriInfo == null ? null : uriInfo.getTargetEntitySet();
+    try {
+      return entitySet == null ? null : entitySet.getName();
+    } catch (final EdmException e) {
+      return null;
+    }
+  }
+
+  private static long utf8Length(final String value) {
+    long length = value.length();
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c >= 0x800 && (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE)) {
+        length += 2;
+      } else if (c >= 0x80) {
+        // Each half of a surrogate pair adds one byte to the four bytes of the pair.
+        length++;
+      }
+    }
+    return length;
+  }
+
+  private static class MeteredInputStream extends FilterInputStream {
+    private final ODataMetricsRegistry registry;
+    private final String uriType;
+    private final String entitySetName;
+    private long count;
+    private boolean recorded;
+
+    public MeteredInputStream(final InputStream in, final ODataMetricsRegistry registry, final String uriType,
+        final String entitySetName) {
+      super(in);
+      this.registry = registry;
+      this.uriType = uriType;
+      this.entitySetName = entitySetName;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b == -1) {
+        record();
+      } else {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int read = super.read(b, off, len);
+      if (read == -1) {
+        record();
+      } else {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      record();
+      super.close();
+    }
+
+    private void record() {
+      if (!recorded) {
+        recorded = true;
+        registry.recordBytes(uriType, entitySetName, count);
+      }
+    }
+  }
+
+  private static class MeteredStreamingOutput implements ODataStreamingOutput {
+    private final ODataStreamingOutput streamingOutput;
+    private final RequestMetrics metrics;
+    private final String uriType;
+    private final String entitySetName;
+    private final int statusCode;
+    private final AtomicBoolean written = new AtomicBoolean(false);
+
+    public MeteredStreamingOutput(final ODataStreamingOutput streamingOutput, final RequestMetrics metrics,
+        final String uriType, final String entitySetName, final int statusCode) {
+      this.streamingOutput = streamingOutput;
+      this.metrics = metrics;
+      this.uriType = uriType;
+      this.entitySetName = entitySetName;
+      this.statusCode = statusCode;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+      if (written.getAndSet(true)) {
+        // Only the first write belongs to the request.
+        streamingOutput.write(output);
+        return;
+      }
+      final long[] count = new long[1];
+      final RequestMetrics previous = CURRENT.get();
+      CURRENT.set(metrics);
+      final long writeStarted = System.nanoTime();
+      try {
+        streamingOutput.write(new FilterOutputStream(output) {
+          @Override
+          public void write(final int b) throws IOException {
+            out.write(b);
+            count[0]++;
+          }
+
+          @Override
+          public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count[0] += len;
+          }
+        });
+      } finally {
+        final long writing = System.nanoTime() - writeStarted;
+        if (previous == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+        metrics.record(uriType, entitySetName, statusCode, writing);
+        metrics.registry.recordBytes(uriType, entitySetName, count[0]);
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter which spreads concurrent updates over several cells to avoid contention between request threads.
+ * The cells are padded to separate cache lines; the value is the sum of all cells.
+ * 
+ */
+public class StripedCounter {
+
+  /** number of cells, a power of two */
+  static final int STRIPES = stripes();
+  /** distance between two cells in longs, i.e., 64 bytes */
+  private static final int PADDING = 8;
+
+  private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+  public void increment() {
+    cells.incrementAndGet(stripe() * PADDING);
+  }
+
+  public void add(final long delta) {
+    cells.addAndGet(stripe() * PADDING, delta);
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      sum += cells.get(i * PADDING);
+    }
+    return sum;
+  }
+
+  public void reset() {
+    for (int i = 0; i < STRIPES; i++) {
+      cells.set(i * PADDING, 0);
+    }
+  }
+
+  /**
+   * Returns the index of the cell for the current thread.
+   * Thread IDs are assigned sequentially so the threads of a pool are distributed evenly.
+   */
+  static int stripe() {
+    return (int) Thread.currentThread().getId() & (STRIPES - 1);
+  }
+
+  private static int stripes() {
+    final int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+    int stripes = 1;
+    while (stripes < processors) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+}
@@ -36,6 +36,7 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.olingo.odata2.api.ODataServiceFactory;
 import org.apache.olingo.odata2.api.exception.ODataBadRequestException;
 import org.apache.olingo.odata2.api.exception.ODataException;
+import org.apache.olingo.odata2.core.commons.ContentCoding;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
 import org.apache.olingo.odata2.core.rest.app.AbstractODataApplication;
 
@@ -118,6 +119,10 @@ public class ODataRootLocator {
     param.setRequest(request);
     param.setServletRequest(servletRequest);
     param.setPathSplit(pathSplit);
+    param.setCompressionThreshold(ContentCoding.parseThreshold(
+        servletConfig.getInitParameter(ODataServiceFactory.COMPRESSION_THRESHOLD_LABEL)));
+    param.setMaxDecodedSize(ContentCoding.parseMaxDecodedSize(
+        servletConfig.getInitParameter(ODataServiceFactory.MAX_DECODED_SIZE_LABEL)));
 
     return ODataSubLocator.create(param);
   }
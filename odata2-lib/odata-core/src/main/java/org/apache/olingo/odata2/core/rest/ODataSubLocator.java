@@ -18,6 +18,8 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.rest;
 
+import java.io.InputStream;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -40,6 +42,7 @@ import org.apache.olingo.odata2.api.processor.ODataRequest;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.core.ODataContextImpl;
 import org.apache.olingo.odata2.core.ODataRequestHandler;
+import org.apache.olingo.odata2.core.commons.ContentCoding;
 
 /**
  *  
@@ -51,6 +54,9 @@ public final class ODataSubLocator {
 
   private HttpServletRequest httpRequest;
 
+  private String acceptEncoding;
+  private int compressionThreshold;
+
   @GET
   public Response handleGet() throws ODataException {
     return handle(ODataHttpMethod.GET);
@@ -153,18 +159,28 @@ public final class ODataSubLocator {
     ODataRequestHandler requestHandler = new ODataRequestHandler(serviceFactory, service, context);
 
     final ODataResponse odataResponse = requestHandler.handle(request);
-    final Response response = RestUtil.convertResponse(odataResponse);
+    final Response response = RestUtil.convertResponse(odataResponse, acceptEncoding, compressionThreshold);
 
     return response;
   }
 
+  /**
+   * Compressed request bodies are only accepted if compression has been configured;
+   * otherwise the body is handed over as received, whatever its Content-Encoding header says.
+   */
+  private static InputStream decodeBody(final SubLocatorParameter param) throws ODataException {
+    final InputStream content = RestUtil.contentAsStream(RestUtil.extractRequestContent(param));
+    return param.getCompressionThreshold() < 0 ? content :
+        ContentCoding.decode(content, RestUtil.extractRequestContentEncoding(param), param.getMaxDecodedSize());
+  }
+
   public static ODataSubLocator create(final SubLocatorParameter param) throws ODataException {
     ODataSubLocator subLocator = new ODataSubLocator();
 
     subLocator.serviceFactory = param.getServiceFactory();
     subLocator.request = ODataRequest.acceptableLanguages(param.getHttpHeaders().getAcceptableLanguages())
         .acceptHeaders(RestUtil.extractAcceptHeaders(param))
-        .body(RestUtil.contentAsStream(RestUtil.extractRequestContent(param)))
+        .body(decodeBody(param))
         .pathInfo(RestUtil.buildODataPathInfo(param))
         .queryParameters(RestUtil.convertToSinglevaluedMap(param.getUriInfo().getQueryParameters()))
         .requestHeaders(param.getHttpHeaders().getRequestHeaders())
@@ -172,6 +188,8 @@ public final class ODataSubLocator {
         .build();
 
     subLocator.httpRequest = param.getServletRequest();
+    subLocator.acceptEncoding = RestUtil.extractAcceptEncoding(param);
+    subLocator.compressionThreshold = param.getCompressionThreshold();
 
     return subLocator;
   }
@@ -21,6 +21,7 @@ package org.apache.olingo.odata2.core.rest;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -30,12 +31,14 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 
 import org.apache.olingo.odata2.api.commons.HttpHeaders;
@@ -44,9 +47,11 @@ import org.apache.olingo.odata2.api.exception.ODataException;
 import org.apache.olingo.odata2.api.exception.ODataNotFoundException;
 import org.apache.olingo.odata2.api.exception.ODataUnsupportedMediaTypeException;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.api.uri.PathSegment;
 import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
 import org.apache.olingo.odata2.core.PathInfoImpl;
+import org.apache.olingo.odata2.core.commons.ContentCoding;
 import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.commons.Decoder;
 
@@ -57,7 +62,8 @@ public class RestUtil {
   public static Response convertResponse(final ODataResponse odataResponse) {
     try {
       ResponseBuilder responseBuilder =
-          Response.noContent().status(odataResponse.getStatus().getStatusCode()).entity(odataResponse.getEntity());
+          Response.noContent().status(odataResponse.getStatus().getStatusCode())
+              .entity(convertEntity(odataResponse.getEntity()));
 
       for (final String name : odataResponse.getHeaderNames()) {
         responseBuilder = responseBuilder.header(name, odataResponse.getHeader(name));
@@ -77,6 +83,109 @@ public class RestUtil {
     }
   }
 
+  /**
+   * Converts the OData response into a JAX-RS response whose body is compressed
+   * with a content coding accepted by the client if it is at least as large as the threshold.
+   * Streamed content is compressed regardless of its size which is not known in advance.
+   * @param odataResponse the OData response
+   * @param acceptEncoding the value of the Accept-Encoding request header or <code>null</code>
+   * @param compressionThreshold minimum size in bytes of a compressed body;
+   * a negative value switches compression off
+   * @return the JAX-RS response
+   * @throws ODataException if the response body cannot be read
+   */
+  public static Response convertResponse(final ODataResponse odataResponse, final String acceptEncoding,
+      final int compressionThreshold) throws ODataException {
+    Object entity = odataResponse.getEntity();
+    if (compressionThreshold < 0 || entity == null
+        || odataResponse.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+        || !ContentCoding.isCompressible(odataResponse.getContentHeader())) {
+      return convertResponse(odataResponse);
+    }
+
+    try {
+      String coding = ContentCoding.negotiate(acceptEncoding);
+      byte[] prefix = null;
+      if (coding != null) {
+        if (entity instanceof String) {
+          prefix = ((String) entity).getBytes("UTF-8");
+        } else if (entity instanceof InputStream) {
+          prefix = ContentCoding.readPrefix((InputStream) entity, compressionThreshold);
+          if (prefix.length < compressionThreshold) {
+            // The content has been read completely.
+            ((InputStream) entity).close();
+            entity = prefix;
+          }
+        } else if (!(entity instanceof ODataStreamingOutput)) {
+          coding = null;
+        }
+        if (prefix != null && prefix.length < compressionThreshold) {
+          coding = null;
+        }
+      }
+
+      ResponseBuilder responseBuilder = Response.noContent().status(odataResponse.getStatus().getStatusCode())
+          .entity(coding == null ? convertEntity(entity) : encodeEntity(entity, prefix, coding));
+      for (final String name : odataResponse.getHeaderNames()) {
+        // The length of the compressed body is not known in advance.
+        if (!HttpHeaders.VARY.equalsIgnoreCase(name)
+            && (coding == null || !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))) {
+          responseBuilder = responseBuilder.header(name, odataResponse.getHeader(name));
+        }
+      }
+      final String vary = odataResponse.getHeader(HttpHeaders.VARY);
+      responseBuilder = responseBuilder.header(HttpHeaders.VARY,
+          vary == null ? HttpHeaders.ACCEPT_ENCODING : vary + ", " + HttpHeaders.ACCEPT_ENCODING);
+      if (coding != null) {
+        responseBuilder = responseBuilder.header(HttpHeaders.CONTENT_ENCODING, coding);
+      }
+
+      return responseBuilder.build();
+    } catch (final IOException e) {
+      try {
+        odataResponse.close();
+      } catch (IOException inner) {
+        // if close throw an exception we ignore these and throw our exception
+      }
+      throw new ODataException("Error reading response content.", e);
+    }
+  }
+
+  private static StreamingOutput encodeEntity(final Object entity, final byte[] prefix, final String coding) {
+    return new StreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        DeflaterOutputStream encoded = ContentCoding.encode(output, coding);
+        if (entity instanceof String) {
+          encoded.write(prefix);
+        } else if (entity instanceof InputStream) {
+          try {
+            encoded.write(prefix);
+            ContentCoding.copy((InputStream) entity, encoded);
+          } finally {
+            ((InputStream) entity).close();
+          }
+        } else if (entity instanceof ODataStreamingOutput) {
+          ((ODataStreamingOutput) entity).write(encoded);
+        }
+        encoded.finish();
+      }
+    };
+  }
+
+  private static Object convertEntity(final Object entity) {
+    if (entity instanceof ODataStreamingOutput) {
+      final ODataStreamingOutput streamingOutput = (ODataStreamingOutput) entity;
+      return new StreamingOutput() {
+        @Override
+        public void write(final OutputStream output) throws IOException {
+          streamingOutput.write(output);
+        }
+      };
+    }
+    return entity;
+  }
+
   /**
    * Return http header value.
    * consider first header value only
@@ -113,6 +222,24 @@ public class RestUtil {
     }
   }
 
+  /**
+   * Extracts the value of the Content-Encoding header of the request.
+   * @param param initialization parameters
+   * @return the content encoding or <code>null</code>
+   */
+  public static String extractRequestContentEncoding(final SubLocatorParameter param) {
+    return getSafeHeader(HttpHeaders.CONTENT_ENCODING, param.getHttpHeaders());
+  }
+
+  /**
+   * Extracts the value of the Accept-Encoding header of the request.
+   * @param param initialization parameters
+   * @return the accepted content codings or <code>null</code>
+   */
+  public static String extractAcceptEncoding(final SubLocatorParameter param) {
+    return getSafeHeader(HttpHeaders.ACCEPT_ENCODING, param.getHttpHeaders());
+  }
+
   /**
    * Extracts the request content from the servlet as input stream.
    * @param param initialization parameters
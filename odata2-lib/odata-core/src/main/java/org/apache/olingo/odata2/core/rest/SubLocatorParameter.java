@@ -24,6 +24,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Request;
 
 import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.core.commons.ContentCoding;
 
 /**
  *  
@@ -37,6 +38,8 @@ public class SubLocatorParameter {
   private int pathSplit;
   private ODataServiceFactory serviceFactory;
   private HttpServletRequest servletRequest;
+  private int compressionThreshold = -1;
+  private long maxDecodedSize = ContentCoding.DEFAULT_MAX_DECODED_SIZE;
 
   public ODataServiceFactory getServiceFactory() {
     return serviceFactory;
@@ -93,4 +96,20 @@ public class SubLocatorParameter {
   public HttpServletRequest getServletRequest() {
     return servletRequest;
   }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  public void setCompressionThreshold(final int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  public long getMaxDecodedSize() {
+    return maxDecodedSize;
+  }
+
+  public void setMaxDecodedSize(final long maxDecodedSize) {
+    this.maxDecodedSize = maxDecodedSize;
+  }
 }
@@ -31,6 +31,7 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
@@ -38,7 +39,9 @@ import org.apache.olingo.odata2.core.rest.ODataExceptionMapperImpl;
 import org.apache.olingo.odata2.core.rest.ODataRootLocator;
 
 /**
- *  
+ * JAX-RS application serving OData through the {@link ODataRootLocator}.
+ * <p>Declare the {@link ODataMetricsListener} in the <code>web.xml</code> to publish the request metrics
+ * via JMX.</p>
  */
 public class ODataApplication extends Application {
 
@@ -48,6 +51,7 @@ public class ODataApplication extends Application {
     classes.add(ODataRootLocator.class);
     classes.add(ODataExceptionMapperImpl.class);
     classes.add(MyProvider.class);
+    classes.add(StreamingProvider.class);
     return classes;
   }
 
@@ -85,4 +89,33 @@ public class ODataApplication extends Application {
       entityStream.flush();
     }
   }
+
+  /**
+   * Writes streamed multipart entities (e.g. batch responses) unchanged, so that the multipart support
+   * of the JAX-RS implementation does not interpret them.
+   */
+  @Provider
+  @Produces("multipart/mixed")
+  public static final class StreamingProvider implements MessageBodyWriter<StreamingOutput> {
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+        final MediaType mediaType) {
+      return StreamingOutput.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(final StreamingOutput t, final Class<?> type, final Type genericType,
+        final Annotation[] annotations, final MediaType mediaType) {
+      return -1;
+    }
+
+    @Override
+    public void writeTo(final StreamingOutput t, final Class<?> type, final Type genericType,
+        final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+        final OutputStream entityStream) throws IOException, WebApplicationException {
+      t.write(entityStream);
+      entityStream.flush();
+    }
+  }
 }
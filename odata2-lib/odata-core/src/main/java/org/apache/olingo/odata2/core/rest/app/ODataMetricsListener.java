@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.rest.app;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.olingo.odata2.core.metrics.ODataMetrics;
+
+/**
+ * Publishes the default metrics registry via JMX for the lifetime of a web application
+ * which serves OData through the {@link ODataApplication} of a JAX-RS implementation.
+ * <p>JAX-RS applications have no life-cycle callbacks of their own, so this listener has to be declared
+ * in the <code>web.xml</code> next to the JAX-RS servlet:</p>
+ * <pre>
+ * &lt;listener&gt;
+ *   &lt;listener-class&gt;org.apache.olingo.odata2.core.rest.app.ODataMetricsListener&lt;/listener-class&gt;
+ * &lt;/listener&gt;
+ * </pre>
+ * <p>The MBean is unregistered when the web application is stopped, so that it does not keep
+ * the class loader of an undeployed web application alive.
+ * The {@link org.apache.olingo.odata2.core.servlet.ODataServlet} registers the MBean itself.</p>
+ */
+public class ODataMetricsListener implements ServletContextListener {
+
+  @Override
+  public void contextInitialized(final ServletContextEvent event) {
+    ODataMetrics.registerDefault();
+  }
+
+  @Override
+  public void contextDestroyed(final ServletContextEvent event) {
+    ODataMetrics.unregisterDefault();
+  }
+}
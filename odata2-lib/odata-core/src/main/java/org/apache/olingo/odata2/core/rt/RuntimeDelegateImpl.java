@@ -98,6 +98,11 @@ public class RuntimeDelegateImpl extends RuntimeDelegateInstance {
     return new ODataSingleProcessorService(provider, processor);
   }
 
+  @Override
+  protected ODataService createODataSingleProcessorService(final Edm edm, final ODataSingleProcessor processor) {
+    return new ODataSingleProcessorService(edm, processor);
+  }
+
   @Override
   protected EdmProvider createEdmProvider(final InputStream metadataXml, final boolean validate)
       throws EntityProviderException {
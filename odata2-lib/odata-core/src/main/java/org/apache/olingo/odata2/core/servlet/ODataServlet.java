@@ -18,9 +18,18 @@
  ******************************************************************************/
 package org.apache.olingo.odata2.core.servlet;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DeflaterOutputStream;
 
+import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -41,9 +50,12 @@ import org.apache.olingo.odata2.api.exception.ODataNotImplementedException;
 import org.apache.olingo.odata2.api.processor.ODataContext;
 import org.apache.olingo.odata2.api.processor.ODataRequest;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.core.ODataContextImpl;
 import org.apache.olingo.odata2.core.ODataRequestHandler;
+import org.apache.olingo.odata2.core.commons.ContentCoding;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.core.metrics.ODataMetrics;
 
 public class ODataServlet extends HttpServlet {
 
@@ -53,78 +65,158 @@ public class ODataServlet extends HttpServlet {
    * 
    */
   private static final long serialVersionUID = 1L;
-  private ODataServiceFactory serviceFactory;
+  private String factoryClassName;
+  private Class<?> factoryClass;
+  private final ConcurrentMap<ClassLoader, Class<?>> factoryClasses =
+      new ConcurrentHashMap<ClassLoader, Class<?>>();
+  private final ConcurrentMap<ClassLoader, ODataServiceFactory> serviceFactories =
+      new ConcurrentHashMap<ClassLoader, ODataServiceFactory>();
   private int pathSplit = 0;
+  private int compressionThreshold = -1;
+  private long maxDecodedSize = ContentCoding.DEFAULT_MAX_DECODED_SIZE;
 
   @Override
-  protected void service(final HttpServletRequest req, final HttpServletResponse resp) throws IOException {
-    final String factoryClassName = getInitParameter(ODataServiceFactory.FACTORY_LABEL);
+  public void init() throws ServletException {
+    factoryClassName = getInitParameter(ODataServiceFactory.FACTORY_LABEL);
     if (factoryClassName == null) {
-      throw new ODataRuntimeException("config missing: org.apache.olingo.odata2.processor.factory");
+      throw new ODataRuntimeException("config missing: " + ODataServiceFactory.FACTORY_LABEL);
     }
+    pathSplit = parsePathSplit(getInitParameter(ODataServiceFactory.PATH_SPLIT_LABEL));
+    compressionThreshold = ContentCoding.parseThreshold(
+        getInitParameter(ODataServiceFactory.COMPRESSION_THRESHOLD_LABEL));
+    maxDecodedSize = ContentCoding.parseMaxDecodedSize(getInitParameter(ODataServiceFactory.MAX_DECODED_SIZE_LABEL));
     try {
+      factoryClass = Class.forName(factoryClassName);
+    } catch (ClassNotFoundException e) {
+      // The factory class could be visible only to the class loader given with the request.
+      factoryClass = null;
+    }
+    ODataMetrics.registerDefault();
+  }
 
-      ClassLoader cl = (ClassLoader) req.getAttribute(ODataServiceFactory.FACTORY_CLASSLOADER_LABEL);
-      if (cl == null) {
-        serviceFactory = (ODataServiceFactory) Class.forName(factoryClassName).newInstance();
-      } else {
-        serviceFactory = (ODataServiceFactory) Class.forName(factoryClassName, true, cl).newInstance();
-      }
+  @Override
+  public void destroy() {
+    serviceFactories.clear();
+    factoryClasses.clear();
+    ODataMetrics.unregisterDefault();
+    super.destroy();
+  }
 
-    } catch (Exception e) {
-      throw new ODataRuntimeException(e);
-    }
-    final String pathSplitAsString = getInitParameter(ODataServiceFactory.PATH_SPLIT_LABEL);
-    if (pathSplitAsString != null) {
-      pathSplit = Integer.parseInt(pathSplitAsString);
-    }
+  @Override
+  protected void service(final HttpServletRequest req, final HttpServletResponse resp) throws IOException {
+    final ODataServiceFactory serviceFactory = getServiceFactory(req);
     String xHttpMethod = req.getHeader("X-HTTP-Method");
     String xHttpMethodOverride = req.getHeader("X-HTTP-Method-Override");
     if (xHttpMethod != null && xHttpMethodOverride != null) {
       if (!xHttpMethod.equalsIgnoreCase(xHttpMethodOverride)) {
         ODataExceptionWrapper wrapper = new ODataExceptionWrapper(req);
-        createResponse(resp, wrapper.wrapInExceptionResponse(
+        createResponse(req, resp, wrapper.wrapInExceptionResponse(
             new ODataBadRequestException(ODataBadRequestException.AMBIGUOUS_XMETHOD)));
       }
     }
 
     if (req.getPathInfo() != null) {
-      handle(req, resp, xHttpMethod, xHttpMethodOverride);
+      handle(req, resp, serviceFactory, xHttpMethod, xHttpMethodOverride);
     } else {
       handleRedirect(req, resp);
     }
   }
 
-  private void handle(final HttpServletRequest req, final HttpServletResponse resp, final String xHttpMethod,
-      final String xHttpMethodOverride) throws IOException {
+  private static int parsePathSplit(final String pathSplitAsString) {
+    if (pathSplitAsString == null) {
+      return 0;
+    }
+    try {
+      final int pathSplit = Integer.parseInt(pathSplitAsString.trim());
+      if (pathSplit < 0) {
+        throw new ODataRuntimeException("config invalid: " + ODataServiceFactory.PATH_SPLIT_LABEL
+            + " must not be negative but is " + pathSplit);
+      }
+      return pathSplit;
+    } catch (NumberFormatException e) {
+      throw new ODataRuntimeException("config invalid: " + ODataServiceFactory.PATH_SPLIT_LABEL
+          + " is not a number: " + pathSplitAsString, e);
+    }
+  }
+
+  /**
+   * Returns the service factory for the request.
+   * A new factory is created for each request unless the factory declares itself
+   * {@link ODataServiceFactory#isThreadSafe() thread-safe}; then one instance is shared
+   * per class loader (the one given with the request or the one of this servlet).
+   */
+  private ODataServiceFactory getServiceFactory(final HttpServletRequest req) {
+    final ClassLoader cl = (ClassLoader) req.getAttribute(ODataServiceFactory.FACTORY_CLASSLOADER_LABEL);
+    final ClassLoader key = cl == null ? getClass().getClassLoader() : cl;
+    ODataServiceFactory factory = serviceFactories.get(key);
+    if (factory == null) {
+      factory = createServiceFactory(getFactoryClass(cl));
+      if (factory.isThreadSafe()) {
+        final ODataServiceFactory previous = serviceFactories.putIfAbsent(key, factory);
+        if (previous != null) {
+          factory = previous;
+        }
+      }
+    }
+    return factory;
+  }
+
+  private Class<?> getFactoryClass(final ClassLoader cl) {
+    if (cl == null && factoryClass != null) {
+      return factoryClass;
+    }
+    final ClassLoader key = cl == null ? getClass().getClassLoader() : cl;
+    Class<?> clazz = factoryClasses.get(key);
+    if (clazz == null) {
+      try {
+        clazz = Class.forName(factoryClassName, true, key);
+      } catch (ClassNotFoundException e) {
+        throw new ODataRuntimeException(e);
+      }
+      factoryClasses.putIfAbsent(key, clazz);
+    }
+    return clazz;
+  }
+
+  private static ODataServiceFactory createServiceFactory(final Class<?> clazz) {
+    try {
+      return (ODataServiceFactory) clazz.newInstance();
+    } catch (Exception e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  private void handle(final HttpServletRequest req, final HttpServletResponse resp,
+      final ODataServiceFactory serviceFactory, final String xHttpMethod, final String xHttpMethodOverride)
+      throws IOException {
     String method = req.getMethod();
     if (ODataHttpMethod.GET.name().equals(method)) {
-      handleRequest(req, ODataHttpMethod.GET, resp);
+      handleRequest(req, ODataHttpMethod.GET, resp, serviceFactory);
     } else if (ODataHttpMethod.POST.name().equals(method)) {
       if (xHttpMethod == null && xHttpMethodOverride == null) {
-        handleRequest(req, ODataHttpMethod.POST, resp);
+        handleRequest(req, ODataHttpMethod.POST, resp, serviceFactory);
       } else if (xHttpMethod == null && xHttpMethodOverride != null) {
         /* tunneling */
-        boolean methodHandled = handleHttpTunneling(req, resp, xHttpMethodOverride);
+        boolean methodHandled = handleHttpTunneling(req, resp, serviceFactory, xHttpMethodOverride);
         if (!methodHandled) {
           createMethodNotAllowedResponse(req, ODataHttpException.COMMON, resp);
         }
       } else {
         /* tunneling */
-        boolean methodHandled = handleHttpTunneling(req, resp, xHttpMethod);
+        boolean methodHandled = handleHttpTunneling(req, resp, serviceFactory, xHttpMethod);
         if (!methodHandled) {
           createNotImplementedResponse(req, ODataNotImplementedException.TUNNELING, resp);
         }
       }
 
     } else if (ODataHttpMethod.PUT.name().equals(method)) {
-      handleRequest(req, ODataHttpMethod.PUT, resp);
+      handleRequest(req, ODataHttpMethod.PUT, resp, serviceFactory);
     } else if (ODataHttpMethod.DELETE.name().equals(method)) {
-      handleRequest(req, ODataHttpMethod.DELETE, resp);
+      handleRequest(req, ODataHttpMethod.DELETE, resp, serviceFactory);
     } else if (ODataHttpMethod.PATCH.name().equals(method)) {
-      handleRequest(req, ODataHttpMethod.PATCH, resp);
+      handleRequest(req, ODataHttpMethod.PATCH, resp, serviceFactory);
     } else if (ODataHttpMethod.MERGE.name().equals(method)) {
-      handleRequest(req, ODataHttpMethod.MERGE, resp);
+      handleRequest(req, ODataHttpMethod.MERGE, resp, serviceFactory);
     } else if (HTTP_METHOD_HEAD.equals(method) || HTTP_METHOD_OPTIONS.equals(method)) {
       createNotImplementedResponse(req, ODataNotImplementedException.COMMON, resp);
     } else {
@@ -133,19 +225,19 @@ public class ODataServlet extends HttpServlet {
   }
 
   private boolean handleHttpTunneling(final HttpServletRequest req, final HttpServletResponse resp,
-      final String xHttpMethod) throws IOException {
+      final ODataServiceFactory serviceFactory, final String xHttpMethod) throws IOException {
     if (ODataHttpMethod.MERGE.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.MERGE, resp);
+      handleRequest(req, ODataHttpMethod.MERGE, resp, serviceFactory);
     } else if (ODataHttpMethod.PATCH.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.PATCH, resp);
+      handleRequest(req, ODataHttpMethod.PATCH, resp, serviceFactory);
     } else if (ODataHttpMethod.DELETE.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.DELETE, resp);
+      handleRequest(req, ODataHttpMethod.DELETE, resp, serviceFactory);
     } else if (ODataHttpMethod.PUT.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.PUT, resp);
+      handleRequest(req, ODataHttpMethod.PUT, resp, serviceFactory);
     } else if (ODataHttpMethod.GET.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.GET, resp);
+      handleRequest(req, ODataHttpMethod.GET, resp, serviceFactory);
     } else if (ODataHttpMethod.POST.name().equals(xHttpMethod)) {
-      handleRequest(req, ODataHttpMethod.POST, resp);
+      handleRequest(req, ODataHttpMethod.POST, resp, serviceFactory);
     } else if (HTTP_METHOD_HEAD.equals(xHttpMethod) || HTTP_METHOD_OPTIONS.equals(xHttpMethod)) {
       createNotImplementedResponse(req, ODataNotImplementedException.COMMON, resp);
     } else {
@@ -154,9 +246,8 @@ public class ODataServlet extends HttpServlet {
     return true;
   }
 
-  private void
-      handleRequest(final HttpServletRequest req, final ODataHttpMethod method, final HttpServletResponse resp)
-          throws IOException {
+  private void handleRequest(final HttpServletRequest req, final ODataHttpMethod method,
+      final HttpServletResponse resp, final ODataServiceFactory serviceFactory) throws IOException {
     try {
       if (req.getHeader(HttpHeaders.ACCEPT) != null && req.getHeader(HttpHeaders.ACCEPT).isEmpty()) {
         createNotAcceptableResponse(req, ODataNotAcceptableException.COMMON, resp);
@@ -168,7 +259,7 @@ public class ODataServlet extends HttpServlet {
           .pathInfo(RestUtil.buildODataPathInfo(req, pathSplit))
           .queryParameters(RestUtil.extractQueryParameters(req.getQueryString()))
           .requestHeaders(RestUtil.extractHeaders(req))
-          .body(req.getInputStream())
+          .body(decodeBody(req))
           .build();
       ODataContextImpl context = new ODataContextImpl(odataRequest, serviceFactory);
       context.setParameter(ODataContext.HTTP_SERVLET_REQUEST_OBJECT, req);
@@ -179,13 +270,22 @@ public class ODataServlet extends HttpServlet {
 
       ODataRequestHandler requestHandler = new ODataRequestHandler(serviceFactory, service, context);
       final ODataResponse odataResponse = requestHandler.handle(odataRequest);
-      createResponse(resp, odataResponse);
+      createResponse(req, resp, odataResponse);
     } catch (ODataException e) {
       ODataExceptionWrapper wrapper = new ODataExceptionWrapper(req);
-      createResponse(resp, wrapper.wrapInExceptionResponse(e));
+      createResponse(req, resp, wrapper.wrapInExceptionResponse(e));
     }
   }
 
+  /**
+   * Compressed request bodies are only accepted if compression has been configured;
+   * otherwise the body is handed over as received, whatever its Content-Encoding header says.
+   */
+  private InputStream decodeBody(final HttpServletRequest req) throws IOException, ODataException {
+    return compressionThreshold < 0 ? req.getInputStream() :
+        ContentCoding.decode(req.getInputStream(), req.getHeader(HttpHeaders.CONTENT_ENCODING), maxDecodedSize);
+  }
+
   private void handleRedirect(final HttpServletRequest req, final HttpServletResponse resp) throws IOException {
     String method = req.getMethod();
     if (ODataHttpMethod.GET.name().equals(method) ||
@@ -199,36 +299,106 @@ public class ODataServlet extends HttpServlet {
       ODataResponse odataResponse = ODataResponse.status(HttpStatusCodes.TEMPORARY_REDIRECT)
           .header(HttpHeaders.LOCATION, "/")
           .build();
-      createResponse(resp, odataResponse);
+      createResponse(req, resp, odataResponse);
     } else {
       createMethodNotAllowedResponse(req, ODataHttpException.COMMON, resp);
     }
 
   }
 
-  private void createResponse(final HttpServletResponse resp, final ODataResponse response) throws IOException {
-    resp.setStatus(response.getStatus().getStatusCode());
-    resp.setContentType(response.getContentHeader());
-    for (String headerName : response.getHeaderNames()) {
-      resp.setHeader(headerName, response.getHeader(headerName));
-    }
-
+  private void createResponse(final HttpServletRequest req, final HttpServletResponse resp,
+      final ODataResponse response) throws IOException {
     Object entity = response.getEntity();
-    if (entity != null) {
-      ServletOutputStream out = resp.getOutputStream();
-      int curByte = -1;
-      if (entity instanceof InputStream) {
-        while ((curByte = ((InputStream) entity).read()) != -1) {
-          out.write((char) curByte);
+    try {
+      String coding = entity == null ? null : negotiateContentCoding(req, response);
+      byte[] prefix = null;
+      if (entity instanceof String) {
+        prefix = ((String) entity).getBytes("utf-8");
+      } else if (coding != null && entity instanceof InputStream) {
+        prefix = ContentCoding.readPrefix((InputStream) entity, compressionThreshold);
+      }
+      if (prefix != null && prefix.length < compressionThreshold) {
+        coding = null;
+      }
+
+      resp.setStatus(response.getStatus().getStatusCode());
+      resp.setContentType(response.getContentHeader());
+      for (String headerName : response.getHeaderNames()) {
+        // The length of the compressed body is not known in advance.
+        if (coding == null || !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(headerName)) {
+          resp.setHeader(headerName, response.getHeader(headerName));
+        }
+      }
+
+      if (entity != null) {
+        if (compressionThreshold >= 0 && ContentCoding.isCompressible(response.getContentHeader())) {
+          final String vary = response.getHeader(HttpHeaders.VARY);
+          resp.setHeader(HttpHeaders.VARY,
+              vary == null ? HttpHeaders.ACCEPT_ENCODING : vary + ", " + HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (coding != null) {
+          resp.setHeader(HttpHeaders.CONTENT_ENCODING, coding);
         }
+
+        ServletOutputStream out = resp.getOutputStream();
+        DeflaterOutputStream encoded = coding == null ? null : ContentCoding.encode(out, coding);
+        OutputStream target = encoded == null ? out : encoded;
+        if (prefix != null) {
+          target.write(prefix);
+        }
+        if (entity instanceof InputStream) {
+          if (encoded == null && prefix == null && entity instanceof FileInputStream) {
+            copy(((FileInputStream) entity).getChannel(), out);
+          } else {
+            ContentCoding.copy((InputStream) entity, target);
+          }
+        } else if (entity instanceof ODataStreamingOutput) {
+          ((ODataStreamingOutput) entity).write(target);
+        }
+        if (encoded != null) {
+          encoded.finish();
+        }
+
+        out.flush();
+        out.close();
+      }
+    } finally {
+      if (entity instanceof InputStream) {
         ((InputStream) entity).close();
-      } else if (entity instanceof String) {
-        String body = (String) entity;
-        out.write(body.getBytes("utf-8"));
       }
+    }
+  }
 
-      out.flush();
-      out.close();
+  /**
+   * Returns the content coding to be applied to the response body or <code>null</code>
+   * if compression is not configured, not accepted by the client, or not applicable to the response.
+   * Streamed content is compressed regardless of its size which is not known in advance.
+   */
+  private String negotiateContentCoding(final HttpServletRequest req, final ODataResponse response) {
+    if (compressionThreshold < 0
+        || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+        || !ContentCoding.isCompressible(response.getContentHeader())) {
+      return null;
+    }
+    return ContentCoding.negotiate(req.getHeader(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  /**
+   * Transfers the remaining content of a file channel (e.g., of a media resource) with
+   * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+   * The servlet output stream is not a channel, so the channel adapter still copies the content
+   * through its own small heap buffer; the file is never read into memory as a whole, though.
+   */
+  private static void copy(final FileChannel input, final OutputStream output) throws IOException {
+    WritableByteChannel channel = Channels.newChannel(output);
+    long position = input.position();
+    final long size = input.size();
+    while (position < size) {
+      final long count = input.transferTo(position, size - position, channel);
+      if (count <= 0) {
+        break;
+      }
+      position += count;
     }
   }
 
@@ -239,7 +409,7 @@ public class ODataServlet extends HttpServlet {
     ODataExceptionWrapper exceptionWrapper = new ODataExceptionWrapper(req);
     ODataResponse response =
         exceptionWrapper.wrapInExceptionResponse(new ODataNotImplementedException(messageReference));
-    createResponse(resp, response);
+    createResponse(req, resp, response);
   }
 
   private void createMethodNotAllowedResponse(final HttpServletRequest req, final MessageReference messageReference,
@@ -247,7 +417,7 @@ public class ODataServlet extends HttpServlet {
     ODataExceptionWrapper exceptionWrapper = new ODataExceptionWrapper(req);
     ODataResponse response =
         exceptionWrapper.wrapInExceptionResponse(new ODataMethodNotAllowedException(messageReference));
-    createResponse(resp, response);
+    createResponse(req, resp, response);
   }
 
   private void createNotAcceptableResponse(final HttpServletRequest req, final MessageReference messageReference,
@@ -255,7 +425,7 @@ public class ODataServlet extends HttpServlet {
     ODataExceptionWrapper exceptionWrapper = new ODataExceptionWrapper(req);
     ODataResponse response =
         exceptionWrapper.wrapInExceptionResponse(new ODataNotAcceptableException(messageReference));
-    createResponse(resp, response);
+    createResponse(req, resp, response);
 
   }
 
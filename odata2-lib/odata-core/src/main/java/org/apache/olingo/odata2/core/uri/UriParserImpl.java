@@ -64,6 +64,7 @@ import org.apache.olingo.odata2.api.uri.expression.OrderByExpression;
 import org.apache.olingo.odata2.core.commons.Decoder;
 import org.apache.olingo.odata2.core.edm.EdmSimpleTypeFacadeImpl;
 import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.core.uri.expression.ExpressionCache;
 import org.apache.olingo.odata2.core.uri.expression.FilterParserImpl;
 import org.apache.olingo.odata2.core.uri.expression.OrderByParserImpl;
 
@@ -590,7 +591,16 @@ public class UriParserImpl extends UriParser {
     final EdmType targetType = uriResult.getTargetType();
     if (targetType instanceof EdmEntityType) {
       try {
-        uriResult.setFilter(new FilterParserImpl((EdmEntityType) targetType).parseFilterString(filter, true));
+        final EdmEntityType entityType = (EdmEntityType) targetType;
+        final ExpressionCache cache = ExpressionCache.getCache(entityType);
+        FilterExpression filterExpression = cache == null ? null : cache.getFilter(filter);
+        if (filterExpression == null) {
+          filterExpression = new FilterParserImpl(entityType).parseFilterString(filter, true);
+          if (cache != null) {
+            cache.putFilter(filter, filterExpression);
+          }
+        }
+        uriResult.setFilter(filterExpression);
       } catch (ExpressionParserException e) {
         throw new UriSyntaxException(UriSyntaxException.INVALIDFILTEREXPRESSION.addContent(filter), e);
       } catch (ODataMessageException e) {
@@ -603,7 +613,16 @@ public class UriParserImpl extends UriParser {
     final EdmType targetType = uriResult.getTargetType();
     if (targetType instanceof EdmEntityType) {
       try {
-        uriResult.setOrderBy(parseOrderByString((EdmEntityType) targetType, orderBy));
+        final EdmEntityType entityType = (EdmEntityType) targetType;
+        final ExpressionCache cache = ExpressionCache.getCache(entityType);
+        OrderByExpression orderByExpression = cache == null ? null : cache.getOrderBy(orderBy);
+        if (orderByExpression == null) {
+          orderByExpression = parseOrderByString(entityType, orderBy);
+          if (cache != null) {
+            cache.putOrderBy(orderBy, orderByExpression);
+          }
+        }
+        uriResult.setOrderBy(orderByExpression);
       } catch (ExpressionParserException e) {
         throw new UriSyntaxException(UriSyntaxException.INVALIDORDERBYEXPRESSION.addContent(orderBy), e);
       } catch (ODataMessageException e) {
@@ -30,12 +30,13 @@ import org.apache.olingo.odata2.api.uri.expression.ExpressionVisitor;
 /**
  *  
  */
-public class BinaryExpressionImpl implements BinaryExpression {
+public class BinaryExpressionImpl implements BinaryExpression, FreezableExpression {
   final protected InfoBinaryOperator operatorInfo;
   final protected CommonExpression leftSide;
   final protected CommonExpression rightSide;
   final protected Token token;
   protected EdmType edmType;
+  private boolean frozen;
 
   public BinaryExpressionImpl(final InfoBinaryOperator operatorInfo, final CommonExpression leftSide,
       final CommonExpression rightSide, final Token token) {
@@ -68,6 +69,7 @@ public class BinaryExpressionImpl implements BinaryExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -94,4 +96,11 @@ public class BinaryExpressionImpl implements BinaryExpression {
     return token;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    ExpressionCache.freeze(leftSide);
+    ExpressionCache.freeze(rightSide);
+  }
+
 }
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.uri.expression;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.uri.expression.CommonExpression;
+import org.apache.olingo.odata2.api.uri.expression.FilterExpression;
+import org.apache.olingo.odata2.api.uri.expression.OrderByExpression;
+import org.apache.olingo.odata2.core.edm.provider.EdmEntityTypeImplProv;
+import org.apache.olingo.odata2.core.metrics.StripedCounter;
+
+/**
+ * Bounded cache of parsed $filter and $orderby expressions for one entity type, keyed by the expression string.
+ * <p>The caches are kept per {@link EdmEntityTypeImplProv} instance with weak keys, so cached expressions are
+ * dropped together with the entity data model they have been parsed for. The caches are referenced softly
+ * because the cached expressions refer to the entity type themselves. Once a cache is full, the least recently
+ * used expression is evicted for a new one. The maximum size of each cache can be set with the system property
+ * {@link #MAX_SIZE_PROPERTY} or with {@link #setMaxSize(int)}.</p>
+ * <p>Cached expression trees are shared between requests and are therefore made immutable:
+ * modifying them, e.g. with {@link CommonExpression#setEdmType(org.apache.olingo.odata2.api.edm.EdmType)},
+ * throws an {@link IllegalStateException}.</p>
+ * <p>The numbers of hits and misses are counted per cache and, summed up over all caches, published by the
+ * {@link org.apache.olingo.odata2.core.metrics.ODataMetricsMXBean}.</p>
+ */
+public class ExpressionCache {
+
+  /** Maximum number of cached expressions per entity type if none has been configured. */
+  public static final int DEFAULT_MAX_SIZE = 100;
+
+  /** Name of the system property with the maximum number of cached expressions per entity type. */
+  public static final String MAX_SIZE_PROPERTY = "org.apache.olingo.odata2.expression.cache.size";
+
+  private static final char FILTER = 'F';
+  private static final char ORDER_BY = 'O';
+
+  private static final StripedCounter TOTAL_HITS = new StripedCounter();
+  private static final StripedCounter TOTAL_MISSES = new StripedCounter();
+
+  /** guarded by itself */
+  private static final Map<EdmEntityType, SoftReference<ExpressionCache>> CACHES =
+      new WeakHashMap<EdmEntityType, SoftReference<ExpressionCache>>();
+  private static volatile int maxSizePerEntityType =
+      Math.max(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE), 0);
+
+  /** in access order, guarded by itself */
+  private final Map<String, CommonExpression> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public ExpressionCache(final int maxSize) {
+    entries = new LinkedHashMap<String, CommonExpression>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, CommonExpression> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the number of hits of all caches since the start of the application.
+   */
+  public static long getTotalHitCount() {
+    return TOTAL_HITS.sum();
+  }
+
+  /**
+   * Returns the number of misses of all caches since the start of the application.
+   */
+  public static long getTotalMissCount() {
+    return TOTAL_MISSES.sum();
+  }
+
+  /**
+   * Sets the maximum number of cached expressions per entity type and drops all cached expressions.
+   * @param maxSize the maximum number; <code>0</code> switches caching off
+   */
+  public static void setMaxSize(final int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("The maximum size must not be negative but is " + maxSize + ".");
+    }
+    synchronized (CACHES) {
+      maxSizePerEntityType = maxSize;
+      CACHES.clear();
+    }
+  }
+
+  public static int getMaxSize() {
+    return maxSizePerEntityType;
+  }
+
+  /**
+   * Returns the cache of the given entity type.
+   * <p>Only entity types of the provider-based entity data model are cached; other implementations
+   * could create new entity type instances for each request.</p>
+   * @return the cache or <code>null</code> if expressions for this entity type are not cached
+   */
+  public static ExpressionCache getCache(final EdmEntityType entityType) {
+    if (!(entityType instanceof EdmEntityTypeImplProv)) {
+      return null;
+    }
+    synchronized (CACHES) {
+      if (maxSizePerEntityType == 0) {
+        return null;
+      }
+      final SoftReference<ExpressionCache> reference = CACHES.get(entityType);
+      ExpressionCache cache = reference == null ? null : reference.get();
+      if (cache == null) {
+        cache = new ExpressionCache(maxSizePerEntityType);
+        CACHES.put(entityType, new SoftReference<ExpressionCache>(cache));
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * Returns the cached filter expression or <code>null</code> if it has not been cached.
+   */
+  public FilterExpression getFilter(final String expression) {
+    return (FilterExpression) get(FILTER + expression);
+  }
+
+  /**
+   * Caches the given filter expression, which is made immutable.
+   */
+  public void putFilter(final String expression, final FilterExpression filter) {
+    put(FILTER + expression, filter);
+  }
+
+  /**
+   * Returns the cached order-by expression or <code>null</code> if it has not been cached.
+   */
+  public OrderByExpression getOrderBy(final String expression) {
+    return (OrderByExpression) get(ORDER_BY + expression);
+  }
+
+  /**
+   * Caches the given order-by expression, which is made immutable.
+   */
+  public void putOrderBy(final String expression, final OrderByExpression orderBy) {
+    put(ORDER_BY + expression, orderBy);
+  }
+
+  private CommonExpression get(final String key) {
+    final CommonExpression expression;
+    synchronized (entries) {
+      expression = entries.get(key);
+    }
+    if (expression == null) {
+      misses.incrementAndGet();
+      TOTAL_MISSES.increment();
+    } else {
+      hits.incrementAndGet();
+      TOTAL_HITS.increment();
+    }
+    return expression;
+  }
+
+  private void put(final String key, final CommonExpression expression) {
+    freeze(expression);
+    synchronized (entries) {
+      if (!entries.containsKey(key)) {
+        entries.put(key, expression);
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+    hits.set(0);
+    misses.set(0);
+  }
+
+  static void freeze(final CommonExpression expression) {
+    if (expression instanceof FreezableExpression) {
+      ((FreezableExpression) expression).freeze();
+    }
+  }
+
+  static void checkModifiable(final boolean frozen) {
+    if (frozen) {
+      throw new IllegalStateException("The expression is shared and must not be modified.");
+    }
+  }
+}
@@ -29,10 +29,11 @@ import org.apache.olingo.odata2.api.uri.expression.FilterExpression;
 /**
  *  
  */
-public class FilterExpressionImpl implements FilterExpression {
+public class FilterExpressionImpl implements FilterExpression, FreezableExpression {
   private final String filterString;
   private EdmType edmType;
   private CommonExpression commonExpression;
+  private boolean frozen;
 
   public FilterExpressionImpl(final String filterExpression) {
     filterString = filterExpression;
@@ -62,6 +63,7 @@ public class FilterExpressionImpl implements FilterExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -81,4 +83,10 @@ public class FilterExpressionImpl implements FilterExpression {
     return getExpressionString();
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    ExpressionCache.freeze(commonExpression);
+  }
+
 }
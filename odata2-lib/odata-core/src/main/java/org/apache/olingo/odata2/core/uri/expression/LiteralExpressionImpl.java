@@ -25,11 +25,12 @@ import org.apache.olingo.odata2.api.uri.expression.ExpressionKind;
 import org.apache.olingo.odata2.api.uri.expression.ExpressionVisitor;
 import org.apache.olingo.odata2.api.uri.expression.LiteralExpression;
 
-public class LiteralExpressionImpl implements LiteralExpression {
+public class LiteralExpressionImpl implements LiteralExpression, FreezableExpression {
 
   private EdmType edmType;
   private EdmLiteral edmLiteral;
   private String uriLiteral;
+  private boolean frozen;
 
   public LiteralExpressionImpl(final String uriLiteral, final EdmLiteral javaLiteral) {
     this.uriLiteral = uriLiteral;
@@ -44,6 +45,7 @@ public class LiteralExpressionImpl implements LiteralExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -64,4 +66,9 @@ public class LiteralExpressionImpl implements LiteralExpression {
     return ret;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+  }
+
 }
@@ -31,10 +31,11 @@ import org.apache.olingo.odata2.api.uri.expression.MemberExpression;
 /**
  *  
  */
-public class MemberExpressionImpl implements BinaryExpression, MemberExpression {
+public class MemberExpressionImpl implements BinaryExpression, MemberExpression, FreezableExpression {
   CommonExpression path;
   CommonExpression property;
   EdmType edmType;
+  private boolean frozen;
 
   public MemberExpressionImpl(final CommonExpression path, final CommonExpression property) {
     this.path = path;
@@ -59,6 +60,7 @@ public class MemberExpressionImpl implements BinaryExpression, MemberExpression
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -97,4 +99,11 @@ public class MemberExpressionImpl implements BinaryExpression, MemberExpression
     return property;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    ExpressionCache.freeze(path);
+    ExpressionCache.freeze(property);
+  }
+
 }
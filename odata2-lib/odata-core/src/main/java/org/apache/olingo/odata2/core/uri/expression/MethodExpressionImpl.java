@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core.uri.expression;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.edm.EdmType;
@@ -33,11 +34,12 @@ import org.apache.olingo.odata2.api.uri.expression.MethodOperator;
 /**
  *  
  */
-public class MethodExpressionImpl implements MethodExpression {
+public class MethodExpressionImpl implements MethodExpression, FreezableExpression {
 
   private InfoMethod infoMethod;
   private EdmType returnType;
   private List<CommonExpression> actualParameters;
+  private boolean frozen;
 
   public MethodExpressionImpl(final InfoMethod infoMethod) {
     this.infoMethod = infoMethod;
@@ -52,6 +54,7 @@ public class MethodExpressionImpl implements MethodExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     returnType = edmType;
     return this;
   }
@@ -67,7 +70,7 @@ public class MethodExpressionImpl implements MethodExpression {
 
   @Override
   public List<CommonExpression> getParameters() {
-    return actualParameters;
+    return Collections.unmodifiableList(actualParameters);
   }
 
   @Override
@@ -80,6 +83,7 @@ public class MethodExpressionImpl implements MethodExpression {
    * @return A self reference for method chaining"
    */
   public MethodExpressionImpl appendParameter(final CommonExpression expression) {
+    ExpressionCache.checkModifiable(frozen);
     actualParameters.add(expression);
     return this;
   }
@@ -106,4 +110,12 @@ public class MethodExpressionImpl implements MethodExpression {
     return ret;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    for (CommonExpression parameter : actualParameters) {
+      ExpressionCache.freeze(parameter);
+    }
+  }
+
 }
@@ -19,6 +19,7 @@
 package org.apache.olingo.odata2.core.uri.expression;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.odata2.api.edm.EdmType;
@@ -33,10 +34,11 @@ import org.apache.olingo.odata2.api.uri.expression.OrderExpression;
 /**
  *  
  */
-public class OrderByExpressionImpl implements OrderByExpression {
+public class OrderByExpressionImpl implements OrderByExpression, FreezableExpression {
   private String orderbyString;
 
   List<OrderExpression> orders;
+  private boolean frozen;
 
   public OrderByExpressionImpl(final String orderbyString) {
     this.orderbyString = orderbyString;
@@ -50,7 +52,7 @@ public class OrderByExpressionImpl implements OrderByExpression {
 
   @Override
   public List<OrderExpression> getOrders() {
-    return orders;
+    return Collections.unmodifiableList(orders);
   }
 
   @Override
@@ -59,6 +61,7 @@ public class OrderByExpressionImpl implements OrderByExpression {
   }
 
   public void addOrder(final OrderExpression orderNode) {
+    ExpressionCache.checkModifiable(frozen);
     orders.add(orderNode);
   }
 
@@ -94,4 +97,12 @@ public class OrderByExpressionImpl implements OrderByExpression {
     return ret;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    for (OrderExpression order : orders) {
+      ExpressionCache.freeze(order);
+    }
+  }
+
 }
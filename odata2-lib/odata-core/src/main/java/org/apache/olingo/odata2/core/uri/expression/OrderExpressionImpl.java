@@ -30,10 +30,11 @@ import org.apache.olingo.odata2.api.uri.expression.SortOrder;
 /**
  *  
  */
-public class OrderExpressionImpl implements OrderExpression {
+public class OrderExpressionImpl implements OrderExpression, FreezableExpression {
 
   SortOrder orderType = SortOrder.asc;
   CommonExpression expression;
+  private boolean frozen;
 
   OrderExpressionImpl(final CommonExpression expression) {
     this.expression = expression;
@@ -50,6 +51,7 @@ public class OrderExpressionImpl implements OrderExpression {
   }
 
   void setSortOrder(final SortOrder orderType) {
+    ExpressionCache.checkModifiable(frozen);
     this.orderType = orderType;
   }
 
@@ -80,4 +82,10 @@ public class OrderExpressionImpl implements OrderExpression {
     return ret;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    ExpressionCache.freeze(expression);
+  }
+
 }
@@ -27,11 +27,12 @@ import org.apache.olingo.odata2.api.uri.expression.ExpressionKind;
 import org.apache.olingo.odata2.api.uri.expression.ExpressionVisitor;
 import org.apache.olingo.odata2.api.uri.expression.PropertyExpression;
 
-public class PropertyExpressionImpl implements PropertyExpression {
+public class PropertyExpressionImpl implements PropertyExpression, FreezableExpression {
   private String uriLiteral;
   private EdmType edmType;
   private EdmTyped edmProperty;
   private EdmLiteral edmLiteral;
+  private boolean frozen;
 
   public PropertyExpressionImpl(final String uriLiteral, final EdmLiteral edmLiteral) {
     this.uriLiteral = uriLiteral;
@@ -43,6 +44,7 @@ public class PropertyExpressionImpl implements PropertyExpression {
   }
 
   public CommonExpression setEdmProperty(final EdmTyped edmProperty) {
+    ExpressionCache.checkModifiable(frozen);
     // used EdmTyped because it may be a EdmProperty or a EdmNavigationProperty
     this.edmProperty = edmProperty;
     return this;
@@ -50,6 +52,7 @@ public class PropertyExpressionImpl implements PropertyExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -97,4 +100,9 @@ public class PropertyExpressionImpl implements PropertyExpression {
     return ret;
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+  }
+
 }
@@ -30,10 +30,11 @@ import org.apache.olingo.odata2.api.uri.expression.UnaryOperator;
 /**
  *  
  */
-public class UnaryExpressionImpl implements UnaryExpression {
+public class UnaryExpressionImpl implements UnaryExpression, FreezableExpression {
   private InfoUnaryOperator operatorInfo = null;
   private CommonExpression operand = null;
   private EdmType edmType = null;
+  private boolean frozen;
 
   public UnaryExpressionImpl(final InfoUnaryOperator operatorInfo, final CommonExpression operand) {
     this.operatorInfo = operatorInfo;
@@ -62,6 +63,7 @@ public class UnaryExpressionImpl implements UnaryExpression {
 
   @Override
   public CommonExpression setEdmType(final EdmType edmType) {
+    ExpressionCache.checkModifiable(frozen);
     this.edmType = edmType;
     return this;
   }
@@ -78,4 +80,10 @@ public class UnaryExpressionImpl implements UnaryExpression {
     return visitor.visitUnary(this, operatorInfo.getOperator(), retOperand);
   }
 
+  @Override
+  public void freeze() {
+    frozen = true;
+    ExpressionCache.freeze(operand);
+  }
+
 }
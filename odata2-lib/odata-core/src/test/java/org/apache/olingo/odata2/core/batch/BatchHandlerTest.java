@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.odata2.api.ODataCallback;
+import org.apache.olingo.odata2.api.ODataService;
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.batch.BatchExecutorCallback;
+import org.apache.olingo.odata2.api.batch.BatchHandler;
+import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
+import org.apache.olingo.odata2.api.batch.BatchResponsePart;
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
+import org.apache.olingo.odata2.api.edm.Edm;
+import org.apache.olingo.odata2.api.ep.EntityProvider;
+import org.apache.olingo.odata2.api.ep.EntityProviderBatchProperties;
+import org.apache.olingo.odata2.api.exception.ODataException;
+import org.apache.olingo.odata2.api.processor.ODataContext;
+import org.apache.olingo.odata2.api.processor.ODataRequest;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataSingleProcessor;
+import org.apache.olingo.odata2.api.uri.info.GetSimplePropertyUriInfo;
+import org.apache.olingo.odata2.api.uri.info.PutMergePatchUriInfo;
+import org.apache.olingo.odata2.core.PathInfoImpl;
+import org.apache.olingo.odata2.core.processor.ODataSingleProcessorService;
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.apache.olingo.odata2.testutil.mock.MockFacade;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the sequential and the parallel execution of batch parts by {@link BatchHandlerImpl}.
+ */
+public class BatchHandlerTest extends BaseTest {
+
+  private static final String CRLF = "\r\n";
+  private static final String BOUNDARY = "batch_123";
+  private static final int QUERY_PARTS = 3;
+
+  private ExecutorService executor;
+  private Edm edm;
+  private CountDownLatch latch;
+  private AtomicInteger services;
+  private List<String> log;
+
+  @Before
+  public void setUp() throws Exception {
+    edm = MockFacade.getMockEdm();
+    latch = new CountDownLatch(QUERY_PARTS);
+    services = new AtomicInteger();
+    log = Collections.synchronizedList(new ArrayList<String>());
+  }
+
+  @After
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void sequential() throws Exception {
+    final List<BatchResponsePart> responseParts = execute(new Factory(false));
+
+    assertResponses(responseParts);
+    assertEquals(1, services.get());
+    assertEquals(Arrays.asList("GET", "GET", "GET", "PUT", "GET"), log);
+  }
+
+  @Test
+  public void parallel() throws Exception {
+    executor = Executors.newFixedThreadPool(QUERY_PARTS);
+    final List<BatchResponsePart> responseParts = execute(new Factory(true));
+
+    assertResponses(responseParts);
+    // the batch service, one service per parallel part before the change set, the part after it runs directly
+    assertEquals(1 + QUERY_PARTS, services.get());
+    assertEquals(0, latch.getCount());
+    // the change set is executed after all preceding query operations
+    assertEquals("PUT", log.get(QUERY_PARTS));
+    assertEquals(QUERY_PARTS + 2, log.size());
+  }
+
+  @Test
+  public void sequentialIfFactoryNotThreadSafe() throws Exception {
+    executor = Executors.newFixedThreadPool(QUERY_PARTS);
+    final List<BatchResponsePart> responseParts = execute(new Factory(false, false));
+
+    assertResponses(responseParts);
+    assertEquals(1, services.get());
+    assertEquals(Arrays.asList("GET", "GET", "GET", "PUT", "GET"), log);
+  }
+
+  @Test
+  public void iteratorClosedOnError() throws Exception {
+    BatchRequestPart invalidPart = mock(BatchRequestPart.class);
+    when(invalidPart.getRequests()).thenReturn(Collections.<ODataRequest> emptyList());
+    BatchRequestPartIterator iterator = mock(BatchRequestPartIterator.class);
+    when(iterator.hasNext()).thenReturn(true);
+    when(iterator.next()).thenReturn(invalidPart);
+
+    final Factory factory = new Factory(false);
+    final ODataService service = factory.createService(null);
+    service.getProcessor().setContext(mock(ODataContext.class));
+    try {
+      new BatchHandlerImpl(factory, service).handleBatchParts(iterator);
+      fail("Expected ODataException");
+    } catch (ODataException e) {
+      verify(iterator).close();
+    }
+  }
+
+  private void assertResponses(final List<BatchResponsePart> responseParts) throws Exception {
+    assertEquals(QUERY_PARTS + 2, responseParts.size());
+    for (int i = 0; i < QUERY_PARTS; i++) {
+      assertFalse(responseParts.get(i).isChangeSet());
+      assertEquals("Employee " + (i + 1),
+          responseParts.get(i).getResponses().get(0).getHeader(BatchHelper.MIME_HEADER_CONTENT_ID));
+    }
+    assertTrue(responseParts.get(QUERY_PARTS).isChangeSet());
+    assertEquals(HttpStatusCodes.NO_CONTENT, responseParts.get(QUERY_PARTS).getResponses().get(0).getStatus());
+    assertEquals("Employee 4",
+        responseParts.get(QUERY_PARTS + 1).getResponses().get(0).getHeader(BatchHelper.MIME_HEADER_CONTENT_ID));
+  }
+
+  private List<BatchResponsePart> execute(final ODataServiceFactory factory) throws Exception {
+    PathInfoImpl pathInfo = new PathInfoImpl();
+    pathInfo.setServiceRoot(new URI("http://localhost/odata/"));
+    final List<BatchRequestPart> requestParts = EntityProvider.parseBatchRequest(
+        "multipart/mixed;boundary=" + BOUNDARY, new ByteArrayInputStream(createBatch().getBytes("UTF-8")),
+        EntityProviderBatchProperties.init().pathInfo(pathInfo).build());
+
+    final ODataService service = factory.createService(null);
+    service.getProcessor().setContext(mock(ODataContext.class));
+    return new BatchHandlerImpl(factory, service).handleBatchParts(requestParts);
+  }
+
+  private String createBatch() {
+    StringBuilder batch = new StringBuilder();
+    for (int i = 1; i <= QUERY_PARTS; i++) {
+      appendQuery(batch, i);
+    }
+    batch.append("--").append(BOUNDARY).append(CRLF)
+        .append("Content-Type: multipart/mixed; boundary=changeset_1").append(CRLF)
+        .append(CRLF)
+        .append("--changeset_1").append(CRLF)
+        .append("Content-Type: application/http").append(CRLF)
+        .append("Content-Transfer-Encoding: binary").append(CRLF)
+        .append(CRLF)
+        .append("PUT Employees('1')/EmployeeName HTTP/1.1").append(CRLF)
+        .append("Content-Type: application/json").append(CRLF)
+        .append(CRLF)
+        .append("{\"EmployeeName\":\"Walter Winter\"}").append(CRLF)
+        .append(CRLF)
+        .append("--changeset_1--").append(CRLF)
+        .append(CRLF);
+    appendQuery(batch, QUERY_PARTS + 1);
+    return batch.append("--").append(BOUNDARY).append("--").toString();
+  }
+
+  private void appendQuery(final StringBuilder batch, final int index) {
+    batch.append("--").append(BOUNDARY).append(CRLF)
+        .append("Content-Type: application/http").append(CRLF)
+        .append("Content-Transfer-Encoding: binary").append(CRLF)
+        .append("Content-Id: Employee ").append(index).append(CRLF)
+        .append(CRLF)
+        .append("GET Employees('").append(index).append("')/EmployeeName HTTP/1.1").append(CRLF)
+        .append(CRLF)
+        .append(CRLF);
+  }
+
+  private class Factory extends ODataServiceFactory {
+    private final boolean parallel;
+    private final boolean threadSafe;
+
+    Factory(final boolean parallel) {
+      this(parallel, parallel);
+    }
+
+    Factory(final boolean parallel, final boolean threadSafe) {
+      this.parallel = parallel;
+      this.threadSafe = threadSafe;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return threadSafe;
+    }
+
+    @Override
+    public ODataService createService(final ODataContext ctx) throws ODataException {
+      services.incrementAndGet();
+      return new ODataSingleProcessorService(edm, new Processor(parallel));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ODataCallback> T getCallback(final Class<? extends ODataCallback> callbackInterface) {
+      if (callbackInterface == BatchExecutorCallback.class) {
+        return (T) new BatchExecutorCallback() {
+          @Override
+          public ExecutorService getExecutorService() {
+            return executor;
+          }
+        };
+      }
+      return super.getCallback(callbackInterface);
+    }
+  }
+
+  private class Processor extends ODataSingleProcessor {
+    private final boolean parallel;
+
+    Processor(final boolean parallel) {
+      this.parallel = parallel;
+    }
+
+    @Override
+    public ODataResponse readEntitySimpleProperty(final GetSimplePropertyUriInfo uriInfo, final String contentType)
+        throws ODataException {
+      assertTrue(getContext().isInBatchMode());
+      latch.countDown();
+      if (parallel && log.size() < QUERY_PARTS) {
+        // all query operations before the change set must run at the same time
+        try {
+          assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+          throw new ODataException(e);
+        }
+      }
+      log.add("GET");
+      return ODataResponse.entity("Walter Winter").status(HttpStatusCodes.OK).contentHeader("text/plain").build();
+    }
+
+    @Override
+    public ODataResponse updateEntitySimpleProperty(final PutMergePatchUriInfo uriInfo, final InputStream content,
+        final String requestContentType, final String contentType) throws ODataException {
+      log.add("PUT");
+      return ODataResponse.status(HttpStatusCodes.NO_CONTENT).build();
+    }
+
+    @Override
+    public BatchResponsePart executeChangeSet(final BatchHandler handler, final List<ODataRequest> requests)
+        throws ODataException {
+      List<ODataResponse> responses = new ArrayList<ODataResponse>();
+      for (ODataRequest request : requests) {
+        responses.add(handler.handleRequest(request));
+      }
+      return BatchResponsePart.responses(responses).changeSet(true).build();
+    }
+  }
+}
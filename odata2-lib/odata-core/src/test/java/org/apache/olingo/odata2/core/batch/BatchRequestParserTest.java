@@ -19,11 +19,14 @@
 package org.apache.olingo.odata2.core.batch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -32,9 +35,11 @@ import java.util.List;
 
 import org.apache.olingo.odata2.api.batch.BatchException;
 import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.commons.HttpHeaders;
 import org.apache.olingo.odata2.api.commons.ODataHttpMethod;
 import org.apache.olingo.odata2.api.ep.EntityProviderBatchProperties;
+import org.apache.olingo.odata2.api.ep.EntityProviderBatchProperties.EntityProviderBatchPropertiesBuilder;
 import org.apache.olingo.odata2.api.processor.ODataRequest;
 import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
 import org.apache.olingo.odata2.core.PathInfoImpl;
@@ -612,6 +617,138 @@ public class BatchRequestParserTest {
     }
   }
 
+  @Test
+  public void parseIncrementally() throws Exception {
+    String batch = "--batch_8194-cf13-1f56" + LF
+        + GET_REQUEST
+        + "--batch_8194-cf13-1f56" + LF
+        + GET_REQUEST
+        + "--batch_8194-cf13-1f56--";
+    BatchRequestPartIterator iterator = new BatchRequestParser(contentType, batchProperties)
+        .parseIncrementally(new ByteArrayInputStream(batch.getBytes()));
+    assertTrue(iterator.hasNext());
+    assertTrue(iterator.hasNext());
+    assertEquals(ODataHttpMethod.GET, iterator.next().getRequests().get(0).getMethod());
+    assertTrue(iterator.hasNext());
+    assertEquals("Employees('1')", iterator.next().getRequests().get(0).getPathInfo().getODataSegments().get(0)
+        .getPath());
+    assertFalse(iterator.hasNext());
+    iterator.close();
+  }
+
+  @Test(expected = BatchException.class)
+  public void parseIncrementallyWithoutCloseDelimiter() throws BatchException {
+    String batch = "--batch_8194-cf13-1f56" + LF
+        + GET_REQUEST;
+    BatchRequestPartIterator iterator = new BatchRequestParser(contentType, batchProperties)
+        .parseIncrementally(new ByteArrayInputStream(batch.getBytes()));
+    iterator.next();
+    iterator.hasNext();
+  }
+
+  @Test
+  public void bodyBytesArePreserved() throws Exception {
+    final String content = "line 1" + LF + LF + "--line 3" + LF + "\u00e4\u00f6\u00fc\tline 4  ";
+    String batch = "--batch_8194-cf13-1f56" + LF
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + LF
+        + LF
+        + "--changeset_f980-1cb6-94dd" + LF
+        + MIME_HEADERS
+        + LF
+        + "PUT Employees('1')/EmployeeName HTTP/1.1" + LF
+        + "Content-Type: text/plain" + LF
+        + LF
+        + content + LF
+        + "--changeset_f980-1cb6-94dd--" + LF
+        + "--batch_8194-cf13-1f56--";
+    List<BatchRequestPart> batchRequestParts = new BatchRequestParser(contentType, batchProperties)
+        .parse(new ByteArrayInputStream(batch.getBytes("UTF-8")));
+    InputStream body = batchRequestParts.get(0).getRequests().get(0).getBody();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (int b = body.read(); b >= 0; b = body.read()) {
+      bytes.write(b);
+    }
+    assertEquals(content, new String(bytes.toByteArray(), "UTF-8"));
+  }
+
+  @Test
+  public void bodyLinesLongerThanLineLimit() throws Exception {
+    StringBuilder longLine = new StringBuilder();
+    while (longLine.length() <= 3 * BatchLineReader.MAX_LINE_LENGTH) {
+      longLine.append("0123456789");
+    }
+    final String content = longLine + LF + "--" + longLine + LF + "--changeset_f980-1cb6-94dd" + longLine;
+    String batch = "--batch_8194-cf13-1f56" + LF
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + LF
+        + LF
+        + "--changeset_f980-1cb6-94dd" + LF
+        + MIME_HEADERS
+        + LF
+        + "PUT Employees('1')/EmployeeName HTTP/1.1" + LF
+        + "Content-Type: text/plain" + LF
+        + LF
+        + content + LF
+        + "--changeset_f980-1cb6-94dd--" + LF
+        + "--batch_8194-cf13-1f56--";
+    List<BatchRequestPart> batchRequestParts = new BatchRequestParser(contentType, batchProperties)
+        .parse(new ByteArrayInputStream(batch.getBytes("UTF-8")));
+    InputStream body = batchRequestParts.get(0).getRequests().get(0).getBody();
+    ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    for (int b = body.read(); b >= 0; b = body.read()) {
+      bodyBytes.write(b);
+    }
+    assertEquals(content, new String(bodyBytes.toByteArray(), "UTF-8"));
+  }
+
+  @Test
+  public void headerLineTooLong() throws Exception {
+    StringBuilder value = new StringBuilder();
+    while (value.length() <= BatchLineReader.MAX_LINE_LENGTH) {
+      value.append("0123456789");
+    }
+    String batch = "--batch_8194-cf13-1f56" + LF
+        + MIME_HEADERS
+        + LF
+        + "GET Employees HTTP/1.1" + LF
+        + "Accept-Charset: " + value + LF
+        + LF + LF
+        + "--batch_8194-cf13-1f56--";
+    try {
+      new BatchRequestParser(contentType, batchProperties).parse(new ByteArrayInputStream(batch.getBytes()));
+      fail("Expected BatchException");
+    } catch (BatchException e) {
+      assertEquals(BatchException.LINE_TOO_LONG.getKey(), e.getMessageReference().getKey());
+    }
+  }
+
+  @Test
+  public void bodyTooLarge() throws Exception {
+    final String batch = "--batch_8194-cf13-1f56" + LF
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + LF
+        + LF
+        + "--changeset_f980-1cb6-94dd" + LF
+        + MIME_HEADERS
+        + LF
+        + "PUT Employees('1')/EmployeeName HTTP/1.1" + LF
+        + "Content-Type: text/plain" + LF
+        + LF
+        + "0123456789" + LF
+        + "--changeset_f980-1cb6-94dd--" + LF
+        + "--batch_8194-cf13-1f56--";
+    final EntityProviderBatchPropertiesBuilder properties = new EntityProviderBatchPropertiesBuilder(batchProperties);
+    assertEquals(10, new BatchRequestParser(contentType, properties.maxBodySize(10).build())
+        .parse(new ByteArrayInputStream(batch.getBytes("UTF-8")))
+        .get(0).getRequests().get(0).getBody().available());
+
+    try {
+      new BatchRequestParser(contentType, properties.maxBodySize(9).build())
+          .parse(new ByteArrayInputStream(batch.getBytes("UTF-8")));
+      fail("Expected BatchException");
+    } catch (BatchException e) {
+      assertEquals(BatchException.BODY_TOO_LARGE.getKey(), e.getMessageReference().getKey());
+    }
+  }
+
   private List<BatchRequestPart> parse(final String batch) throws BatchException {
     InputStream in = new ByteArrayInputStream(batch.getBytes());
     BatchRequestParser parser = new BatchRequestParser(contentType, batchProperties);
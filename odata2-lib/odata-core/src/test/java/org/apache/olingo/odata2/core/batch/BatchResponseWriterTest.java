@@ -21,8 +21,11 @@ package org.apache.olingo.odata2.core.batch;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +34,7 @@ import org.apache.olingo.odata2.api.batch.BatchException;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.junit.Test;
 
 public class BatchResponseWriterTest {
@@ -150,4 +154,79 @@ public class BatchResponseWriterTest {
     assertTrue(body.contains(requestHeader));
   }
 
+  @Test
+  public void binaryBody() throws Exception {
+    final byte[] content = new byte[] { 0, 1, (byte) 0x80, (byte) 0xC3, 'a', '\r', '\n', (byte) 0xFF };
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(ODataResponse.entity(new ByteArrayInputStream(content))
+        .status(HttpStatusCodes.OK)
+        .contentHeader("application/octet-stream")
+        .build());
+    parts.add(BatchResponsePart.responses(responses).changeSet(false).build());
+    ODataResponse batchResponse = new BatchResponseWriter(true).writeResponse(parts);
+    assertNull(batchResponse.getHeader("Content-Length"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingOutput) batchResponse.getEntity()).write(out);
+    final String body = new String(out.toByteArray(), "ISO-8859-1");
+    assertTrue(body.contains("Content-Length: " + content.length + "\r\n"));
+    assertTrue(body.contains("\r\n\r\n" + new String(content, "ISO-8859-1") + "\r\n"));
+    assertTrue(body.endsWith("--"));
+  }
+
+  @Test
+  public void streamedResponseEqualsStringResponse() throws Exception {
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(ODataResponse.entity("W\u00e4lder")
+        .status(HttpStatusCodes.OK)
+        .contentHeader("text/plain")
+        .build());
+    parts.add(BatchResponsePart.responses(responses).changeSet(true).build());
+    ODataResponse batchResponse = new BatchResponseWriter().writeResponse(parts);
+    final String body = (String) batchResponse.getEntity();
+    assertEquals(String.valueOf(body.getBytes("UTF-8").length), batchResponse.getHeader("Content-Length"));
+
+    ODataResponse streamedResponse = new BatchResponseWriter(true).writeResponse(parts);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingOutput) streamedResponse.getEntity()).write(out);
+    final String boundaries = "(batch|changeset)_[-0-9a-f]+";
+    assertEquals(body.replaceAll(boundaries, "boundary"),
+        new String(out.toByteArray(), "UTF-8").replaceAll(boundaries, "boundary"));
+  }
+
+  @Test
+  public void streamedResponsesAreWrittenIndependently() throws Exception {
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(ODataResponse.entity("Walter Winter").status(HttpStatusCodes.OK).contentHeader("text/plain").build());
+    parts.add(BatchResponsePart.responses(responses).changeSet(false).build());
+    final ODataStreamingOutput entity =
+        (ODataStreamingOutput) new BatchResponseWriter(true).writeResponse(parts).getEntity();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    entity.write(expected);
+
+    // The second write starts while the first one is in progress.
+    final ByteArrayOutputStream nested = new ByteArrayOutputStream();
+    ByteArrayOutputStream outer = new ByteArrayOutputStream() {
+      private boolean started;
+
+      @Override
+      public synchronized void write(final byte[] b, final int off, final int len) {
+        super.write(b, off, len);
+        if (!started) {
+          started = true;
+          try {
+            entity.write(nested);
+          } catch (final IOException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      }
+    };
+    entity.write(outer);
+    assertEquals(expected.toString("UTF-8"), outer.toString("UTF-8"));
+    assertEquals(expected.toString("UTF-8"), nested.toString("UTF-8"));
+  }
 }
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.commons;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
+import org.apache.olingo.odata2.api.exception.ODataBadRequestException;
+import org.apache.olingo.odata2.api.exception.ODataRequestEntityTooLargeException;
+import org.apache.olingo.odata2.api.exception.ODataUnsupportedMediaTypeException;
+import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.apache.olingo.odata2.testutil.helper.StringHelper;
+import org.junit.Test;
+
+/**
+ * Tests for the content codings gzip and deflate.
+ * 
+ */
+public class ContentCodingTest extends BaseTest {
+
+  private static final String CONTENT = "<feed xmlns=\"http://www.w3.org/2005/Atom\">\u00E4\u20AC</feed>";
+
+  @Test
+  public void negotiate() {
+    assertNull(ContentCoding.negotiate(null));
+    assertNull(ContentCoding.negotiate(""));
+    assertNull(ContentCoding.negotiate("identity"));
+    assertNull(ContentCoding.negotiate("br, compress"));
+    assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip"));
+    assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("x-gzip"));
+    assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip"));
+    assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*"));
+    assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("deflate"));
+    assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("GZIP;q=0.5, Deflate"));
+    assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, *"));
+    assertNull(ContentCoding.negotiate("gzip;q=0, deflate; q=0.0"));
+    assertNull(ContentCoding.negotiate("*;q=0"));
+  }
+
+  @Test
+  public void compressible() {
+    assertTrue(ContentCoding.isCompressible("application/atom+xml;type=feed;charset=utf-8"));
+    assertTrue(ContentCoding.isCompressible("application/json"));
+    assertTrue(ContentCoding.isCompressible("application/xml"));
+    assertTrue(ContentCoding.isCompressible("text/plain"));
+    assertTrue(ContentCoding.isCompressible("multipart/mixed; boundary=batch_123"));
+    assertFalse(ContentCoding.isCompressible("image/png"));
+    assertFalse(ContentCoding.isCompressible("application/octet-stream"));
+    assertFalse(ContentCoding.isCompressible(null));
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    for (final String coding : new String[] { ContentCoding.GZIP, ContentCoding.DEFLATE }) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      DeflaterOutputStream encoded = ContentCoding.encode(output, coding);
+      encoded.write(CONTENT.getBytes("UTF-8"));
+      encoded.finish();
+
+      final InputStream decoded = ContentCoding.decode(new ByteArrayInputStream(output.toByteArray()), coding,
+          ContentCoding.DEFAULT_MAX_DECODED_SIZE);
+      assertEquals(CONTENT, StringHelper.inputStreamToString(decoded));
+    }
+  }
+
+  @Test
+  public void decodeSeveralCodings() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    DeflaterOutputStream gzip = ContentCoding.encode(ContentCoding.encode(output, ContentCoding.DEFLATE),
+        ContentCoding.GZIP);
+    gzip.write(CONTENT.getBytes("UTF-8"));
+    gzip.close();
+
+    final InputStream decoded = ContentCoding.decode(new ByteArrayInputStream(output.toByteArray()),
+        "gzip, identity, deflate", ContentCoding.DEFAULT_MAX_DECODED_SIZE);
+    assertEquals(CONTENT, StringHelper.inputStreamToString(decoded));
+  }
+
+  @Test
+  public void decodeIdentity() throws Exception {
+    final InputStream content = new ByteArrayInputStream(new byte[0]);
+    assertSame(content, ContentCoding.decode(content, null, 0));
+    assertSame(content, ContentCoding.decode(content, "", 0));
+    assertSame(content, ContentCoding.decode(content, "identity", 0));
+  }
+
+  @Test(expected = ODataUnsupportedMediaTypeException.class)
+  public void decodeUnsupported() throws Exception {
+    ContentCoding.decode(new ByteArrayInputStream(new byte[0]), "br", ContentCoding.DEFAULT_MAX_DECODED_SIZE);
+  }
+
+  @Test(expected = ODataBadRequestException.class)
+  public void decodeCorrupt() throws Exception {
+    ContentCoding.decode(new ByteArrayInputStream(CONTENT.getBytes("UTF-8")), "gzip",
+        ContentCoding.DEFAULT_MAX_DECODED_SIZE);
+  }
+
+  @Test
+  public void decodeUpToLimit() throws Exception {
+    final byte[] content = CONTENT.getBytes("UTF-8");
+    final InputStream decoded = ContentCoding.decode(new ByteArrayInputStream(gzip(content)), ContentCoding.GZIP,
+        content.length);
+    assertEquals(CONTENT, StringHelper.inputStreamToString(decoded));
+  }
+
+  @Test
+  public void decodeTooLarge() throws Exception {
+    final InputStream decoded =
+        ContentCoding.decode(new ByteArrayInputStream(gzip(new byte[1000000])), ContentCoding.GZIP, 999999);
+    assertEquals(999999, ContentCoding.readPrefix(decoded, 999999).length);
+    try {
+      decoded.read();
+      fail("Expected an IOException");
+    } catch (final IOException e) {
+      assertTrue(e.getCause() instanceof ODataRequestEntityTooLargeException);
+      assertEquals(HttpStatusCodes.REQUEST_ENTITY_TOO_LARGE,
+          ((ODataRequestEntityTooLargeException) e.getCause()).getHttpStatus());
+    }
+  }
+
+  @Test
+  public void decodeAfterEnd() throws Exception {
+    final InputStream decoded = ContentCoding.decode(new ByteArrayInputStream(gzip(new byte[10])),
+        ContentCoding.GZIP, 10);
+    assertEquals(10, ContentCoding.readPrefix(decoded, 20).length);
+    assertEquals(-1, decoded.read());
+    assertEquals(-1, decoded.read(new byte[1]));
+  }
+
+  private static byte[] gzip(final byte[] content) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    DeflaterOutputStream encoded = ContentCoding.encode(output, ContentCoding.GZIP);
+    encoded.write(content);
+    encoded.close();
+    return output.toByteArray();
+  }
+
+  @Test
+  public void readPrefix() throws Exception {
+    final byte[] content = new byte[20000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    InputStream input = new ByteArrayInputStream(content);
+    final byte[] prefix = ContentCoding.readPrefix(input, 10000);
+    assertEquals(10000, prefix.length);
+    assertEquals((byte) 9999, prefix[9999]);
+    assertEquals((byte) 10000, (byte) input.read());
+
+    input = new ByteArrayInputStream(content);
+    assertArrayEquals(content, ContentCoding.readPrefix(input, 30000));
+    assertEquals(0, ContentCoding.readPrefix(input, 0).length);
+  }
+
+  @Test
+  public void threshold() {
+    assertEquals(-1, ContentCoding.parseThreshold(null));
+    assertEquals(0, ContentCoding.parseThreshold("0"));
+    assertEquals(1024, ContentCoding.parseThreshold(" 1024 "));
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void negativeThreshold() {
+    ContentCoding.parseThreshold("-1");
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void invalidThreshold() {
+    ContentCoding.parseThreshold("1k");
+  }
+
+  @Test
+  public void maxDecodedSize() {
+    assertEquals(ContentCoding.DEFAULT_MAX_DECODED_SIZE, ContentCoding.parseMaxDecodedSize(null));
+    assertEquals(0, ContentCoding.parseMaxDecodedSize("0"));
+    assertEquals(4294967296L, ContentCoding.parseMaxDecodedSize(" 4294967296 "));
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void negativeMaxDecodedSize() {
+    ContentCoding.parseMaxDecodedSize("-1");
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.olingo.odata2.core.commons;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -92,6 +93,7 @@ public class XmlHelperTest {
     // CHECKSTYLE:OFF
     System.setProperty("javax.xml.stream.XMLInputFactory", "com.ctc.wstx.stax.WstxInputFactory"); // NOSONAR
     // CHECKSTYLE:ON
+    XmlHelper.setXMLInputFactory(null);
   }
 
   @Test
@@ -101,6 +103,27 @@ public class XmlHelperTest {
     assertNotNull(streamReader);
   }
 
+  @Test
+  public void sharedFactories() throws Exception {
+    assertSame(XmlHelper.getXMLInputFactory(), XmlHelper.getXMLInputFactory());
+    assertSame(XmlHelper.getXMLOutputFactory(), XmlHelper.getXMLOutputFactory());
+    assertEquals(Boolean.FALSE, XmlHelper.getXMLInputFactory().getProperty(XMLInputFactory.SUPPORT_DTD));
+  }
+
+  @Test
+  public void setInputFactoryKeepsProtection() throws Exception {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+    try {
+      XmlHelper.setXMLInputFactory(factory);
+      assertSame(factory, XmlHelper.getXMLInputFactory());
+      assertEquals(Boolean.FALSE, factory.getProperty(XMLInputFactory.SUPPORT_DTD));
+      assertEquals(Boolean.FALSE, factory.getProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES));
+    } finally {
+      XmlHelper.setXMLInputFactory(null);
+    }
+  }
+
   @Test
   public void xxeWithoutProtection() throws Exception {
     InputStream content = new ByteArrayInputStream(XML_XXE.getBytes("UTF-8"));
@@ -20,6 +20,7 @@ package org.apache.olingo.odata2.core.edm;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +28,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.olingo.odata2.api.edm.EdmAssociation;
 import org.apache.olingo.odata2.api.edm.EdmComplexType;
@@ -89,8 +94,49 @@ public class EdmImplTest extends BaseTest {
     assertEquals(edm.getFunctionImports(), edm.getFunctionImports());
   }
 
+  @Test
+  public void testInvalidate() throws EdmException {
+    final EdmEntityType entityType = edm.getEntityType("foo", "bar");
+    final EdmEntityContainer defaultContainer = edm.getDefaultEntityContainer();
+    final List<EdmEntitySet> entitySets = edm.getEntitySets();
+    edm.invalidate();
+    assertNotSame(entityType, edm.getEntityType("foo", "bar"));
+    assertNotSame(defaultContainer, edm.getDefaultEntityContainer());
+    assertNotSame(entitySets, edm.getEntitySets());
+  }
+
+  @Test
+  public void invalidateWhileCreating() throws Exception {
+    edm.invalidateWhileCreating = true;
+    final EdmEntityType staleEntityType = edm.getEntityType("foo", "bar");
+    edm.invalidateWhileCreating = false;
+    assertNotSame(staleEntityType, edm.getEntityType("foo", "bar"));
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<EdmEntityType>> results = new ArrayList<Future<EdmEntityType>>();
+    for (int i = 0; i < 20; i++) {
+      results.add(executor.submit(new Callable<EdmEntityType>() {
+        @Override
+        public EdmEntityType call() throws Exception {
+          return edm.getEntityType("foo", "bar");
+        }
+      }));
+    }
+    executor.shutdown();
+    final EdmEntityType entityType = edm.getEntityType("foo", "bar");
+    for (Future<EdmEntityType> result : results) {
+      assertSame(entityType, result.get());
+    }
+  }
+
   private class ForEdmImplTest extends EdmImpl {
 
+    /** simulates an invalidation by another thread while an element is being created */
+    boolean invalidateWhileCreating;
+
     public ForEdmImplTest() {
       super(null);
     }
@@ -104,6 +150,9 @@ public class EdmImplTest extends BaseTest {
 
     @Override
     protected EdmEntityType createEntityType(final FullQualifiedName fqName) throws ODataException {
+      if (invalidateWhileCreating) {
+        invalidate();
+      }
       EdmEntityType edmEntityType = mock(EdmEntityType.class);
       when(edmEntityType.getNamespace()).thenReturn(fqName.getNamespace());
       when(edmEntityType.getName()).thenReturn(fqName.getName());
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -219,4 +220,11 @@ public class EdmEntityContainerImplProvTest extends BaseTest {
       assertTrue("Found not expected name: " + name, expectedName);
     }
   }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void cachedEntitySetsAreUnmodifiable() throws EdmException {
+    List<EdmEntitySet> entitySets = edmEntityContainer.getEntitySets();
+    assertSame(entitySets, edmEntityContainer.getEntitySets());
+    entitySets.clear();
+  }
 }
@@ -19,7 +19,11 @@
 package org.apache.olingo.odata2.core.edm.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -132,4 +136,16 @@ public class EdmImplProvTest extends BaseTest {
   public void testDefaultEntityContainer() throws EdmException {
     assertEquals(edm.getEntityContainer("Container1"), edm.getDefaultEntityContainer());
   }
+
+  @Test
+  public void invalidateReadsProviderAgain() throws Exception {
+    EdmEntityType entityType = edm.getEntityType("EntityType1Ns", "EntityType1");
+    assertSame(entityType, edm.getEntityType("et1", "EntityType1"));
+    verify(edm.getEdmProvider(), times(1)).getEntityType(new FullQualifiedName("EntityType1Ns", "EntityType1"));
+
+    edm.invalidate();
+    assertNotSame(entityType, edm.getEntityType("EntityType1Ns", "EntityType1"));
+    verify(edm.getEdmProvider(), times(2)).getEntityType(new FullQualifiedName("EntityType1Ns", "EntityType1"));
+    verify(edm.getEdmProvider(), times(2)).getAliasInfos();
+  }
 }
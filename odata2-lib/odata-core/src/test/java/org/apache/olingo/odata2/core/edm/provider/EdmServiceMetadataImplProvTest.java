@@ -22,8 +22,12 @@ import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
@@ -33,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.edm.EdmEntitySetInfo;
 import org.apache.olingo.odata2.api.edm.EdmServiceMetadata;
@@ -40,6 +45,7 @@ import org.apache.olingo.odata2.api.edm.provider.EdmProvider;
 import org.apache.olingo.odata2.api.edm.provider.EntityContainer;
 import org.apache.olingo.odata2.api.edm.provider.EntitySet;
 import org.apache.olingo.odata2.api.edm.provider.Schema;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.testutil.fit.BaseTest;
 import org.apache.olingo.odata2.testutil.helper.StringHelper;
 import org.apache.olingo.odata2.testutil.mock.EdmTestProvider;
@@ -317,4 +323,65 @@ public class EdmServiceMetadataImplProvTest extends BaseTest {
     assertXpathExists("/edmx:Edmx/edmx:DataServices/a:Schema/a:EntityType[@Name='Room']", metadata);
     assertXpathExists("/edmx:Edmx/edmx:DataServices/a:Schema/a:EntityType[@Name='Building']", metadata);
   }
+
+  @Test
+  public void metadataIsRenderedOnce() throws Exception {
+    EdmProvider edmProvider = mock(EdmProvider.class);
+    EdmServiceMetadataImplProv serviceMetadata = new EdmServiceMetadataImplProv(edmProvider);
+
+    final String eTag = serviceMetadata.getMetadataETag();
+    assertNotNull(eTag);
+    final String first = StringHelper.inputStreamToString(serviceMetadata.getMetadata());
+    assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    assertEquals(first, StringHelper.inputStreamToString(serviceMetadata.getMetadata()));
+    assertEquals(eTag, serviceMetadata.getMetadataETag());
+    verify(edmProvider, times(1)).getSchemas();
+
+    serviceMetadata.invalidate();
+    assertEquals(eTag, serviceMetadata.getMetadataETag());
+    verify(edmProvider, times(2)).getSchemas();
+  }
+
+  @Test
+  public void metadataETagDependsOnContent() throws Exception {
+    EdmProvider edmProvider = mock(EdmProvider.class);
+    EdmServiceMetadataImplProv emptyMetadata = new EdmServiceMetadataImplProv(edmProvider);
+    emptyMetadata.getMetadata().close();
+    EdmServiceMetadataImplProv serviceMetadata =
+        (EdmServiceMetadataImplProv) new EdmImplProv(new EdmTestProvider()).getServiceMetadata();
+    serviceMetadata.getMetadata().close();
+    assertFalse(emptyMetadata.getMetadataETag().equals(serviceMetadata.getMetadataETag()));
+  }
+
+  @Test
+  public void metadataETagOnFirstRequest() throws Exception {
+    final EdmServiceMetadataImplProv first = new EdmServiceMetadataImplProv(new EdmTestProvider());
+    final EdmServiceMetadataImplProv second = new EdmServiceMetadataImplProv(new EdmTestProvider());
+    assertEquals(first.getMetadataETag(), second.getMetadataETag());
+  }
+
+  @Test
+  public void serviceDocumentCache() throws Exception {
+    EdmServiceMetadataImplProv serviceMetadata = new EdmServiceMetadataImplProv(mock(EdmProvider.class));
+    final ODataResponse response = ODataResponse.status(HttpStatusCodes.OK).build();
+    assertNull(serviceMetadata.getServiceDocument("key"));
+    serviceMetadata.cacheServiceDocument("key", response);
+    assertSame(response, serviceMetadata.getServiceDocument("key"));
+
+    serviceMetadata.invalidate();
+    assertNull(serviceMetadata.getServiceDocument("key"));
+  }
+
+  @Test
+  public void serviceDocumentCacheEvictsLeastRecentlyUsed() throws Exception {
+    EdmServiceMetadataImplProv serviceMetadata = new EdmServiceMetadataImplProv(mock(EdmProvider.class));
+    final ODataResponse response = ODataResponse.status(HttpStatusCodes.OK).build();
+    serviceMetadata.cacheServiceDocument("key", response);
+    for (int i = 0; i < 100; i++) {
+      serviceMetadata.cacheServiceDocument("http://host" + i + "/", response);
+      assertSame(response, serviceMetadata.getServiceDocument("key"));
+    }
+    assertNull(serviceMetadata.getServiceDocument("http://host0/"));
+    assertSame(response, serviceMetadata.getServiceDocument("http://host99/"));
+  }
 }
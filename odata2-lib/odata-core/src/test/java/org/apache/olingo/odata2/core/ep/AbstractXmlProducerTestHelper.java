@@ -21,6 +21,7 @@ package org.apache.olingo.odata2.core.ep;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.olingo.odata2.core.commons.XmlHelper;
 import org.apache.olingo.odata2.testutil.fit.BaseTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -48,6 +49,8 @@ public abstract class AbstractXmlProducerTestHelper extends BaseTest {
       System.setProperty("javax.xml.stream.XMLInputFactory", "com.sun.xml.internal.stream.XMLInputFactoryImpl"); // NOSONAR
       break;
     }
+    XmlHelper.setXMLInputFactory(null);
+    XmlHelper.setXMLOutputFactory(null);
   }
 
   // CHECKSTYLE:On
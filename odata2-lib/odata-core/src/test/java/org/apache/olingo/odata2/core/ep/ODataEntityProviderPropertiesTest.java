@@ -74,6 +74,7 @@ public class ODataEntityProviderPropertiesTest extends BaseTest {
         .selfLink(selfLink)
         .includeSimplePropertyType(true)
         .additionalLinks(links)
+        .streaming(true)
         .build();
 
     assertEquals("Wrong amount of callbacks.", 1, properties.getCallbacks().size());
@@ -87,6 +88,7 @@ public class ODataEntityProviderPropertiesTest extends BaseTest {
     assertEquals("Wrong nextLink", "http://localhost", properties.getNextLink());
     assertTrue("Simple property types should be true", properties.isIncludeSimplePropertyType());
     assertEquals(Collections.emptyMap(), properties.getAdditionalLinks().get("aNavigationProperty"));
+    assertTrue("Streaming should be true", properties.isStreaming());
   }
 
   @Test
@@ -118,6 +120,7 @@ public class ODataEntityProviderPropertiesTest extends BaseTest {
         .selfLink(selfLink)
         .includeSimplePropertyType(true)
         .additionalLinks(links)
+        .streaming(true)
         .build();
 
     //
@@ -136,5 +139,6 @@ public class ODataEntityProviderPropertiesTest extends BaseTest {
     assertEquals("Wrong nextLink", "http://localhost", fromProperties.getNextLink());
     assertTrue("Simple property types should be true", fromProperties.isIncludeSimplePropertyType());
     assertEquals(Collections.emptyMap(), fromProperties.getAdditionalLinks().get("aNavigationProperty"));
+    assertTrue("Streaming should be true", fromProperties.isStreaming());
   }
 }
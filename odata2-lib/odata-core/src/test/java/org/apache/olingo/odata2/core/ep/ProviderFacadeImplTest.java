@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -55,8 +56,10 @@ import org.apache.olingo.odata2.api.processor.ODataErrorContext;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
 import org.apache.olingo.odata2.core.commons.ContentType;
 import org.apache.olingo.odata2.core.edm.EdmDateTimeOffset;
+import org.apache.olingo.odata2.core.edm.provider.EdmImplProv;
 import org.apache.olingo.odata2.core.ep.consumer.AbstractConsumerTest;
 import org.apache.olingo.odata2.testutil.helper.StringHelper;
+import org.apache.olingo.odata2.testutil.mock.EdmTestProvider;
 import org.apache.olingo.odata2.testutil.mock.MockFacade;
 import org.junit.Test;
 
@@ -276,6 +279,23 @@ public class ProviderFacadeImplTest extends AbstractConsumerTest {
     assertEquals("{\"d\":{\"results\":[]}}", StringHelper.inputStreamToString((InputStream) result.getEntity()));
   }
 
+  @Test
+  public void writeFeedFromIterator() throws Exception {
+    final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    Map<String, Object> properties = new HashMap<String, Object>();
+    properties.put("Id", "42");
+    final Iterator<Map<String, Object>> data = Arrays.asList(properties).iterator();
+    final ODataResponse result =
+        new ProviderFacadeImpl().writeFeed(HttpContentType.APPLICATION_JSON, entitySet, data,
+            EntityProviderWriteProperties.serviceRoot(URI.create("http://root/")).build());
+    assertEquals("{\"d\":{\"results\":[{\"__metadata\":{\"id\":\"http://root/Teams('42')\","
+        + "\"uri\":\"http://root/Teams('42')\",\"type\":\"RefScenario.Team\"},"
+        + "\"Id\":\"42\",\"Name\":null,\"isScrumTeam\":null,"
+        + "\"nt_Employees\":{\"__deferred\":{\"uri\":\"http://root/Teams('42')/nt_Employees\"}}}]}}",
+        StringHelper.inputStreamToString((InputStream) result.getEntity()));
+    assertFalse(data.hasNext());
+  }
+
   @Test
   public void writeEntry() throws Exception {
     final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
@@ -337,6 +357,19 @@ public class ProviderFacadeImplTest extends AbstractConsumerTest {
     assertEquals("{\"d\":{\"EntitySets\":[]}}", StringHelper.inputStreamToString((InputStream) result.getEntity()));
   }
 
+  @Test
+  public void writeServiceDocumentWithETag() throws Exception {
+    final Edm edm = new EdmImplProv(new EdmTestProvider());
+    final ODataResponse first = new ProviderFacadeImpl().writeServiceDocument(HttpContentType.APPLICATION_JSON, edm,
+        "http://root/");
+    assertNotNull(first.getETag());
+    final ODataResponse second = new ProviderFacadeImpl().writeServiceDocument(HttpContentType.APPLICATION_JSON, edm,
+        "http://root/");
+    assertEquals(first.getETag(), second.getETag());
+    assertEquals(StringHelper.inputStreamToString((InputStream) first.getEntity()),
+        StringHelper.inputStreamToString((InputStream) second.getEntity()));
+  }
+
   @Test
   public void writePropertyValue() throws Exception {
     final EdmProperty property =
@@ -21,13 +21,20 @@ package org.apache.olingo.odata2.core.ep.aggregator;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.edm.EdmTypeKind;
 import org.apache.olingo.odata2.api.uri.ExpandSelectTreeNode;
+import org.apache.olingo.odata2.core.edm.provider.EdmEntitySetImplProv;
+import org.apache.olingo.odata2.core.edm.provider.EdmImplProv;
 import org.apache.olingo.odata2.core.ep.AbstractProviderTest;
+import org.apache.olingo.odata2.testutil.mock.EdmTestProvider;
 import org.apache.olingo.odata2.testutil.mock.MockFacade;
 import org.junit.Test;
 
@@ -75,4 +82,54 @@ public class EntityInfoAggregatorTest extends AbstractProviderTest {
     assertFalse(cityInfo.getPropertyInfo("PostalCode").isComplex());
     assertEquals("String", cityInfo.getPropertyInfo("PostalCode").getType().getName());
   }
+
+  @Test
+  public void cachedPerEntitySetAndShape() throws Exception {
+    EdmEntitySet entitySet = new EdmImplProv(new EdmTestProvider()).getDefaultEntityContainer()
+        .getEntitySet("Employees");
+
+    final EntityInfoAggregator eia = EntityInfoAggregator.create(entitySet);
+    assertSame(eia, EntityInfoAggregator.create(entitySet, null));
+
+    final ExpandSelectTreeNode select = ExpandSelectTreeNode.entitySet(entitySet)
+        .selectedProperties(Arrays.asList("Age")).selectedLinks(Arrays.asList("ne_Room")).build();
+    final EntityInfoAggregator selectEia = EntityInfoAggregator.create(entitySet, select);
+    assertNotSame(eia, selectEia);
+    assertEquals(Arrays.asList("Age"), selectEia.getSelectedPropertyNames());
+    assertEquals(Arrays.asList("ne_Room"), selectEia.getSelectedNavigationPropertyNames());
+    assertTrue(selectEia.getExpandedNavigationPropertyNames().isEmpty());
+    assertSame(selectEia, EntityInfoAggregator.create(entitySet, ExpandSelectTreeNode.entitySet(entitySet)
+        .selectedProperties(Arrays.asList("Age")).selectedLinks(Arrays.asList("ne_Room")).build()));
+
+    final EntityInfoAggregator expandEia = EntityInfoAggregator.create(entitySet,
+        ExpandSelectTreeNode.entitySet(entitySet)
+            .selectedProperties(Arrays.asList("Age")).expandedLinks(Arrays.asList("ne_Room")).build());
+    assertNotSame(selectEia, expandEia);
+    assertEquals(Arrays.asList("ne_Room"), expandEia.getExpandedNavigationPropertyNames());
+
+    final EdmEntitySet otherEntitySet = new EdmImplProv(new EdmTestProvider()).getDefaultEntityContainer()
+        .getEntitySet("Employees");
+    assertNotSame(eia, EntityInfoAggregator.create(otherEntitySet));
+  }
+
+  @Test
+  public void notCachedForOtherEntitySets() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Employees");
+    assertNotSame(EntityInfoAggregator.create(entitySet), EntityInfoAggregator.create(entitySet));
+  }
+
+  @Test
+  public void cacheSizeLimited() throws Exception {
+    EdmEntitySetImplProv entitySet = (EdmEntitySetImplProv) new EdmImplProv(new EdmTestProvider())
+        .getDefaultEntityContainer().getEntitySet("Employees");
+    final EntityInfoAggregator eia = EntityInfoAggregator.create(entitySet);
+    for (int i = 1; i < EntityInfoAggregator.MAX_CACHE_SIZE; i++) {
+      entitySet.getEntityInfoAggregatorCache().put("shape" + i, eia);
+    }
+    final ExpandSelectTreeNode select = ExpandSelectTreeNode.entitySet(entitySet)
+        .selectedProperties(Arrays.asList("Age")).build();
+    assertNotSame(EntityInfoAggregator.create(entitySet, select), EntityInfoAggregator.create(entitySet, select));
+    assertEquals(EntityInfoAggregator.MAX_CACHE_SIZE, entitySet.getEntityInfoAggregatorCache().size());
+    assertSame(eia, EntityInfoAggregator.create(entitySet));
+  }
 }
@@ -21,6 +21,7 @@ package org.apache.olingo.odata2.core.ep.consumer;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.olingo.odata2.core.commons.XmlHelper;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
@@ -47,6 +48,8 @@ public abstract class AbstractXmlConsumerTest extends AbstractConsumerTest {
       System.setProperty("javax.xml.stream.XMLInputFactory", "com.sun.xml.internal.stream.XMLInputFactoryImpl"); // NOSONAR
       break;
     }
+    XmlHelper.setXMLInputFactory(null);
+    XmlHelper.setXMLOutputFactory(null);
   }
 
   // CHECKSTYLE:On
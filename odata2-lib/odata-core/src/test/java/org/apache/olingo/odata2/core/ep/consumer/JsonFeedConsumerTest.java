@@ -19,24 +19,33 @@
 package org.apache.olingo.odata2.core.ep.consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import junit.framework.Assert;
 
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
+import org.apache.olingo.odata2.api.ep.EntityProvider;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
+import org.apache.olingo.odata2.api.ep.callback.OnReadEntry;
 import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
 import org.apache.olingo.odata2.api.ep.entry.MediaMetadata;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
 import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeedReader;
 import org.apache.olingo.odata2.testutil.mock.MockFacade;
 import org.junit.Test;
 
@@ -432,6 +441,77 @@ public class JsonFeedConsumerTest extends AbstractConsumerTest {
     assertEquals(new Date(1297187419617l), deletedEntries.get(0).getWhen());
   }
 
+  @Test
+  public void readFeedEntryByEntry() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    ODataFeedReader reader = new JsonEntityConsumer().openFeedReader(entitySet,
+        createContentAsStream(readFile("JsonTeams.json")), DEFAULT_PROPERTIES);
+
+    assertTrue(reader.hasNext());
+    assertEquals("1", reader.next().getProperties().get("Id"));
+    assertTrue(reader.hasNext());
+    assertTrue(reader.hasNext());
+    assertEquals("2", reader.next().getProperties().get("Id"));
+    assertFalse(reader.hasNext());
+    assertNull(reader.getFeedMetadata().getInlineCount());
+    try {
+      reader.next();
+      fail("Expected NoSuchElementException");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void readDeltaFeedEntryByEntry() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    String content =
+        "{\"d\":{\"__count\":\"3\",\"results\":[{" +
+            "\"__metadata\":{\"id\":\"http://localhost:8080/ReferenceScenario.svc/Teams('1')\"," +
+            "\"uri\":\"http://localhost:8080/ReferenceScenario.svc/Teams('1')\",\"type\":\"RefScenario.Team\"}," +
+            "\"Id\":\"1\",\"Name\":\"Team 1\",\"isScrumTeam\":false}" +
+            ",{ \"@odata.context\":\"$metadata#Teams/$deletedEntity\"," +
+            "\"id\":\"/Teams('2')\"," +
+            "\"when\":\"\\/Date(1297187419617)\\/\" }" +
+            "]," +
+            "\"__delta\":\"http://localhost:8080/ReferenceScenario.svc/Teams?!deltatoken=4711\"}}";
+
+    ODataFeedReader reader = EntityProvider.openFeedReader("application/json", entitySet,
+        createContentAsStream(content), DEFAULT_PROPERTIES);
+    assertTrue(reader.hasNext());
+    assertEquals("Team 1", reader.next().getProperties().get("Name"));
+    assertFalse(reader.hasNext());
+    assertEquals(Integer.valueOf(3), reader.getFeedMetadata().getInlineCount());
+    assertEquals("http://localhost:8080/ReferenceScenario.svc/Teams?!deltatoken=4711",
+        reader.getFeedMetadata().getDeltaLink());
+    assertEquals(1, reader.getDeletedEntries().size());
+    assertEquals(new Date(1297187419617l), reader.getDeletedEntries().get(0).getWhen());
+
+    final List<String> read = new ArrayList<String>();
+    final FeedMetadata feedMetadata = EntityProvider.readFeed("application/json", entitySet,
+        createContentAsStream(content), DEFAULT_PROPERTIES, new OnReadEntry() {
+          @Override
+          public void handleReadEntry(final ODataEntry entry) {
+            read.add((String) entry.getProperties().get("Id"));
+          }
+
+          @Override
+          public void handleDeletedEntry(final DeletedEntryMetadata deletedEntry) {
+            read.add(deletedEntry.getUri());
+          }
+        });
+    assertEquals(Arrays.asList("1", "/Teams('2')"), read);
+    assertEquals(Integer.valueOf(3), feedMetadata.getInlineCount());
+  }
+
+  @Test(expected = EntityProviderException.class)
+  public void readFeedEntryByEntryWithoutResults() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    ODataFeedReader reader = new JsonEntityConsumer().openFeedReader(entitySet,
+        createContentAsStream("{\"d\":{\"__count\":\"1\"}}"), DEFAULT_PROPERTIES);
+    reader.hasNext();
+  }
+
   @Test
   public void feedWithOnlyDeletedEntries() throws Exception {
     EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
@@ -19,9 +19,12 @@
 package org.apache.olingo.odata2.core.ep.consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.Assert;
@@ -30,11 +33,14 @@ import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.ep.EntityProvider;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.ep.EntityProviderReadProperties;
+import org.apache.olingo.odata2.api.ep.callback.OnReadEntry;
+import org.apache.olingo.odata2.api.ep.entry.DeletedEntryMetadata;
 import org.apache.olingo.odata2.api.ep.entry.EntryMetadata;
 import org.apache.olingo.odata2.api.ep.entry.ODataEntry;
 import org.apache.olingo.odata2.api.ep.feed.FeedMetadata;
 import org.apache.olingo.odata2.api.ep.feed.ODataDeltaFeed;
 import org.apache.olingo.odata2.api.ep.feed.ODataFeed;
+import org.apache.olingo.odata2.api.ep.feed.ODataFeedReader;
 import org.apache.olingo.odata2.testutil.mock.MockFacade;
 import org.junit.Test;
 
@@ -180,4 +186,50 @@ public class XmlFeedConsumerTest extends AbstractXmlConsumerTest {
     assertEquals(1, deltaFeed.getEntries().size());
     assertEquals(1, deltaFeed.getDeletedEntries().size());
   }
+
+  @Test
+  public void readFeedEntryByEntry() throws Exception {
+    String content = readFile("feed_employees_full.xml");
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Employees");
+    EntityProviderReadProperties consumerProperties = EntityProviderReadProperties.init()
+        .mergeSemantic(false).build();
+    final ODataFeed feed = new XmlEntityConsumer().readFeed(entitySet, createContentAsStream(content),
+        consumerProperties);
+
+    ODataFeedReader reader = new XmlEntityConsumer().openFeedReader(entitySet, createContentAsStream(content),
+        consumerProperties);
+    for (final ODataEntry expected : feed.getEntries()) {
+      assertTrue(reader.hasNext());
+      assertEquals(expected.getProperties(), reader.next().getProperties());
+    }
+    assertFalse(reader.hasNext());
+    assertEquals(Integer.valueOf(6), reader.getFeedMetadata().getInlineCount());
+    assertTrue(reader.getDeletedEntries().isEmpty());
+  }
+
+  @Test
+  public void readDeltaFeedWithCallback() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Rooms");
+    final List<ODataEntry> entries = new ArrayList<ODataEntry>();
+    final List<DeletedEntryMetadata> deletedEntries = new ArrayList<DeletedEntryMetadata>();
+
+    final FeedMetadata feedMetadata = EntityProvider.readFeed("application/atom+xml", entitySet,
+        createContentAsStream(readFile("feed_with_deleted_entries.xml")), EntityProviderReadProperties.init().build(),
+        new OnReadEntry() {
+          @Override
+          public void handleReadEntry(final ODataEntry entry) {
+            entries.add(entry);
+          }
+
+          @Override
+          public void handleDeletedEntry(final DeletedEntryMetadata deletedEntry) {
+            deletedEntries.add(deletedEntry);
+          }
+        });
+
+    assertEquals(1, entries.size());
+    assertEquals(1, deletedEntries.size());
+    assertEquals("http://host:123/odata/Rooms('2')", deletedEntries.get(0).getUri());
+    assertEquals("http://host:123/odata/Rooms?$skiptoken=97", feedMetadata.getDeltaLink());
+  }
 }
@@ -23,9 +23,11 @@ import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathNotExists;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -35,6 +37,7 @@ import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.ep.EntityProviderException;
 import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.api.uri.info.GetEntitySetUriInfo;
 import org.apache.olingo.odata2.core.ep.AbstractProviderTest;
 import org.apache.olingo.odata2.core.ep.AtomEntityProvider;
@@ -80,6 +83,35 @@ public class AtomFeedProducerTest extends AbstractProviderTest {
     assertXpathExists("/a:feed/a:entry/a:content/m:properties/d:Version[@m:type=\"Edm.Int16\"]", xmlString);
   }
 
+  @Test
+  public void testStreaming() throws Exception {
+    AtomEntityProvider ser = createAtomEntityProvider();
+    EntityProviderWriteProperties properties =
+        EntityProviderWriteProperties.serviceRoot(BASE_URI).streaming(true).build();
+    ODataResponse response = ser.writeFeed(view.getTargetEntitySet(), roomsData, properties);
+    assertTrue(response.getEntity() instanceof ODataStreamingOutput);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((ODataStreamingOutput) response.getEntity()).write(output);
+    String xmlString = new String(output.toByteArray(), "UTF-8");
+
+    assertXpathExists("/a:feed", xmlString);
+    assertXpathEvaluatesTo(BASE_URI.toASCIIString(), "/a:feed/@xml:base", xmlString);
+    assertXpathExists("/a:feed/a:entry/a:content/m:properties/d:Id", xmlString);
+  }
+
+  @Test
+  public void testEntriesFromIterator() throws Exception {
+    initializeRoomData(3);
+    AtomEntityProvider ser = createAtomEntityProvider();
+    EntityProviderWriteProperties properties = EntityProviderWriteProperties.serviceRoot(BASE_URI).build();
+    ODataResponse response = ser.writeFeed(view.getTargetEntitySet(), roomsData.iterator(), properties);
+    String xmlString = verifyResponse(response);
+
+    assertXpathEvaluatesTo("3", "count(/a:feed/a:entry)", xmlString);
+    assertXpathEvaluatesTo("3", "/a:feed/a:entry[3]/a:content/m:properties/d:Id", xmlString);
+  }
+
   @Test
   public void testFeedNamespaces() throws Exception {
     AtomEntityProvider ser = createAtomEntityProvider();
@@ -21,7 +21,9 @@ package org.apache.olingo.odata2.core.ep.producer;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
@@ -33,6 +35,7 @@ import org.apache.olingo.odata2.api.commons.InlineCount;
 import org.apache.olingo.odata2.api.edm.EdmEntitySet;
 import org.apache.olingo.odata2.api.ep.EntityProviderWriteProperties;
 import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
 import org.apache.olingo.odata2.core.ep.JsonEntityProvider;
 import org.apache.olingo.odata2.testutil.fit.BaseTest;
 import org.apache.olingo.odata2.testutil.helper.StringHelper;
@@ -78,6 +81,28 @@ public class JsonFeedEntityProducerTest extends BaseTest {
         json);
   }
 
+  @Test
+  public void streamingFeed() throws Exception {
+    final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    Map<String, Object> teamData = new HashMap<String, Object>();
+    teamData.put("Id", "1");
+    teamData.put("isScrumTeam", true);
+    List<Map<String, Object>> teamsData = new ArrayList<Map<String, Object>>();
+    teamsData.add(teamData);
+
+    final ODataResponse bufferedResponse = new JsonEntityProvider().writeFeed(entitySet, teamsData,
+        DEFAULT_PROPERTIES);
+    final ODataResponse response = new JsonEntityProvider().writeFeed(entitySet, teamsData,
+        EntityProviderWriteProperties.fromProperties(DEFAULT_PROPERTIES).streaming(true).build());
+    assertNotNull(response);
+    assertTrue(response.getEntity() instanceof ODataStreamingOutput);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((ODataStreamingOutput) response.getEntity()).write(output);
+    assertEquals(StringHelper.inputStreamToString((InputStream) bufferedResponse.getEntity()),
+        new String(output.toByteArray(), "UTF-8"));
+  }
+
   @Test
   public void inlineCount() throws Exception {
     final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Buildings");
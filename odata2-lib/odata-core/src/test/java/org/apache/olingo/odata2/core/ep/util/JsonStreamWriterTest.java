@@ -20,6 +20,7 @@ package org.apache.olingo.odata2.core.ep.util;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 
 import org.apache.olingo.odata2.testutil.fit.BaseTest;
@@ -80,4 +81,22 @@ public class JsonStreamWriterTest extends BaseTest {
         + "\"escaped\":\"\\\"\\\\\"}",
         writer.toString());
   }
+
+  @Test
+  public void utf8() throws Exception {
+    final String outsideBMP = String.valueOf(Character.toChars(0x1F603));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Utf8Writer writer = new Utf8Writer(outputStream);
+    new JsonStreamWriter(writer).beginObject()
+        .namedStringValue("ascii", "abc / ? \u007F").separator()
+        .namedStringValue("n\u00E4me", "\u00E4 € " + outsideBMP).separator()
+        .namedStringValue("control", "\t\u0001\"\\").separator()
+        .name("number").unquotedValue("42")
+        .endObject();
+    writer.flush();
+    assertEquals("{\"ascii\":\"abc / ? \u007F\",\"n\u00E4me\":\"\u00E4 € \uD83D\uDE03\","
+        + "\"control\":\"\\t\\u0001\\\"\\\\\",\"number\":42}",
+        outputStream.toString("UTF-8"));
+  }
 }
+
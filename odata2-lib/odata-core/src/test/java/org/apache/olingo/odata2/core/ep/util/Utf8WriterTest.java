@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.ep.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.junit.Test;
+
+/**
+ *  
+ */
+public class Utf8WriterTest extends BaseTest {
+
+  private static final String OUTSIDE_BMP = String.valueOf(Character.toChars(0x1F603));
+
+  @Test
+  public void ascii() throws Exception {
+    assertSameBytes("abc", "", " / ? \u007F");
+  }
+
+  @Test
+  public void multiByte() throws Exception {
+    assertSameBytes("äöüß", "€ \uFDFC", OUTSIDE_BMP + "x" + OUTSIDE_BMP);
+  }
+
+  @Test
+  public void surrogatePairAcrossWrites() throws Exception {
+    assertSameBytes("a" + OUTSIDE_BMP.charAt(0), OUTSIDE_BMP.substring(1) + "b");
+  }
+
+  @Test
+  public void unpairedSurrogates() throws Exception {
+    assertSameBytes("a\uD83Db", "\uDE03c", "\uD83D", "\uD83D\uD83D" + OUTSIDE_BMP, "d");
+  }
+
+  @Test
+  public void biggerThanBuffer() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      builder.append(i % 3 == 0 ? "ä" : i % 7 == 0 ? OUTSIDE_BMP : "x");
+    }
+    assertSameBytes(builder.toString(), builder.toString());
+  }
+
+  @Test
+  public void preEncoded() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Utf8Writer writer = new Utf8Writer(outputStream, 4);
+    writer.writeAscii("abcdefg");
+    writer.writeBytes("\"ä\":".getBytes("UTF-8"));
+    writer.append('h');
+    writer.flush();
+    assertArrayEquals("abcdefg\"ä\":h".getBytes("UTF-8"), outputStream.toByteArray());
+  }
+
+  private void assertSameBytes(final String... parts) throws Exception {
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    Writer expectedWriter = new OutputStreamWriter(expected, "UTF-8");
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    Writer actualWriter = new Utf8Writer(actual, 16);
+    for (final String part : parts) {
+      expectedWriter.write(part);
+      actualWriter.write(part);
+    }
+    expectedWriter.close();
+    actualWriter.close();
+    assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+  }
+}
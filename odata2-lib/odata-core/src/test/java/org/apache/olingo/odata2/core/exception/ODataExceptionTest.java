@@ -41,6 +41,7 @@ import org.apache.olingo.odata2.api.exception.ODataNotFoundException;
 import org.apache.olingo.odata2.api.exception.ODataNotImplementedException;
 import org.apache.olingo.odata2.api.exception.ODataPreconditionFailedException;
 import org.apache.olingo.odata2.api.exception.ODataPreconditionRequiredException;
+import org.apache.olingo.odata2.api.exception.ODataRequestEntityTooLargeException;
 import org.apache.olingo.odata2.api.exception.ODataServiceUnavailableException;
 import org.apache.olingo.odata2.api.exception.ODataUnsupportedMediaTypeException;
 import org.apache.olingo.odata2.api.uri.UriNotMatchingException;
@@ -120,6 +121,7 @@ public class ODataExceptionTest extends BaseTest {
     ODataMessageTextVerifier.TestClass(ODataNotAcceptableException.class);
     ODataMessageTextVerifier.TestClass(ODataPreconditionFailedException.class);
     ODataMessageTextVerifier.TestClass(ODataPreconditionRequiredException.class);
+    ODataMessageTextVerifier.TestClass(ODataRequestEntityTooLargeException.class);
     ODataMessageTextVerifier.TestClass(ODataServiceUnavailableException.class);
     ODataMessageTextVerifier.TestClass(ODataUnsupportedMediaTypeException.class);
     ODataMessageTextVerifier.TestClass(ODataNotImplementedException.class);
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import javax.servlet.ServletContextEvent;
+
+import org.apache.olingo.odata2.api.ODataMetricsRegistry;
+import org.apache.olingo.odata2.api.ODataMetricsRegistry.Phase;
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataStreamingOutput;
+import org.apache.olingo.odata2.core.rest.app.ODataMetricsListener;
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.junit.Test;
+
+/**
+ * Tests for the request metrics.
+ */
+public class ODataMetricsTest extends BaseTest {
+
+  @Test
+  public void stripedCounter() throws Exception {
+    final StripedCounter counter = new StripedCounter();
+    final CountDownLatch done = new CountDownLatch(4);
+    for (int i = 0; i < 4; i++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            counter.increment();
+          }
+          counter.add(10);
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    assertEquals(4040, counter.sum());
+    counter.reset();
+    assertEquals(0, counter.sum());
+  }
+
+  @Test
+  public void histogram() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getStatistics().getCount());
+
+    for (int i = 0; i < 98; i++) {
+      histogram.record(1500000); // 1.5 ms
+    }
+    histogram.record(100000000); // 100 ms
+    histogram.record(-1);
+
+    final LatencyStatistics statistics = histogram.getStatistics();
+    assertEquals(100, statistics.getCount());
+    assertEquals((98 * 1500000L + 100000000L) / 100 / 1000, statistics.getMean());
+    // Percentiles are the upper bounds of their buckets.
+    assertEquals((1L << 21) / 1000, statistics.getMedian());
+    assertEquals((1L << 21) / 1000, statistics.getPercentile90());
+    assertEquals((1L << 21) / 1000, statistics.getPercentile99());
+
+    histogram.record(100000000);
+    assertEquals((1L << 27) / 1000, histogram.getStatistics().getPercentile99());
+
+    histogram.reset();
+    assertEquals(0, histogram.getStatistics().getCount());
+  }
+
+  @Test
+  public void buckets() {
+    assertEquals(0, LatencyHistogram.bucket(0));
+    assertEquals(1, LatencyHistogram.bucket(1));
+    assertEquals(2, LatencyHistogram.bucket(2));
+    assertEquals(2, LatencyHistogram.bucket(3));
+    assertEquals(11, LatencyHistogram.bucket(1024));
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void registry() {
+    final ODataMetrics metrics = new ODataMetrics();
+    metrics.recordRequest("URI1", "Employees", 200, 2000000, 6);
+    metrics.recordRequest("URI1", "Rooms", 200, 1000000, 10);
+    metrics.recordRequest("URI2", "Employees", 404, 500000, 0);
+    metrics.recordRequest(null, null, 400, 100000, 0);
+    metrics.recordPhase("URI1", "Employees", Phase.SERIALIZATION, 300000);
+    metrics.recordBytes("URI1", "Employees", 4096);
+    metrics.recordBytes(null, null, 100);
+
+    assertEquals(4, metrics.getRequestCount());
+    assertEquals(2, metrics.getErrorCount());
+    assertEquals(16, metrics.getRowCount());
+    assertEquals(4196, metrics.getByteCount());
+    assertEquals(2, metrics.getLatencyByUriType().get("URI1").getCount());
+    assertEquals(1, metrics.getLatencyByUriType().get("(none)").getCount());
+    assertEquals(2, metrics.getLatencyByEntitySet().get("Employees").getCount());
+    assertEquals(1, metrics.getLatencyByPhase().get(Phase.SERIALIZATION.name()).getCount());
+    assertEquals(0, metrics.getLatencyByPhase().get(Phase.URI_PARSING.name()).getCount());
+    assertEquals(1, metrics.getPhaseLatencyByUriType().get("URI1").get(Phase.SERIALIZATION.name()).getCount());
+    assertEquals(0, metrics.getPhaseLatencyByUriType().get("URI1").get(Phase.PROCESSOR.name()).getCount());
+    assertNull(metrics.getPhaseLatencyByUriType().get("URI2"));
+    assertEquals(1,
+        metrics.getPhaseLatencyByEntitySet().get("Employees").get(Phase.SERIALIZATION.name()).getCount());
+    assertEquals(Long.valueOf(6), metrics.getRowsByEntitySet().get("Employees"));
+    assertEquals(Long.valueOf(4096), metrics.getBytesByEntitySet().get("Employees"));
+
+    metrics.reset();
+    assertEquals(0, metrics.getRequestCount());
+    assertTrue(metrics.getLatencyByUriType().isEmpty());
+    assertTrue(metrics.getPhaseLatencyByUriType().isEmpty());
+  }
+
+  @Test
+  public void jmx() throws Exception {
+    final MBeanServer server = MBeanServerFactory.newMBeanServer();
+    final ODataMetrics metrics = new ODataMetrics();
+    metrics.recordRequest("URI1", "Employees", 200, 2000000, 6);
+    final ObjectName name = metrics.register(server);
+    assertEquals(new ObjectName(ODataMetrics.OBJECT_NAME), name);
+    assertEquals(new ObjectName(ODataMetrics.OBJECT_NAME + ",instance=2"), new ODataMetrics().register(server));
+
+    assertEquals(1L, server.getAttribute(name, "RequestCount"));
+    final TabularData latency = (TabularData) server.getAttribute(name, "LatencyByUriType");
+    final CompositeData row = latency.get(new Object[] { "URI1" });
+    assertEquals(1L, ((CompositeData) row.get("value")).get("count"));
+    assertTrue(server.getAttribute(name, "PhaseLatencyByUriType") instanceof TabularData);
+
+    server.invoke(name, "reset", null, null);
+    assertEquals(0L, server.getAttribute(name, "RequestCount"));
+  }
+
+  @Test
+  public void request() throws Exception {
+    final ODataMetricsRegistry registry = mock(ODataMetricsRegistry.class);
+    final ODataServiceFactory serviceFactory = mockServiceFactory(registry);
+
+    final RequestMetrics metrics = RequestMetrics.start(serviceFactory);
+    metrics.uriParsed(System.nanoTime());
+    final long started = System.nanoTime();
+    RequestMetrics.serialized(System.nanoTime(), 3);
+    metrics.processed(started);
+    final ODataResponse response = metrics.stop(null,
+        ODataResponse.status(HttpStatusCodes.OK).entity("\u00E4\u20AC\uD83D\uDE00").build());
+
+    verify(registry).recordRequest(eq((String) null), eq((String) null), eq(200), anyLong(), eq(3L));
+    verify(registry).recordPhase(eq((String) null), eq((String) null), eq(Phase.SERIALIZATION), anyLong());
+    verify(registry).recordPhase(eq((String) null), eq((String) null), eq(Phase.PROCESSOR), anyLong());
+    verify(registry).recordBytes(null, null, 2 + 3 + 4);
+    assertEquals("\u00E4\u20AC\uD83D\uDE00", response.getEntity());
+
+    // Without a running request, serialization is not recorded anywhere.
+    RequestMetrics.serialized(System.nanoTime(), 1);
+  }
+
+  @Test
+  public void nestedRequests() throws Exception {
+    final List<Long> rows = new ArrayList<Long>();
+    final ODataMetricsRegistry registry = new ODataMetrics() {
+      @Override
+      public void recordRequest(final String uriType, final String entitySetName, final int statusCode,
+          final long nanos, final long rowCount) {
+        rows.add(rowCount);
+      }
+    };
+    final ODataServiceFactory serviceFactory = mockServiceFactory(registry);
+    final ODataResponse response = ODataResponse.status(HttpStatusCodes.OK).build();
+
+    final RequestMetrics batch = RequestMetrics.start(serviceFactory);
+    RequestMetrics.serialized(System.nanoTime(), 1);
+    final RequestMetrics part = RequestMetrics.start(serviceFactory);
+    RequestMetrics.serialized(System.nanoTime(), 5);
+    part.stop(null, response);
+    RequestMetrics.serialized(System.nanoTime(), 2);
+    batch.stop(null, response);
+
+    assertEquals(2, rows.size());
+    assertEquals(Long.valueOf(5), rows.get(0));
+    assertEquals(Long.valueOf(3), rows.get(1));
+  }
+
+  @Test
+  public void meteredInputStream() throws Exception {
+    final ODataMetricsRegistry registry = mock(ODataMetricsRegistry.class);
+    final InputStream content = new ByteArrayInputStream(new byte[1000]);
+    final ODataResponse response = RequestMetrics.start(mockServiceFactory(registry))
+        .stop(null, ODataResponse.status(HttpStatusCodes.OK).entity(content).build());
+
+    final InputStream entity = (InputStream) response.getEntity();
+    assertEquals(0, entity.read());
+    assertEquals(999, entity.read(new byte[2000]));
+    assertEquals(-1, entity.read(new byte[2000]));
+    entity.close();
+    verify(registry).recordBytes(null, null, 1000);
+  }
+
+  @Test
+  public void meteredStreamingOutput() throws Exception {
+    final ODataMetricsRegistry registry = mock(ODataMetricsRegistry.class);
+    final ODataStreamingOutput content = new ODataStreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        output.write(new byte[100]);
+        output.write(1);
+      }
+    };
+    final ODataResponse response = RequestMetrics.start(mockServiceFactory(registry))
+        .stop(null, ODataResponse.status(HttpStatusCodes.OK).entity(content).build());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((ODataStreamingOutput) response.getEntity()).write(output);
+    assertEquals(101, output.size());
+    verify(registry).recordBytes(null, null, 101);
+  }
+
+  @Test
+  public void streamedRequestIsRecordedAfterWriting() throws Exception {
+    final ODataMetricsRegistry registry = mock(ODataMetricsRegistry.class);
+    final List<String> data = Arrays.asList("a", "b", "c");
+    final Iterator<String> rows = RequestMetrics.countRows(data.iterator());
+    final ODataStreamingOutput content = new ODataStreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        while (rows.hasNext()) {
+          output.write(rows.next().getBytes("UTF-8"));
+        }
+      }
+    };
+    final ODataResponse response = RequestMetrics.start(mockServiceFactory(registry))
+        .stop(null, ODataResponse.status(HttpStatusCodes.OK).entity(content).build());
+    verify(registry, never()).recordRequest(anyString(), anyString(), anyInt(), anyLong(), anyLong());
+
+    ((ODataStreamingOutput) response.getEntity()).write(new ByteArrayOutputStream());
+    verify(registry).recordRequest(eq((String) null), eq((String) null), eq(200), anyLong(), eq(3L));
+    verify(registry).recordPhase(eq((String) null), eq((String) null), eq(Phase.SERIALIZATION), anyLong());
+    verify(registry).recordBytes(null, null, 3);
+
+    // A second write is not recorded again.
+    ((ODataStreamingOutput) response.getEntity()).write(new ByteArrayOutputStream());
+    verify(registry).recordBytes(null, null, 3);
+  }
+
+  @Test
+  public void defaultRegistry() {
+    assertSame(ODataMetrics.getDefault(), ODataMetrics.getDefault());
+  }
+
+  @Test
+  public void defaultRegistration() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName pattern = new ObjectName(ODataMetrics.OBJECT_NAME + ",*");
+    final int registered = server.queryNames(pattern, null).size();
+
+    ODataMetrics.registerDefault();
+    ODataMetrics.registerDefault();
+    assertEquals(registered + 1, server.queryNames(pattern, null).size());
+    ODataMetrics.unregisterDefault();
+    assertEquals(registered + 1, server.queryNames(pattern, null).size());
+    ODataMetrics.unregisterDefault();
+    assertEquals(registered, server.queryNames(pattern, null).size());
+    ODataMetrics.unregisterDefault();
+    assertEquals(registered, server.queryNames(pattern, null).size());
+  }
+
+  @Test
+  public void registrationWithJaxRs() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName pattern = new ObjectName(ODataMetrics.OBJECT_NAME + ",*");
+    final int registered = server.queryNames(pattern, null).size();
+    final ODataMetricsListener listener = new ODataMetricsListener();
+    final ServletContextEvent event = mock(ServletContextEvent.class);
+
+    listener.contextInitialized(event);
+    assertEquals(registered + 1, server.queryNames(pattern, null).size());
+    listener.contextDestroyed(event);
+    assertEquals(registered, server.queryNames(pattern, null).size());
+  }
+
+  private ODataServiceFactory mockServiceFactory(final ODataMetricsRegistry registry) {
+    ODataServiceFactory serviceFactory = mock(ODataServiceFactory.class);
+    when(serviceFactory.<ODataMetricsRegistry> getCallback(ODataMetricsRegistry.class)).thenReturn(registry);
+    return serviceFactory;
+  }
+}
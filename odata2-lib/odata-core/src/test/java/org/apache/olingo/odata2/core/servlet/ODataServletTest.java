@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.olingo.odata2.api.ODataService;
+import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.commons.HttpHeaders;
+import org.apache.olingo.odata2.api.processor.ODataContext;
+import org.apache.olingo.odata2.core.exception.ODataRuntimeException;
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.apache.olingo.odata2.testutil.helper.StringHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the resolution of the service factory in the {@link ODataServlet}.
+ */
+public class ODataServletTest extends BaseTest {
+
+  private static int factoryInstances;
+
+  public static class CountingServiceFactory extends ODataServiceFactory {
+    public CountingServiceFactory() {
+      factoryInstances++;
+    }
+
+    @Override
+    public ODataService createService(final ODataContext ctx) {
+      return null;
+    }
+  }
+
+  @Before
+  public void resetCounter() {
+    factoryInstances = 0;
+  }
+
+  public static class ThreadSafeServiceFactory extends CountingServiceFactory {
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+  }
+
+  @Test
+  public void factoryPerRequest() throws Exception {
+    ODataServlet servlet = createServlet(CountingServiceFactory.class, null, null);
+    assertEquals(0, factoryInstances);
+    servlet.service(mockRequest(null), mock(HttpServletResponse.class));
+    servlet.service(mockRequest(null), mock(HttpServletResponse.class));
+    assertEquals(2, factoryInstances);
+  }
+
+  @Test
+  public void threadSafeFactoryCreatedOnce() throws Exception {
+    ODataServlet servlet = createServlet(ThreadSafeServiceFactory.class, null, null);
+    assertEquals(0, factoryInstances);
+    servlet.service(mockRequest(null), mock(HttpServletResponse.class));
+    servlet.service(mockRequest(null), mock(HttpServletResponse.class));
+    assertEquals(1, factoryInstances);
+  }
+
+  @Test
+  public void threadSafeFactoryPerClassLoader() throws Exception {
+    ODataServlet servlet = createServlet(ThreadSafeServiceFactory.class, null, null);
+    final ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    servlet.service(mockRequest(null), mock(HttpServletResponse.class));
+    servlet.service(mockRequest(classLoader), mock(HttpServletResponse.class));
+    servlet.service(mockRequest(classLoader), mock(HttpServletResponse.class));
+    assertEquals(2, factoryInstances);
+  }
+
+  @Test
+  public void pathSplit() throws Exception {
+    createServlet(" 2 ");
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void invalidPathSplit() throws Exception {
+    createServlet("two");
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void negativePathSplit() throws Exception {
+    createServlet("-1");
+  }
+
+  @Test
+  public void compressedResponse() throws Exception {
+    ODataServlet servlet = createServlet(CountingServiceFactory.class, null, "0");
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    final ByteArrayOutputStream body = mockOutputStream(response);
+    servlet.service(mockHeadRequest("deflate;q=0.5, gzip"), response);
+
+    verify(response).setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    verify(response).setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    final String content = StringHelper.inputStreamToString(
+        new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())));
+    assertTrue(content.contains("<error"));
+  }
+
+  @Test
+  public void uncompressedResponseBelowThreshold() throws Exception {
+    ODataServlet servlet = createServlet(CountingServiceFactory.class, null, "100000");
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    final ByteArrayOutputStream body = mockOutputStream(response);
+    servlet.service(mockHeadRequest("gzip"), response);
+
+    verify(response, never()).setHeader(eq(HttpHeaders.CONTENT_ENCODING), anyString());
+    verify(response).setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    assertTrue(body.toString("UTF-8").contains("<error"));
+  }
+
+  @Test
+  public void uncompressedResponseWithoutConfiguration() throws Exception {
+    ODataServlet servlet = createServlet(CountingServiceFactory.class, null, null);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    final ByteArrayOutputStream body = mockOutputStream(response);
+    servlet.service(mockHeadRequest("gzip"), response);
+
+    verify(response, never()).setHeader(eq(HttpHeaders.CONTENT_ENCODING), anyString());
+    verify(response, never()).setHeader(eq(HttpHeaders.VARY), anyString());
+    assertTrue(body.toString("UTF-8").contains("<error"));
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void invalidCompressionThreshold() throws Exception {
+    createServlet(CountingServiceFactory.class, null, "all");
+  }
+
+  private ODataServlet createServlet(final String pathSplit) throws Exception {
+    return createServlet(CountingServiceFactory.class, pathSplit, null);
+  }
+
+  private ODataServlet createServlet(final Class<?> factoryClass, final String pathSplit,
+      final String compressionThreshold) throws Exception {
+    ServletConfig config = mock(ServletConfig.class);
+    when(config.getInitParameter(ODataServiceFactory.FACTORY_LABEL)).thenReturn(factoryClass.getName());
+    when(config.getInitParameter(ODataServiceFactory.PATH_SPLIT_LABEL)).thenReturn(pathSplit);
+    when(config.getInitParameter(ODataServiceFactory.COMPRESSION_THRESHOLD_LABEL)).thenReturn(compressionThreshold);
+    ODataServlet servlet = new ODataServlet();
+    servlet.init(config);
+    return servlet;
+  }
+
+  private HttpServletRequest mockRequest(final ClassLoader classLoader) {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getAttribute(ODataServiceFactory.FACTORY_CLASSLOADER_LABEL)).thenReturn(classLoader);
+    return request;
+  }
+
+  /** HEAD requests are answered with an error response from the servlet itself. */
+  @SuppressWarnings("unchecked")
+  private HttpServletRequest mockHeadRequest(final String acceptEncoding) {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getMethod()).thenReturn("HEAD");
+    when(request.getPathInfo()).thenReturn("/");
+    when(request.getRequestURI()).thenReturn("/service/");
+    when(request.getHeaderNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
+    when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn(acceptEncoding);
+    return request;
+  }
+
+  private ByteArrayOutputStream mockOutputStream(final HttpServletResponse response) throws IOException {
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        body.write(b);
+      }
+    });
+    return body;
+  }
+}
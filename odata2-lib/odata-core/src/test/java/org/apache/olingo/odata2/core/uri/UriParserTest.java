@@ -20,7 +20,9 @@ package org.apache.olingo.odata2.core.uri;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
@@ -48,8 +50,12 @@ import org.apache.olingo.odata2.api.uri.PathSegment;
 import org.apache.olingo.odata2.api.uri.UriInfo;
 import org.apache.olingo.odata2.api.uri.UriNotMatchingException;
 import org.apache.olingo.odata2.api.uri.UriSyntaxException;
+import org.apache.olingo.odata2.api.uri.expression.BinaryExpression;
 import org.apache.olingo.odata2.core.ODataPathSegmentImpl;
+import org.apache.olingo.odata2.core.edm.provider.EdmImplProv;
+import org.apache.olingo.odata2.core.uri.expression.ExpressionCache;
 import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.apache.olingo.odata2.testutil.mock.EdmTestProvider;
 import org.apache.olingo.odata2.testutil.mock.MockFacade;
 import org.junit.Before;
 import org.junit.Test;
@@ -692,6 +698,39 @@ public class UriParserTest extends BaseTest {
     assertEquals("EmployeeName desc", result.getOrderBy().getUriLiteral());
   }
 
+  @Test
+  public void filterAndOrderByAreCached() throws Exception {
+    edm = new EdmImplProv(new EdmTestProvider());
+    UriInfoImpl first = parse("Employees?$filter=Age%20lt%2099&$orderby=Age,EmployeeName%20desc");
+    UriInfoImpl second = parse("Employees?$filter=Age%20lt%2099&$orderby=Age,EmployeeName%20desc");
+    assertSame(first.getFilter(), second.getFilter());
+    assertSame(first.getOrderBy(), second.getOrderBy());
+    final ExpressionCache cache = ExpressionCache.getCache(first.getTargetEntitySet().getEntityType());
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.getHitCount());
+
+    UriInfoImpl other = parse("Employees?$filter=Age%20lt%2098");
+    assertNotSame(first.getFilter(), other.getFilter());
+    assertEquals("Age lt 98", other.getFilter().getExpressionString());
+
+    try {
+      ((BinaryExpression) first.getFilter().getExpression()).getLeftOperand().setEdmType(null);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertNotNull(e.getMessage());
+    }
+  }
+
+  @Test
+  public void filterNotCachedForOtherEdm() throws Exception {
+    assertNull(ExpressionCache.getCache(edm.getDefaultEntityContainer().getEntitySet("Employees").getEntityType()));
+    UriInfoImpl first = parse("Employees?$filter=Age%20lt%2099");
+    UriInfoImpl second = parse("Employees?$filter=Age%20lt%2099");
+    assertNotSame(first.getFilter(), second.getFilter());
+    first.getFilter().setEdmType(null);
+  }
+
   @Test
   public void parseWrongSystemQueryOptions() throws Exception {
     parseWrongUri("Employees??", UriSyntaxException.URISYNTAX);
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.core.uri.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import org.apache.olingo.odata2.api.edm.EdmEntityType;
+import org.apache.olingo.odata2.api.uri.expression.FilterExpression;
+import org.apache.olingo.odata2.api.uri.expression.OrderByExpression;
+import org.apache.olingo.odata2.core.edm.provider.EdmImplProv;
+import org.apache.olingo.odata2.core.metrics.ODataMetrics;
+import org.apache.olingo.odata2.testutil.fit.BaseTest;
+import org.apache.olingo.odata2.testutil.mock.EdmTestProvider;
+import org.junit.Test;
+
+public class ExpressionCacheTest extends BaseTest {
+
+  @Test
+  public void hitsAndMisses() {
+    final ExpressionCache cache = new ExpressionCache(10);
+    final FilterExpression filter = mock(FilterExpression.class);
+    assertNull(cache.getFilter("a eq 1"));
+    cache.putFilter("a eq 1", filter);
+    assertSame(filter, cache.getFilter("a eq 1"));
+    assertNull(cache.getOrderBy("a eq 1"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+  }
+
+  @Test
+  public void leastRecentlyUsedIsEvicted() {
+    final ExpressionCache cache = new ExpressionCache(2);
+    final OrderByExpression first = mock(OrderByExpression.class);
+    final OrderByExpression third = mock(OrderByExpression.class);
+    cache.putOrderBy("a", first);
+    cache.putOrderBy("b", mock(OrderByExpression.class));
+    assertSame(first, cache.getOrderBy("a"));
+    cache.putOrderBy("c", third);
+    assertEquals(2, cache.size());
+    assertSame(first, cache.getOrderBy("a"));
+    assertNull(cache.getOrderBy("b"));
+    assertSame(third, cache.getOrderBy("c"));
+  }
+
+  @Test
+  public void totalsArePublished() {
+    final ODataMetrics metrics = new ODataMetrics();
+    final long hits = metrics.getExpressionCacheHitCount();
+    final long misses = metrics.getExpressionCacheMissCount();
+    final ExpressionCache cache = new ExpressionCache(1);
+    cache.getFilter("a eq 1");
+    cache.putFilter("a eq 1", mock(FilterExpression.class));
+    cache.getFilter("a eq 1");
+    assertTrue(metrics.getExpressionCacheHitCount() >= hits + 1);
+    assertTrue(metrics.getExpressionCacheMissCount() >= misses + 1);
+  }
+
+  @Test
+  public void cachePerEntityType() throws Exception {
+    final EdmImplProv edm = new EdmImplProv(new EdmTestProvider());
+    final EdmEntityType employee = edm.getDefaultEntityContainer().getEntitySet("Employees").getEntityType();
+    final EdmEntityType room = edm.getDefaultEntityContainer().getEntitySet("Rooms").getEntityType();
+    assertNotNull(ExpressionCache.getCache(employee));
+    assertSame(ExpressionCache.getCache(employee), ExpressionCache.getCache(employee));
+    assertNotSame(ExpressionCache.getCache(employee), ExpressionCache.getCache(room));
+    assertNull(ExpressionCache.getCache(mock(EdmEntityType.class)));
+  }
+
+  @Test
+  public void configurableMaxSize() throws Exception {
+    final EdmEntityType employee = new EdmImplProv(new EdmTestProvider()).getDefaultEntityContainer()
+        .getEntitySet("Employees").getEntityType();
+    final int maxSize = ExpressionCache.getMaxSize();
+    try {
+      ExpressionCache.setMaxSize(1);
+      final ExpressionCache cache = ExpressionCache.getCache(employee);
+      cache.putFilter("a eq 1", mock(FilterExpression.class));
+      cache.putFilter("a eq 2", mock(FilterExpression.class));
+      assertEquals(1, cache.size());
+
+      ExpressionCache.setMaxSize(0);
+      assertNull(ExpressionCache.getCache(employee));
+    } finally {
+      ExpressionCache.setMaxSize(maxSize);
+    }
+    assertEquals(0, ExpressionCache.getCache(employee).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeMaxSize() {
+    ExpressionCache.setMaxSize(-1);
+  }
+
+  @Test
+  public void cachedExpressionsAreImmutable() throws Exception {
+    final EdmEntityType entityType = new EdmImplProv(new EdmTestProvider()).getDefaultEntityContainer()
+        .getEntitySet("Employees").getEntityType();
+    final FilterExpression filter =
+        new FilterParserImpl(entityType).parseFilterString("substringof('a', EmployeeName)");
+    filter.setEdmType(null);
+    new ExpressionCache(1).putFilter("substringof('a', EmployeeName)", filter);
+    try {
+      filter.setEdmType(null);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertNotNull(e.getMessage());
+    }
+    final MethodExpressionImpl method = (MethodExpressionImpl) filter.getExpression();
+    try {
+      method.appendParameter(method);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertEquals(2, method.getParameterCount());
+    }
+    try {
+      ((PropertyExpressionImpl) method.getParameters().get(1)).setEdmProperty(null);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertNotNull(method.getParameters().get(1).getEdmType());
+    }
+  }
+}
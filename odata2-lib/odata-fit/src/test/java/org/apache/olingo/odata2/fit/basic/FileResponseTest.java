@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ******************************************************************************/
+package org.apache.olingo.odata2.fit.basic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+
+import org.apache.http.HttpResponse;
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
+import org.apache.olingo.odata2.api.exception.ODataException;
+import org.apache.olingo.odata2.api.processor.ODataResponse;
+import org.apache.olingo.odata2.api.processor.ODataSingleProcessor;
+import org.apache.olingo.odata2.api.processor.part.MetadataProcessor;
+import org.apache.olingo.odata2.api.uri.info.GetMetadataUriInfo;
+import org.apache.olingo.odata2.testutil.server.ServletType;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests a response whose entity is a file input stream, as it is typical for media resources.
+ */
+public class FileResponseTest extends AbstractBasicTest {
+
+  private static final int SIZE = 100000;
+
+  private File file;
+  private byte[] content;
+
+  public FileResponseTest(final ServletType servletType) {
+    super(servletType);
+  }
+
+  @Override
+  protected ODataSingleProcessor createProcessor() throws ODataException {
+    content = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      content[i] = (byte) (i % 251);
+    }
+    try {
+      file = File.createTempFile("olingo", ".bin");
+      FileOutputStream output = new FileOutputStream(file);
+      output.write(content);
+      output.close();
+    } catch (final Exception e) {
+      throw new ODataException(e);
+    }
+
+    final ODataSingleProcessor processor = mock(ODataSingleProcessor.class);
+    when(((MetadataProcessor) processor).readMetadata(any(GetMetadataUriInfo.class), any(String.class)))
+        .thenAnswer(new Answer<ODataResponse>() {
+          @Override
+          public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+            final FileInputStream input = new FileInputStream(file);
+            // Only the remaining content of the file is sent.
+            input.skip(10);
+            return ODataResponse.entity(input).status(HttpStatusCodes.OK).build();
+          }
+        });
+    return processor;
+  }
+
+  @After
+  public void deleteFile() {
+    if (file != null) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void fileContent() throws Exception {
+    final HttpResponse response = executeGetRequest("$metadata");
+    assertEquals(HttpStatusCodes.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+
+    final InputStream body = response.getEntity().getContent();
+    ByteArrayOutputStream received = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int count;
+    while ((count = body.read(buffer)) != -1) {
+      received.write(buffer, 0, count);
+    }
+    final byte[] expected = new byte[SIZE - 10];
+    System.arraycopy(content, 10, expected, 0, expected.length);
+    assertArrayEquals(expected, received.toByteArray());
+  }
+}
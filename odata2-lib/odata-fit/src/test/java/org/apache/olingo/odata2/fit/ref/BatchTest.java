@@ -112,6 +112,16 @@ public class BatchTest extends AbstractRefTest {
     assertTrue(responseBody.contains("HTTP/1.1 404 Not Found"));
   }
 
+  @Test
+  public void testBinaryMediaResource() throws Exception {
+    final byte[] image = StringHelper.toStream(callUri("Employees('3')/$value").getEntity().getContent()).asArray();
+    HttpResponse response = execute("/media.batch", "batch_123");
+    final String responseBody = StringHelper.toStream(response.getEntity().getContent()).asString("ISO-8859-1");
+
+    assertTrue(responseBody.contains("Content-Length: " + image.length + "\r\n"));
+    assertTrue(responseBody.contains("\r\n\r\n" + new String(image, "ISO-8859-1") + "\r\n"));
+  }
+
   /**
    * Validate that given <code>content</code> contains all <code>values</code> in the given order.
    * 
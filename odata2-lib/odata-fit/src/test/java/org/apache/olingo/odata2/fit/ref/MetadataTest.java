@@ -19,10 +19,14 @@
 package org.apache.olingo.odata2.fit.ref;
 
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.olingo.odata2.api.commons.HttpContentType;
+import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
 import org.apache.olingo.odata2.testutil.server.ServletType;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +58,25 @@ public class MetadataTest extends AbstractRefXmlTest {
     badRequest("$metadata?$format=atom");
   }
 
+  @Test
+  public void metadataETag() throws Exception {
+    HttpResponse response = callUri("$metadata");
+    assertNotNull(response.getFirstHeader(HttpHeaders.ETAG));
+    final String eTag = response.getFirstHeader(HttpHeaders.ETAG).getValue();
+    assertEquals(payload, getBody(response));
+
+    response = callUri("$metadata");
+    checkEtag(response, eTag);
+    getBody(response);
+
+    response = callUri("$metadata", HttpHeaders.IF_NONE_MATCH, eTag, HttpStatusCodes.NOT_MODIFIED);
+    assertEquals(null, response.getEntity());
+
+    response = callUri("$metadata", HttpHeaders.IF_NONE_MATCH, "\"0\"");
+    checkEtag(response, eTag);
+    assertEquals(payload, getBody(response));
+  }
+
   @Test
   public void testGeneral() throws Exception {
     assertXpathExists("/edmx:Edmx[@Version='1.0']", payload);
@@ -20,6 +20,8 @@ package org.apache.olingo.odata2.fit.ref;
 
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
 
@@ -57,6 +59,23 @@ public class ServiceXmlTest extends AbstractRefXmlTest {
     notFound("invalid.svc");
   }
 
+  @Test
+  public void serviceDocumentETag() throws Exception {
+    // The entity tag is provided once the shared entity data model has served a document.
+    getBody(callUri(""));
+    HttpResponse response = callUri("");
+    assertNotNull(response.getFirstHeader(HttpHeaders.ETAG));
+    final String eTag = response.getFirstHeader(HttpHeaders.ETAG).getValue();
+    final String body = getBody(response);
+
+    response = callUri("", HttpHeaders.IF_NONE_MATCH, "W/" + eTag, HttpStatusCodes.NOT_MODIFIED);
+    assertEquals(null, response.getEntity());
+
+    response = callUri("", HttpHeaders.IF_NONE_MATCH, "\"0\"");
+    checkEtag(response, eTag);
+    assertEquals(body, getBody(response));
+  }
+
   @Test
   public void serviceDocumentDefault() throws Exception {
     final HttpResponse response = callUri("");
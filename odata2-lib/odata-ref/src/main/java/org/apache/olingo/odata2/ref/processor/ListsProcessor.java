@@ -30,8 +30,9 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.apache.olingo.odata2.api.ODataCallback;
+import org.apache.olingo.odata2.api.batch.AbstractBatchHandler;
 import org.apache.olingo.odata2.api.batch.BatchHandler;
-import org.apache.olingo.odata2.api.batch.BatchRequestPart;
+import org.apache.olingo.odata2.api.batch.BatchRequestPartIterator;
 import org.apache.olingo.odata2.api.batch.BatchResponsePart;
 import org.apache.olingo.odata2.api.commons.HttpContentType;
 import org.apache.olingo.odata2.api.commons.HttpStatusCodes;
@@ -1623,14 +1624,12 @@ public class ListsProcessor extends ODataSingleProcessor {
   public ODataResponse executeBatch(final BatchHandler handler, final String contentType, final InputStream content)
       throws ODataException {
     ODataResponse batchResponse;
-    List<BatchResponsePart> batchResponseParts = new ArrayList<BatchResponsePart>();
     PathInfo pathInfo = getContext().getPathInfo();
     EntityProviderBatchProperties batchProperties = EntityProviderBatchProperties.init().pathInfo(pathInfo).build();
-    List<BatchRequestPart> batchParts = EntityProvider.parseBatchRequest(contentType, content, batchProperties);
-    for (BatchRequestPart batchPart : batchParts) {
-      batchResponseParts.add(handler.handleBatchPart(batchPart));
-    }
-    batchResponse = EntityProvider.writeBatchResponse(batchResponseParts);
+    BatchRequestPartIterator batchParts =
+        EntityProvider.parseBatchRequestIncrementally(contentType, content, batchProperties);
+    List<BatchResponsePart> batchResponseParts = AbstractBatchHandler.handleBatchParts(handler, batchParts);
+    batchResponse = EntityProvider.writeStreamedBatchResponse(batchResponseParts);
     return batchResponse;
   }
 
@@ -22,8 +22,10 @@ import org.apache.olingo.odata2.api.ODataCallback;
 import org.apache.olingo.odata2.api.ODataDebugCallback;
 import org.apache.olingo.odata2.api.ODataService;
 import org.apache.olingo.odata2.api.ODataServiceFactory;
+import org.apache.olingo.odata2.api.edm.Edm;
 import org.apache.olingo.odata2.api.exception.ODataException;
 import org.apache.olingo.odata2.api.processor.ODataContext;
+import org.apache.olingo.odata2.api.rt.RuntimeDelegate;
 import org.apache.olingo.odata2.ref.edm.ScenarioEdmProvider;
 import org.apache.olingo.odata2.ref.model.DataContainer;
 
@@ -32,13 +34,15 @@ import org.apache.olingo.odata2.ref.model.DataContainer;
  */
 public class ScenarioServiceFactory extends ODataServiceFactory {
 
+  /** The metadata do not change, so one entity data model is shared by all requests. */
+  private static final Edm EDM = RuntimeDelegate.createEdm(new ScenarioEdmProvider());
+
   @Override
   public ODataService createService(final ODataContext context) throws ODataException {
     DataContainer dataContainer = new DataContainer();
     dataContainer.reset();
 
-    return createODataSingleProcessorService(
-        new ScenarioEdmProvider(),
+    return createODataSingleProcessorService(EDM,
         new ListsProcessor(new ScenarioDataSource(dataContainer)));
   }
 
@@ -50,6 +54,12 @@ public class ScenarioServiceFactory extends ODataServiceFactory {
             new ScenarioDebugCallback() : super.getCallback(callbackInterface));
   }
 
+  /** The factory keeps no state; every service gets its own data container. */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   private final class ScenarioDebugCallback implements ODataDebugCallback {
     @Override
     public boolean isDebugEnabled() {